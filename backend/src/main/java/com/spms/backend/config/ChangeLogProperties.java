@@ -0,0 +1,45 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Compaction and paging of the organization change log.
+ * <p>
+ * Entries older than {@code compactAfter} are dropped once a newer entry exists for the
+ * same entity; all entries older than {@code retention} are dropped, and consumers that
+ * fall further behind than that are told to resynchronize.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.change-log")
+public class ChangeLogProperties {
+    private Duration compactAfter = Duration.ofDays(1);
+    private Duration retention = Duration.ofDays(90);
+    private int maxPageSize = 1000;
+
+    public Duration getCompactAfter() {
+        return compactAfter;
+    }
+
+    public void setCompactAfter(Duration compactAfter) {
+        this.compactAfter = compactAfter;
+    }
+
+    public Duration getRetention() {
+        return retention;
+    }
+
+    public void setRetention(Duration retention) {
+        this.retention = retention;
+    }
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+}
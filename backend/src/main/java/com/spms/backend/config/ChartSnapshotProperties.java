@@ -0,0 +1,36 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Pre-encoded organization chart snapshots.
+ * <p>
+ * Snapshots of at least {@code gzipMinSize} bytes are kept gzip-compressed. Changes made
+ * on this node regenerate the snapshots right away; the time to live bounds how long
+ * changes made on other nodes can remain invisible here.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.chart-snapshot")
+public class ChartSnapshotProperties {
+    private int gzipMinSize = 1024;
+    private Duration timeToLive = Duration.ofMinutes(5);
+
+    public int getGzipMinSize() {
+        return gzipMinSize;
+    }
+
+    public void setGzipMinSize(int gzipMinSize) {
+        this.gzipMinSize = gzipMinSize;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+}
@@ -0,0 +1,45 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.util.unit.DataSize;
+
+/**
+ * Cache of form definitions and BPMN XML per key and version.
+ * <p>
+ * Payloads are kept compressed in direct buffers, outside the Java heap; {@code maxSize}
+ * bounds their compressed size and {@code maxEntries} their number. The least recently
+ * used payloads are dropped first. Direct buffers count against
+ * {@code -XX:MaxDirectMemorySize}, which must leave room for {@code maxSize}.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.definition-cache")
+public class DefinitionCacheProperties {
+    private boolean enabled = true;
+    private int maxEntries = 2000;
+    private DataSize maxSize = DataSize.ofMegabytes(64);
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    public DataSize getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(DataSize maxSize) {
+        this.maxSize = maxSize;
+    }
+}
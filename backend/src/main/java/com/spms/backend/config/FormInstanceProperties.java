@@ -0,0 +1,121 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Listing of form instances.
+ * <p>
+ * {@code maxPageSize} caps the number of instances a single page may ask for;
+ * {@code fetchSize} is the number of rows the database sends at a time while a listing
+ * is streamed, which bounds the memory a long listing holds. {@code maxIndexedFields}
+ * limits the fields per form that instances can be filtered on, since each one is a
+ * database index that every write to the form instances maintains. {@code validatorCacheSize}
+ * is the number of form versions whose compiled validation plans are kept.
+ * <p>
+ * Autosaved drafts are buffered in memory and written every {@code autosaveFlushInterval};
+ * at most {@code maxPendingDrafts} instances wait at a time, further drafts are written
+ * straight away. Every {@code snapshotInterval}-th revision of an instance's data is stored
+ * in full, the others as patches against the previous revision. {@code maxBatchSize} caps
+ * the number of instances created by one batch request.
+ * <p>
+ * An aggregation over form data holds one entry per group, at most
+ * {@code maxAggregationGroups}, and reads at most {@code maxAggregationPartitions} ID ranges
+ * in parallel; this is also the size of the thread pool shared by all aggregations.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.form-instance")
+public class FormInstanceProperties {
+    private int maxPageSize = 200;
+    private int fetchSize = 500;
+    private int maxIndexedFields = 20;
+    private int validatorCacheSize = 500;
+    private Duration autosaveFlushInterval = Duration.ofSeconds(5);
+    private int snapshotInterval = 20;
+    private int maxPendingDrafts = 10000;
+    private int maxBatchSize = 1000;
+    private int maxAggregationGroups = 10000;
+    private int maxAggregationPartitions = 4;
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+
+    public int getFetchSize() {
+        return fetchSize;
+    }
+
+    public void setFetchSize(int fetchSize) {
+        this.fetchSize = fetchSize;
+    }
+
+    public int getMaxIndexedFields() {
+        return maxIndexedFields;
+    }
+
+    public void setMaxIndexedFields(int maxIndexedFields) {
+        this.maxIndexedFields = maxIndexedFields;
+    }
+
+    public int getValidatorCacheSize() {
+        return validatorCacheSize;
+    }
+
+    public void setValidatorCacheSize(int validatorCacheSize) {
+        this.validatorCacheSize = validatorCacheSize;
+    }
+
+    public Duration getAutosaveFlushInterval() {
+        return autosaveFlushInterval;
+    }
+
+    public void setAutosaveFlushInterval(Duration autosaveFlushInterval) {
+        this.autosaveFlushInterval = autosaveFlushInterval;
+    }
+
+    public int getSnapshotInterval() {
+        return snapshotInterval;
+    }
+
+    public void setSnapshotInterval(int snapshotInterval) {
+        this.snapshotInterval = snapshotInterval;
+    }
+
+    public int getMaxPendingDrafts() {
+        return maxPendingDrafts;
+    }
+
+    public void setMaxPendingDrafts(int maxPendingDrafts) {
+        this.maxPendingDrafts = maxPendingDrafts;
+    }
+
+    public int getMaxBatchSize() {
+        return maxBatchSize;
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public int getMaxAggregationGroups() {
+        return maxAggregationGroups;
+    }
+
+    public void setMaxAggregationGroups(int maxAggregationGroups) {
+        this.maxAggregationGroups = maxAggregationGroups;
+    }
+
+    public int getMaxAggregationPartitions() {
+        return maxAggregationPartitions;
+    }
+
+    public void setMaxAggregationPartitions(int maxAggregationPartitions) {
+        this.maxAggregationPartitions = maxAggregationPartitions;
+    }
+}
@@ -0,0 +1,47 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * HTTP caching of versioned form and process representations.
+ * <p>
+ * "Latest" representations are cached by browsers for {@code latestMaxAge}; all others are
+ * revalidated on every use. The entity tags served are remembered for up to {@code maxEntries} resources, so matching conditional
+ * requests are answered without loading anything. Changes made on this node forget the
+ * remembered tags right away; {@code validatorTimeToLive} bounds how long changes made on
+ * other nodes can go unnoticed.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.http-cache")
+public class HttpCacheProperties {
+    private Duration latestMaxAge = Duration.ofSeconds(30);
+    private Duration validatorTimeToLive = Duration.ofMinutes(1);
+    private int maxEntries = 10000;
+
+    public Duration getLatestMaxAge() {
+        return latestMaxAge;
+    }
+
+    public void setLatestMaxAge(Duration latestMaxAge) {
+        this.latestMaxAge = latestMaxAge;
+    }
+
+    public Duration getValidatorTimeToLive() {
+        return validatorTimeToLive;
+    }
+
+    public void setValidatorTimeToLive(Duration validatorTimeToLive) {
+        this.validatorTimeToLive = validatorTimeToLive;
+    }
+
+    public int getMaxEntries() {
+        return maxEntries;
+    }
+
+    public void setMaxEntries(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+}
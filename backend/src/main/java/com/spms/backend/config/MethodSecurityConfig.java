@@ -0,0 +1,45 @@
+package com.spms.backend.config;
+
+import com.spms.backend.service.idm.PermissionService;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.expression.EvaluationContext;
+import org.springframework.expression.spel.support.StandardEvaluationContext;
+import org.springframework.security.access.expression.method.DefaultMethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionHandler;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
+import org.springframework.security.core.Authentication;
+
+import java.util.function.Supplier;
+
+/**
+ * Enables {@code @PreAuthorize} on controllers and services, with the permission checks of
+ * {@link SpmsSecurityExpressionRoot} available in every expression.
+ */
+@Configuration
+@EnableMethodSecurity
+public class MethodSecurityConfig {
+
+    // Static and lazy, so the method security infrastructure does not initialize the services early
+    @Bean
+    static MethodSecurityExpressionHandler methodSecurityExpressionHandler(ObjectProvider<PermissionService> permissionService,
+                                                                           ApplicationContext applicationContext) {
+        DefaultMethodSecurityExpressionHandler handler = new DefaultMethodSecurityExpressionHandler() {
+            @Override
+            public EvaluationContext createEvaluationContext(Supplier<Authentication> authentication, MethodInvocation invocation) {
+                StandardEvaluationContext context =
+                        (StandardEvaluationContext) super.createEvaluationContext(authentication, invocation);
+                MethodSecurityExpressionOperations delegate =
+                        (MethodSecurityExpressionOperations) context.getRootObject().getValue();
+                context.setRootObject(new SpmsSecurityExpressionRoot(delegate, permissionService.getObject()));
+                return context;
+            }
+        };
+        handler.setApplicationContext(applicationContext);
+        return handler;
+    }
+}
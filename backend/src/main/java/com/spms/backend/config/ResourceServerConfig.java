@@ -0,0 +1,107 @@
+package com.spms.backend.config;
+
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.jwk.source.JWKSourceBuilder;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import com.spms.backend.service.idm.PermissionService;
+import com.spms.backend.service.idm.UserCache;
+import com.spms.backend.service.idm.UserService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.config.http.SessionCreationPolicy;
+import org.springframework.security.oauth2.core.DelegatingOAuth2TokenValidator;
+import org.springframework.security.oauth2.jwt.JwtClaimNames;
+import org.springframework.security.oauth2.jwt.JwtClaimValidator;
+import org.springframework.security.oauth2.jwt.JwtDecoder;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusJwtDecoder;
+import org.springframework.security.web.SecurityFilterChain;
+import org.springframework.security.web.util.matcher.AndRequestMatcher;
+import org.springframework.security.web.util.matcher.AntPathRequestMatcher;
+import org.springframework.util.StringUtils;
+
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.util.List;
+
+/**
+ * Session-less bearer-token authentication for {@code /api/v1/**}.
+ * <p>
+ * Requests carrying an {@code Authorization: Bearer} header are authenticated from the token
+ * alone and never create or read an HTTP session, so any node can serve them. Requests
+ * without a bearer token fall through to the login-based chain in {@link SecurityConfig}.
+ * The mode is active when {@code spms.security.resource-server.jwk-set-uri} is set; the
+ * issuer and audience must then be configured as well.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spms.security.resource-server", name = "jwk-set-uri")
+public class ResourceServerConfig {
+
+    @Bean
+    @Order(1)
+    public SecurityFilterChain bearerTokenFilterChain(HttpSecurity http,
+                                                      JwtDecoder jwtDecoder,
+                                                      SpmsJwtAuthenticationConverter jwtAuthenticationConverter) throws Exception {
+        http
+                .securityMatcher(new AndRequestMatcher(
+                        new AntPathRequestMatcher("/api/v1/**"),
+                        request -> {
+                            String header = request.getHeader(HttpHeaders.AUTHORIZATION);
+                            return header != null && header.regionMatches(true, 0, "Bearer ", 0, 7);
+                        }))
+                .authorizeHttpRequests(authorize -> authorize.anyRequest().authenticated())
+                .sessionManagement(session -> session.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
+                .oauth2ResourceServer(oauth2 -> oauth2
+                        .jwt(jwt -> jwt
+                                .decoder(jwtDecoder)
+                                .jwtAuthenticationConverter(jwtAuthenticationConverter)))
+                .csrf(AbstractHttpConfigurer::disable);
+        return http.build();
+    }
+
+    @Bean
+    public SpmsJwtAuthenticationConverter spmsJwtAuthenticationConverter(UserCache userCache,
+                                                                         UserService userService,
+                                                                         PermissionService permissionService,
+                                                                         ResourceServerProperties properties) {
+        return new SpmsJwtAuthenticationConverter(userCache, userService, permissionService, properties);
+    }
+
+    /**
+     * JWT decoder that keeps the provider's signing keys in memory. Tokens are validated
+     * locally; the JWK set is only fetched again when the cache expires or a token is
+     * signed with an unknown key.
+     */
+    @Bean
+    public JwtDecoder jwtDecoder(ResourceServerProperties properties) throws MalformedURLException {
+        JWKSource<SecurityContext> jwkSource = JWKSourceBuilder
+                .create(new URL(properties.getJwkSetUri()))
+                .cache(properties.getJwkCacheTtl().toMillis(), properties.getJwkRefreshTimeout().toMillis())
+                .build();
+        DefaultJWTProcessor<SecurityContext> jwtProcessor = new DefaultJWTProcessor<>();
+        jwtProcessor.setJWSKeySelector(new JWSVerificationKeySelector<>(JWSAlgorithm.RS256, jwkSource));
+        // Claims are checked by the Spring Security validators below
+        jwtProcessor.setJWTClaimsSetVerifier((claims, context) -> {
+        });
+
+        // Any token signed by the realm would otherwise be accepted, including ones issued to other clients
+        if (!StringUtils.hasText(properties.getIssuerUri()) || !StringUtils.hasText(properties.getAudience())) {
+            throw new IllegalStateException(
+                    "spms.security.resource-server.issuer-uri and audience are required for bearer-token authentication");
+        }
+        String audience = properties.getAudience();
+        NimbusJwtDecoder decoder = new NimbusJwtDecoder(jwtProcessor);
+        decoder.setJwtValidator(new DelegatingOAuth2TokenValidator<>(
+                JwtValidators.createDefaultWithIssuer(properties.getIssuerUri()),
+                new JwtClaimValidator<List<String>>(JwtClaimNames.AUD, aud -> aud != null && aud.contains(audience))));
+        return decoder;
+    }
+}
@@ -0,0 +1,77 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Settings for bearer-token authentication of {@code /api/v1/**} requests.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.security.resource-server")
+public class ResourceServerProperties {
+    /**
+     * Client registration the token subjects belong to; matched against {@code User.provider}.
+     */
+    private String provider = "keycloak";
+    private String jwkSetUri;
+    /**
+     * Expected {@code iss} claim; required in bearer-token mode.
+     */
+    private String issuerUri;
+    /**
+     * Value the {@code aud} claim must contain; required in bearer-token mode.
+     */
+    private String audience;
+    private Duration jwkCacheTtl = Duration.ofMinutes(15);
+    private Duration jwkRefreshTimeout = Duration.ofSeconds(15);
+
+    public String getProvider() {
+        return provider;
+    }
+
+    public void setProvider(String provider) {
+        this.provider = provider;
+    }
+
+    public String getJwkSetUri() {
+        return jwkSetUri;
+    }
+
+    public void setJwkSetUri(String jwkSetUri) {
+        this.jwkSetUri = jwkSetUri;
+    }
+
+    public String getIssuerUri() {
+        return issuerUri;
+    }
+
+    public void setIssuerUri(String issuerUri) {
+        this.issuerUri = issuerUri;
+    }
+
+    public String getAudience() {
+        return audience;
+    }
+
+    public void setAudience(String audience) {
+        this.audience = audience;
+    }
+
+    public Duration getJwkCacheTtl() {
+        return jwkCacheTtl;
+    }
+
+    public void setJwkCacheTtl(Duration jwkCacheTtl) {
+        this.jwkCacheTtl = jwkCacheTtl;
+    }
+
+    public Duration getJwkRefreshTimeout() {
+        return jwkRefreshTimeout;
+    }
+
+    public void setJwkRefreshTimeout(Duration jwkRefreshTimeout) {
+        this.jwkRefreshTimeout = jwkRefreshTimeout;
+    }
+}
@@ -0,0 +1,57 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+/**
+ * Embedded full-text search index.
+ * <p>
+ * The index is kept in memory and saved below {@code directory}, so a restart can answer
+ * searches before the first full reindex has finished. Changes are queued for a single
+ * indexing thread; when more than {@code queueCapacity} are waiting, the backlog is
+ * dropped and replaced by a full reindex. A changed index is saved at most once per
+ * {@code flushInterval}. {@code maxPageSize} caps the page size of a single search.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.search")
+public class SearchProperties {
+    private Path directory = Path.of("data", "search-index");
+    private int queueCapacity = 10000;
+    private Duration flushInterval = Duration.ofSeconds(30);
+    private int maxPageSize = 100;
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    public void setDirectory(Path directory) {
+        this.directory = directory;
+    }
+
+    public int getQueueCapacity() {
+        return queueCapacity;
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public Duration getFlushInterval() {
+        return flushInterval;
+    }
+
+    public void setFlushInterval(Duration flushInterval) {
+        this.flushInterval = flushInterval;
+    }
+
+    public int getMaxPageSize() {
+        return maxPageSize;
+    }
+
+    public void setMaxPageSize(int maxPageSize) {
+        this.maxPageSize = maxPageSize;
+    }
+}
@@ -0,0 +1,94 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Sizing of the Hibernate second-level cache regions.
+ * <p>
+ * Each region holds at most {@code maxEntries} entries (least recently used are evicted
+ * first) for at most {@code timeToLive}. Regions without their own settings use the defaults.
+ * The time to live bounds how long changes made on other nodes can remain invisible here.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.second-level-cache")
+public class SecondLevelCacheProperties {
+    private boolean enabled = true;
+    private Region defaults = new Region(1000, Duration.ofMinutes(10));
+    private Map<String, Region> regions = new HashMap<>();
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public Region getDefaults() {
+        return defaults;
+    }
+
+    public void setDefaults(Region defaults) {
+        this.defaults = defaults;
+    }
+
+    public Map<String, Region> getRegions() {
+        return regions;
+    }
+
+    public void setRegions(Map<String, Region> regions) {
+        this.regions = regions;
+    }
+
+    /**
+     * @param regionName name of the cache region
+     * @return maximum number of entries of the region, falling back to the default
+     */
+    public int getMaxEntries(String regionName) {
+        Region region = regions.get(regionName);
+        return region != null && region.getMaxEntries() != null ? region.getMaxEntries() : defaults.getMaxEntries();
+    }
+
+    /**
+     * @param regionName name of the cache region
+     * @return entry lifetime of the region, falling back to the default
+     */
+    public Duration getTimeToLive(String regionName) {
+        Region region = regions.get(regionName);
+        return region != null && region.getTimeToLive() != null ? region.getTimeToLive() : defaults.getTimeToLive();
+    }
+
+    public static class Region {
+        private Integer maxEntries;
+        private Duration timeToLive;
+
+        public Region() {
+        }
+
+        public Region(Integer maxEntries, Duration timeToLive) {
+            this.maxEntries = maxEntries;
+            this.timeToLive = timeToLive;
+        }
+
+        public Integer getMaxEntries() {
+            return maxEntries;
+        }
+
+        public void setMaxEntries(Integer maxEntries) {
+            this.maxEntries = maxEntries;
+        }
+
+        public Duration getTimeToLive() {
+            return timeToLive;
+        }
+
+        public void setTimeToLive(Duration timeToLive) {
+            this.timeToLive = timeToLive;
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.spms.backend.config;
 
+import com.spms.backend.service.idm.PermissionService;
 import com.spms.backend.service.idm.UserService;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
@@ -7,6 +8,7 @@ import jakarta.servlet.http.HttpServletResponse;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.Order;
 import org.springframework.http.HttpStatus;
 import org.springframework.retry.support.RetryTemplate;
 import org.springframework.security.config.Customizer;
@@ -44,6 +46,9 @@ public class SecurityConfig {
     @Autowired
     private UserService userService;
 
+    @Autowired
+    private PermissionService permissionService;
+
     @Bean
     public RetryTemplate getRetryTemplate(){
         return  new RetryTemplate();
@@ -62,7 +67,11 @@ public class SecurityConfig {
         return source;
     }
 
+    /**
+     * Login-based chain; bearer-token API calls are handled first by {@link ResourceServerConfig}.
+     */
     @Bean
+    @Order(2)
     public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
         http
                 .authorizeHttpRequests(authorize -> authorize
@@ -118,12 +127,15 @@ public class SecurityConfig {
             }
             if(linkedUserInfo.isPresent()) {
                 //TODO: fetch user role
+                // Only identifiers go into the session; the user is resolved on demand through UserCache
                 SpmsOidcUser spmsOidcUser = new SpmsOidcUser(
                         oidcUser.getAuthorities(),
                         oidcUser.getIdToken(),
                         oidcUser.getUserInfo(),
                         IdTokenClaimNames.SUB,
-                        linkedUserInfo.get()
+                        linkedUserInfo.get().getId(),
+                        linkedUserInfo.get().getUsername(),
+                        permissionService.getVersion()
                 );
                 return spmsOidcUser;
             }
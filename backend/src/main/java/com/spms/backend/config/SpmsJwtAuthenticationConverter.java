@@ -0,0 +1,63 @@
+package com.spms.backend.config;
+
+import com.spms.backend.service.idm.PermissionService;
+import com.spms.backend.service.idm.UserCache;
+import com.spms.backend.service.idm.UserService;
+import com.spms.backend.service.model.idm.UserModel;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.oauth2.core.oidc.StandardClaimNames;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.InvalidBearerTokenException;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+
+import java.util.Optional;
+
+/**
+ * Maps a validated JWT to the SPMS user linked to its subject.
+ * <p>
+ * Subjects are resolved through the {@link UserCache}; a subject seen for the first time
+ * is linked by its {@code preferred_username}, the same way an interactive login does.
+ */
+public class SpmsJwtAuthenticationConverter implements Converter<Jwt, AbstractAuthenticationToken> {
+
+    private final UserCache userCache;
+
+    private final UserService userService;
+
+    private final PermissionService permissionService;
+
+    private final ResourceServerProperties properties;
+
+    private final JwtGrantedAuthoritiesConverter authoritiesConverter = new JwtGrantedAuthoritiesConverter();
+
+    public SpmsJwtAuthenticationConverter(UserCache userCache,
+                                          UserService userService,
+                                          PermissionService permissionService,
+                                          ResourceServerProperties properties) {
+        this.userCache = userCache;
+        this.userService = userService;
+        this.permissionService = permissionService;
+        this.properties = properties;
+    }
+
+    @Override
+    public AbstractAuthenticationToken convert(Jwt jwt) {
+        String provider = properties.getProvider();
+        Long userId = userCache.findUserId(provider, jwt.getSubject())
+                .or(() -> link(provider, jwt))
+                .orElseThrow(() -> new InvalidBearerTokenException("No SPMS user is linked to the token subject"));
+        String name = Optional.ofNullable(jwt.getClaimAsString(StandardClaimNames.PREFERRED_USERNAME))
+                .orElse(jwt.getSubject());
+        return new SpmsJwtAuthenticationToken(jwt, authoritiesConverter.convert(jwt), name, userId,
+                permissionService.getVersion());
+    }
+
+    private Optional<Long> link(String provider, Jwt jwt) {
+        String username = jwt.getClaimAsString(StandardClaimNames.PREFERRED_USERNAME);
+        if (username == null) {
+            return Optional.empty();
+        }
+        return userService.linkUserToProvider(provider, jwt.getSubject(), username).map(UserModel::getId);
+    }
+}
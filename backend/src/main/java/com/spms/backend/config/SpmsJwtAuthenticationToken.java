@@ -0,0 +1,42 @@
+package com.spms.backend.config;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Collection;
+
+/**
+ * Authentication of a bearer-token request, carrying only the ID of the resolved SPMS user.
+ * <p>
+ * The user itself is looked up through the user cache when needed, so nothing but the
+ * token has to travel with the request.
+ */
+public class SpmsJwtAuthenticationToken extends JwtAuthenticationToken implements SpmsPrincipal {
+
+    private final Long userId;
+
+    private final long permissionVersion;
+
+    public SpmsJwtAuthenticationToken(Jwt jwt, Collection<? extends GrantedAuthority> authorities,
+                                      String name, Long userId, long permissionVersion) {
+        super(jwt, authorities, name);
+        this.userId = userId;
+        this.permissionVersion = permissionVersion;
+    }
+
+    @Override
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String getUsername() {
+        return getName();
+    }
+
+    @Override
+    public long getPermissionVersion() {
+        return permissionVersion;
+    }
+}
@@ -1,6 +1,5 @@
 package com.spms.backend.config;
 
-import com.spms.backend.service.model.idm.UserModel;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.oauth2.core.oidc.OidcIdToken;
 import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
@@ -8,20 +7,39 @@ import org.springframework.security.oauth2.core.oidc.user.DefaultOidcUser;
 
 import java.util.Collection;
 
-public class SpmsOidcUser extends DefaultOidcUser {
+public class SpmsOidcUser extends DefaultOidcUser implements SpmsPrincipal {
 
-    private UserModel authenticatedUser;
+    private final Long userId;
+
+    private final String username;
+
+    private final long permissionVersion;
 
     public SpmsOidcUser(Collection<? extends GrantedAuthority> authorities,
                         OidcIdToken idToken, OidcUserInfo userInfo,
                         String nameAttributeKey,
-                        UserModel authenticatedUser
+                        Long userId,
+                        String username,
+                        long permissionVersion
                         ) {
         super(authorities, idToken, userInfo, nameAttributeKey);
-        this.authenticatedUser = authenticatedUser;
+        this.userId = userId;
+        this.username = username;
+        this.permissionVersion = permissionVersion;
+    }
+
+    @Override
+    public Long getUserId() {
+        return userId;
+    }
+
+    @Override
+    public String getUsername() {
+        return username;
     }
 
-    public UserModel getAuthenticatedUser() {
-        return authenticatedUser;
+    @Override
+    public long getPermissionVersion() {
+        return permissionVersion;
     }
 }
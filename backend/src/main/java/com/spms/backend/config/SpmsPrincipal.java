@@ -0,0 +1,26 @@
+package com.spms.backend.config;
+
+/**
+ * Minimal identity of the authenticated SPMS user, as kept in the security context.
+ * <p>
+ * Only identifiers are stored, so the principal stays small in HTTP sessions; the full
+ * user is resolved on demand through {@link com.spms.backend.service.idm.UserCache}.
+ */
+public interface SpmsPrincipal {
+
+    /**
+     * @return ID of the SPMS user
+     */
+    Long getUserId();
+
+    /**
+     * @return username of the SPMS user
+     */
+    String getUsername();
+
+    /**
+     * @return version of the effective permissions at the time of authentication,
+     * see {@link com.spms.backend.service.idm.PermissionService#getVersion()}
+     */
+    long getPermissionVersion();
+}
@@ -0,0 +1,160 @@
+package com.spms.backend.config;
+
+import com.spms.backend.service.idm.PermissionService;
+import org.springframework.security.access.expression.method.MethodSecurityExpressionOperations;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * Expression root of {@code @PreAuthorize} and friends, adding checks against the
+ * effective permissions of the SPMS user:
+ * <pre>
+ * &#64;PreAuthorize("hasPermission('user:read')")
+ * &#64;PreAuthorize("hasAllPermissions('user:read', 'user:write')")
+ * </pre>
+ * The user's permission set is looked up once per expression and checked with bitset
+ * operations. Authentications that are not linked to an SPMS user are checked against the
+ * names of their granted authorities instead. All standard expressions are delegated.
+ */
+public class SpmsSecurityExpressionRoot implements MethodSecurityExpressionOperations {
+
+    private final MethodSecurityExpressionOperations delegate;
+
+    private final PermissionService permissionService;
+
+    private BitSet granted;
+
+    public SpmsSecurityExpressionRoot(MethodSecurityExpressionOperations delegate, PermissionService permissionService) {
+        this.delegate = delegate;
+        this.permissionService = permissionService;
+    }
+
+    /**
+     * @param permission permission name
+     * @return whether the current user has the permission through any of their roles
+     */
+    public boolean hasPermission(String permission) {
+        return permissionService.hasPermission(granted(), permission);
+    }
+
+    /**
+     * @param permissions permission names
+     * @return whether the current user has every one of the permissions
+     */
+    public boolean hasAllPermissions(String... permissions) {
+        return permissionService.hasAllPermissions(granted(), permissionService.toBitSet(Arrays.asList(permissions)));
+    }
+
+    private BitSet granted() {
+        if (granted == null) {
+            Authentication authentication = getAuthentication();
+            // Bearer-token requests authenticate with the token itself, logins with the OIDC user
+            SpmsPrincipal principal = authentication instanceof SpmsPrincipal token ? token
+                    : authentication != null && authentication.getPrincipal() instanceof SpmsPrincipal user ? user
+                    : null;
+            if (principal != null) {
+                granted = permissionService.getUserPermissions(principal.getUserId());
+            } else if (authentication != null) {
+                granted = permissionService.toBitSet(authentication.getAuthorities().stream()
+                        .map(GrantedAuthority::getAuthority)
+                        .toList());
+            } else {
+                granted = new BitSet();
+            }
+        }
+        return granted;
+    }
+
+    @Override
+    public Authentication getAuthentication() {
+        return delegate.getAuthentication();
+    }
+
+    @Override
+    public boolean hasAuthority(String authority) {
+        return delegate.hasAuthority(authority);
+    }
+
+    @Override
+    public boolean hasAnyAuthority(String... authorities) {
+        return delegate.hasAnyAuthority(authorities);
+    }
+
+    @Override
+    public boolean hasRole(String role) {
+        return delegate.hasRole(role);
+    }
+
+    @Override
+    public boolean hasAnyRole(String... roles) {
+        return delegate.hasAnyRole(roles);
+    }
+
+    @Override
+    public boolean permitAll() {
+        return delegate.permitAll();
+    }
+
+    @Override
+    public boolean denyAll() {
+        return delegate.denyAll();
+    }
+
+    @Override
+    public boolean isAnonymous() {
+        return delegate.isAnonymous();
+    }
+
+    @Override
+    public boolean isAuthenticated() {
+        return delegate.isAuthenticated();
+    }
+
+    @Override
+    public boolean isRememberMe() {
+        return delegate.isRememberMe();
+    }
+
+    @Override
+    public boolean isFullyAuthenticated() {
+        return delegate.isFullyAuthenticated();
+    }
+
+    @Override
+    public boolean hasPermission(Object target, Object permission) {
+        return delegate.hasPermission(target, permission);
+    }
+
+    @Override
+    public boolean hasPermission(Object targetId, String targetType, Object permission) {
+        return delegate.hasPermission(targetId, targetType, permission);
+    }
+
+    @Override
+    public void setFilterObject(Object filterObject) {
+        delegate.setFilterObject(filterObject);
+    }
+
+    @Override
+    public Object getFilterObject() {
+        return delegate.getFilterObject();
+    }
+
+    @Override
+    public void setReturnObject(Object returnObject) {
+        delegate.setReturnObject(returnObject);
+    }
+
+    @Override
+    public Object getReturnObject() {
+        return delegate.getReturnObject();
+    }
+
+    @Override
+    public Object getThis() {
+        return delegate.getThis();
+    }
+}
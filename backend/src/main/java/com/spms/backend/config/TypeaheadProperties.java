@@ -0,0 +1,36 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * In-process typeahead index over users and departments.
+ * <p>
+ * Changes made on this node update the index right away; the refresh interval bounds how
+ * long changes made on other nodes can remain invisible here. {@code maxLimit} caps the
+ * number of hits a single lookup may ask for.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.typeahead")
+public class TypeaheadProperties {
+    private Duration refreshInterval = Duration.ofMinutes(10);
+    private int maxLimit = 50;
+
+    public Duration getRefreshInterval() {
+        return refreshInterval;
+    }
+
+    public void setRefreshInterval(Duration refreshInterval) {
+        this.refreshInterval = refreshInterval;
+    }
+
+    public int getMaxLimit() {
+        return maxLimit;
+    }
+
+    public void setMaxLimit(int maxLimit) {
+        this.maxLimit = maxLimit;
+    }
+}
@@ -0,0 +1,35 @@
+package com.spms.backend.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+
+/**
+ * Sizing of the per-node user cache used to resolve authenticated users.
+ * <p>
+ * Changes made on this node evict entries immediately; the time to live bounds how
+ * long changes made on other nodes can remain invisible here.
+ */
+@Component
+@ConfigurationProperties(prefix = "spms.user-cache")
+public class UserCacheProperties {
+    private int maxSize = 10000;
+    private Duration timeToLive = Duration.ofMinutes(1);
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public void setMaxSize(int maxSize) {
+        this.maxSize = maxSize;
+    }
+
+    public Duration getTimeToLive() {
+        return timeToLive;
+    }
+
+    public void setTimeToLive(Duration timeToLive) {
+        this.timeToLive = timeToLive;
+    }
+}
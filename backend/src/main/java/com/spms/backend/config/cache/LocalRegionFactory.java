@@ -0,0 +1,76 @@
+package com.spms.backend.config.cache;
+
+import com.spms.backend.config.SecondLevelCacheProperties;
+import org.hibernate.boot.spi.SessionFactoryOptions;
+import org.hibernate.cache.cfg.spi.DomainDataRegionBuildingContext;
+import org.hibernate.cache.cfg.spi.DomainDataRegionConfig;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.cache.spi.support.RegionFactoryTemplate;
+import org.hibernate.cache.spi.support.StorageAccess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Hibernate second-level cache provider keeping every region in local memory.
+ * <p>
+ * Regions are sized from {@link SecondLevelCacheProperties}; the update timestamps region
+ * used by the query cache is never bounded or expired, as Hibernate requires.
+ */
+public class LocalRegionFactory extends RegionFactoryTemplate {
+
+    private final SecondLevelCacheProperties properties;
+
+    private final Map<String, LocalStorageAccess> storages = new ConcurrentHashMap<>();
+
+    public LocalRegionFactory(SecondLevelCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    /**
+     * @return counters of every region built so far, ordered by region name
+     */
+    public List<RegionStatistics> getStatistics() {
+        return storages.values().stream()
+                .map(LocalStorageAccess::getStatistics)
+                .sorted(Comparator.comparing(RegionStatistics::region))
+                .toList();
+    }
+
+    @Override
+    protected void prepareForUse(SessionFactoryOptions settings, Map<String, Object> configValues) {
+        // Regions are created on demand while the session factory builds its cache access
+    }
+
+    @Override
+    protected void releaseFromUse() {
+        storages.values().forEach(LocalStorageAccess::release);
+        storages.clear();
+    }
+
+    @Override
+    protected DomainDataStorageAccess createDomainDataStorageAccess(DomainDataRegionConfig regionConfig,
+                                                                    DomainDataRegionBuildingContext buildingContext) {
+        return createStorage(regionConfig.getRegionName());
+    }
+
+    @Override
+    protected StorageAccess createQueryResultsRegionStorageAccess(String regionName,
+                                                                  SessionFactoryImplementor sessionFactory) {
+        return createStorage(regionName);
+    }
+
+    @Override
+    protected StorageAccess createTimestampsRegionStorageAccess(String regionName,
+                                                                SessionFactoryImplementor sessionFactory) {
+        return storages.computeIfAbsent(regionName, x -> new LocalStorageAccess(x, 0, null));
+    }
+
+    private LocalStorageAccess createStorage(String regionName) {
+        return storages.computeIfAbsent(regionName,
+                x -> new LocalStorageAccess(x, properties.getMaxEntries(x), properties.getTimeToLive(x)));
+    }
+}
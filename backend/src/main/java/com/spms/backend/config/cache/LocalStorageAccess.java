@@ -0,0 +1,173 @@
+package com.spms.backend.config.cache;
+
+import org.hibernate.cache.spi.access.SoftLock;
+import org.hibernate.cache.spi.support.DomainDataStorageAccess;
+import org.hibernate.engine.spi.SharedSessionContractImplementor;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory storage of one second-level cache region: an LRU map bounded in size, whose
+ * entries expire after a fixed time to live.
+ * <p>
+ * Hibernate's access strategies (soft locks, versions) are built on top of this storage;
+ * it only stores, expires and counts. Soft locks are kept apart from the LRU map and only
+ * expire with the time to live: evicting one would let a concurrent transaction cache the
+ * state it is about to overwrite.
+ */
+class LocalStorageAccess implements DomainDataStorageAccess {
+
+    private final String regionName;
+
+    private final int maxEntries;
+
+    private final long timeToLiveNanos;
+
+    private final Map<Object, Entry> entries;
+
+    // Guarded by entries, like the map itself
+    private final Map<Object, Entry> locks = new HashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder puts = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param regionName  name of the region
+     * @param maxEntries  maximum number of entries, {@code 0} or less for unbounded
+     * @param timeToLive  lifetime of an entry, {@code null} or zero for no expiry
+     */
+    LocalStorageAccess(String regionName, int maxEntries, Duration timeToLive) {
+        this.regionName = regionName;
+        this.maxEntries = maxEntries;
+        this.timeToLiveNanos = timeToLive == null ? 0 : timeToLive.toNanos();
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Object, Entry> eldest) {
+                if (LocalStorageAccess.this.maxEntries > 0 && size() > LocalStorageAccess.this.maxEntries) {
+                    evictions.increment();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    @Override
+    public Object getFromCache(Object key, SharedSessionContractImplementor session) {
+        Object value = get(key);
+        if (value == null) {
+            misses.increment();
+        } else {
+            hits.increment();
+        }
+        return value;
+    }
+
+    @Override
+    public void putIntoCache(Object key, Object value, SharedSessionContractImplementor session) {
+        long expiresAt = timeToLiveNanos > 0 ? System.nanoTime() + timeToLiveNanos : 0;
+        synchronized (entries) {
+            if (value instanceof SoftLock) {
+                entries.remove(key);
+                locks.put(key, new Entry(value, expiresAt));
+                if (maxEntries > 0 && locks.size() > maxEntries) {
+                    purgeExpiredLocks();
+                }
+            } else {
+                locks.remove(key);
+                entries.put(key, new Entry(value, expiresAt));
+            }
+        }
+        puts.increment();
+    }
+
+    @Override
+    public void removeFromCache(Object key, SharedSessionContractImplementor session) {
+        evictData(key);
+    }
+
+    @Override
+    public void clearCache(SharedSessionContractImplementor session) {
+        evictData();
+    }
+
+    @Override
+    public boolean contains(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public void evictData() {
+        synchronized (entries) {
+            entries.clear();
+            locks.clear();
+        }
+    }
+
+    @Override
+    public void evictData(Object key) {
+        synchronized (entries) {
+            entries.remove(key);
+            locks.remove(key);
+        }
+    }
+
+    @Override
+    public void release() {
+        evictData();
+    }
+
+    RegionStatistics getStatistics() {
+        int size;
+        synchronized (entries) {
+            size = entries.size() + locks.size();
+        }
+        return new RegionStatistics(regionName, size, maxEntries,
+                timeToLiveNanos > 0 ? Duration.ofNanos(timeToLiveNanos) : null,
+                hits.sum(), misses.sum(), puts.sum(), evictions.sum());
+    }
+
+    private Object get(Object key) {
+        synchronized (entries) {
+            Map<Object, Entry> map = locks.containsKey(key) ? locks : entries;
+            Entry entry = map.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (entry.isExpired(System.nanoTime())) {
+                map.remove(key);
+                evictions.increment();
+                return null;
+            }
+            return entry.value;
+        }
+    }
+
+    // Locks of keys that are never read again would otherwise stay until the region is cleared
+    private void purgeExpiredLocks() {
+        long now = System.nanoTime();
+        locks.values().removeIf(x -> {
+            if (x.isExpired(now)) {
+                evictions.increment();
+                return true;
+            }
+            return false;
+        });
+    }
+
+    private record Entry(Object value, long expiresAt) {
+
+        boolean isExpired(long now) {
+            return expiresAt != 0 && now - expiresAt > 0;
+        }
+    }
+}
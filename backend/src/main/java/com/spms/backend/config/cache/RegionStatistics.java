@@ -0,0 +1,27 @@
+package com.spms.backend.config.cache;
+
+import java.time.Duration;
+
+/**
+ * Counters of one second-level cache region since startup.
+ *
+ * @param region     region name
+ * @param size       current number of entries
+ * @param maxEntries configured maximum number of entries, {@code 0} for unbounded
+ * @param timeToLive configured lifetime of an entry, {@code null} for no expiry
+ * @param hits       lookups that found an entry
+ * @param misses     lookups that found nothing
+ * @param puts       entries stored
+ * @param evictions  entries dropped because the region was full or the entry expired
+ */
+public record RegionStatistics(String region, int size, int maxEntries, Duration timeToLive,
+                               long hits, long misses, long puts, long evictions) {
+
+    /**
+     * @return share of lookups that found an entry, 0 if there were none
+     */
+    public double getHitRatio() {
+        long lookups = hits + misses;
+        return lookups == 0 ? 0 : (double) hits / lookups;
+    }
+}
@@ -0,0 +1,35 @@
+package com.spms.backend.config.cache;
+
+import com.spms.backend.config.SecondLevelCacheProperties;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Enables the Hibernate second-level cache for the read-mostly IDM entities
+ * (companies, divisions, departments and roles, with their element collections).
+ * <p>
+ * The query cache stays off: bulk writes through {@code JdbcTemplate} do not update its
+ * timestamps, so cached query results could outlive the data. Entity entries changed by
+ * such writes are evicted by {@link SecondLevelCacheEvictionListener}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "spms.second-level-cache", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SecondLevelCacheConfig {
+
+    @Bean
+    public LocalRegionFactory localRegionFactory(SecondLevelCacheProperties properties) {
+        return new LocalRegionFactory(properties);
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(LocalRegionFactory regionFactory) {
+        return hibernateProperties -> {
+            hibernateProperties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            hibernateProperties.put(AvailableSettings.USE_QUERY_CACHE, false);
+            hibernateProperties.put(AvailableSettings.CACHE_REGION_FACTORY, regionFactory);
+        };
+    }
+}
@@ -0,0 +1,62 @@
+package com.spms.backend.config.cache;
+
+import com.spms.backend.repository.entities.idm.Company;
+import com.spms.backend.repository.entities.idm.Department;
+import com.spms.backend.repository.entities.idm.Division;
+import com.spms.backend.repository.entities.idm.Role;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+/**
+ * Evicts cached IDM entities after they were changed.
+ * <p>
+ * Changes made through the entity manager keep the cache up to date by themselves, but
+ * restructures, synchronizations and other batched writes go through {@code JdbcTemplate}
+ * and bypass it. Every change event therefore evicts the entity and its collections once
+ * the transaction has committed.
+ */
+@Component
+public class SecondLevelCacheEvictionListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    public SecondLevelCacheEvictionListener(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * Evicts the changed entity from the second-level cache.
+     *
+     * @param event the organization change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        Cache cache = entityManagerFactory.getCache().unwrap(Cache.class);
+        switch (event.getEntityType()) {
+            case COMPANY -> evict(cache, Company.class, event.getEntityId(), "languageTags", "companyProfiles");
+            case DIVISION -> evict(cache, Division.class, event.getEntityId());
+            case DEPARTMENT -> evict(cache, Department.class, event.getEntityId(), "tags");
+            case ROLE -> evict(cache, Role.class, event.getEntityId(), "permissions", "parentRoles");
+            default -> {
+                // Users and memberships are not cached
+            }
+        }
+    }
+
+    private static void evict(Cache cache, Class<?> entityClass, Long id, String... collections) {
+        if (id == null) {
+            cache.evictEntityData(entityClass);
+            for (String collection : collections) {
+                cache.evictCollectionData(entityClass.getName() + "." + collection);
+            }
+            return;
+        }
+        cache.evictEntityData(entityClass, id);
+        for (String collection : collections) {
+            cache.evictCollectionData(entityClass.getName() + "." + collection, id);
+        }
+    }
+}
@@ -0,0 +1,203 @@
+package com.spms.backend.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.backend.config.HttpCacheProperties;
+import com.spms.backend.service.process.event.ProcessCatalogChangedEvent;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * Conditional GET support for versioned form and process representations.
+ * <p>
+ * Responses carry a strong entity tag derived from the SHA-256 digest of the serialized body.
+ * The tag served for each resource is remembered, so a request whose {@code If-None-Match}
+ * names the current tag gets 304 before any service or database is consulted. Remembered
+ * tags are forgotten when the process catalog changes on this node; tags of representations
+ * that may still change also expire after a while.
+ */
+@Component
+public class ConditionalResponses {
+
+    // Leading bytes of the SHA-256 digest used as entity tag
+    private static final int HASH_BYTES = 16;
+
+    /**
+     * How long clients may use a representation without asking again.
+     */
+    public enum Freshness {
+        /**
+         * The representation may change; clients revalidate on every use.
+         */
+        REVALIDATE,
+        /**
+         * The representation follows a moving pointer such as "latest"; clients may use it briefly.
+         */
+        SHORT_LIVED
+    }
+
+    /**
+     * A representation to serve.
+     *
+     * @param body      object written as JSON
+     * @param freshness how long clients may use it
+     */
+    public record Representation(Object body, Freshness freshness) {
+    }
+
+    private final ObjectMapper objectMapper;
+
+    private final HttpCacheProperties properties;
+
+    private final Map<String, Tag> tags;
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    /**
+     * Constructs the conditional response support
+     *
+     * @param objectMapper Mapper used for the JSON, configured like the one of the web layer
+     * @param properties Cache lifetimes and size limit
+     */
+    public ConditionalResponses(ObjectMapper objectMapper, HttpCacheProperties properties) {
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+        this.tags = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Tag> eldest) {
+                return size() > properties.getMaxEntries();
+            }
+        };
+    }
+
+    /**
+     * Answers a GET of a resource, with 304 if the client has the current representation.
+     *
+     * @param resource    identifies the resource among all resources served this way
+     * @param ifNoneMatch value of the {@code If-None-Match} header, may be {@code null}
+     * @param loader      loads the representation; {@code null} if the resource does not exist
+     * @return the JSON representation, 304 without body, or 404
+     */
+    public ResponseEntity<byte[]> get(String resource, String ifNoneMatch, Supplier<Representation> loader) {
+        Tag tag = current(resource);
+        if (tag != null && matches(ifNoneMatch, tag.etag())) {
+            return notModified(tag);
+        }
+
+        long stamp = invalidations.get();
+        Representation representation = loader.get();
+        if (representation == null) {
+            return ResponseEntity.notFound().build();
+        }
+        byte[] body;
+        try {
+            body = objectMapper.writeValueAsBytes(representation.body());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Representation of " + resource + " could not be serialized", e);
+        }
+        tag = new Tag("\"" + HexFormat.of().formatHex(sha256(body), 0, HASH_BYTES) + "\"",
+                representation.freshness(), expiresAt(representation.freshness()));
+        synchronized (tags) {
+            // A change committed while loading may not be part of what was loaded
+            if (invalidations.get() == stamp) {
+                tags.put(resource, tag);
+            }
+        }
+        if (matches(ifNoneMatch, tag.etag())) {
+            return notModified(tag);
+        }
+        return ResponseEntity.ok()
+                .eTag(tag.etag())
+                .cacheControl(cacheControl(tag.freshness()))
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(body);
+    }
+
+    /**
+     * Forgets every remembered tag after a form or process change is committed.
+     *
+     * @param event the process catalog change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProcessCatalogChanged(ProcessCatalogChangedEvent event) {
+        synchronized (tags) {
+            invalidations.incrementAndGet();
+            tags.clear();
+        }
+    }
+
+    private Tag current(String resource) {
+        synchronized (tags) {
+            Tag tag = tags.get(resource);
+            if (tag != null && System.nanoTime() - tag.expiresAt() > 0) {
+                tags.remove(resource);
+                return null;
+            }
+            return tag;
+        }
+    }
+
+    private long expiresAt(Freshness freshness) {
+        return switch (freshness) {
+            case REVALIDATE -> System.nanoTime() + properties.getValidatorTimeToLive().toNanos();
+            case SHORT_LIVED -> System.nanoTime() + properties.getLatestMaxAge().toNanos();
+        };
+    }
+
+    private ResponseEntity<byte[]> notModified(Tag tag) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED)
+                .eTag(tag.etag())
+                .cacheControl(cacheControl(tag.freshness()))
+                .build();
+    }
+
+    private CacheControl cacheControl(Freshness freshness) {
+        // Representations are only served to signed-in users, so shared caches must not keep them
+        return switch (freshness) {
+            case REVALIDATE -> CacheControl.noCache().cachePrivate();
+            case SHORT_LIVED -> CacheControl.maxAge(properties.getLatestMaxAge()).cachePrivate().mustRevalidate();
+        };
+    }
+
+    /**
+     * Compares entity tags the weak way, as {@code If-None-Match} requires.
+     */
+    private static boolean matches(String ifNoneMatch, String etag) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String candidate : ifNoneMatch.split(",")) {
+            String value = candidate.trim();
+            if (value.startsWith("W/")) {
+                value = value.substring(2);
+            }
+            if (value.equals("*") || value.equals(etag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record Tag(String etag, Freshness freshness, long expiresAt) {
+    }
+}
@@ -0,0 +1,29 @@
+package com.spms.backend.controller.dto.idm;
+
+import com.spms.backend.service.model.idm.ChangeFeed;
+import com.spms.backend.service.model.idm.ChangeLogEntry;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class ChangeFeedResponseDTO {
+
+    private List<ChangeLogEntry> changes;
+    private long nextSince;
+    private long latestSequence;
+    private boolean hasMore;
+    private boolean resetRequired;
+
+    public static ChangeFeedResponseDTO fromModel(ChangeFeed feed) {
+        ChangeFeedResponseDTO dto = new ChangeFeedResponseDTO();
+        dto.setChanges(feed.changes());
+        dto.setNextSince(feed.nextSince());
+        dto.setLatestSequence(feed.latestSequence());
+        dto.setHasMore(feed.hasMore());
+        dto.setResetRequired(feed.resetRequired());
+        return dto;
+    }
+}
@@ -0,0 +1,23 @@
+package com.spms.backend.controller.dto.idm;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a bulk department membership change.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class MembershipChangeResponseDTO {
+
+    private Long departmentId;
+
+    /** Number of user IDs in the request */
+    private int requested;
+
+    /** Number of memberships actually added or removed */
+    private int affected;
+
+}
@@ -0,0 +1,45 @@
+package com.spms.backend.controller.dto.idm;
+
+import com.spms.backend.service.model.idm.ChartLevel;
+import com.spms.backend.service.model.idm.ChartNode;
+import com.spms.backend.service.model.idm.ChartNodeType;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Node of the lazily loaded organization chart. Only one level is filled: the children of
+ * a child are loaded with a separate request when it is expanded.
+ */
+@Getter
+@Setter
+public class OrganizationChartNodeDTO {
+    private String id;
+    private ChartNodeType nodeType;
+    private String name;
+    private String type;
+    private int childCount;
+    private long directMemberCount;
+    private long memberCount;
+    private List<OrganizationChartNodeDTO> children = new ArrayList<>();
+
+    public static OrganizationChartNodeDTO fromModel(ChartLevel level) {
+        OrganizationChartNodeDTO dto = fromModel(level.node());
+        level.children().forEach(x -> dto.getChildren().add(fromModel(x)));
+        return dto;
+    }
+
+    public static OrganizationChartNodeDTO fromModel(ChartNode node) {
+        OrganizationChartNodeDTO dto = new OrganizationChartNodeDTO();
+        dto.setId(node.id().toString());
+        dto.setNodeType(node.nodeType());
+        dto.setName(node.name());
+        dto.setType(node.type());
+        dto.setChildCount(node.directChildren());
+        dto.setDirectMemberCount(node.directMembers());
+        dto.setMemberCount(node.totalMembers());
+        return dto;
+    }
+}
@@ -0,0 +1,31 @@
+package com.spms.backend.controller.dto.idm;
+
+import com.spms.backend.service.model.idm.OrganizationSnapshot;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full organization snapshot exported by the HR system.
+ */
+@Data
+public class OrganizationSyncRequestDTO {
+
+    private List<OrganizationSnapshot.CompanyEntry> companies = new ArrayList<>();
+
+    private List<OrganizationSnapshot.DivisionEntry> divisions = new ArrayList<>();
+
+    private List<OrganizationSnapshot.DepartmentEntry> departments = new ArrayList<>();
+
+    private boolean deactivateMissing = true;
+
+    public OrganizationSnapshot toSnapshot() {
+        OrganizationSnapshot snapshot = new OrganizationSnapshot();
+        snapshot.setCompanies(companies);
+        snapshot.setDivisions(divisions);
+        snapshot.setDepartments(departments);
+        snapshot.setDeactivateMissing(deactivateMissing);
+        return snapshot;
+    }
+}
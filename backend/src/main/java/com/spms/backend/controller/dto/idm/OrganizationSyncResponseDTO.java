@@ -0,0 +1,32 @@
+package com.spms.backend.controller.dto.idm;
+
+import com.spms.backend.service.model.idm.OrganizationSyncResult;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class OrganizationSyncResponseDTO {
+
+    private OrganizationSyncResult.NodeChanges companies;
+    private OrganizationSyncResult.NodeChanges divisions;
+    private OrganizationSyncResult.NodeChanges departments;
+    private int membershipsAdded;
+    private int membershipsRemoved;
+    private List<String> warnings;
+    private List<String> errors;
+
+    public static OrganizationSyncResponseDTO fromModel(OrganizationSyncResult result) {
+        OrganizationSyncResponseDTO dto = new OrganizationSyncResponseDTO();
+        dto.setCompanies(result.companies());
+        dto.setDivisions(result.divisions());
+        dto.setDepartments(result.departments());
+        dto.setMembershipsAdded(result.membershipsAdded());
+        dto.setMembershipsRemoved(result.membershipsRemoved());
+        dto.setWarnings(result.warnings());
+        dto.setErrors(result.errors());
+        return dto;
+    }
+}
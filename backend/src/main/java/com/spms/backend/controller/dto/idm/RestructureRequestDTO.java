@@ -0,0 +1,25 @@
+package com.spms.backend.controller.dto.idm;
+
+import com.spms.backend.service.model.idm.RestructurePlan;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Company and department moves to apply in one transaction.
+ */
+@Data
+public class RestructureRequestDTO {
+
+    private List<RestructurePlan.CompanyMove> companies = new ArrayList<>();
+
+    private List<RestructurePlan.DepartmentMove> departments = new ArrayList<>();
+
+    public RestructurePlan toPlan() {
+        RestructurePlan plan = new RestructurePlan();
+        plan.setCompanies(companies);
+        plan.setDepartments(departments);
+        return plan;
+    }
+}
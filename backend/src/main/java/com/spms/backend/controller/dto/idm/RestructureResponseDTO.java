@@ -0,0 +1,24 @@
+package com.spms.backend.controller.dto.idm;
+
+import com.spms.backend.service.model.idm.RestructureResult;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class RestructureResponseDTO {
+
+    private int companiesMoved;
+    private int departmentsMoved;
+    private List<String> errors;
+
+    public static RestructureResponseDTO fromModel(RestructureResult result) {
+        RestructureResponseDTO dto = new RestructureResponseDTO();
+        dto.setCompaniesMoved(result.companiesMoved());
+        dto.setDepartmentsMoved(result.departmentsMoved());
+        dto.setErrors(result.errors());
+        return dto;
+    }
+}
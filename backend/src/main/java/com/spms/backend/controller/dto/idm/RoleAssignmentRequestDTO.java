@@ -0,0 +1,37 @@
+package com.spms.backend.controller.dto.idm;
+
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.service.model.idm.UserSelector;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Bulk role grant/revoke request. The roles apply to exactly one kind of target:
+ * explicit user IDs, a department (optionally with sub-departments) or a user search.
+ */
+@Data
+public class RoleAssignmentRequestDTO {
+
+    private List<Long> roleIds;
+
+    private List<Long> userIds;
+
+    private Long departmentId;
+
+    private boolean includeSubDepartments;
+
+    private String query;
+
+    private User.UserType type;
+
+    public UserSelector toUserSelector() {
+        UserSelector selector = new UserSelector();
+        selector.setUserIds(userIds);
+        selector.setDepartmentId(departmentId);
+        selector.setIncludeSubDepartments(includeSubDepartments);
+        selector.setQuery(query);
+        selector.setType(type);
+        return selector;
+    }
+}
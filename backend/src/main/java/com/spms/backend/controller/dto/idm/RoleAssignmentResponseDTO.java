@@ -0,0 +1,28 @@
+package com.spms.backend.controller.dto.idm;
+
+import com.spms.backend.service.model.idm.RoleAssignmentResult;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of a bulk role grant or revoke.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class RoleAssignmentResponseDTO {
+
+    /** Number of roles in the request */
+    private int roles;
+
+    /** Number of users selected by the request */
+    private int matchedUsers;
+
+    /** Number of user/role assignments actually added or removed */
+    private int affected;
+
+    public static RoleAssignmentResponseDTO fromModel(RoleAssignmentResult result) {
+        return new RoleAssignmentResponseDTO(result.roles(), result.matchedUsers(), result.affected());
+    }
+}
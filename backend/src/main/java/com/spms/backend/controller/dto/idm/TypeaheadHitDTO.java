@@ -0,0 +1,26 @@
+package com.spms.backend.controller.dto.idm;
+
+import com.spms.backend.service.model.idm.TypeaheadHit;
+import com.spms.backend.service.model.idm.TypeaheadKind;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class TypeaheadHitDTO {
+    private TypeaheadKind kind;
+    private Long id;
+    private String label;
+    private String detail;
+    private double score;
+
+    public static TypeaheadHitDTO fromModel(TypeaheadHit hit) {
+        TypeaheadHitDTO dto = new TypeaheadHitDTO();
+        dto.setKind(hit.kind());
+        dto.setId(hit.id());
+        dto.setLabel(hit.label());
+        dto.setDetail(hit.detail());
+        dto.setScore(hit.score());
+        return dto;
+    }
+}
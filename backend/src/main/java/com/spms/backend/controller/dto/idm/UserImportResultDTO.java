@@ -0,0 +1,30 @@
+package com.spms.backend.controller.dto.idm;
+
+import com.spms.backend.service.model.idm.UserImportResult;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class UserImportResultDTO {
+
+    private long processed;
+    private long imported;
+    private long failed;
+    private List<UserImportResult.RowError> errors;
+    private boolean errorsTruncated;
+    private String abortReason;
+
+    public static UserImportResultDTO fromModel(UserImportResult result) {
+        UserImportResultDTO dto = new UserImportResultDTO();
+        dto.setProcessed(result.getProcessed());
+        dto.setImported(result.getImported());
+        dto.setFailed(result.getFailed());
+        dto.setErrors(result.getErrors());
+        dto.setErrorsTruncated(result.isErrorsTruncated());
+        dto.setAbortReason(result.getAbortReason());
+        return dto;
+    }
+}
@@ -0,0 +1,22 @@
+package com.spms.backend.controller.dto.process;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import java.util.List;
+
+/**
+ * DTO representing the request to create many form instances at once.
+ */
+public class BatchCreateFormInstancesRequestDTO {
+    @NotEmpty(message = "At least one form instance is required")
+    private List<@Valid CreateFormInstanceRequestDTO> instances;
+
+    // Getters and setters
+    public List<CreateFormInstanceRequestDTO> getInstances() {
+        return instances;
+    }
+
+    public void setInstances(List<CreateFormInstanceRequestDTO> instances) {
+        this.instances = instances;
+    }
+}
@@ -0,0 +1,87 @@
+package com.spms.backend.controller.dto.process;
+
+import com.spms.backend.service.model.process.FormDataAggregation;
+import com.spms.backend.service.model.process.FormDataMetric;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * DTO representing totals and breakdowns over the form data of the instances of a form.
+ * Each group lists its key values in the order of {@code groupBy} and its metric values in
+ * the order of {@code metrics}.
+ */
+public class FormDataAggregationDTO {
+    private List<String> groupBy;
+    private List<String> metrics;
+    private long rows;
+    private List<Group> groups;
+
+    public static FormDataAggregationDTO fromModel(FormDataAggregation model) {
+        FormDataAggregationDTO dto = new FormDataAggregationDTO();
+        dto.setGroupBy(model.groupBy());
+        dto.setMetrics(model.metrics().stream().map(FormDataMetric::toString).toList());
+        dto.setRows(model.rows());
+        dto.setGroups(model.groups().stream().map(x -> {
+            Group group = new Group();
+            group.setKey(x.key());
+            group.setValues(x.values());
+            return group;
+        }).toList());
+        return dto;
+    }
+
+    // Getters and setters
+    public List<String> getGroupBy() {
+        return groupBy;
+    }
+
+    public void setGroupBy(List<String> groupBy) {
+        this.groupBy = groupBy;
+    }
+
+    public List<String> getMetrics() {
+        return metrics;
+    }
+
+    public void setMetrics(List<String> metrics) {
+        this.metrics = metrics;
+    }
+
+    public long getRows() {
+        return rows;
+    }
+
+    public void setRows(long rows) {
+        this.rows = rows;
+    }
+
+    public List<Group> getGroups() {
+        return groups;
+    }
+
+    public void setGroups(List<Group> groups) {
+        this.groups = groups;
+    }
+
+    public static class Group {
+        private List<String> key;
+        private List<BigDecimal> values;
+
+        public List<String> getKey() {
+            return key;
+        }
+
+        public void setKey(List<String> key) {
+            this.key = key;
+        }
+
+        public List<BigDecimal> getValues() {
+            return values;
+        }
+
+        public void setValues(List<BigDecimal> values) {
+            this.values = values;
+        }
+    }
+}
@@ -0,0 +1,58 @@
+package com.spms.backend.controller.dto.process;
+
+import com.spms.backend.repository.entities.process.FormFieldType;
+import com.spms.backend.service.model.process.FormIndexedFieldModel;
+
+import java.time.Instant;
+
+/**
+ * DTO representing a field of the form data that form instances can be filtered and sorted on.
+ */
+public class FormIndexedFieldDTO {
+    private String formKey;
+    private String field;
+    private FormFieldType type;
+    private Instant createdDate;
+
+    public static FormIndexedFieldDTO fromModel(FormIndexedFieldModel model) {
+        FormIndexedFieldDTO dto = new FormIndexedFieldDTO();
+        dto.setFormKey(model.formKey());
+        dto.setField(model.field());
+        dto.setType(model.type());
+        dto.setCreatedDate(model.createdDate());
+        return dto;
+    }
+
+    // Getters and setters
+    public String getFormKey() {
+        return formKey;
+    }
+
+    public void setFormKey(String formKey) {
+        this.formKey = formKey;
+    }
+
+    public String getField() {
+        return field;
+    }
+
+    public void setField(String field) {
+        this.field = field;
+    }
+
+    public FormFieldType getType() {
+        return type;
+    }
+
+    public void setType(FormFieldType type) {
+        this.type = type;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+}
@@ -0,0 +1,48 @@
+package com.spms.backend.controller.dto.process;
+
+import com.spms.backend.repository.entities.process.FormRevisionKind;
+import com.spms.backend.service.model.process.FormInstanceRevisionModel;
+
+import java.time.Instant;
+
+/**
+ * DTO representing a stored revision of the data of a form instance.
+ */
+public class FormInstanceRevisionDTO {
+    private int revision;
+    private FormRevisionKind kind;
+    private Instant createdDate;
+
+    public static FormInstanceRevisionDTO fromModel(FormInstanceRevisionModel model) {
+        FormInstanceRevisionDTO dto = new FormInstanceRevisionDTO();
+        dto.setRevision(model.revision());
+        dto.setKind(model.kind());
+        dto.setCreatedDate(model.createdDate());
+        return dto;
+    }
+
+    // Getters and setters
+    public int getRevision() {
+        return revision;
+    }
+
+    public void setRevision(int revision) {
+        this.revision = revision;
+    }
+
+    public FormRevisionKind getKind() {
+        return kind;
+    }
+
+    public void setKind(FormRevisionKind kind) {
+        this.kind = kind;
+    }
+
+    public Instant getCreatedDate() {
+        return createdDate;
+    }
+
+    public void setCreatedDate(Instant createdDate) {
+        this.createdDate = createdDate;
+    }
+}
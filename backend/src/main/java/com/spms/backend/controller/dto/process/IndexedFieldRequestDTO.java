@@ -0,0 +1,21 @@
+package com.spms.backend.controller.dto.process;
+
+import com.spms.backend.repository.entities.process.FormFieldType;
+import jakarta.validation.constraints.NotNull;
+
+/**
+ * DTO representing the request to declare an indexed field of the form data.
+ */
+public class IndexedFieldRequestDTO {
+    @NotNull(message = "Field type is required")
+    private FormFieldType type;
+
+    // Getters and setters
+    public FormFieldType getType() {
+        return type;
+    }
+
+    public void setType(FormFieldType type) {
+        this.type = type;
+    }
+}
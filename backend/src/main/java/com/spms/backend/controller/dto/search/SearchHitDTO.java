@@ -0,0 +1,30 @@
+package com.spms.backend.controller.dto.search;
+
+import com.spms.backend.service.model.search.SearchDocumentType;
+import com.spms.backend.service.model.search.SearchHit;
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class SearchHitDTO {
+    private SearchDocumentType type;
+    private Long id;
+    private String title;
+    private String subtitle;
+    private String category;
+    private String status;
+    private double score;
+
+    public static SearchHitDTO fromModel(SearchHit hit) {
+        SearchHitDTO dto = new SearchHitDTO();
+        dto.setType(hit.type());
+        dto.setId(hit.id());
+        dto.setTitle(hit.title());
+        dto.setSubtitle(hit.subtitle());
+        dto.setCategory(hit.category());
+        dto.setStatus(hit.status());
+        dto.setScore(hit.score());
+        return dto;
+    }
+}
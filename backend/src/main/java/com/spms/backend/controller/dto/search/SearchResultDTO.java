@@ -0,0 +1,38 @@
+package com.spms.backend.controller.dto.search;
+
+import com.spms.backend.service.model.search.SearchFacet;
+import com.spms.backend.service.model.search.SearchResult;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+@Getter
+@Setter
+public class SearchResultDTO {
+    private List<SearchHitDTO> hits;
+    private long total;
+    private int page;
+    private int size;
+    /**
+     * Match counts per facet ({@code type}, {@code category}, {@code status}) and value.
+     */
+    private Map<String, Map<String, Long>> facets;
+
+    public static SearchResultDTO fromModel(SearchResult result) {
+        SearchResultDTO dto = new SearchResultDTO();
+        dto.setHits(result.hits().stream().map(SearchHitDTO::fromModel).toList());
+        dto.setTotal(result.total());
+        dto.setPage(result.page());
+        dto.setSize(result.size());
+        Map<String, Map<String, Long>> facets = new LinkedHashMap<>();
+        for (Map.Entry<SearchFacet, Map<String, Long>> facet : result.facets().entrySet()) {
+            facets.put(facet.getKey().name().toLowerCase(Locale.ROOT), facet.getValue());
+        }
+        dto.setFacets(facets);
+        return dto;
+    }
+}
@@ -2,18 +2,23 @@ package com.spms.backend.controller.idm;
 
 import com.spms.backend.controller.dto.idm.CompanyDTO;
 import com.spms.backend.controller.dto.idm.CreateCompanyRequestDTO;
-import com.spms.backend.controller.dto.idm.OrganizationChartDTO;
 import com.spms.backend.controller.dto.idm.ChartMode;
 import com.spms.backend.repository.entities.idm.CompanyType;
 import com.spms.backend.controller.dto.idm.JoinToChildrenRequestDTO;
 import com.spms.backend.service.idm.CompanyService;
 import com.spms.backend.service.idm.DivisionService;
+import com.spms.backend.service.idm.OrganizationChartSnapshots;
 import com.spms.backend.service.idm.OrganizationService;
+import com.spms.backend.service.model.idm.ChartSnapshot;
 import com.spms.backend.service.model.idm.CompanyModel;
 import jakarta.transaction.Transactional;
 import jakarta.websocket.server.PathParam;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -26,13 +31,16 @@ public class CompanyController {
 
     private final CompanyService companyService;
     private final OrganizationService organizationService;
+    private final OrganizationChartSnapshots chartSnapshots;
 
     protected CompanyController(CompanyService companyService,
                                 DivisionService divisionService,
-                                OrganizationService organizationService
+                                OrganizationService organizationService,
+                                OrganizationChartSnapshots chartSnapshots
     ) {
         this.companyService = companyService;
         this.organizationService = organizationService;
+        this.chartSnapshots = chartSnapshots;
     }
 
     @Transactional
@@ -109,10 +117,37 @@ public class CompanyController {
         return ResponseEntity.noContent().build();
     }
 
+    /**
+     * Returns the organization chart as pre-serialized JSON. The stored bytes are written
+     * as they are, gzip-encoded if the client accepts it; a client that sends the current
+     * entity tag in {@code If-None-Match} gets 304 without a body.
+     *
+     * @param id ID of the root company
+     * @param mode Chart display mode
+     * @param ifNoneMatch Entity tags the client already has
+     * @param acceptEncoding Encodings the client accepts
+     * @return The chart JSON, or 304 if unchanged
+     */
     @GetMapping("/{id}/organization-chart")
-    public ResponseEntity<OrganizationChartDTO> getOrganizationChart(
+    public ResponseEntity<byte[]> getOrganizationChart(
             @PathVariable Long id,
-            @RequestParam ChartMode mode) {
-        return ResponseEntity.ok(organizationService.getOrganizationChart(id, mode));
+            @RequestParam ChartMode mode,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
+        ChartSnapshot snapshot = chartSnapshots.getSnapshot(id, mode);
+        boolean gzip = snapshot.gzipped() && acceptEncoding != null && acceptEncoding.toLowerCase().contains("gzip");
+        boolean notModified = snapshot.matches(ifNoneMatch);
+        ResponseEntity.BodyBuilder response = ResponseEntity.status(notModified ? HttpStatus.NOT_MODIFIED : HttpStatus.OK)
+                .eTag(snapshot.etag(gzip))
+                .cacheControl(CacheControl.noCache())
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (notModified) {
+            return response.build();
+        }
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        return response.contentType(MediaType.APPLICATION_JSON)
+                .body(gzip ? snapshot.body() : snapshot.plainBody());
     }
 }
@@ -2,6 +2,7 @@ package com.spms.backend.controller.idm;
 
 import com.spms.backend.controller.dto.idm.CreateDepartmentRequestDTO;
 import com.spms.backend.controller.dto.idm.DepartmentDTO;
+import com.spms.backend.controller.dto.idm.MembershipChangeResponseDTO;
 import com.spms.backend.controller.dto.idm.UpdateDepartmentRequestDTO;
 import com.spms.backend.controller.dto.idm.UserDepartmentRequestDTO;
 import com.spms.backend.controller.dto.idm.UserDepartmentsResponseDTO;
@@ -149,6 +150,37 @@ public class DepartmentController {
         return success ? ResponseEntity.noContent().build() : ResponseEntity.badRequest().build();
     }
 
+    /**
+     * Adds users to a department in bulk. Users that are already members are skipped,
+     * so repeating the request is harmless.
+     *
+     * @param departmentId The ID of the department
+     * @param requestDTO   DTO containing the list of user IDs to add
+     * @return Number of requested and actually added users
+     */
+    @PostMapping("/{departmentId}/users/bulk")
+    public ResponseEntity<MembershipChangeResponseDTO> addMembers(@PathVariable Long departmentId,
+                                                                  @RequestBody UserDepartmentRequestDTO requestDTO) {
+        List<Long> userIds = requestDTO.getUserIds();
+        int added = departmentService.addMembers(departmentId, userIds);
+        return ResponseEntity.ok(new MembershipChangeResponseDTO(departmentId, userIds.size(), added));
+    }
+
+    /**
+     * Removes users from a department in bulk. Users that are not members are ignored.
+     *
+     * @param departmentId The ID of the department
+     * @param requestDTO   DTO containing the list of user IDs to remove
+     * @return Number of requested and actually removed users
+     */
+    @DeleteMapping("/{departmentId}/users/bulk")
+    public ResponseEntity<MembershipChangeResponseDTO> removeMembers(@PathVariable Long departmentId,
+                                                                     @RequestBody UserDepartmentRequestDTO requestDTO) {
+        List<Long> userIds = requestDTO.getUserIds();
+        int removed = departmentService.removeMembers(departmentId, userIds);
+        return ResponseEntity.ok(new MembershipChangeResponseDTO(departmentId, userIds.size(), removed));
+    }
+
     /**
      * Updates an existing department
      *
@@ -0,0 +1,112 @@
+package com.spms.backend.controller.idm;
+
+import com.spms.backend.controller.BaseController;
+import com.spms.backend.controller.dto.idm.ChangeFeedResponseDTO;
+import com.spms.backend.controller.dto.idm.ChartMode;
+import com.spms.backend.controller.dto.idm.OrganizationChartNodeDTO;
+import com.spms.backend.controller.dto.idm.OrganizationSyncRequestDTO;
+import com.spms.backend.controller.dto.idm.OrganizationSyncResponseDTO;
+import com.spms.backend.controller.dto.idm.RestructureRequestDTO;
+import com.spms.backend.controller.dto.idm.RestructureResponseDTO;
+import com.spms.backend.service.idm.OrganizationChangeLog;
+import com.spms.backend.service.idm.OrganizationRestructureService;
+import com.spms.backend.service.idm.OrganizationService;
+import com.spms.backend.service.idm.OrganizationSyncService;
+import com.spms.backend.service.idm.UserService;
+import com.spms.backend.service.model.idm.ChartNodeType;
+import com.spms.backend.service.model.idm.OrganizationSyncResult;
+import com.spms.backend.service.model.idm.RestructureResult;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/api/v1/organization")
+public class OrganizationController extends BaseController {
+
+    private final OrganizationRestructureService restructureService;
+    private final OrganizationSyncService syncService;
+    private final OrganizationChangeLog changeLog;
+    private final OrganizationService organizationService;
+    private final UserService userService;
+
+    public OrganizationController(OrganizationRestructureService restructureService,
+                                  OrganizationSyncService syncService,
+                                  OrganizationChangeLog changeLog,
+                                  OrganizationService organizationService,
+                                  UserService userService) {
+        this.restructureService = restructureService;
+        this.syncService = syncService;
+        this.changeLog = changeLog;
+        this.organizationService = organizationService;
+        this.userService = userService;
+    }
+
+    /**
+     * Moves many companies and departments at once. The plan is applied only if every
+     * move is valid; otherwise nothing changes and all errors are returned with status 400.
+     *
+     * @param requestDTO Company and department moves
+     * @return Number of moved nodes, or the validation errors
+     */
+    @PostMapping("/restructure")
+    //@PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RestructureResponseDTO> restructure(@RequestBody RestructureRequestDTO requestDTO) {
+        RestructureResult result = restructureService.restructure(requestDTO.toPlan(), userService.getCurrentUsername());
+        RestructureResponseDTO response = RestructureResponseDTO.fromModel(result);
+        return result.isApplied() ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+    }
+
+    /**
+     * Synchronizes the organization with a full snapshot from the HR system. Only the
+     * differences are written; an inconsistent snapshot is rejected with status 400.
+     *
+     * @param requestDTO Companies, divisions and departments with heads and members
+     * @return Counts of changed nodes and memberships, or the validation errors
+     */
+    @PostMapping("/sync")
+    //@PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OrganizationSyncResponseDTO> sync(@RequestBody OrganizationSyncRequestDTO requestDTO) {
+        OrganizationSyncResult result = syncService.sync(requestDTO.toSnapshot(), userService.getCurrentUsername());
+        OrganizationSyncResponseDTO response = OrganizationSyncResponseDTO.fromModel(result);
+        return result.isApplied() ? ResponseEntity.ok(response) : ResponseEntity.badRequest().body(response);
+    }
+
+    /**
+     * Returns the organization changes committed after the given sequence number. Consumers
+     * pass the returned {@code nextSince} on their next call; if {@code resetRequired} is set
+     * they reload everything first.
+     *
+     * @param since Last sequence number already processed, 0 to read from the beginning
+     * @param limit Maximum number of changes to return
+     * @return Changes in commit order
+     */
+    @GetMapping("/changes")
+    public ResponseEntity<ChangeFeedResponseDTO> getChanges(@RequestParam(defaultValue = "0") long since,
+                                                            @RequestParam(defaultValue = "0") int limit) {
+        return ResponseEntity.ok(ChangeFeedResponseDTO.fromModel(changeLog.getChanges(since, limit)));
+    }
+
+    /**
+     * Returns one level of the organization chart: the node and its direct children with
+     * their child and member counts. The chart is expanded by requesting the children of
+     * a returned node; the root is the group company.
+     *
+     * @param nodeType Kind of node to expand (COMPANY, DIVISION or DEPARTMENT)
+     * @param nodeId ID of the company, division or department
+     * @param mode Chart to read (REALISTIC or FUNCTIONAL)
+     * @return The node with its direct children
+     */
+    @GetMapping("/chart/{nodeType}/{nodeId}")
+    public ResponseEntity<OrganizationChartNodeDTO> getChartLevel(@PathVariable ChartNodeType nodeType,
+                                                                  @PathVariable Long nodeId,
+                                                                  @RequestParam ChartMode mode) {
+        return ResponseEntity.ok(OrganizationChartNodeDTO.fromModel(
+                organizationService.getOrganizationChartLevel(mode, nodeType, nodeId)));
+    }
+}
@@ -2,6 +2,8 @@ package com.spms.backend.controller.idm;
 
 import com.spms.backend.controller.BaseController;
 
+import com.spms.backend.controller.dto.idm.RoleAssignmentRequestDTO;
+import com.spms.backend.controller.dto.idm.RoleAssignmentResponseDTO;
 import com.spms.backend.controller.dto.idm.RoleDTO;
 import com.spms.backend.service.idm.RoleService;
 import org.springframework.data.domain.Page;
@@ -111,4 +113,33 @@ public class RoleController extends BaseController {
         return ResponseEntity.ok(roleService.searchRoles(name, description, pageable)
             .map(RoleDTO::fromRoleModel));
     }
+
+    /**
+     * Grants roles to many users at once. Existing assignments are skipped,
+     * so repeating the request is harmless.
+     *
+     * @param requestDTO Roles and the users to grant them to
+     * @return Number of selected users and actually added assignments
+     */
+    @PostMapping("/assignments")
+    //@PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RoleAssignmentResponseDTO> grantRoles(@RequestBody RoleAssignmentRequestDTO requestDTO) {
+        return ResponseEntity.ok(RoleAssignmentResponseDTO.fromModel(
+            roleService.grantRoles(requestDTO.getRoleIds(), requestDTO.toUserSelector())
+        ));
+    }
+
+    /**
+     * Revokes roles from many users at once. Missing assignments are ignored.
+     *
+     * @param requestDTO Roles and the users to revoke them from
+     * @return Number of selected users and actually removed assignments
+     */
+    @DeleteMapping("/assignments")
+    //@PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<RoleAssignmentResponseDTO> revokeRoles(@RequestBody RoleAssignmentRequestDTO requestDTO) {
+        return ResponseEntity.ok(RoleAssignmentResponseDTO.fromModel(
+            roleService.revokeRoles(requestDTO.getRoleIds(), requestDTO.toUserSelector())
+        ));
+    }
 }
@@ -1,23 +1,35 @@
 package com.spms.backend.controller.idm;
 
 import com.spms.backend.controller.BaseController;
+import com.spms.backend.controller.dto.idm.TypeaheadHitDTO;
 import com.spms.backend.controller.dto.idm.UserDTO;
+import com.spms.backend.controller.dto.idm.UserImportResultDTO;
 import com.spms.backend.repository.entities.idm.DepartmentType;
 import com.spms.backend.service.idm.DepartmentService;
 import com.spms.backend.service.idm.OrganizationService;
+import com.spms.backend.service.exception.ValidationException;
 import com.spms.backend.service.idm.RoleService;
+import com.spms.backend.service.idm.TypeaheadIndex;
+import com.spms.backend.service.idm.UserImportService;
 import com.spms.backend.service.idm.UserService;
 import com.spms.backend.service.model.idm.DepartmentModel;
+import com.spms.backend.service.model.idm.ProfileFilter;
 import com.spms.backend.service.model.idm.RoleModel;
+import com.spms.backend.service.model.idm.TypeaheadKind;
+import com.spms.backend.service.model.idm.UserImportFormat;
 import com.spms.backend.service.model.idm.UserModel;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
+
+import java.io.InputStream;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @RestController
@@ -27,20 +39,26 @@ public class UserController extends BaseController {
     private final OrganizationService organizationService;
     private final RoleService roleService;
     private final DepartmentService departmentService;
+    private final UserImportService userImportService;
+    private final TypeaheadIndex typeaheadIndex;
 
     public UserController(UserService userService,
         RoleService roleService,
         OrganizationService organizationService,
-                          DepartmentService departmentService
+                          DepartmentService departmentService,
+                          UserImportService userImportService,
+                          TypeaheadIndex typeaheadIndex
     ) {
         this.userService = userService;
+        this.userImportService = userImportService;
+        this.typeaheadIndex = typeaheadIndex;
         this.departmentService = departmentService;
         this.organizationService = organizationService;
         this.roleService = roleService;
     }
 
     @PostMapping
-    @PreAuthorize("hasAuthority('user:write')")
+    @PreAuthorize("hasPermission('user:write')")
     public ResponseEntity<UserDTO> createUser(@RequestBody UserDTO userDTO) {
         return ResponseEntity.ok(
             UserDTO.fromUserModel(
@@ -49,8 +67,29 @@ public class UserController extends BaseController {
         );
     }
 
+    /**
+     * Creates users in bulk from a CSV ({@code text/csv}) or NDJSON ({@code application/x-ndjson})
+     * request body. The body is streamed, so files of any size can be uploaded.
+     *
+     * @param contentType request content type, selects the file format
+     * @param body        file content
+     * @return counts of processed, imported and failed rows, with the reasons rows were rejected
+     */
+    @PostMapping(value = "/import", consumes = {"text/csv", "application/x-ndjson"})
+    @PreAuthorize("hasPermission('user:write')")
+    public ResponseEntity<UserImportResultDTO> importUsers(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            InputStream body) {
+        UserImportFormat format = UserImportFormat.fromContentType(contentType)
+                .orElseThrow(() -> new ValidationException("Unsupported import format: " + contentType));
+        String importedBy = userService.getCurrentUsername();
+        return ResponseEntity.ok(
+                UserImportResultDTO.fromModel(userImportService.importUsers(body, format, importedBy))
+        );
+    }
+
     @GetMapping("/{id}")
-    @PreAuthorize("hasAuthority('user:read')")
+    @PreAuthorize("hasPermission('user:read')")
     public ResponseEntity<UserDTO> getUser(@PathVariable Long id) {
         UserModel userModel = userService.getUserById(id);
         UserDTO userDTO = UserDTO.fromUserModel(userModel);
@@ -62,7 +101,7 @@ public class UserController extends BaseController {
     }
 
     @PutMapping("/{id}")
-    @PreAuthorize("hasAuthority('user:write')")
+    @PreAuthorize("hasPermission('user:write')")
     @Transactional
     public ResponseEntity<UserDTO> updateUser(
             @PathVariable Long id,
@@ -106,14 +145,14 @@ public class UserController extends BaseController {
     }
 
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasAuthority('user:write')")
+    @PreAuthorize("hasPermission('user:write')")
     public ResponseEntity<Void> deleteUser(@PathVariable Long id) {
         userService.deleteUser(id);
         return ResponseEntity.noContent().build();
     }
 
     @PostMapping("/{userId}/roles/{roleId}")
-    @PreAuthorize("hasAuthority('user:manage')")
+    @PreAuthorize("hasPermission('user:manage')")
     public ResponseEntity<UserDTO> assignRole(
             @PathVariable Long userId,
             @PathVariable Long roleId) {
@@ -135,7 +174,7 @@ public class UserController extends BaseController {
     }
 
     @DeleteMapping("/{userId}/roles/{roleId}")
-    @PreAuthorize("hasAuthority('user:manage')")
+    @PreAuthorize("hasPermission('user:manage')")
     public ResponseEntity<UserDTO> removeRole(
             @PathVariable Long userId,
             @PathVariable Long roleId) {
@@ -156,16 +195,48 @@ public class UserController extends BaseController {
     }
 
 
+    /**
+     * Searches users by text and profile attributes.
+     *
+     * @param query    Text that username, email, description or profile must contain
+     * @param profiles Profile filters as {@code key:operator:value}, all of which must hold.
+     *                 Operators: eq, ne, prefix, lt, lte, gt, gte (numeric) and exists ({@code key:exists})
+     * @param pageable Page and sort
+     * @return Users of the requested page
+     */
     @GetMapping("/search")
-    @PreAuthorize("hasAuthority('user:read')")
+    @PreAuthorize("hasPermission('user:read')")
     public ResponseEntity<List<UserDTO>> searchUsers(
-            @RequestParam String query, Pageable pageable
+            @RequestParam(required = false) String query,
+            @RequestParam(value = "profile", required = false) List<String> profiles,
+            Pageable pageable
         ) {
+        List<ProfileFilter> profileFilters = profiles == null ? List.of()
+                : profiles.stream().map(ProfileFilter::parse).toList();
 
         return ResponseEntity.ok(
-            userService.searchUsers(query,pageable).stream()
+            userService.searchUsers(query, profileFilters, pageable).stream()
                 .map(UserDTO::fromUserModel)
                 .collect(Collectors.toList())
         );
     }
+
+    /**
+     * Typeahead lookup for the user and department pickers, served from an in-process index.
+     *
+     * @param query Text typed so far; every word must match
+     * @param kinds Kinds of entries to return (USER, DEPARTMENT); all if omitted
+     * @param limit Maximum number of hits
+     * @return Hits ordered by relevance
+     */
+    @GetMapping("/typeahead")
+    @PreAuthorize("hasPermission('user:read')")
+    public ResponseEntity<List<TypeaheadHitDTO>> typeahead(
+            @RequestParam("q") String query,
+            @RequestParam(value = "kinds", required = false) Set<TypeaheadKind> kinds,
+            @RequestParam(defaultValue = "10") int limit) {
+        return ResponseEntity.ok(typeaheadIndex.search(query, kinds, limit).stream()
+                .map(TypeaheadHitDTO::fromModel)
+                .toList());
+    }
 }
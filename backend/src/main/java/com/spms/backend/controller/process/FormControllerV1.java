@@ -1,5 +1,8 @@
 package com.spms.backend.controller.process;
 
+import com.spms.backend.controller.ConditionalResponses;
+import com.spms.backend.controller.ConditionalResponses.Freshness;
+import com.spms.backend.controller.ConditionalResponses.Representation;
 import com.spms.backend.controller.dto.process.FormDefinitionDTO;
 import com.spms.backend.controller.dto.process.FormVersionDTO;
 import com.spms.backend.service.exception.NotFoundException;
@@ -11,6 +14,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Pattern;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
@@ -18,6 +22,7 @@ import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
@@ -30,8 +35,11 @@ public class FormControllerV1 {
 
     private final FormService formService;
 
-    public FormControllerV1(FormService formService) {
+    private final ConditionalResponses conditionalResponses;
+
+    public FormControllerV1(FormService formService, ConditionalResponses conditionalResponses) {
         this.formService = formService;
+        this.conditionalResponses = conditionalResponses;
     }
 
     // Conversion methods removed and replaced with DTO static methods
@@ -64,13 +72,6 @@ public class FormControllerV1 {
         }
     }
 
-    /**
-     * Gets the latest version of a form
-     *
-     * @param key Form definition key
-     * @return Latest form version
-     * @throws NotFoundException if form definition not found
-     */
     /**
      * Retrieves all distinct form keys
      *
@@ -84,31 +85,50 @@ public class FormControllerV1 {
         return ResponseEntity.ok(keys);
     }
 
+    /**
+     * Gets the latest version of a form. Clients may reuse the response briefly, since a
+     * newer version can be published at any time; 304 is answered from the entity tag.
+     *
+     * @param key         Form definition key
+     * @param ifNoneMatch Entity tags the client already has
+     * @return Latest form version, or 304 if unchanged
+     * @throws NotFoundException if form definition not found
+     */
     @GetMapping("/{key}/versions/latest")
-    public ResponseEntity<FormVersionDTO> getLatestVersion(
-            @PathVariable String key) {
+    public ResponseEntity<byte[]> getLatestVersion(
+            @PathVariable String key,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.debug("Getting latest version for form: {}", key);
-        FormVersionModel latestVersion = formService.getLatestVersion(key);
-        logger.debug("Found latest version {} for form {}", latestVersion.getVersion(), key);
-        return ResponseEntity.ok(FormVersionDTO.convertToDTO(latestVersion));
+        return conditionalResponses.get("form-latest:" + key, ifNoneMatch, () -> {
+            FormVersionModel latestVersion = formService.getLatestVersion(key);
+            logger.debug("Found latest version {} for form {}", latestVersion.getVersion(), key);
+            return new Representation(FormVersionDTO.convertToDTO(latestVersion), Freshness.SHORT_LIVED);
+        });
     }
 
     /**
-     * Gets a specific version of a form
+     * Gets a specific version of a form. The definition of a version does not change, but its
+     * deprecated flag does and can be rolled back, so clients revalidate on every use; a client
+     * that sends the current entity tag in {@code If-None-Match} gets 304 without the form
+     * being loaded.
      *
-     * @param key     Form definition key
-     * @param version Version identifier
-     * @return Requested form version
+     * @param key         Form definition key
+     * @param version     Version identifier
+     * @param ifNoneMatch Entity tags the client already has
+     * @return Requested form version, or 304 if unchanged
      * @throws NotFoundException if form or version not found
      */
     @GetMapping("/{key}/versions/{version}")
-    public ResponseEntity<FormVersionDTO> getVersion(
+    public ResponseEntity<byte[]> getVersion(
             @PathVariable String key,
-            @PathVariable String version) {
+            @PathVariable String version,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch) {
         logger.debug("Getting version {} for form: {}", version, key);
-        FormVersionModel versionModel = formService.getVersion(key, version);
-        logger.debug("Found version {} for form {}", version, key);
-        return ResponseEntity.ok(FormVersionDTO.convertToDTO(versionModel));
+        return conditionalResponses.get("form:" + key + "/" + version, ifNoneMatch, () -> {
+            FormVersionModel versionModel = formService.getVersion(key, version);
+            logger.debug("Found version {} for form {}", version, key);
+            return new Representation(FormVersionDTO.convertToDTO(versionModel), Freshness.REVALIDATE);
+        });
     }
 
     /**
@@ -1,18 +1,37 @@
 package com.spms.backend.controller.process;
 
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.backend.controller.dto.process.BatchCreateFormInstancesRequestDTO;
 import com.spms.backend.controller.dto.process.CreateFormInstanceRequestDTO;
+import com.spms.backend.controller.dto.process.FormDataAggregationDTO;
+import com.spms.backend.controller.dto.process.FormIndexedFieldDTO;
 import com.spms.backend.controller.dto.process.FormInstanceDTO;
+import com.spms.backend.controller.dto.process.FormInstanceRevisionDTO;
+import com.spms.backend.controller.dto.process.IndexedFieldRequestDTO;
 import com.spms.backend.controller.dto.process.UpdateFormInstanceRequestDTO;
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.model.process.FormDataFilter;
+import com.spms.backend.service.model.process.FormDataMetric;
+import com.spms.backend.service.model.process.FormInstanceCursor;
 import com.spms.backend.service.model.process.FormInstanceModel;
+import com.spms.backend.service.model.process.NewFormInstance;
+import com.spms.backend.service.model.process.RawFormInstance;
+import com.spms.backend.service.process.FormDataAggregationService;
+import com.spms.backend.service.process.FormDraftService;
+import com.spms.backend.service.process.FormIndexedFieldService;
 import com.spms.backend.service.process.FormInstanceService;
 import jakarta.validation.Valid;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.Pageable;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ProblemDetail;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
@@ -20,9 +39,16 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
 import java.util.List;
+import java.util.Map;
 import java.util.stream.Collectors;
 
 @RestController
@@ -30,10 +56,28 @@ import java.util.stream.Collectors;
 public class FormInstanceControllerV1 {
     private static final Logger logger = LoggerFactory.getLogger(FormInstanceControllerV1.class);
 
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+
     private final FormInstanceService formInstanceService;
 
-    public FormInstanceControllerV1(FormInstanceService formInstanceService) {
+    private final FormIndexedFieldService indexedFieldService;
+
+    private final FormDraftService draftService;
+
+    private final FormDataAggregationService aggregationService;
+
+    private final ObjectMapper objectMapper;
+
+    public FormInstanceControllerV1(FormInstanceService formInstanceService,
+                                    FormIndexedFieldService indexedFieldService,
+                                    FormDraftService draftService,
+                                    FormDataAggregationService aggregationService,
+                                    ObjectMapper objectMapper) {
         this.formInstanceService = formInstanceService;
+        this.indexedFieldService = indexedFieldService;
+        this.draftService = draftService;
+        this.aggregationService = aggregationService;
+        this.objectMapper = objectMapper;
     }
 
     /**
@@ -60,6 +104,25 @@ public class FormInstanceControllerV1 {
         }
     }
 
+    /**
+     * Creates many form instances at once, such as forms captured offline. Either all
+     * instances are created or none.
+     *
+     * @param request Instances to create
+     * @return IDs of the created instances, in request order
+     * @throws ValidationException if any instance is invalid; the message names each by its position
+     */
+    @PostMapping("/batch")
+    public ResponseEntity<List<String>> createFormInstances(
+            @Valid @RequestBody BatchCreateFormInstancesRequestDTO request) {
+        logger.debug("Creating {} form instances", request.getInstances().size());
+        List<String> ids = formInstanceService.createAll(request.getInstances().stream()
+                .map(x -> new NewFormInstance(x.getFormKey(), x.getVersion(), x.getData()))
+                .toList());
+        logger.info("Created {} form instances", ids.size());
+        return ResponseEntity.status(HttpStatus.CREATED).body(ids);
+    }
+
     /**
      * Retrieves a form instance by ID
      *
@@ -77,7 +140,7 @@ public class FormInstanceControllerV1 {
     }
 
     /**
-     * Updates an existing form instance
+     * Updates an existing form instance, replacing its autosaved draft if that is not written yet
      *
      * @param id      Form instance ID
      * @param request Update request
@@ -91,7 +154,8 @@ public class FormInstanceControllerV1 {
             @Valid @RequestBody UpdateFormInstanceRequestDTO request) {
         logger.debug("Updating form instance: {}", id);
         try {
-            FormInstanceModel model = formInstanceService.update(id, request.getData());
+            // Through the draft service, so that a buffered autosave cannot overwrite the update
+            FormInstanceModel model = draftService.update(id, request.getData());
             logger.info("Updated form instance {}", id);
             return ResponseEntity.ok(convertToDTO(model));
         } catch (IllegalArgumentException e) {
@@ -102,6 +166,73 @@ public class FormInstanceControllerV1 {
         }
     }
 
+    /**
+     * Autosaves a draft of a form instance. Drafts are not validated against the form and
+     * are written in the background, only the latest one per interval; reads return the
+     * last written state until then.
+     *
+     * @param id      Form instance ID
+     * @param request Draft data
+     * @return Accepted
+     * @throws NotFoundException if form instance not found
+     */
+    @PutMapping("/{id}/draft")
+    public ResponseEntity<Void> saveDraft(
+            @PathVariable String id,
+            @Valid @RequestBody UpdateFormInstanceRequestDTO request) {
+        logger.debug("Buffering draft of form instance: {}", id);
+        draftService.buffer(id, request.getData());
+        return ResponseEntity.accepted().build();
+    }
+
+    /**
+     * Submits a form instance, validating and saving the given data, or else its latest draft
+     *
+     * @param id      Form instance ID
+     * @param request Data to submit, optional
+     * @return Submitted form instance
+     * @throws ValidationException if the data is invalid for the form
+     * @throws NotFoundException   if form instance not found
+     */
+    @PostMapping("/{id}/submit")
+    public ResponseEntity<FormInstanceDTO> submit(
+            @PathVariable String id,
+            @Valid @RequestBody(required = false) UpdateFormInstanceRequestDTO request) {
+        logger.debug("Submitting form instance: {}", id);
+        FormInstanceModel model = draftService.submit(id, request == null ? null : request.getData());
+        logger.info("Submitted form instance {}", id);
+        return ResponseEntity.ok(convertToDTO(model));
+    }
+
+    /**
+     * Lists the stored revisions of a form instance's data
+     *
+     * @param id Form instance ID
+     * @return Revisions, newest first
+     * @throws NotFoundException if form instance not found
+     */
+    @GetMapping("/{id}/revisions")
+    public ResponseEntity<List<FormInstanceRevisionDTO>> listRevisions(@PathVariable String id) {
+        return ResponseEntity.ok(formInstanceService.listRevisions(id).stream()
+                .map(FormInstanceRevisionDTO::fromModel)
+                .toList());
+    }
+
+    /**
+     * Retrieves the data of a form instance as of a revision
+     *
+     * @param id       Form instance ID
+     * @param revision Revision number
+     * @return Form data of the revision
+     * @throws NotFoundException if form instance or revision not found
+     */
+    @GetMapping("/{id}/revisions/{revision}")
+    public ResponseEntity<Map<String, Object>> getRevision(
+            @PathVariable String id,
+            @PathVariable int revision) {
+        return ResponseEntity.ok(formInstanceService.getRevisionData(id, revision));
+    }
+
     /**
      * Deletes a form instance
      *
@@ -156,6 +287,226 @@ public class FormInstanceControllerV1 {
                         .collect(Collectors.toList()));
     }
 
+    /**
+     * Lists one page of the instances of a form, in creation order. The stored form data is
+     * copied into the response as is, in the same shape as {@link FormInstanceDTO}.
+     *
+     * @param formKey Form definition key
+     * @param version Form version, all versions if omitted
+     * @param cursor  {@code nextCursor} of the previous page, the first page if omitted
+     * @param size    Maximum number of instances in the page
+     * @param order   {@code desc} for the newest instances first, {@code asc} for the oldest
+     * @return {@code items} of the page and the {@code nextCursor}, which is null on the last page
+     * @throws ValidationException if the cursor, size or order is invalid
+     */
+    @GetMapping("/form/{formKey}/page")
+    public ResponseEntity<byte[]> listPage(
+            @PathVariable String formKey,
+            @RequestParam(required = false) String version,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(defaultValue = "desc") String order) throws IOException {
+        logger.debug("Listing page of form instances for form {} version {}", formKey, version);
+        FormInstanceCursor after = FormInstanceCursor.decode(cursor);
+        boolean newestFirst = isNewestFirst(order);
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(body)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            FormInstanceCursor next = formInstanceService.listRaw(formKey, version, after, size, newestFirst,
+                    instance -> writeInstance(generator, instance));
+            generator.writeEndArray();
+            generator.writeStringField("nextCursor", next == null ? null : next.encode());
+            generator.writeEndObject();
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body.toByteArray());
+    }
+
+    /**
+     * Streams all instances of a form as newline-delimited JSON, one {@link FormInstanceDTO}
+     * shaped object per line, with the stored form data copied as is.
+     *
+     * @param formKey Form definition key
+     * @param version Form version, all versions if omitted
+     * @param cursor  Cursor of a page to continue after, the beginning if omitted
+     * @param order   {@code asc} for the oldest instances first, {@code desc} for the newest
+     * @return The instances, written while they are read
+     * @throws ValidationException if the cursor or order is invalid
+     */
+    @GetMapping("/form/{formKey}/stream")
+    public ResponseEntity<StreamingResponseBody> stream(
+            @PathVariable String formKey,
+            @RequestParam(required = false) String version,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "asc") String order) {
+        logger.debug("Streaming form instances for form {} version {}", formKey, version);
+        FormInstanceCursor after = FormInstanceCursor.decode(cursor);
+        boolean newestFirst = isNewestFirst(order);
+        StreamingResponseBody body = out -> {
+            try (JsonGenerator generator = objectMapper.getFactory().createGenerator(out)) {
+                generator.setRootValueSeparator(null);
+                formInstanceService.streamRaw(formKey, version, after, newestFirst, instance -> {
+                    writeInstance(generator, instance);
+                    try {
+                        generator.writeRaw('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            }
+        };
+        return ResponseEntity.ok().contentType(NDJSON).body(body);
+    }
+
+    /**
+     * Finds the instances of a form by the values of indexed fields of their data. The stored
+     * form data is copied into the response as is, in the same shape as {@link FormInstanceDTO}.
+     *
+     * @param formKey  Form definition key
+     * @param filters  Filters as {@code field:operator:value}, all of which must hold.
+     *                 Operators: eq, ne, prefix, lt, lte, gt, gte and exists ({@code field:exists});
+     *                 values compare as the declared type of the field
+     * @param pageable Page and sort, by indexed fields or {@code createdAt}
+     * @return {@code items} of the page and the {@code total} number of matches
+     * @throws ValidationException if a filter or sort uses a field that is not indexed
+     */
+    @GetMapping("/form/{formKey}/query")
+    public ResponseEntity<byte[]> query(
+            @PathVariable String formKey,
+            @RequestParam(value = "filter", required = false) List<String> filters,
+            Pageable pageable) throws IOException {
+        List<FormDataFilter> dataFilters = filters == null ? List.of()
+                : filters.stream().map(FormDataFilter::parse).toList();
+        logger.debug("Querying form instances for form {} with {} filters", formKey, dataFilters.size());
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        try (JsonGenerator generator = objectMapper.getFactory().createGenerator(body)) {
+            generator.writeStartObject();
+            generator.writeArrayFieldStart("items");
+            long total = formInstanceService.query(formKey, dataFilters, pageable,
+                    instance -> writeInstance(generator, instance));
+            generator.writeEndArray();
+            generator.writeNumberField("total", total);
+            generator.writeEndObject();
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body.toByteArray());
+    }
+
+    /**
+     * Computes totals and breakdowns over the form data of the instances of a form, such as
+     * the sum of an amount per department and month, in one streamed pass over the instances
+     *
+     * @param formKey    Form definition key
+     * @param version    Form version, all versions if omitted
+     * @param from       Earliest creation time (ISO-8601), inclusive
+     * @param to         Latest creation time (ISO-8601), exclusive
+     * @param groupBy    Grouping keys: field paths, or {@code createdAt:year}, {@code createdAt:month}
+     *                   or {@code createdAt:day}; a single group if omitted
+     * @param metrics    Metrics as {@code function:field} with function count, sum, avg, min or max,
+     *                   or {@code count} for the number of instances
+     * @param partitions Number of ID ranges to read in parallel
+     * @return Groups ordered by key, each with its metric values
+     * @throws ValidationException if a grouping key or metric is invalid, or there are too many groups
+     */
+    @GetMapping("/form/{formKey}/aggregate")
+    public ResponseEntity<FormDataAggregationDTO> aggregate(
+            @PathVariable String formKey,
+            @RequestParam(required = false) String version,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) Instant to,
+            @RequestParam(required = false) List<String> groupBy,
+            @RequestParam(value = "metric", defaultValue = "count") List<String> metrics,
+            @RequestParam(defaultValue = "1") int partitions) {
+        logger.debug("Aggregating form instances for form {} by {}", formKey, groupBy);
+        return ResponseEntity.ok(FormDataAggregationDTO.fromModel(aggregationService.aggregate(formKey, version,
+                from, to, groupBy, metrics.stream().map(FormDataMetric::parse).toList(), partitions)));
+    }
+
+    /**
+     * Lists the fields of a form's data that its instances can be filtered and sorted on
+     *
+     * @param formKey Form definition key
+     * @return Indexed fields ordered by path
+     */
+    @GetMapping("/form/{formKey}/indexed-fields")
+    public ResponseEntity<List<FormIndexedFieldDTO>> listIndexedFields(@PathVariable String formKey) {
+        return ResponseEntity.ok(indexedFieldService.list(formKey).stream()
+                .map(FormIndexedFieldDTO::fromModel)
+                .toList());
+    }
+
+    /**
+     * Declares a field of a form's data as indexed, building its database index
+     *
+     * @param formKey Form definition key
+     * @param field   Dot-separated path of the field in the form data
+     * @param request Type of the field
+     * @return The indexed field
+     * @throws ValidationException if the path is invalid or the field is indexed with another type
+     * @throws NotFoundException if the form has no versions
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @PutMapping("/form/{formKey}/indexed-fields/{field}")
+    public ResponseEntity<FormIndexedFieldDTO> declareIndexedField(
+            @PathVariable String formKey,
+            @PathVariable String field,
+            @Valid @RequestBody IndexedFieldRequestDTO request) {
+        logger.debug("Declaring indexed field {} of form {}", field, formKey);
+        return ResponseEntity.ok(FormIndexedFieldDTO.fromModel(
+                indexedFieldService.declare(formKey, field, request.getType())));
+    }
+
+    /**
+     * Removes an indexed field of a form's data, dropping its database index
+     *
+     * @param formKey Form definition key
+     * @param field   Dot-separated path of the field in the form data
+     * @return No content
+     * @throws NotFoundException if the field is not indexed
+     */
+    @PreAuthorize("hasRole('ADMIN')")
+    @DeleteMapping("/form/{formKey}/indexed-fields/{field}")
+    public ResponseEntity<Void> removeIndexedField(
+            @PathVariable String formKey,
+            @PathVariable String field) {
+        logger.debug("Removing indexed field {} of form {}", field, formKey);
+        indexedFieldService.remove(formKey, field);
+        return ResponseEntity.noContent().build();
+    }
+
+    private static boolean isNewestFirst(String order) {
+        if ("desc".equalsIgnoreCase(order)) {
+            return true;
+        }
+        if ("asc".equalsIgnoreCase(order)) {
+            return false;
+        }
+        throw new ValidationException("Invalid order: " + order + ", expected asc or desc");
+    }
+
+    private static void writeInstance(JsonGenerator generator, RawFormInstance instance) {
+        try {
+            generator.writeStartObject();
+            generator.writeStringField("id", instance.id());
+            generator.writeStringField("formKey", instance.formKey());
+            generator.writeStringField("version", instance.version());
+            generator.writeFieldName("data");
+            if (instance.data() == null) {
+                generator.writeNull();
+            } else {
+                generator.writeRawValue(instance.data());
+            }
+            writeInstant(generator, "createdDate", instance.createdDate());
+            writeInstant(generator, "modifiedDate", instance.modifiedDate());
+            generator.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static void writeInstant(JsonGenerator generator, String name, Instant value) throws IOException {
+        generator.writeStringField(name, value == null ? null : value.toString());
+    }
+
     private FormInstanceDTO convertToDTO(FormInstanceModel model) {
         FormInstanceDTO dto = new FormInstanceDTO();
         dto.setId(model.getId());
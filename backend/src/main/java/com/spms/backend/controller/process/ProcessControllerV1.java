@@ -10,6 +10,9 @@
 package com.spms.backend.controller.process;
 
 import com.spms.backend.controller.BaseController;
+import com.spms.backend.controller.ConditionalResponses;
+import com.spms.backend.controller.ConditionalResponses.Freshness;
+import com.spms.backend.controller.ConditionalResponses.Representation;
 import com.spms.backend.controller.ProcessConverter;
 import com.spms.backend.controller.dto.process.*;
 import com.spms.backend.service.exception.ValidationException;
@@ -29,6 +32,7 @@ import com.spms.backend.service.process.ProcessDeploymentService;
 import jakarta.validation.Valid;
 import com.spms.backend.service.process.ProcessDefinitionService;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.bind.annotation.*;
@@ -56,6 +60,9 @@ public class ProcessControllerV1 extends BaseController {
     @Autowired
     private FormService formService;
 
+    @Autowired
+    private ConditionalResponses conditionalResponses;
+
     // Process Definition Endpoints
     
     /**
@@ -248,9 +255,13 @@ public class ProcessControllerV1 extends BaseController {
     }
 
     /**
-     * Get specific version of a process definition
+     * Get specific version of a process definition. The response carries a strong entity tag;
+     * a client that sends the current tag in {@code If-None-Match} gets 304 without the
+     * version being loaded. Deprecated versions are revalidated too, since the embedded form
+     * version can still be deprecated later.
      * @param definitionId The process definition ID
      * @param version The version
+     * @param ifNoneMatch Entity tags the client already has
      * @return ProcessDefinitionDTO with:
      *         - Version details (ID, status, version number)
      *         - BPMN XML content
@@ -259,17 +270,18 @@ public class ProcessControllerV1 extends BaseController {
      *         - Owner references
      */
     @GetMapping("/definitions/{definitionId}/versions/{version}")
-    public ResponseEntity<ProcessDefinitionVersionDTO> getProcessDefinitionVersion(
+    public ResponseEntity<byte[]> getProcessDefinitionVersion(
             @PathVariable String definitionId,
-            @PathVariable String version
+            @PathVariable String version,
+            @RequestHeader(value = HttpHeaders.IF_NONE_MATCH, required = false) String ifNoneMatch
     ) {
         try {
-            Optional<ProcessVersionModel> result = processService.getProcessDefinitionVersion(definitionId, version);
-            if (result.isEmpty()) {
-                return ResponseEntity.notFound().build();
-            }
-            var model = result.get();
-            return ResponseEntity.ok(ProcessDefinitionVersionDTO.toProcessDefinitionVersionDTO(model));
+            return conditionalResponses.get("process:" + definitionId + "/" + version, ifNoneMatch, () ->
+                    processService.getProcessDefinitionVersion(definitionId, version)
+                            .map(model -> new Representation(
+                                    ProcessDefinitionVersionDTO.toProcessDefinitionVersionDTO(model),
+                                    Freshness.REVALIDATE))
+                            .orElse(null));
         } catch (Exception e) {
             return ResponseEntity.internalServerError().build();
         }
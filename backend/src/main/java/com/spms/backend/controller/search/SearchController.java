@@ -0,0 +1,70 @@
+package com.spms.backend.controller.search;
+
+import com.spms.backend.controller.dto.search.SearchResultDTO;
+import com.spms.backend.service.model.search.SearchDocumentType;
+import com.spms.backend.service.model.search.SearchFacet;
+import com.spms.backend.service.search.SearchService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/search")
+public class SearchController {
+
+    private final SearchService searchService;
+
+    public SearchController(SearchService searchService) {
+        this.searchService = searchService;
+    }
+
+    /**
+     * Searches companies, divisions, departments, users, roles, process definitions and form versions.
+     *
+     * @param query    search text; every word must match, the last one also as a prefix.
+     *                 Without words, everything matching the filters is returned
+     * @param types    kinds of entities to return; all if omitted
+     * @param category required category (company, division, department or user type)
+     * @param status   required status ({@code ACTIVE}, {@code INACTIVE}, {@code DEPRECATED})
+     * @param page     zero-based page number
+     * @param size     page size, capped by the configured maximum
+     * @return matches of the page, best first, with match counts per facet value
+     */
+    @GetMapping
+    @PreAuthorize("hasPermission('user:read')")
+    public ResponseEntity<SearchResultDTO> search(
+            @RequestParam(value = "q", required = false) String query,
+            @RequestParam(value = "types", required = false) Set<SearchDocumentType> types,
+            @RequestParam(required = false) String category,
+            @RequestParam(required = false) String status,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        Map<SearchFacet, String> filters = new EnumMap<>(SearchFacet.class);
+        if (category != null) {
+            filters.put(SearchFacet.CATEGORY, category);
+        }
+        if (status != null) {
+            filters.put(SearchFacet.STATUS, status);
+        }
+        return ResponseEntity.ok(SearchResultDTO.fromModel(
+                searchService.search(query, types == null ? Set.of() : types, filters, page, size)));
+    }
+
+    /**
+     * Rebuilds the search index from the database in the background.
+     */
+    @PostMapping("/reindex")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<Void> reindex() {
+        searchService.reindex();
+        return ResponseEntity.accepted().build();
+    }
+}
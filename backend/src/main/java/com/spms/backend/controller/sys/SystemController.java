@@ -2,11 +2,14 @@ package com.spms.backend.controller.sys;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.spms.backend.config.SpmsOidcUser;
+import com.spms.backend.config.cache.LocalRegionFactory;
+import com.spms.backend.config.cache.RegionStatistics;
 import com.spms.backend.controller.dto.process.EngineCapabilityDto;
 import com.spms.backend.controller.dto.process.EngineCapabilityListDto;
 import com.spms.backend.repository.entities.idm.Role;
 import com.spms.backend.service.model.process.EventCapabilityCategory;
 import com.spms.backend.service.model.process.TaskCapabilityCategory;
+import com.spms.backend.service.idm.UserCache;
 import com.spms.backend.service.process.EngineCapabilityService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.core.io.Resource;
@@ -49,6 +52,12 @@ public class SystemController extends BaseController {
 
     @Autowired
     private EngineCapabilityService capabilityService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired(required = false)
+    private LocalRegionFactory regionFactory;
     
 
     private final ObjectMapper objectMapper = new ObjectMapper();
@@ -102,7 +111,8 @@ public class SystemController extends BaseController {
             info.setRoles(((List<String>) user.getUserInfo().getClaims().get("roles")).stream()
                     .map(a -> new Role(a.toUpperCase()))
                     .collect(Collectors.toList()));
-            info.setUserType(user.getAuthenticatedUser().getType().name());
+            userCache.getUser(user.getUserId())
+                    .ifPresent(x -> info.setUserType(x.getType().name()));
         }
         return info;
     }
@@ -185,5 +195,14 @@ public class SystemController extends BaseController {
         );
         return ResponseEntity.ok(dto);
     }
-    
+
+    /**
+     * Returns hit, miss and eviction counters of every second-level cache region
+     *
+     * @return Region statistics, empty if the second-level cache is disabled
+     */
+    @GetMapping("/cache-statistics")
+    public ResponseEntity<List<RegionStatistics>> getCacheStatistics() {
+        return ResponseEntity.ok(regionFactory == null ? List.of() : regionFactory.getStatistics());
+    }
 }
@@ -33,4 +33,22 @@ public class JobDetailsConfigure {
                 .build();
     }
 
+    @Bean
+    public JobDetail organizationChangeCompactionJobDetail() {
+        return JobBuilder.newJob(OrganizationChangeCompactionJob.class)
+                .withIdentity(OrganizationChangeCompactionJob.class.getSimpleName())
+                .storeDurably()
+                .build();
+    }
+
+    @Bean
+    public Trigger organizationChangeCompactionJobTrigger() {
+        // Once a night, outside office hours
+        return TriggerBuilder.newTrigger()
+                .forJob(organizationChangeCompactionJobDetail())
+                .withIdentity(OrganizationChangeCompactionJob.class.getSimpleName())
+                .withSchedule(CronScheduleBuilder.dailyAtHourAndMinute(3, 30))
+                .build();
+    }
+
 }
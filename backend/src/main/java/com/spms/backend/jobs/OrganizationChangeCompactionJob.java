@@ -0,0 +1,21 @@
+package com.spms.backend.jobs;
+
+import com.spms.backend.service.idm.OrganizationChangeLog;
+import org.quartz.JobExecutionContext;
+import org.quartz.JobExecutionException;
+import org.springframework.beans.factory.annotation.Autowired;
+
+/**
+ * Drops superseded and expired entries from the organization change log.
+ */
+public class OrganizationChangeCompactionJob extends BaseJob {
+
+    @Autowired
+    OrganizationChangeLog organizationChangeLog;
+
+    @Override
+    protected void executeJob(JobExecutionContext context) throws JobExecutionException {
+        int removed = organizationChangeLog.compact();
+        logger.info("Removed {} organization change log entries", removed);
+    }
+}
@@ -0,0 +1,48 @@
+package com.spms.backend.repository;
+
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Database-specific SQL for statements written with plain JDBC.
+ * <p>
+ * Production runs on PostgreSQL; H2 is used in development and tests, with a single
+ * writer, so the portable statements only have to be correct there, not concurrency-safe.
+ */
+@Component
+public class DatabasePlatform {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private volatile Boolean postgreSQL;
+
+    public DatabasePlatform(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return whether the database is PostgreSQL
+     */
+    public boolean isPostgreSQL() {
+        Boolean result = postgreSQL;
+        if (result == null) {
+            result = jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName()));
+            postgreSQL = result;
+        }
+        return result;
+    }
+
+    /**
+     * Completes an {@code INSERT ... SELECT ... WHERE NOT EXISTS} statement so that it also
+     * skips the row when a concurrent transaction inserts the same key between the check
+     * and the insert, instead of failing on the unique constraint.
+     *
+     * @param insertIfAbsent the insert statement
+     * @return the statement to execute
+     */
+    public String ignoreConflicts(String insertIfAbsent) {
+        return isPostgreSQL() ? insertIfAbsent + " ON CONFLICT DO NOTHING" : insertIfAbsent;
+    }
+}
@@ -0,0 +1,43 @@
+package com.spms.backend.repository;
+
+import org.springframework.stereotype.Component;
+
+/**
+ * Database-specific SQL for JSON columns that are written or queried with plain JDBC.
+ * <p>
+ * On PostgreSQL JSON columns are {@code jsonb}, which can be indexed and queried with the
+ * JSON operators. Other databases (H2 in development and tests) get a portable path: the
+ * column is written from and read as JSON text, and callers evaluate conditions in Java.
+ */
+@Component
+public class JsonColumnSupport {
+
+    private final DatabasePlatform platform;
+
+    public JsonColumnSupport(DatabasePlatform platform) {
+        this.platform = platform;
+    }
+
+    /**
+     * @return whether the database is PostgreSQL, so the jsonb operators are available
+     */
+    public boolean isPostgreSQL() {
+        return platform.isPostgreSQL();
+    }
+
+    /**
+     * @return a placeholder that binds JSON text to a JSON column
+     */
+    public String jsonParameter() {
+        // H2 would store a plain string parameter as a JSON string value, not parse it
+        return isPostgreSQL() ? "CAST(? AS jsonb)" : "? FORMAT JSON";
+    }
+
+    /**
+     * @param column quoted column name
+     * @return an expression reading the JSON column as text
+     */
+    public String asText(String column) {
+        return isPostgreSQL() ? column + "::text" : "CAST(" + column + " AS VARCHAR)";
+    }
+}
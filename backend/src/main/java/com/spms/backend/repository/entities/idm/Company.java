@@ -4,6 +4,8 @@ import com.spms.backend.repository.entities.BaseEntity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -18,6 +20,8 @@ import java.util.Set;
  */
 @Entity
 @Table(name = "spms_company")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "idm-company")
 @Getter
 @Setter
 public class Company extends BaseEntity {
@@ -45,6 +49,7 @@ public class Company extends BaseEntity {
     @Column()
     private String description;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "idm-company")
     @ElementCollection
     @CollectionTable(name = "spms_company_language_tags",
             joinColumns = @JoinColumn(name = "company_id"))
@@ -52,6 +57,7 @@ public class Company extends BaseEntity {
     @Column(name = "value")
     private Map<String, String> languageTags;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "idm-company")
     @ElementCollection
     @CollectionTable(name = "spms_company_profiles",
             joinColumns = @JoinColumn(name = "company_id"))
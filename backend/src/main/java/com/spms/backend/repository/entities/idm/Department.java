@@ -4,6 +4,8 @@ import com.spms.backend.repository.entities.BaseEntity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.Map;
@@ -11,6 +13,8 @@ import java.util.Set;
 
 @Entity
 @Table(name = "spms_department")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "idm-department")
 @Getter
 @Setter
 public class Department extends BaseEntity {
@@ -21,6 +25,7 @@ public class Department extends BaseEntity {
     @Column(nullable = false, unique = true)
     private String name;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "idm-department")
     @ElementCollection
     @CollectionTable(name = "spms_department_tags",
             joinColumns = @JoinColumn(name = "department_id"))
@@ -4,6 +4,8 @@ import com.spms.backend.repository.entities.BaseEntity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
@@ -14,6 +16,8 @@ import java.time.LocalDateTime;
  */
 @Entity
 @Table(name = "spms_division")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "idm-division")
 @Getter
 @Setter
 public class Division extends BaseEntity {
@@ -0,0 +1,38 @@
+package com.spms.backend.repository.entities.idm;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Entry of the append-only organization change log.
+ * <p>
+ * Sequence numbers are assigned in commit order by {@code OrganizationChangeRepository}
+ * rather than generated per insert, so a consumer that has seen a sequence number has
+ * also seen every change committed before it.
+ */
+@Entity
+@Table(name = "spms_org_change",
+        indexes = @Index(name = "idx_org_change_entity", columnList = "entity_type, entity_id"))
+@Getter
+@Setter
+public class OrganizationChange {
+
+    @Id
+    @Column(name = "seq")
+    private Long sequence;
+
+    @Column(nullable = false, length = 20)
+    private String entityType;
+
+    @Column(nullable = false, length = 20)
+    private String changeType;
+
+    @Column
+    private Long entityId;
+
+    @Column(nullable = false)
+    private LocalDateTime changedAt;
+}
@@ -0,0 +1,28 @@
+package com.spms.backend.repository.entities.idm;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * Single row holding the last assigned change log sequence number.
+ * <p>
+ * The row is locked by every committing writer, which serializes sequence assignment
+ * in commit order. {@code purgedThrough} is the highest sequence number removed by
+ * retention; consumers behind it have missed changes and must resynchronize.
+ */
+@Entity
+@Table(name = "spms_org_change_counter")
+@Getter
+@Setter
+public class OrganizationChangeCounter {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long lastSequence;
+
+    @Column(nullable = false)
+    private Long purgedThrough;
+}
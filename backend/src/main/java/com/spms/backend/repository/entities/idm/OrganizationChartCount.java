@@ -0,0 +1,62 @@
+package com.spms.backend.repository.entities.idm;
+
+import jakarta.persistence.*;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+
+/**
+ * Precomputed counts of one node of an organization chart.
+ * <p>
+ * Each chart mode is stored as its own tree, so a company appears once per mode. The row
+ * keeps its chart parent, which lets a membership change adjust the totals of all
+ * ancestors without resolving the department hierarchy again. Rows are written by
+ * {@code OrganizationChartCountRepository} only.
+ */
+@Entity
+@Table(name = "spms_org_chart_count",
+        indexes = @Index(name = "idx_org_chart_count_parent", columnList = "chart_mode, parent_type, parent_id"))
+@IdClass(OrganizationChartCount.Key.class)
+@Getter
+@Setter
+public class OrganizationChartCount {
+
+    @Id
+    @Column(length = 20)
+    private String chartMode;
+
+    @Id
+    @Column(length = 20)
+    private String nodeType;
+
+    @Id
+    private Long nodeId;
+
+    @Column(length = 20)
+    private String parentType;
+
+    @Column
+    private Long parentId;
+
+    @Column(nullable = false)
+    private Integer directChildren;
+
+    @Column(nullable = false)
+    private Long directMembers;
+
+    @Column(nullable = false)
+    private Long totalMembers;
+
+    @Getter
+    @Setter
+    @NoArgsConstructor
+    @EqualsAndHashCode
+    public static class Key implements Serializable {
+        private String chartMode;
+        private String nodeType;
+        private Long nodeId;
+    }
+}
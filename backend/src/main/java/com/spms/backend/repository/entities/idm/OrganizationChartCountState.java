@@ -0,0 +1,29 @@
+package com.spms.backend.repository.entities.idm;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.time.LocalDateTime;
+
+/**
+ * Single row guarding the organization chart counts.
+ * <p>
+ * Every writer of {@code spms_org_chart_count} locks the row first, which serializes
+ * incremental updates and rebuilds. The row only exists once the counts were built.
+ */
+@Entity
+@Table(name = "spms_org_chart_count_state")
+@Getter
+@Setter
+public class OrganizationChartCountState {
+
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private Long revision;
+
+    @Column
+    private LocalDateTime builtAt;
+}
@@ -4,6 +4,8 @@ import com.spms.backend.repository.entities.BaseEntity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
 
 import java.time.LocalDateTime;
 import java.util.HashSet;
@@ -13,17 +15,21 @@ import java.util.Set;
 @Getter
 @Setter
 @Table(name = "spms_role")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "idm-role")
 public class Role extends BaseEntity {
     @Column(unique = true, nullable = false)
     private String name;
 
     private String description;
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "idm-role")
     @ElementCollection
     @CollectionTable(name = "spms_role_permissions", joinColumns = @JoinColumn(name = "role_id"))
     @Column(name = "permission")
     private Set<String> permissions = new HashSet<>();
 
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE, region = "idm-role")
     @ManyToMany
     @JoinTable(name = "spms_role_hierarchy",
         joinColumns = @JoinColumn(name = "child_id"),
@@ -45,11 +51,4 @@ public class Role extends BaseEntity {
     public Role(String name) {
         this.name = name;
     }
-
-    public Set<String> getAllPermissions() {
-        Set<String> allPermissions = new HashSet<>(this.permissions);
-        parentRoles.forEach(parent -> 
-            allPermissions.addAll(parent.getAllPermissions()));
-        return allPermissions;
-    }
 }
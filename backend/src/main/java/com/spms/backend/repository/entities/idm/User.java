@@ -4,6 +4,8 @@ import com.spms.backend.repository.entities.BaseEntity;
 import jakarta.persistence.*;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 import java.util.*;
@@ -45,11 +47,12 @@ public class User extends BaseEntity {
     @Column()
     private String description;
 
-    @ElementCollection
-    @CollectionTable(name = "spms_user_profiles",
-            joinColumns = @JoinColumn(name = "user_id"))
-    @MapKeyColumn(name = "key")
-    @Column(name = "value")
+    /**
+     * Profile attributes, stored as one JSON document (jsonb on PostgreSQL) so they load with
+     * the user and can be filtered on; see {@code UserProfileRepository}.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "profiles")
     private Map<String, String> userProfiles;
 
     @ManyToMany
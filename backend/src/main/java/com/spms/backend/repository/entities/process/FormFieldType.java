@@ -0,0 +1,15 @@
+package com.spms.backend.repository.entities.process;
+
+/**
+ * How the values of an indexed form field are compared and sorted.
+ */
+public enum FormFieldType {
+    /**
+     * Compared as text; ISO-8601 dates and times sort correctly as text.
+     */
+    STRING,
+    /**
+     * Compared as decimal numbers; values that are not numbers are treated as missing.
+     */
+    NUMBER
+}
@@ -0,0 +1,42 @@
+package com.spms.backend.repository.entities.process;
+
+import com.spms.backend.repository.entities.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * A field of the form data that form instances can be filtered and sorted on.
+ * <p>
+ * On PostgreSQL each declared field has an expression index on
+ * {@code (form_key, <field value>)} of {@code spms_form_instance}; see
+ * {@code FormDataQueryRepository}.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "spms_form_indexed_field",
+        uniqueConstraints = @UniqueConstraint(name = "uk_form_indexed_field", columnNames = {"form_key", "field_path"}))
+public class FormIndexedFieldEntity extends BaseEntity {
+
+    @Column(name = "form_key", nullable = false)
+    private String formKey;
+
+    /**
+     * Dot-separated path of the field in the form data.
+     */
+    @Column(name = "field_path", nullable = false, length = 200)
+    private String fieldPath;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "field_type", nullable = false, length = 20)
+    private FormFieldType fieldType;
+
+    @Column(name = "created_at", nullable = false)
+    private Long createdAt;
+}
@@ -4,17 +4,23 @@ import com.spms.backend.repository.entities.BaseEntity;
 import jakarta.persistence.Column;
 import jakarta.persistence.Convert;
 import jakarta.persistence.Entity;
+import jakarta.persistence.Index;
 import jakarta.persistence.Table;
 import lombok.Data;
 import lombok.Getter;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.time.LocalDateTime;
 
 @Setter
 @Getter
 @Entity
-@Table(name = "spms_form_instance")
+@Table(name = "spms_form_instance", indexes = {
+        @Index(name = "idx_form_instance_key_created", columnList = "form_key, created_at, id"),
+        @Index(name = "idx_form_instance_key_version_created", columnList = "form_key, version, created_at, id")
+})
 public class FormInstanceEntity extends BaseEntity {
 
     @Column(name = "form_key", nullable = false)
@@ -23,7 +29,12 @@ public class FormInstanceEntity extends BaseEntity {
     @Column(nullable = false)
     private String version;
 
-    @Column(name = "form_data", columnDefinition = "TEXT")
+    /**
+     * Form data as JSON text, stored in a JSON column (jsonb on PostgreSQL) so that the
+     * indexed fields can be queried; see {@code FormDataQueryRepository}.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(name = "form_data")
     private String formData;
 
     @Column(name = "created_at", nullable = false)
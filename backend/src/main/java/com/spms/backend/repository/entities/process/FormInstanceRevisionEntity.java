@@ -0,0 +1,49 @@
+package com.spms.backend.repository.entities.process;
+
+import com.spms.backend.repository.entities.BaseEntity;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Table;
+import jakarta.persistence.UniqueConstraint;
+import lombok.Getter;
+import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+/**
+ * One saved state of a form instance's data. Most revisions store only the change from the
+ * previous revision; every few revisions store a full snapshot, so a state is rebuilt from
+ * the nearest snapshot and a bounded number of patches.
+ */
+@Setter
+@Getter
+@Entity
+@Table(name = "spms_form_instance_revision",
+        uniqueConstraints = @UniqueConstraint(name = "uk_form_instance_revision", columnNames = {"instance_id", "revision"}))
+public class FormInstanceRevisionEntity extends BaseEntity {
+
+    @Column(name = "instance_id", nullable = false)
+    private Long instanceId;
+
+    /**
+     * Revision number, starting at 1 for each instance.
+     */
+    @Column(nullable = false)
+    private Integer revision;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 20)
+    private FormRevisionKind kind;
+
+    /**
+     * The form data for a snapshot, the JSON Patch array for a patch.
+     */
+    @JdbcTypeCode(SqlTypes.JSON)
+    @Column(nullable = false)
+    private String payload;
+
+    @Column(name = "created_at", nullable = false)
+    private Long createdAt;
+}
@@ -0,0 +1,15 @@
+package com.spms.backend.repository.entities.process;
+
+/**
+ * How a form instance revision stores the form data.
+ */
+public enum FormRevisionKind {
+    /**
+     * The complete form data of the revision.
+     */
+    SNAPSHOT,
+    /**
+     * A JSON Patch (RFC 6902) turning the data of the previous revision into this one.
+     */
+    PATCH
+}
@@ -6,17 +6,44 @@ import java.util.List;
 import com.spms.backend.repository.entities.idm.Company;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+/**
+ * List queries fetch the parent company in the same select; element collections are
+ * loaded in batches (see {@code hibernate.default_batch_fetch_size}).
+ */
 @Repository
 public interface CompanyRepository extends BaseRepository<Company, Long> {
+    @Override
+    @EntityGraph(attributePaths = "parent")
+    Page<Company> findAll(Pageable pageable);
+    @EntityGraph(attributePaths = "parent")
     Page<Company> findByNameContainingIgnoreCase(String name, Pageable pageable);
     boolean existsByName(String name);
+    @EntityGraph(attributePaths = "parent")
     Page<Company> findByParentId(Long parentId, Pageable pageable);
+    @EntityGraph(attributePaths = "parent")
     Page<Company> findByParentIdAndNameContainingIgnoreCase(Long parentId, String name, Pageable pageable);
     
+    @EntityGraph(attributePaths = "parent")
     List<Company> findByCompanyType(CompanyType type);
+    @EntityGraph(attributePaths = "parent")
     Page<Company> findByCompanyType(CompanyType type, Pageable pageable);
+    @EntityGraph(attributePaths = "parent")
     Page<Company> findByCompanyTypeAndNameContainingIgnoreCase(CompanyType type, String name, Pageable pageable);
     List<Company> findByParentIdAndCompanyType(Long parentId, CompanyType type);
+
+    /**
+     * Position of a company in the company tree, without loading the entity.
+     */
+    interface CompanyNode {
+        Long getId();
+        Long getParentId();
+        CompanyType getCompanyType();
+    }
+
+    @Query("SELECT c.id AS id, p.id AS parentId, c.companyType AS companyType FROM Company c LEFT JOIN c.parent p")
+    List<CompanyNode> findHierarchyNodes();
 }
@@ -0,0 +1,116 @@
+package com.spms.backend.repository.idm;
+
+import com.spms.backend.repository.DatabasePlatform;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Direct access to the {@code spms_department_user} join table.
+ * <p>
+ * Membership changes are written as batched statements, so their cost depends on the
+ * number of users changed rather than on the size of the department. The persistence
+ * context is bypassed; callers must not rely on an already loaded {@code Department.users}
+ * collection afterwards.
+ */
+@Repository
+public class DepartmentMembershipRepository {
+
+    static final int BATCH_SIZE = 500;
+
+    // Identifiers are quoted so the statements also match schemas created with globally quoted identifiers
+    private static final String INSERT_IF_ABSENT =
+            "INSERT INTO \"spms_department_user\" (\"department_id\", \"user_id\") " +
+            "SELECT ?, ? WHERE NOT EXISTS (" +
+            "SELECT 1 FROM \"spms_department_user\" WHERE \"department_id\" = ? AND \"user_id\" = ?)";
+
+    private static final String INSERT =
+            "INSERT INTO \"spms_department_user\" (\"department_id\", \"user_id\") VALUES (?, ?)";
+
+    private static final String DELETE =
+            "DELETE FROM \"spms_department_user\" WHERE \"department_id\" = ? AND \"user_id\" = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DatabasePlatform platform;
+
+    public DepartmentMembershipRepository(JdbcTemplate jdbcTemplate, DatabasePlatform platform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.platform = platform;
+    }
+
+    /**
+     * Adds users to a department; users that are already members are skipped.
+     *
+     * @param departmentId department ID
+     * @param userIds      IDs of users to add
+     * @return number of memberships actually inserted
+     */
+    public int insertIfAbsent(Long departmentId, Collection<Long> userIds) {
+        String sql = platform.ignoreConflicts(INSERT_IF_ABSENT);
+        return sum(jdbcTemplate.batchUpdate(sql, List.copyOf(userIds), BATCH_SIZE, (ps, userId) -> {
+            ps.setLong(1, departmentId);
+            ps.setLong(2, userId);
+            ps.setLong(3, departmentId);
+            ps.setLong(4, userId);
+        }));
+    }
+
+    /**
+     * Inserts memberships that are known not to exist yet, e.g. for users created in the same transaction.
+     *
+     * @param memberships department/user pairs to insert
+     */
+    public void insertAll(Collection<Entry> memberships) {
+        jdbcTemplate.batchUpdate(INSERT, List.copyOf(memberships), BATCH_SIZE, (ps, membership) -> {
+            ps.setLong(1, membership.departmentId());
+            ps.setLong(2, membership.userId());
+        });
+    }
+
+    /**
+     * Removes users from a department; users that are not members are ignored.
+     *
+     * @param departmentId department ID
+     * @param userIds      IDs of users to remove
+     * @return number of memberships actually deleted
+     */
+    public int delete(Long departmentId, Collection<Long> userIds) {
+        return sum(jdbcTemplate.batchUpdate(DELETE, List.copyOf(userIds), BATCH_SIZE, (ps, userId) -> {
+            ps.setLong(1, departmentId);
+            ps.setLong(2, userId);
+        }));
+    }
+
+    /**
+     * Removes memberships across any number of departments.
+     *
+     * @param memberships department/user pairs to delete
+     * @return number of memberships actually deleted
+     */
+    public int deleteAll(Collection<Entry> memberships) {
+        return sum(jdbcTemplate.batchUpdate(DELETE, List.copyOf(memberships), BATCH_SIZE, (ps, membership) -> {
+            ps.setLong(1, membership.departmentId());
+            ps.setLong(2, membership.userId());
+        }));
+    }
+
+    /**
+     * A single row of the membership table.
+     */
+    public record Entry(Long departmentId, Long userId) {
+    }
+
+    private static int sum(int[][] counts) {
+        int total = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                // Drivers may report SUCCESS_NO_INFO (-2) instead of a row count
+                total += Math.max(count, 0);
+            }
+        }
+        return total;
+    }
+}
@@ -3,12 +3,16 @@ package com.spms.backend.repository.idm;
 import com.spms.backend.repository.entities.idm.Department;
 import com.spms.backend.repository.entities.idm.DepartmentType;
 import com.spms.backend.repository.BaseRepository;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -23,4 +27,46 @@ public interface DepartmentRepository extends BaseRepository<Department, Long>,
     List<Department> findDepartmentWithUsers(Long userId);
 
     Page<Department> findByNameContainingIgnoreCase(String name, Pageable pageable);
+
+    /**
+     * Department list query; the head is fetched in the same select.
+     */
+    @Override
+    @EntityGraph(attributePaths = "departmentHead")
+    Page<Department> findAll(Specification<Department> spec, Pageable pageable);
+
+    @Query("SELECT d.id FROM Department d WHERE d.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT DISTINCT u.id FROM Department d JOIN d.users u WHERE d.id IN :ids")
+    List<Long> findMemberIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Flat view of a department's position in the hierarchy, without loading the entity.
+     */
+    interface HierarchyNode {
+        Long getId();
+        Long getParent();
+        DepartmentType getType();
+        Integer getLevel();
+        String getHeadUsername();
+    }
+
+    /**
+     * A single row of the department/user join table.
+     */
+    interface Membership {
+        String getUsername();
+        Long getDepartmentId();
+        DepartmentType getType();
+    }
+
+    @Query("SELECT d.id AS id, d.parent AS parent, d.type AS type, d.level AS level, h.username AS headUsername " +
+            "FROM Department d LEFT JOIN d.departmentHead h")
+    List<HierarchyNode> findHierarchyNodes();
+
+    @Query("SELECT u.username AS username, d.id AS departmentId, d.type AS type " +
+            "FROM Department d JOIN d.users u " +
+            "WHERE d.type IN :types ORDER BY d.id")
+    List<Membership> findMemberships(@Param("types") Collection<DepartmentType> types);
 }
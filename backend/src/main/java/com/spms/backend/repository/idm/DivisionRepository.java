@@ -4,8 +4,11 @@ import com.spms.backend.repository.entities.idm.Division;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -15,4 +18,18 @@ public interface DivisionRepository extends JpaRepository<Division, Long> {
     Page<Division> findByCompanyId(Long companyId, Pageable pageable);
     Page<Division> findByCompanyIdAndNameContainingIgnoreCase(Long companyId, String name, Pageable pageable);
     List<Division> findByCompanyId(Long companyId);
+
+    @Query("SELECT d.id FROM Division d WHERE d.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Division ID paired with the username of its head.
+     */
+    interface DivisionHead {
+        Long getId();
+        String getHeadUsername();
+    }
+
+    @Query("SELECT d.id AS id, h.username AS headUsername FROM Division d JOIN d.divisionHead h")
+    List<DivisionHead> findDivisionHeads();
 }
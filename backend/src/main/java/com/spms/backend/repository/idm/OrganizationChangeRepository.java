@@ -0,0 +1,173 @@
+package com.spms.backend.repository.idm;
+
+import com.spms.backend.repository.DatabasePlatform;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Direct access to the organization change log ({@code spms_org_change}) and its
+ * sequence counter ({@code spms_org_change_counter}).
+ * <p>
+ * {@link #append} must run inside the writing transaction, as late as possible: it locks
+ * the counter row until the transaction ends, so sequence numbers are handed out in
+ * commit order and a reader never sees a gap that is filled later.
+ */
+@Repository
+public class OrganizationChangeRepository {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final long COUNTER_ID = 1L;
+
+    // Identifiers are quoted so the statements also match schemas created with globally quoted identifiers
+    private static final String ALLOCATE =
+            "UPDATE \"spms_org_change_counter\" SET \"last_sequence\" = \"last_sequence\" + ? WHERE \"id\" = ?";
+
+    private static final String CREATE_COUNTER =
+            "INSERT INTO \"spms_org_change_counter\" (\"id\", \"last_sequence\", \"purged_through\") " +
+            "SELECT ?, 0, 0 WHERE NOT EXISTS (SELECT 1 FROM \"spms_org_change_counter\" WHERE \"id\" = ?)";
+
+    private static final String SELECT_COUNTER =
+            "SELECT \"last_sequence\", \"purged_through\" FROM \"spms_org_change_counter\" WHERE \"id\" = ?";
+
+    private static final String INSERT =
+            "INSERT INTO \"spms_org_change\" (\"seq\", \"entity_type\", \"change_type\", \"entity_id\", \"changed_at\") " +
+            "VALUES (?, ?, ?, ?, ?)";
+
+    private static final String SELECT_SINCE =
+            "SELECT \"seq\", \"entity_type\", \"change_type\", \"entity_id\", \"changed_at\" FROM \"spms_org_change\" " +
+            "WHERE \"seq\" > ? ORDER BY \"seq\" LIMIT ?";
+
+    private static final String DELETE_SUPERSEDED =
+            "DELETE FROM \"spms_org_change\" c WHERE c.\"changed_at\" < ? AND EXISTS (" +
+            "SELECT 1 FROM \"spms_org_change\" n WHERE n.\"entity_type\" = c.\"entity_type\" " +
+            "AND n.\"entity_id\" = c.\"entity_id\" AND n.\"seq\" > c.\"seq\")";
+
+    private static final String SELECT_PURGE_LIMIT =
+            "SELECT MAX(\"seq\") FROM \"spms_org_change\" WHERE \"changed_at\" < ?";
+
+    private static final String UPDATE_PURGED_THROUGH =
+            "UPDATE \"spms_org_change_counter\" SET \"purged_through\" = GREATEST(\"purged_through\", ?) WHERE \"id\" = ?";
+
+    private static final String DELETE_THROUGH =
+            "DELETE FROM \"spms_org_change\" WHERE \"seq\" <= ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DatabasePlatform platform;
+
+    public OrganizationChangeRepository(JdbcTemplate jdbcTemplate, DatabasePlatform platform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.platform = platform;
+    }
+
+    /**
+     * Assigns the next sequence numbers to the changes, in list order, and stores them.
+     *
+     * @param changes   changes to append
+     * @param changedAt time recorded for all changes
+     * @return the sequence number of the last change
+     */
+    public long append(List<NewChange> changes, LocalDateTime changedAt) {
+        if (jdbcTemplate.update(ALLOCATE, changes.size(), COUNTER_ID) == 0) {
+            jdbcTemplate.update(platform.ignoreConflicts(CREATE_COUNTER), COUNTER_ID, COUNTER_ID);
+            jdbcTemplate.update(ALLOCATE, changes.size(), COUNTER_ID);
+        }
+        long last = readCounter()[0];
+        long first = last - changes.size() + 1;
+
+        Timestamp timestamp = Timestamp.valueOf(changedAt);
+        List<Entry> entries = new ArrayList<>(changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            NewChange change = changes.get(i);
+            entries.add(new Entry(first + i, change.entityType(), change.changeType(), change.entityId(), changedAt));
+        }
+        jdbcTemplate.batchUpdate(INSERT, entries, BATCH_SIZE, (ps, entry) -> {
+            ps.setLong(1, entry.sequence());
+            ps.setString(2, entry.entityType());
+            ps.setString(3, entry.changeType());
+            if (entry.entityId() == null) {
+                ps.setNull(4, Types.BIGINT);
+            } else {
+                ps.setLong(4, entry.entityId());
+            }
+            ps.setTimestamp(5, timestamp);
+        });
+        return last;
+    }
+
+    /**
+     * @param since exclusive lower bound of the sequence number
+     * @param limit maximum number of entries
+     * @return entries after {@code since}, in sequence order
+     */
+    public List<Entry> findSince(long since, int limit) {
+        return jdbcTemplate.query(SELECT_SINCE, (rs, i) -> new Entry(
+                rs.getLong(1), rs.getString(2), rs.getString(3),
+                rs.getObject(4) == null ? null : rs.getLong(4),
+                rs.getTimestamp(5).toLocalDateTime()), since, limit);
+    }
+
+    /**
+     * @return the last assigned sequence number, 0 if nothing was ever appended
+     */
+    public long findLastSequence() {
+        return readCounter()[0];
+    }
+
+    /**
+     * @return the highest sequence number removed by {@link #purgeBefore}, 0 if none
+     */
+    public long findPurgedThrough() {
+        return readCounter()[1];
+    }
+
+    /**
+     * Removes entries older than the given time for which a newer entry of the same entity exists.
+     *
+     * @param before entries changed before this time are candidates
+     * @return number of entries removed
+     */
+    public int deleteSuperseded(LocalDateTime before) {
+        return jdbcTemplate.update(DELETE_SUPERSEDED, Timestamp.valueOf(before));
+    }
+
+    /**
+     * Removes every entry older than the given time and records the highest removed sequence number.
+     *
+     * @param before entries changed before this time are removed
+     * @return number of entries removed
+     */
+    public int purgeBefore(LocalDateTime before) {
+        Long through = jdbcTemplate.queryForObject(SELECT_PURGE_LIMIT, Long.class, Timestamp.valueOf(before));
+        if (through == null) {
+            return 0;
+        }
+        jdbcTemplate.update(UPDATE_PURGED_THROUGH, through, COUNTER_ID);
+        return jdbcTemplate.update(DELETE_THROUGH, through);
+    }
+
+    /**
+     * A change waiting for its sequence number.
+     */
+    public record NewChange(String entityType, String changeType, Long entityId) {
+    }
+
+    /**
+     * A stored change log entry.
+     */
+    public record Entry(long sequence, String entityType, String changeType, Long entityId, LocalDateTime changedAt) {
+    }
+
+    private long[] readCounter() {
+        List<long[]> rows = jdbcTemplate.query(SELECT_COUNTER,
+                (rs, i) -> new long[]{rs.getLong(1), rs.getLong(2)}, COUNTER_ID);
+        return rows.isEmpty() ? new long[2] : rows.get(0);
+    }
+}
@@ -0,0 +1,217 @@
+package com.spms.backend.repository.idm;
+
+import com.spms.backend.repository.DatabasePlatform;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Direct access to the organization chart counts ({@code spms_org_chart_count}) and
+ * their guard row ({@code spms_org_chart_count_state}).
+ * <p>
+ * Every write must run after {@link #lock()} in the same transaction. Chart reads join
+ * the names of the nodes, so renames never touch the counts.
+ */
+@Repository
+public class OrganizationChartCountRepository {
+
+    static final int BATCH_SIZE = 500;
+
+    private static final long STATE_ID = 1L;
+
+    // Identifiers are quoted so the statements also match schemas created with globally quoted identifiers
+    private static final String LOCK =
+            "UPDATE \"spms_org_chart_count_state\" SET \"revision\" = \"revision\" + 1 WHERE \"id\" = ?";
+
+    private static final String CREATE_STATE =
+            "INSERT INTO \"spms_org_chart_count_state\" (\"id\", \"revision\") " +
+            "SELECT ?, 0 WHERE NOT EXISTS (SELECT 1 FROM \"spms_org_chart_count_state\" WHERE \"id\" = ?)";
+
+    private static final String SELECT_BUILT =
+            "SELECT \"built_at\" FROM \"spms_org_chart_count_state\" WHERE \"id\" = ?";
+
+    private static final String MARK_BUILT =
+            "UPDATE \"spms_org_chart_count_state\" SET \"built_at\" = ? WHERE \"id\" = ?";
+
+    private static final String DELETE_ALL =
+            "DELETE FROM \"spms_org_chart_count\"";
+
+    private static final String INSERT =
+            "INSERT INTO \"spms_org_chart_count\" (\"chart_mode\", \"node_type\", \"node_id\", \"parent_type\", " +
+            "\"parent_id\", \"direct_children\", \"direct_members\", \"total_members\") VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String COLUMNS =
+            "\"chart_mode\", \"node_type\", \"node_id\", \"parent_type\", \"parent_id\", " +
+            "\"direct_children\", \"direct_members\", \"total_members\"";
+
+    private static final String SELECT_BY_NODE =
+            "SELECT " + COLUMNS + " FROM \"spms_org_chart_count\" WHERE \"node_type\" = ? AND \"node_id\" = ?";
+
+    private static final String SELECT_ONE =
+            "SELECT " + COLUMNS + " FROM \"spms_org_chart_count\" " +
+            "WHERE \"chart_mode\" = ? AND \"node_type\" = ? AND \"node_id\" = ?";
+
+    private static final String UPDATE_DIRECT_MEMBERS =
+            "UPDATE \"spms_org_chart_count\" SET \"direct_members\" = ? " +
+            "WHERE \"chart_mode\" = ? AND \"node_type\" = ? AND \"node_id\" = ?";
+
+    private static final String ADD_TOTAL_MEMBERS =
+            "UPDATE \"spms_org_chart_count\" SET \"total_members\" = \"total_members\" + ? " +
+            "WHERE \"chart_mode\" = ? AND \"node_type\" = ? AND \"node_id\" = ?";
+
+    private static final String COUNT_MEMBERS =
+            "SELECT COUNT(*) FROM \"spms_department_user\" WHERE \"department_id\" = ?";
+
+    private static final String COUNT_MEMBERS_BY_DEPARTMENT =
+            "SELECT \"department_id\", COUNT(*) FROM \"spms_department_user\" GROUP BY \"department_id\"";
+
+    private static final String SELECT_VIEW =
+            "SELECT c.\"node_type\", c.\"node_id\", COALESCE(co.\"name\", dv.\"name\", dp.\"name\"), co.\"company_type\", " +
+            "c.\"direct_children\", c.\"direct_members\", c.\"total_members\" FROM \"spms_org_chart_count\" c " +
+            "LEFT JOIN \"spms_company\" co ON c.\"node_type\" = 'COMPANY' AND co.\"id\" = c.\"node_id\" " +
+            "LEFT JOIN \"spms_division\" dv ON c.\"node_type\" = 'DIVISION' AND dv.\"id\" = c.\"node_id\" " +
+            "LEFT JOIN \"spms_department\" dp ON c.\"node_type\" = 'DEPARTMENT' AND dp.\"id\" = c.\"node_id\" ";
+
+    private static final String SELECT_NODE_VIEW =
+            SELECT_VIEW + "WHERE c.\"chart_mode\" = ? AND c.\"node_type\" = ? AND c.\"node_id\" = ?";
+
+    private static final String SELECT_CHILD_VIEWS =
+            SELECT_VIEW + "WHERE c.\"chart_mode\" = ? AND c.\"parent_type\" = ? AND c.\"parent_id\" = ? " +
+            "ORDER BY c.\"node_type\", 3";
+
+    private static final RowMapper<Row> ROW_MAPPER = (rs, i) -> new Row(
+            rs.getString(1), rs.getString(2), rs.getLong(3), rs.getString(4),
+            rs.getObject(5) == null ? null : rs.getLong(5),
+            rs.getInt(6), rs.getLong(7), rs.getLong(8));
+
+    private static final RowMapper<NodeView> VIEW_MAPPER = (rs, i) -> new NodeView(
+            rs.getString(1), rs.getLong(2), rs.getString(3), rs.getString(4),
+            rs.getInt(5), rs.getLong(6), rs.getLong(7));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DatabasePlatform platform;
+
+    public OrganizationChartCountRepository(JdbcTemplate jdbcTemplate, DatabasePlatform platform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.platform = platform;
+    }
+
+    /**
+     * Locks the guard row until the transaction ends, creating it if needed.
+     *
+     * @return whether the counts have been built before
+     */
+    public boolean lock() {
+        if (jdbcTemplate.update(LOCK, STATE_ID) == 0) {
+            jdbcTemplate.update(platform.ignoreConflicts(CREATE_STATE), STATE_ID, STATE_ID);
+            jdbcTemplate.update(LOCK, STATE_ID);
+        }
+        return isBuilt();
+    }
+
+    /**
+     * @return whether the counts have been built before
+     */
+    public boolean isBuilt() {
+        List<Timestamp> builtAt = jdbcTemplate.query(SELECT_BUILT, (rs, i) -> rs.getTimestamp(1), STATE_ID);
+        return !builtAt.isEmpty() && builtAt.get(0) != null;
+    }
+
+    /**
+     * Replaces all counts.
+     *
+     * @param rows    counts of every node of every chart
+     * @param builtAt time recorded as the build time
+     */
+    public void replaceAll(Collection<Row> rows, LocalDateTime builtAt) {
+        jdbcTemplate.update(DELETE_ALL);
+        jdbcTemplate.batchUpdate(INSERT, List.copyOf(rows), BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, row.chartMode());
+            ps.setString(2, row.nodeType());
+            ps.setLong(3, row.nodeId());
+            ps.setString(4, row.parentType());
+            if (row.parentId() == null) {
+                ps.setNull(5, Types.BIGINT);
+            } else {
+                ps.setLong(5, row.parentId());
+            }
+            ps.setInt(6, row.directChildren());
+            ps.setLong(7, row.directMembers());
+            ps.setLong(8, row.totalMembers());
+        });
+        jdbcTemplate.update(MARK_BUILT, Timestamp.valueOf(builtAt), STATE_ID);
+    }
+
+    /**
+     * @return counts of the node in every chart it appears in
+     */
+    public List<Row> findByNode(String nodeType, long nodeId) {
+        return jdbcTemplate.query(SELECT_BY_NODE, ROW_MAPPER, nodeType, nodeId);
+    }
+
+    public Optional<Row> find(String chartMode, String nodeType, long nodeId) {
+        return jdbcTemplate.query(SELECT_ONE, ROW_MAPPER, chartMode, nodeType, nodeId).stream().findFirst();
+    }
+
+    public void updateDirectMembers(String chartMode, String nodeType, long nodeId, long directMembers) {
+        jdbcTemplate.update(UPDATE_DIRECT_MEMBERS, directMembers, chartMode, nodeType, nodeId);
+    }
+
+    public void addTotalMembers(String chartMode, String nodeType, long nodeId, long delta) {
+        jdbcTemplate.update(ADD_TOTAL_MEMBERS, delta, chartMode, nodeType, nodeId);
+    }
+
+    /**
+     * @return current number of members of the department
+     */
+    public long countMembers(long departmentId) {
+        Long count = jdbcTemplate.queryForObject(COUNT_MEMBERS, Long.class, departmentId);
+        return count == null ? 0 : count;
+    }
+
+    /**
+     * @return number of members by department ID, for departments with members only
+     */
+    public Map<Long, Long> countMembersByDepartment() {
+        Map<Long, Long> counts = new HashMap<>();
+        jdbcTemplate.query(COUNT_MEMBERS_BY_DEPARTMENT, rs -> {
+            counts.put(rs.getLong(1), rs.getLong(2));
+        });
+        return counts;
+    }
+
+    public Optional<NodeView> findView(String chartMode, String nodeType, long nodeId) {
+        return jdbcTemplate.query(SELECT_NODE_VIEW, VIEW_MAPPER, chartMode, nodeType, nodeId).stream().findFirst();
+    }
+
+    /**
+     * @return the direct children of the node, grouped by node type and ordered by name
+     */
+    public List<NodeView> findChildViews(String chartMode, String nodeType, long nodeId) {
+        return jdbcTemplate.query(SELECT_CHILD_VIEWS, VIEW_MAPPER, chartMode, nodeType, nodeId);
+    }
+
+    /**
+     * Stored counts of a chart node; {@code parentType} and {@code parentId} are {@code null} for roots.
+     */
+    public record Row(String chartMode, String nodeType, long nodeId, String parentType, Long parentId,
+                      int directChildren, long directMembers, long totalMembers) {
+    }
+
+    /**
+     * Counts of a chart node with its name; {@code companyType} is only set for companies.
+     */
+    public record NodeView(String nodeType, long nodeId, String name, String companyType,
+                           int directChildren, long directMembers, long totalMembers) {
+    }
+}
@@ -0,0 +1,80 @@
+package com.spms.backend.repository.idm;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Batched writes of the company and department tree structure.
+ * <p>
+ * Only the parent (and for departments the level) columns are touched, so moving many
+ * nodes costs a handful of round trips. The persistence context is bypassed; callers
+ * must not rely on already loaded company or department entities afterwards.
+ */
+@Repository
+public class OrganizationStructureRepository {
+
+    static final int BATCH_SIZE = 500;
+
+    // Identifiers are quoted so the statements also match schemas created with globally quoted identifiers
+    private static final String UPDATE_COMPANY_PARENT =
+            "UPDATE \"spms_company\" SET \"parent_id\" = ?, \"last_modified\" = ?, \"updated_by\" = ? WHERE \"id\" = ?";
+
+    private static final String UPDATE_DEPARTMENT_PARENT =
+            "UPDATE \"spms_department\" SET \"parent\" = ?, \"level\" = ?, \"updated_at\" = ?, \"updated_by\" = ? " +
+            "WHERE \"id\" = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrganizationStructureRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Sets the parent of many companies.
+     *
+     * @param moves     companies and their new parents; a {@code null} parent makes the company a root
+     * @param updatedBy username recorded as the last modifier
+     */
+    public void updateCompanyParents(Collection<CompanyParent> moves, String updatedBy) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_COMPANY_PARENT, List.copyOf(moves), BATCH_SIZE, (ps, move) -> {
+            if (move.parentId() == null) {
+                ps.setNull(1, Types.BIGINT);
+            } else {
+                ps.setLong(1, move.parentId());
+            }
+            ps.setTimestamp(2, now);
+            ps.setString(3, updatedBy);
+            ps.setLong(4, move.companyId());
+        });
+    }
+
+    /**
+     * Sets the parent and level of many departments.
+     *
+     * @param moves     departments with their new parents and levels
+     * @param updatedBy username recorded as the last modifier
+     */
+    public void updateDepartmentParents(Collection<DepartmentParent> moves, String updatedBy) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_DEPARTMENT_PARENT, List.copyOf(moves), BATCH_SIZE, (ps, move) -> {
+            ps.setLong(1, move.parentId());
+            ps.setInt(2, move.level());
+            ps.setTimestamp(3, now);
+            ps.setString(4, updatedBy);
+            ps.setLong(5, move.departmentId());
+        });
+    }
+
+    public record CompanyParent(Long companyId, Long parentId) {
+    }
+
+    public record DepartmentParent(Long departmentId, Long parentId, int level) {
+    }
+}
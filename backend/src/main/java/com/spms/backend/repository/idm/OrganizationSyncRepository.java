@@ -0,0 +1,321 @@
+package com.spms.backend.repository.idm;
+
+import com.spms.backend.repository.entities.idm.CompanyType;
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.repository.entities.idm.DivisionType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Flat reads and batched writes of the company, division and department tables for the
+ * organization synchronization.
+ * <p>
+ * The current state is read with one select per table, without loading entities; inserts
+ * and updates are sent as batched statements. The persistence context is bypassed; callers
+ * must not rely on already loaded organization entities afterwards.
+ */
+@Repository
+public class OrganizationSyncRepository {
+
+    static final int BATCH_SIZE = 500;
+
+    // Upper bound for the number of values in a single IN list
+    static final int IN_CHUNK_SIZE = 1000;
+
+    // Identifiers are quoted so the statements also match schemas created with globally quoted identifiers
+    private static final String SELECT_COMPANIES =
+            "SELECT \"id\", \"name\", \"description\", \"company_type\", \"parent_id\", \"active\" FROM \"spms_company\"";
+
+    private static final String INSERT_COMPANY =
+            "INSERT INTO \"spms_company\" (\"name\", \"description\", \"company_type\", \"parent_id\", \"active\", " +
+            "\"created_by\", \"updated_by\", \"created_time\", \"last_modified\") VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_COMPANY =
+            "UPDATE \"spms_company\" SET \"description\" = ?, \"company_type\" = ?, \"parent_id\" = ?, \"active\" = ?, " +
+            "\"updated_by\" = ?, \"last_modified\" = ? WHERE \"id\" = ?";
+
+    private static final String SELECT_DIVISIONS =
+            "SELECT \"id\", \"name\", \"description\", \"type\", \"company_id\", \"division_head_id\", \"active\" " +
+            "FROM \"spms_division\"";
+
+    private static final String INSERT_DIVISION =
+            "INSERT INTO \"spms_division\" (\"name\", \"description\", \"type\", \"company_id\", \"division_head_id\", " +
+            "\"active\", \"created_by\", \"updated_by\", \"created_time\", \"last_modified\") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_DIVISION =
+            "UPDATE \"spms_division\" SET \"description\" = ?, \"type\" = ?, \"company_id\" = ?, " +
+            "\"division_head_id\" = ?, \"active\" = ?, \"updated_by\" = ?, \"last_modified\" = ? WHERE \"id\" = ?";
+
+    private static final String SELECT_DEPARTMENTS =
+            "SELECT \"id\", \"name\", \"type\", \"level\", \"parent\", \"department_head_id\", \"active\" " +
+            "FROM \"spms_department\"";
+
+    private static final String INSERT_DEPARTMENT =
+            "INSERT INTO \"spms_department\" (\"name\", \"type\", \"level\", \"parent\", \"department_head_id\", " +
+            "\"active\", \"created_by\", \"updated_by\", \"created_at\", \"updated_at\") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String UPDATE_DEPARTMENT =
+            "UPDATE \"spms_department\" SET \"type\" = ?, \"level\" = ?, \"parent\" = ?, \"department_head_id\" = ?, " +
+            "\"active\" = ?, \"updated_by\" = ?, \"updated_at\" = ? WHERE \"id\" = ?";
+
+    private static final String BY_ID = " WHERE \"id\" = ?";
+
+    private static final RowMapper<CompanyRow> COMPANY_MAPPER = (rs, i) -> new CompanyRow(
+            rs.getLong(1), rs.getString(2), rs.getString(3),
+            CompanyType.valueOf(rs.getString(4)), getLong(rs, 5), rs.getBoolean(6));
+
+    private static final RowMapper<DivisionRow> DIVISION_MAPPER = (rs, i) -> new DivisionRow(
+            rs.getLong(1), rs.getString(2), rs.getString(3),
+            DivisionType.valueOf(rs.getString(4)), getLong(rs, 5), getLong(rs, 6), rs.getBoolean(7));
+
+    private static final RowMapper<DepartmentRow> DEPARTMENT_MAPPER = (rs, i) -> new DepartmentRow(
+            rs.getLong(1), rs.getString(2), DepartmentType.valueOf(rs.getString(3)),
+            rs.getInt(4), getLong(rs, 5), getLong(rs, 6), rs.getBoolean(7));
+
+    private static final String SELECT_MEMBERSHIPS =
+            "SELECT \"department_id\", \"user_id\" FROM \"spms_department_user\"";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public OrganizationSyncRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public List<CompanyRow> findCompanies() {
+        return jdbcTemplate.query(SELECT_COMPANIES, COMPANY_MAPPER);
+    }
+
+    public Optional<CompanyRow> findCompany(long id) {
+        return jdbcTemplate.query(SELECT_COMPANIES + BY_ID, COMPANY_MAPPER, id).stream().findFirst();
+    }
+
+    public List<DivisionRow> findDivisions() {
+        return jdbcTemplate.query(SELECT_DIVISIONS, DIVISION_MAPPER);
+    }
+
+    public Optional<DivisionRow> findDivision(long id) {
+        return jdbcTemplate.query(SELECT_DIVISIONS + BY_ID, DIVISION_MAPPER, id).stream().findFirst();
+    }
+
+    public List<DepartmentRow> findDepartments() {
+        return jdbcTemplate.query(SELECT_DEPARTMENTS, DEPARTMENT_MAPPER);
+    }
+
+    public Optional<DepartmentRow> findDepartment(long id) {
+        return jdbcTemplate.query(SELECT_DEPARTMENTS + BY_ID, DEPARTMENT_MAPPER, id).stream().findFirst();
+    }
+
+    /**
+     * Streams every department membership without materializing the table.
+     *
+     * @param consumer receives each department/user pair
+     */
+    public void forEachMembership(MembershipConsumer consumer) {
+        jdbcTemplate.query(SELECT_MEMBERSHIPS, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getLong(2)));
+    }
+
+    /**
+     * @param departmentIds IDs of departments
+     * @return user IDs per department; departments without members are absent
+     */
+    public Map<Long, Set<Long>> findMembers(Collection<Long> departmentIds) {
+        Map<Long, Set<Long>> members = new HashMap<>();
+        forEachChunk(departmentIds, chunk -> jdbcTemplate.query(
+                SELECT_MEMBERSHIPS + " WHERE \"department_id\" IN (" + placeholders(chunk.size()) + ")",
+                (RowCallbackHandler) rs -> members.computeIfAbsent(rs.getLong(1), x -> new HashSet<>()).add(rs.getLong(2)),
+                chunk.toArray()));
+        return members;
+    }
+
+    /**
+     * @param usernames usernames to resolve
+     * @return user ID per username; unknown usernames are absent
+     */
+    public Map<String, Long> findUserIds(Collection<String> usernames) {
+        return findIds("spms_user", "username", usernames);
+    }
+
+    public Map<String, Long> findCompanyIds(Collection<String> names) {
+        return findIds("spms_company", "name", names);
+    }
+
+    public Map<String, Long> findDivisionIds(Collection<String> names) {
+        return findIds("spms_division", "name", names);
+    }
+
+    public Map<String, Long> findDepartmentIds(Collection<String> names) {
+        return findIds("spms_department", "name", names);
+    }
+
+    public void insertCompanies(Collection<CompanyRow> rows, String createdBy) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_COMPANY, List.copyOf(rows), BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, row.name());
+            ps.setString(2, row.description());
+            ps.setString(3, row.companyType().name());
+            setLong(ps, 4, row.parentId());
+            ps.setBoolean(5, row.active());
+            ps.setString(6, createdBy);
+            ps.setString(7, createdBy);
+            ps.setTimestamp(8, now);
+            ps.setTimestamp(9, now);
+        });
+    }
+
+    public void updateCompanies(Collection<CompanyRow> rows, String updatedBy) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_COMPANY, List.copyOf(rows), BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, row.description());
+            ps.setString(2, row.companyType().name());
+            setLong(ps, 3, row.parentId());
+            ps.setBoolean(4, row.active());
+            ps.setString(5, updatedBy);
+            ps.setTimestamp(6, now);
+            ps.setLong(7, row.id());
+        });
+    }
+
+    public void insertDivisions(Collection<DivisionRow> rows, String createdBy) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_DIVISION, List.copyOf(rows), BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, row.name());
+            ps.setString(2, row.description());
+            ps.setString(3, row.type().name());
+            setLong(ps, 4, row.companyId());
+            setLong(ps, 5, row.headId());
+            ps.setBoolean(6, row.active());
+            ps.setString(7, createdBy);
+            ps.setString(8, createdBy);
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+        });
+    }
+
+    public void updateDivisions(Collection<DivisionRow> rows, String updatedBy) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_DIVISION, List.copyOf(rows), BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, row.description());
+            ps.setString(2, row.type().name());
+            setLong(ps, 3, row.companyId());
+            setLong(ps, 4, row.headId());
+            ps.setBoolean(5, row.active());
+            ps.setString(6, updatedBy);
+            ps.setTimestamp(7, now);
+            ps.setLong(8, row.id());
+        });
+    }
+
+    public void insertDepartments(Collection<DepartmentRow> rows, String createdBy) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(INSERT_DEPARTMENT, List.copyOf(rows), BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, row.name());
+            ps.setString(2, row.type().name());
+            ps.setInt(3, row.level());
+            ps.setLong(4, row.parentId());
+            setLong(ps, 5, row.headId());
+            ps.setBoolean(6, row.active());
+            ps.setString(7, createdBy);
+            ps.setString(8, createdBy);
+            ps.setTimestamp(9, now);
+            ps.setTimestamp(10, now);
+        });
+    }
+
+    public void updateDepartments(Collection<DepartmentRow> rows, String updatedBy) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_DEPARTMENT, List.copyOf(rows), BATCH_SIZE, (ps, row) -> {
+            ps.setString(1, row.type().name());
+            ps.setInt(2, row.level());
+            ps.setLong(3, row.parentId());
+            setLong(ps, 4, row.headId());
+            ps.setBoolean(5, row.active());
+            ps.setString(6, updatedBy);
+            ps.setTimestamp(7, now);
+            ps.setLong(8, row.id());
+        });
+    }
+
+    /**
+     * A company as stored; {@code id} is {@code null} for rows not inserted yet.
+     */
+    public record CompanyRow(Long id, String name, String description, CompanyType companyType,
+                             Long parentId, boolean active) {
+    }
+
+    /**
+     * A division as stored; {@code id} is {@code null} for rows not inserted yet.
+     */
+    public record DivisionRow(Long id, String name, String description, DivisionType type,
+                              Long companyId, Long headId, boolean active) {
+    }
+
+    /**
+     * A department as stored; {@code id} is {@code null} for rows not inserted yet.
+     */
+    public record DepartmentRow(Long id, String name, DepartmentType type, int level,
+                                Long parentId, Long headId, boolean active) {
+    }
+
+    @FunctionalInterface
+    public interface MembershipConsumer {
+        void accept(long departmentId, long userId);
+    }
+
+    private Map<String, Long> findIds(String table, String keyColumn, Collection<String> keys) {
+        Map<String, Long> ids = new HashMap<>();
+        forEachChunk(keys, chunk -> jdbcTemplate.query(
+                "SELECT \"id\", \"" + keyColumn + "\" FROM \"" + table + "\" WHERE \"" + keyColumn + "\" IN ("
+                        + placeholders(chunk.size()) + ")",
+                (RowCallbackHandler) rs -> ids.put(rs.getString(2), rs.getLong(1)),
+                chunk.toArray()));
+        return ids;
+    }
+
+    private static <T> void forEachChunk(Collection<T> values, Consumer<List<T>> action) {
+        if (values.isEmpty()) {
+            return;
+        }
+        List<T> list = new ArrayList<>(values);
+        for (int i = 0; i < list.size(); i += IN_CHUNK_SIZE) {
+            action.accept(list.subList(i, Math.min(i + IN_CHUNK_SIZE, list.size())));
+        }
+    }
+
+    private static String placeholders(int count) {
+        return String.join(", ", Collections.nCopies(count, "?"));
+    }
+
+    private static Long getLong(ResultSet rs, int column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? null : value;
+    }
+
+    private static void setLong(PreparedStatement ps, int index, Long value) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, Types.BIGINT);
+        } else {
+            ps.setLong(index, value);
+        }
+    }
+}
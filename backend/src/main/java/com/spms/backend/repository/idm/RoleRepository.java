@@ -5,6 +5,8 @@ import com.spms.backend.repository.entities.idm.Role;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -29,4 +31,32 @@ public interface RoleRepository extends JpaRepository<Role, Long> {
     
     @Query("SELECT COUNT(r) > 0 FROM Role r JOIN r.parentRoles p WHERE r.id = :childId AND p.id = :parentId")
     boolean existsByChildIdAndParentId(@Param("childId") Long childId, @Param("parentId") Long parentId);
+
+    @Query("SELECT r.id FROM Role r WHERE r.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * A permission granted directly to a role.
+     */
+    interface PermissionGrant {
+        Long getRoleId();
+        String getPermission();
+    }
+
+    @Query("SELECT r.id AS roleId, p AS permission FROM Role r JOIN r.permissions p")
+    List<PermissionGrant> findPermissionGrants();
+
+    /**
+     * An edge of the role hierarchy.
+     */
+    interface ParentLink {
+        Long getChildId();
+        Long getParentId();
+    }
+
+    @Query("SELECT r.id AS childId, p.id AS parentId FROM Role r JOIN r.parentRoles p")
+    List<ParentLink> findParentLinks();
+
+    @Query("SELECT r.id FROM User u JOIN u.roles r WHERE u.id = :userId")
+    List<Long> findRoleIdsByUserId(@Param("userId") Long userId);
 }
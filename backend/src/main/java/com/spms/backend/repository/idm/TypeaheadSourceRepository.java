@@ -0,0 +1,70 @@
+package com.spms.backend.repository.idm;
+
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Flat reads of the user and department fields indexed for typeahead lookups.
+ * <p>
+ * Full reads stream the rows, so building the index never holds the whole table twice.
+ */
+@Repository
+public class TypeaheadSourceRepository {
+
+    // Identifiers are quoted so the statements also match schemas created with globally quoted identifiers
+    private static final String SELECT_USERS =
+            "SELECT \"id\", \"username\", \"email\", \"description\" FROM \"spms_user\"";
+
+    private static final String SELECT_DEPARTMENTS =
+            "SELECT \"id\", \"name\", \"type\" FROM \"spms_department\" WHERE \"active\" = TRUE";
+
+    private static final RowMapper<UserRow> USER_MAPPER = (rs, i) -> new UserRow(
+            rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4));
+
+    private static final RowMapper<DepartmentRow> DEPARTMENT_MAPPER = (rs, i) -> new DepartmentRow(
+            rs.getLong(1), rs.getString(2), DepartmentType.valueOf(rs.getString(3)));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public TypeaheadSourceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void forEachUser(Consumer<UserRow> consumer) {
+        jdbcTemplate.query(SELECT_USERS, rs -> {
+            consumer.accept(USER_MAPPER.mapRow(rs, 0));
+        });
+    }
+
+    public Optional<UserRow> findUser(long id) {
+        return jdbcTemplate.query(SELECT_USERS + " WHERE \"id\" = ?", USER_MAPPER, id).stream().findFirst();
+    }
+
+    /**
+     * Streams the active departments.
+     */
+    public void forEachDepartment(Consumer<DepartmentRow> consumer) {
+        jdbcTemplate.query(SELECT_DEPARTMENTS, rs -> {
+            consumer.accept(DEPARTMENT_MAPPER.mapRow(rs, 0));
+        });
+    }
+
+    /**
+     * @return the department if it exists and is active
+     */
+    public Optional<DepartmentRow> findDepartment(long id) {
+        return jdbcTemplate.query(SELECT_DEPARTMENTS + " AND \"id\" = ?", DEPARTMENT_MAPPER, id).stream().findFirst();
+    }
+
+    public record UserRow(long id, String username, String email, String description) {
+    }
+
+    public record DepartmentRow(long id, String name, DepartmentType type) {
+    }
+}
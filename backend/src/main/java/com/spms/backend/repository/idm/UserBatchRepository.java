@@ -0,0 +1,74 @@
+package com.spms.backend.repository.idm;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.backend.repository.JsonColumnSupport;
+import com.spms.backend.repository.entities.idm.User;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batched JDBC writes for {@code spms_user}, including the JSON profile column.
+ * <p>
+ * Used by bulk imports, where saving users one by one through JPA costs a round trip per
+ * user. Entity callbacks do not run, so audit fields must be set by the caller.
+ */
+@Repository
+public class UserBatchRepository {
+
+    static final int BATCH_SIZE = 500;
+
+    // Identifiers are quoted so the statements also match schemas created with globally quoted identifiers
+    private static final String INSERT_USER =
+            "INSERT INTO \"spms_user\" (\"username\", \"email\", \"provider\", \"provider_id\", \"type\", " +
+            "\"description\", \"created_at\", \"updated_at\", \"created_by\", \"modified_by\", \"profiles\") " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, %s)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JsonColumnSupport jsonColumnSupport;
+
+    private final ObjectMapper objectMapper;
+
+    public UserBatchRepository(JdbcTemplate jdbcTemplate, JsonColumnSupport jsonColumnSupport, ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonColumnSupport = jsonColumnSupport;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Inserts new users. Generated IDs are not returned; look them up by username afterwards.
+     *
+     * @param users users to insert
+     */
+    public void insertUsers(List<User> users) {
+        String insert = INSERT_USER.formatted(jsonColumnSupport.jsonParameter());
+        jdbcTemplate.batchUpdate(insert, users, BATCH_SIZE, (ps, user) -> {
+            ps.setString(1, user.getUsername());
+            ps.setString(2, user.getEmail());
+            ps.setString(3, user.getProvider());
+            ps.setString(4, user.getProviderId());
+            ps.setString(5, user.getType().name());
+            ps.setString(6, user.getDescription());
+            ps.setObject(7, user.getCreatedAt());
+            ps.setObject(8, user.getUpdatedAt());
+            ps.setString(9, user.getCreatedBy());
+            ps.setString(10, user.getModifiedBy());
+            ps.setString(11, toJson(user.getUserProfiles()));
+        });
+    }
+
+    private String toJson(Map<String, String> profiles) {
+        if (profiles == null) {
+            return null;
+        }
+        try {
+            return objectMapper.writeValueAsString(profiles);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Error converting profiles to JSON", e);
+        }
+    }
+}
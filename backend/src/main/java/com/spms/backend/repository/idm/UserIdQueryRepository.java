@@ -0,0 +1,20 @@
+package com.spms.backend.repository.idm;
+
+import com.spms.backend.repository.entities.idm.User;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.util.List;
+
+/**
+ * Query fragment of {@link UserRepository} for selecting user IDs without loading entities.
+ */
+public interface UserIdQueryRepository {
+
+    /**
+     * Returns the IDs of all users matching a specification.
+     *
+     * @param spec user search specification
+     * @return matching user IDs
+     */
+    List<Long> findIds(Specification<User> spec);
+}
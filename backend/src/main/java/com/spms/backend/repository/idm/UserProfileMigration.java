@@ -0,0 +1,111 @@
+package com.spms.backend.repository.idm;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.backend.repository.JsonColumnSupport;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Moves user profiles from the former {@code spms_user_profiles} key/value table into the
+ * JSON column {@code spms_user.profiles}.
+ * <p>
+ * The schema is maintained by Hibernate, which adds the column but neither copies the rows nor
+ * drops the old table, so this runs once all beans are created and before requests are served.
+ * Users that already have a profile keep it. The old table is dropped once its rows are copied,
+ * so later starts only check that it is gone. On PostgreSQL the GIN index serving the profile
+ * equality filters is created as well.
+ */
+@Component
+public class UserProfileMigration implements SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(UserProfileMigration.class);
+
+    static final String LEGACY_TABLE = "spms_user_profiles";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JsonColumnSupport jsonColumnSupport;
+
+    private final ObjectMapper objectMapper;
+
+    private final TransactionTemplate transactionTemplate;
+
+    public UserProfileMigration(JdbcTemplate jdbcTemplate, JsonColumnSupport jsonColumnSupport,
+                                ObjectMapper objectMapper, PlatformTransactionManager transactionManager) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonColumnSupport = jsonColumnSupport;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        migrate();
+        if (jsonColumnSupport.isPostgreSQL()) {
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_spms_user_profiles " +
+                    "ON \"spms_user\" USING GIN (\"profiles\" jsonb_path_ops)");
+        }
+    }
+
+    /**
+     * Copies the rows of the old table into the profile column and drops the table.
+     *
+     * @return number of users whose profile was copied; 0 if the table does not exist
+     */
+    public int migrate() {
+        if (!legacyTableExists()) {
+            return 0;
+        }
+        Integer migrated = transactionTemplate.execute(status -> {
+            Map<Long, Map<String, String>> profiles = new LinkedHashMap<>();
+            // Identifiers are quoted so the statements also match schemas created with globally quoted identifiers
+            jdbcTemplate.query("SELECT \"user_id\", \"key\", \"value\" FROM \"" + LEGACY_TABLE + "\"", rs -> {
+                profiles.computeIfAbsent(rs.getLong(1), id -> new LinkedHashMap<>())
+                        .put(rs.getString(2), rs.getString(3));
+            });
+            List<Object[]> updates = new ArrayList<>(profiles.size());
+            profiles.forEach((userId, profile) -> updates.add(new Object[]{toJson(profile), userId}));
+            int copied = 0;
+            for (int[] counts : jdbcTemplate.batchUpdate("UPDATE \"spms_user\" SET \"profiles\" = " +
+                    jsonColumnSupport.jsonParameter() + " WHERE \"id\" = ? AND \"profiles\" IS NULL",
+                    updates, 500, (ps, update) -> {
+                        ps.setString(1, (String) update[0]);
+                        ps.setLong(2, (Long) update[1]);
+                    })) {
+                for (int count : counts) {
+                    copied += count > 0 || count == Statement.SUCCESS_NO_INFO ? 1 : 0;
+                }
+            }
+            jdbcTemplate.execute("DROP TABLE \"" + LEGACY_TABLE + "\"");
+            return copied;
+        });
+        logger.info("Moved the profiles of {} users from {} into spms_user.profiles", migrated, LEGACY_TABLE);
+        return migrated == null ? 0 : migrated;
+    }
+
+    private boolean legacyTableExists() {
+        Integer tables = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM information_schema.tables " +
+                "WHERE table_schema = CURRENT_SCHEMA AND table_name = ?", Integer.class, LEGACY_TABLE);
+        return tables != null && tables > 0;
+    }
+
+    private String toJson(Map<String, String> profile) {
+        try {
+            return objectMapper.writeValueAsString(profile);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Error converting user profile to JSON", e);
+        }
+    }
+}
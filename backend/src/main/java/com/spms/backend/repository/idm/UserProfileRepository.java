@@ -0,0 +1,294 @@
+package com.spms.backend.repository.idm;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.backend.repository.JsonColumnSupport;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Searches users by the attributes in their JSON profile column ({@code spms_user.profiles}).
+ * <p>
+ * On PostgreSQL every condition is evaluated by the database: equality uses the jsonb
+ * containment operator, which the GIN index on the column serves, and the other comparisons
+ * read the attribute with {@code ->>}. On other databases the rows are streamed in the same
+ * order and the conditions are evaluated here, with the same semantics.
+ */
+@Repository
+public class UserProfileRepository {
+
+    // Values a numeric comparison accepts; anything else never matches one
+    private static final String NUMBER_REGEX = "^-?[0-9]+(\\.[0-9]+){0,1}$";
+
+    private static final Pattern NUMBER = Pattern.compile(NUMBER_REGEX);
+
+    // Matches the profile values only, never the attribute names
+    private static final String PROFILE_VALUE_LIKE = "EXISTS (SELECT 1 FROM jsonb_each_text(\"profiles\") p " +
+            "WHERE LOWER(p.value) LIKE ? ESCAPE '\\')";
+
+    private static final TypeReference<Map<String, String>> PROFILE_TYPE = new TypeReference<>() {
+    };
+
+    /**
+     * Comparison of a profile attribute with a value.
+     */
+    public enum Comparison {
+        EQUALS,
+        NOT_EQUALS,
+        PREFIX,
+        LESS_THAN,
+        LESS_THAN_OR_EQUAL,
+        GREATER_THAN,
+        GREATER_THAN_OR_EQUAL,
+        EXISTS
+    }
+
+    /**
+     * A condition on one profile attribute. Ordering comparisons compare numbers, the others text.
+     * A missing attribute is not equal to any value.
+     */
+    public record Criterion(String key, Comparison comparison, String value) {
+    }
+
+    /**
+     * Columns a search can be ordered by.
+     */
+    public enum SortColumn {
+        ID("id"),
+        USERNAME("username"),
+        EMAIL("email"),
+        CREATED_AT("created_at"),
+        UPDATED_AT("updated_at");
+
+        private final String column;
+
+        SortColumn(String column) {
+            this.column = column;
+        }
+    }
+
+    public record Order(SortColumn column, boolean ascending) {
+    }
+
+    /**
+     * A page of matching user IDs.
+     *
+     * @param ids   IDs of the page, in the requested order
+     * @param total number of matching users over all pages
+     */
+    public record IdPage(List<Long> ids, long total) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JsonColumnSupport jsonColumnSupport;
+
+    private final ObjectMapper objectMapper;
+
+    public UserProfileRepository(JdbcTemplate jdbcTemplate, JsonColumnSupport jsonColumnSupport,
+                                 ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonColumnSupport = jsonColumnSupport;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Finds the users matching the text and every profile criterion.
+     *
+     * @param text     case-insensitive text that username, email, description or a profile value must contain;
+     *                 {@code null} for none
+     * @param criteria profile conditions
+     * @param orders   sort order; the user ID always breaks ties
+     * @param offset   number of matches to skip
+     * @param limit    maximum number of IDs to return
+     * @return the requested page of IDs with the total number of matches
+     */
+    public IdPage findUserIds(String text, List<Criterion> criteria, List<Order> orders, long offset, int limit) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        String lowerText = text == null || text.isEmpty() ? null : text.toLowerCase();
+        if (lowerText != null && jsonColumnSupport.isPostgreSQL()) {
+            String pattern = "%" + escapeLike(lowerText) + "%";
+            // Identifiers are quoted so the statements also match schemas created with globally quoted identifiers
+            conditions.add("(LOWER(\"username\") LIKE ? ESCAPE '\\' OR LOWER(\"email\") LIKE ? ESCAPE '\\' " +
+                    "OR LOWER(\"description\") LIKE ? ESCAPE '\\' OR " + PROFILE_VALUE_LIKE + ")");
+            parameters.addAll(List.of(pattern, pattern, pattern, pattern));
+        }
+
+        StringBuilder orderBy = new StringBuilder(" ORDER BY ");
+        for (Order order : orders) {
+            orderBy.append('"').append(order.column().column).append('"')
+                    .append(order.ascending() ? " ASC, " : " DESC, ");
+        }
+        orderBy.append("\"id\"");
+
+        if (jsonColumnSupport.isPostgreSQL()) {
+            for (Criterion criterion : criteria) {
+                appendCondition(criterion, conditions, parameters);
+            }
+            String where = conditions.isEmpty() ? "" : " WHERE " + String.join(" AND ", conditions);
+            Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"spms_user\"" + where,
+                    Long.class, parameters.toArray());
+            List<Object> pageParameters = new ArrayList<>(parameters);
+            pageParameters.add(limit);
+            pageParameters.add(offset);
+            List<Long> ids = jdbcTemplate.queryForList("SELECT \"id\" FROM \"spms_user\"" + where + orderBy +
+                    " LIMIT ? OFFSET ?", Long.class, pageParameters.toArray());
+            return new IdPage(ids, total == null ? 0 : total);
+        }
+
+        List<Long> ids = new ArrayList<>();
+        long[] total = new long[1];
+        jdbcTemplate.query("SELECT \"id\", \"username\", \"email\", \"description\", " +
+                jsonColumnSupport.asText("\"profiles\"") + " FROM \"spms_user\"" + orderBy, rs -> {
+            Map<String, String> profile = readProfile(rs.getString(5));
+            boolean textMatches = lowerText == null || contains(rs.getString(2), lowerText)
+                    || contains(rs.getString(3), lowerText) || contains(rs.getString(4), lowerText)
+                    || hasValueContaining(profile, lowerText);
+            if (textMatches && matches(profile, criteria)) {
+                if (total[0] >= offset && ids.size() < limit) {
+                    ids.add(rs.getLong(1));
+                }
+                total[0]++;
+            }
+        });
+        return new IdPage(ids, total[0]);
+    }
+
+    /**
+     * Finds the users with a profile value containing the text. Attribute names are not matched.
+     *
+     * @param text case-insensitive text a profile value must contain
+     * @return IDs of the matching users
+     */
+    public List<Long> findIdsByProfileValue(String text) {
+        String lowerText = text.toLowerCase();
+        if (jsonColumnSupport.isPostgreSQL()) {
+            return jdbcTemplate.queryForList("SELECT \"id\" FROM \"spms_user\" WHERE " + PROFILE_VALUE_LIKE,
+                    Long.class, "%" + escapeLike(lowerText) + "%");
+        }
+        List<Long> ids = new ArrayList<>();
+        jdbcTemplate.query("SELECT \"id\", " + jsonColumnSupport.asText("\"profiles\"") + " FROM \"spms_user\" " +
+                "WHERE \"profiles\" IS NOT NULL", rs -> {
+            if (hasValueContaining(readProfile(rs.getString(2)), lowerText)) {
+                ids.add(rs.getLong(1));
+            }
+        });
+        return ids;
+    }
+
+    private void appendCondition(Criterion criterion, List<String> conditions, List<Object> parameters) {
+        String key = criterion.key();
+        switch (criterion.comparison()) {
+            case EQUALS -> {
+                conditions.add("\"profiles\" @> CAST(? AS jsonb)");
+                parameters.add(toJson(Map.of(key, criterion.value())));
+            }
+            case NOT_EQUALS -> {
+                conditions.add("(\"profiles\" ->> ?) IS DISTINCT FROM ?");
+                parameters.add(key);
+                parameters.add(criterion.value());
+            }
+            case PREFIX -> {
+                conditions.add("(\"profiles\" ->> ?) LIKE ? ESCAPE '\\'");
+                parameters.add(key);
+                parameters.add(escapeLike(criterion.value()) + "%");
+            }
+            case EXISTS -> {
+                conditions.add("(\"profiles\" ->> ?) IS NOT NULL");
+                parameters.add(key);
+            }
+            default -> {
+                conditions.add("CASE WHEN (\"profiles\" ->> ?) ~ '" + NUMBER_REGEX + "' " +
+                        "THEN CAST(\"profiles\" ->> ? AS NUMERIC) END " + operator(criterion.comparison()) + " ?");
+                parameters.add(key);
+                parameters.add(key);
+                parameters.add(new BigDecimal(criterion.value()));
+            }
+        }
+    }
+
+    private static boolean matches(Map<String, String> profile, List<Criterion> criteria) {
+        for (Criterion criterion : criteria) {
+            String value = profile == null ? null : profile.get(criterion.key());
+            boolean matches = switch (criterion.comparison()) {
+                case EQUALS -> criterion.value().equals(value);
+                case NOT_EQUALS -> !criterion.value().equals(value);
+                case PREFIX -> value != null && value.startsWith(criterion.value());
+                case EXISTS -> value != null;
+                default -> value != null && NUMBER.matcher(value).matches()
+                        && compare(new BigDecimal(value).compareTo(new BigDecimal(criterion.value())), criterion.comparison());
+            };
+            if (!matches) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean hasValueContaining(Map<String, String> profile, String lowerText) {
+        if (profile == null) {
+            return false;
+        }
+        for (String value : profile.values()) {
+            if (contains(value, lowerText)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static boolean contains(String value, String lowerText) {
+        return value != null && value.toLowerCase().contains(lowerText);
+    }
+
+    private static boolean compare(int comparison, Comparison operator) {
+        return switch (operator) {
+            case LESS_THAN -> comparison < 0;
+            case LESS_THAN_OR_EQUAL -> comparison <= 0;
+            case GREATER_THAN -> comparison > 0;
+            case GREATER_THAN_OR_EQUAL -> comparison >= 0;
+            default -> throw new IllegalArgumentException("Not a numeric comparison: " + operator);
+        };
+    }
+
+    private static String operator(Comparison comparison) {
+        return switch (comparison) {
+            case LESS_THAN -> "<";
+            case LESS_THAN_OR_EQUAL -> "<=";
+            case GREATER_THAN -> ">";
+            case GREATER_THAN_OR_EQUAL -> ">=";
+            default -> throw new IllegalArgumentException("Not a numeric comparison: " + comparison);
+        };
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private Map<String, String> readProfile(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, PROFILE_TYPE);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable user profile: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private String toJson(Map<String, String> profile) {
+        try {
+            return objectMapper.writeValueAsString(profile);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Error converting profile filter to JSON", e);
+        }
+    }
+}
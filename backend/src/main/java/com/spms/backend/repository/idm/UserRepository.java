@@ -4,15 +4,42 @@ package com.spms.backend.repository.idm;
 import com.spms.backend.repository.BaseRepository;
 import com.spms.backend.repository.entities.idm.User;
 import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface UserRepository extends BaseRepository<User, Long>, JpaSpecificationExecutor<User> {
+public interface UserRepository extends BaseRepository<User, Long>, JpaSpecificationExecutor<User>, UserIdQueryRepository {
     boolean existsByUsername(String username);
     boolean existsByEmail(String email);
     User findByUsername(String username);
     List<User> findByUsernameContainingOrEmailContaining(String username, String email);
     Optional<User> findByProviderAndProviderId(String provider,String providerId);
+
+    @Query("SELECT u.id FROM User u WHERE u.provider = :provider AND u.providerId = :providerId")
+    Optional<Long> findIdByProviderAndProviderId(@Param("provider") String provider,
+                                                 @Param("providerId") String providerId);
+
+    @Query("SELECT u.id FROM User u WHERE u.id IN :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
+
+    @Query("SELECT u.username FROM User u WHERE u.username IN :usernames")
+    List<String> findExistingUsernames(@Param("usernames") Collection<String> usernames);
+
+    @Query("SELECT u.email FROM User u WHERE u.email IN :emails")
+    List<String> findExistingEmails(@Param("emails") Collection<String> emails);
+
+    /**
+     * ID and username of a user, without loading the entity.
+     */
+    interface UserIdentity {
+        Long getId();
+        String getUsername();
+    }
+
+    @Query("SELECT u.id AS id, u.username AS username FROM User u WHERE u.username IN :usernames")
+    List<UserIdentity> findIdentitiesByUsernames(@Param("usernames") Collection<String> usernames);
 }
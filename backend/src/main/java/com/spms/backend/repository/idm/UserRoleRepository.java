@@ -0,0 +1,119 @@
+package com.spms.backend.repository.idm;
+
+import com.spms.backend.repository.DatabasePlatform;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Direct access to the {@code user_roles} join table.
+ * <p>
+ * Role assignments are written as batched statements over every user/role pair, so
+ * granting a role to thousands of users costs a handful of round trips. The persistence
+ * context is bypassed; callers must not rely on an already loaded {@code User.roles}
+ * collection afterwards.
+ */
+@Repository
+public class UserRoleRepository {
+
+    static final int BATCH_SIZE = 500;
+
+    // Identifiers are quoted so the statements also match schemas created with globally quoted identifiers
+    private static final String INSERT_IF_ABSENT =
+            "INSERT INTO \"user_roles\" (\"user_id\", \"role_id\") " +
+            "SELECT ?, ? WHERE NOT EXISTS (" +
+            "SELECT 1 FROM \"user_roles\" WHERE \"user_id\" = ? AND \"role_id\" = ?)";
+
+    private static final String DELETE =
+            "DELETE FROM \"user_roles\" WHERE \"user_id\" = ? AND \"role_id\" = ?";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final DatabasePlatform platform;
+
+    public UserRoleRepository(JdbcTemplate jdbcTemplate, DatabasePlatform platform) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.platform = platform;
+    }
+
+    /**
+     * Grants every role to every user; existing assignments are skipped.
+     *
+     * @param userIds IDs of users
+     * @param roleIds IDs of roles
+     * @return inserted assignments and the users they belong to
+     */
+    public Changes insertIfAbsent(Collection<Long> userIds, Collection<Long> roleIds) {
+        String sql = platform.ignoreConflicts(INSERT_IF_ABSENT);
+        List<Assignment> pairs = pairs(userIds, roleIds);
+        return changes(pairs, jdbcTemplate.batchUpdate(sql, pairs, BATCH_SIZE, (ps, pair) -> {
+            ps.setLong(1, pair.userId());
+            ps.setLong(2, pair.roleId());
+            ps.setLong(3, pair.userId());
+            ps.setLong(4, pair.roleId());
+        }));
+    }
+
+    /**
+     * Revokes every role from every user; missing assignments are ignored.
+     *
+     * @param userIds IDs of users
+     * @param roleIds IDs of roles
+     * @return deleted assignments and the users they belonged to
+     */
+    public Changes delete(Collection<Long> userIds, Collection<Long> roleIds) {
+        List<Assignment> pairs = pairs(userIds, roleIds);
+        return changes(pairs, jdbcTemplate.batchUpdate(DELETE, pairs, BATCH_SIZE, (ps, pair) -> {
+            ps.setLong(1, pair.userId());
+            ps.setLong(2, pair.roleId());
+        }));
+    }
+
+    /**
+     * Outcome of a batched assignment change.
+     *
+     * @param assignments number of rows actually inserted or deleted
+     * @param userIds     users whose assignments may have changed
+     */
+    public record Changes(int assignments, Set<Long> userIds) {
+    }
+
+    private record Assignment(Long userId, Long roleId) {
+    }
+
+    private static List<Assignment> pairs(Collection<Long> userIds, Collection<Long> roleIds) {
+        List<Assignment> pairs = new ArrayList<>(userIds.size() * roleIds.size());
+        for (Long userId : userIds) {
+            for (Long roleId : roleIds) {
+                pairs.add(new Assignment(userId, roleId));
+            }
+        }
+        return pairs;
+    }
+
+    // Batches are executed in list order, so the counts line up with the pairs
+    private static Changes changes(List<Assignment> pairs, int[][] counts) {
+        int total = 0;
+        Set<Long> userIds = new LinkedHashSet<>();
+        int index = 0;
+        for (int[] batch : counts) {
+            for (int count : batch) {
+                Long userId = pairs.get(index++).userId();
+                if (count > 0) {
+                    total += count;
+                    userIds.add(userId);
+                } else if (count == Statement.SUCCESS_NO_INFO) {
+                    // The row count is unknown, so the user is treated as changed
+                    userIds.add(userId);
+                }
+            }
+        }
+        return new Changes(total, userIds);
+    }
+}
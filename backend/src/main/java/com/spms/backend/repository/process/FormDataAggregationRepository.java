@@ -0,0 +1,106 @@
+package com.spms.backend.repository.process;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Reads the form data of many instances for aggregation: only the ID, creation time and
+ * JSON text of each row, streamed with a fetch size so that memory does not grow with the
+ * number of rows. Rows can be restricted to an ID range, so that ranges are read in parallel.
+ */
+@Repository
+public class FormDataAggregationRepository {
+
+    /**
+     * Instances to aggregate.
+     *
+     * @param formKey form key
+     * @param version form version, {@code null} for all versions
+     * @param from    earliest creation time in milliseconds since the epoch, inclusive; {@code null} for no bound
+     * @param to      latest creation time in milliseconds since the epoch, exclusive; {@code null} for no bound
+     */
+    public record Scope(String formKey, String version, Long from, Long to) {
+    }
+
+    /**
+     * Receives the rows of an aggregation.
+     */
+    @FunctionalInterface
+    public interface DataConsumer {
+        /**
+         * @param createdAt creation time in milliseconds since the epoch
+         * @param formData  stored JSON text of the form data, may be {@code null}
+         */
+        void accept(long createdAt, String formData);
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FormDataAggregationRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * @return the lowest and highest ID of the instances in scope, or {@code null} if there are none
+     */
+    public long[] findIdRange(Scope scope) {
+        List<Object> parameters = new ArrayList<>();
+        String sql = "SELECT MIN(\"id\"), MAX(\"id\") FROM \"spms_form_instance\" WHERE " + where(scope, parameters);
+        return jdbcTemplate.query(sql, rs -> {
+            rs.next();
+            long min = rs.getLong(1);
+            return rs.wasNull() ? null : new long[]{min, rs.getLong(2)};
+        }, parameters.toArray());
+    }
+
+    /**
+     * Passes the data of the instances in scope with an ID in {@code [minId, maxId]} to the
+     * consumer, in no particular order. Must run in a transaction for drivers such as
+     * PostgreSQL's to honor the fetch size.
+     *
+     * @param scope     instances to read
+     * @param minId     lowest ID, inclusive
+     * @param maxId     highest ID, inclusive
+     * @param fetchSize number of rows the driver fetches at a time
+     * @param consumer  receives each row
+     */
+    public void forEach(Scope scope, long minId, long maxId, int fetchSize, DataConsumer consumer) {
+        List<Object> parameters = new ArrayList<>();
+        // Identifiers are quoted so the statements also match schemas created with globally quoted identifiers
+        String sql = "SELECT \"created_at\", \"form_data\" FROM \"spms_form_instance\" WHERE " + where(scope, parameters)
+                + " AND \"id\" BETWEEN ? AND ?";
+        parameters.add(minId);
+        parameters.add(maxId);
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql);
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return statement;
+        }, (RowCallbackHandler) rs -> consumer.accept(rs.getLong(1), rs.getString(2)));
+    }
+
+    private static String where(Scope scope, List<Object> parameters) {
+        StringBuilder where = new StringBuilder("\"form_key\" = ?");
+        parameters.add(scope.formKey());
+        if (scope.version() != null) {
+            where.append(" AND \"version\" = ?");
+            parameters.add(scope.version());
+        }
+        if (scope.from() != null) {
+            where.append(" AND \"created_at\" >= ?");
+            parameters.add(scope.from());
+        }
+        if (scope.to() != null) {
+            where.append(" AND \"created_at\" < ?");
+            parameters.add(scope.to());
+        }
+        return where.toString();
+    }
+}
@@ -0,0 +1,397 @@
+package com.spms.backend.repository.process;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.spms.backend.repository.JsonColumnSupport;
+import com.spms.backend.repository.entities.process.FormFieldType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Repository;
+
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.regex.Pattern;
+
+/**
+ * Filters and sorts form instances by the values of fields in their form data
+ * ({@code spms_form_instance.form_data}).
+ * <p>
+ * On PostgreSQL the column is {@code jsonb} and every condition and sort key is evaluated by
+ * the database, on the same expression as the index created for the field by
+ * {@link #createIndex}, so the planner can use that index. On other databases the instances
+ * of the form are read in creation order and the conditions and sort keys are evaluated here,
+ * with the same semantics.
+ */
+@Repository
+public class FormDataQueryRepository {
+
+    // Values a numeric field accepts; anything else is treated as missing
+    private static final String NUMBER_REGEX = "^-?[0-9]+(\\.[0-9]+){0,1}$";
+
+    private static final Pattern NUMBER = Pattern.compile(NUMBER_REGEX);
+
+    /**
+     * Field paths that can be written into SQL as literals: dot-separated identifiers.
+     */
+    public static final Pattern FIELD_PATH = Pattern.compile("^[A-Za-z_][A-Za-z0-9_]*(\\.[A-Za-z_][A-Za-z0-9_]*){0,4}$");
+
+    // Identifiers are quoted so the statements also match schemas created with globally quoted identifiers
+    private static final String SELECT = "SELECT \"id\", \"form_key\", \"version\", \"form_data\", " +
+            "\"created_at\", \"updated_at\" FROM \"spms_form_instance\"";
+
+    private static final Pattern INDEX_NAME = Pattern.compile("^[a-z_][a-z0-9_]{0,62}$");
+
+    /**
+     * Comparison of a field value with a value.
+     */
+    public enum Comparison {
+        EQUALS,
+        NOT_EQUALS,
+        PREFIX,
+        LESS_THAN,
+        LESS_THAN_OR_EQUAL,
+        GREATER_THAN,
+        GREATER_THAN_OR_EQUAL,
+        EXISTS
+    }
+
+    /**
+     * A field of the form data.
+     *
+     * @param path dot-separated path matching {@link #FIELD_PATH}
+     * @param type how values of the field compare
+     */
+    public record Field(String path, FormFieldType type) {
+        public Field {
+            if (path == null || !FIELD_PATH.matcher(path).matches()) {
+                throw new IllegalArgumentException("Invalid form field path: " + path);
+            }
+        }
+    }
+
+    /**
+     * A condition on one field. A missing value is not equal to any value.
+     */
+    public record Criterion(Field field, Comparison comparison, String value) {
+    }
+
+    /**
+     * A sort key; a {@code null} field sorts by creation time. Missing values sort last.
+     */
+    public record Order(Field field, boolean ascending) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JsonColumnSupport jsonColumnSupport;
+
+    private final ObjectReader reader;
+
+    public FormDataQueryRepository(JdbcTemplate jdbcTemplate, JsonColumnSupport jsonColumnSupport,
+                                   ObjectMapper objectMapper) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonColumnSupport = jsonColumnSupport;
+        // Keeps decimals as written, like the text PostgreSQL extracts from jsonb
+        this.reader = objectMapper.reader().with(DeserializationFeature.USE_BIG_DECIMAL_FOR_FLOATS);
+    }
+
+    /**
+     * Creates the index serving conditions on the field, without blocking writes while it is
+     * built. Does nothing on databases other than PostgreSQL.
+     *
+     * @param indexName name of the index
+     * @param field     indexed field
+     */
+    public void createIndex(String indexName, Field field) {
+        if (!jsonColumnSupport.isPostgreSQL()) {
+            return;
+        }
+        // IF NOT EXISTS would keep an INVALID index left by an interrupted build
+        Boolean valid = jdbcTemplate.query("SELECT i.indisvalid FROM pg_index i JOIN pg_class c ON c.oid = i.indexrelid " +
+                "WHERE c.relname = ?", rs -> rs.next() ? rs.getBoolean(1) : null, indexName);
+        if (Boolean.FALSE.equals(valid)) {
+            dropIndex(indexName);
+        }
+        // CONCURRENTLY cannot run inside a transaction, so callers must not hold one
+        try {
+            jdbcTemplate.execute("CREATE INDEX CONCURRENTLY IF NOT EXISTS " + quoteIndexName(indexName) +
+                    " ON \"spms_form_instance\" (\"form_key\", (" + expression(field) + "))");
+        } catch (RuntimeException e) {
+            // A failed concurrent build leaves the index behind, marked INVALID
+            try {
+                dropIndex(indexName);
+            } catch (RuntimeException dropFailure) {
+                e.addSuppressed(dropFailure);
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Whether the form data column has the type the field conditions and indexes are written
+     * for: {@code jsonb} on PostgreSQL. Always true on other databases, which evaluate the
+     * conditions here.
+     *
+     * @return whether indexed fields can be declared and queried
+     */
+    public boolean isFormDataJsonb() {
+        if (!jsonColumnSupport.isPostgreSQL()) {
+            return true;
+        }
+        return "jsonb".equals(formDataColumnType());
+    }
+
+    /**
+     * Converts a text form data column to {@code jsonb}, as the schema update adding the
+     * entity mapping leaves an existing column as it is. Rewrites the table, so it runs once,
+     * at startup. Does nothing on databases other than PostgreSQL.
+     *
+     * @return whether the column was converted
+     */
+    public boolean convertFormDataToJsonb() {
+        if (isFormDataJsonb()) {
+            return false;
+        }
+        jdbcTemplate.execute("ALTER TABLE \"spms_form_instance\" ALTER COLUMN \"form_data\" " +
+                "TYPE jsonb USING \"form_data\"::jsonb");
+        return true;
+    }
+
+    private String formDataColumnType() {
+        List<String> types = jdbcTemplate.queryForList("SELECT data_type FROM information_schema.columns " +
+                "WHERE table_schema = current_schema AND table_name = 'spms_form_instance' " +
+                "AND column_name = 'form_data'", String.class);
+        return types.isEmpty() ? null : types.get(0);
+    }
+
+    /**
+     * Drops an index made by {@link #createIndex}. Does nothing on databases other than PostgreSQL.
+     *
+     * @param indexName name of the index
+     */
+    public void dropIndex(String indexName) {
+        if (!jsonColumnSupport.isPostgreSQL()) {
+            return;
+        }
+        jdbcTemplate.execute("DROP INDEX CONCURRENTLY IF EXISTS " + quoteIndexName(indexName));
+    }
+
+    /**
+     * Finds the instances of a form matching every criterion.
+     *
+     * @param formKey  form key
+     * @param criteria field conditions
+     * @param orders   sort order; creation time and then ID always break ties
+     * @param offset   number of matches to skip
+     * @param limit    maximum number of instances to pass to the consumer
+     * @param consumer receives the instances of the requested page, in order
+     * @return number of matching instances over all pages
+     */
+    public long findPage(String formKey, List<Criterion> criteria, List<Order> orders, long offset, int limit,
+                         Consumer<FormInstanceListingRepository.Row> consumer) {
+        if (jsonColumnSupport.isPostgreSQL()) {
+            return findPageInDatabase(formKey, criteria, orders, offset, limit, consumer);
+        }
+
+        List<Match> matches = new ArrayList<>();
+        jdbcTemplate.query(SELECT + " WHERE \"form_key\" = ? ORDER BY \"created_at\", \"id\"", rs -> {
+            JsonNode data = readData(rs.getString(4));
+            if (matches(data, criteria)) {
+                List<Object> keys = new ArrayList<>(orders.size());
+                for (Order order : orders) {
+                    keys.add(order.field() == null ? null : sortValue(data, order.field()));
+                }
+                matches.add(new Match(toRow(rs), keys));
+            }
+        }, formKey);
+        matches.sort(comparator(orders));
+        matches.stream().skip(offset).limit(limit).forEach(x -> consumer.accept(x.row()));
+        return matches.size();
+    }
+
+    private long findPageInDatabase(String formKey, List<Criterion> criteria, List<Order> orders, long offset,
+                                    int limit, Consumer<FormInstanceListingRepository.Row> consumer) {
+        List<String> conditions = new ArrayList<>();
+        List<Object> parameters = new ArrayList<>();
+        conditions.add("\"form_key\" = ?");
+        parameters.add(formKey);
+        for (Criterion criterion : criteria) {
+            appendCondition(criterion, conditions, parameters);
+        }
+        String where = " WHERE " + String.join(" AND ", conditions);
+
+        StringBuilder orderBy = new StringBuilder(" ORDER BY ");
+        for (Order order : orders) {
+            orderBy.append(order.field() == null ? "\"created_at\"" : expression(order.field()))
+                    .append(order.ascending() ? " ASC NULLS LAST, " : " DESC NULLS LAST, ");
+        }
+        orderBy.append("\"created_at\", \"id\"");
+
+        Long total = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"spms_form_instance\"" + where,
+                Long.class, parameters.toArray());
+        List<Object> pageParameters = new ArrayList<>(parameters);
+        pageParameters.add(limit);
+        pageParameters.add(offset);
+        jdbcTemplate.query(SELECT + where + orderBy + " LIMIT ? OFFSET ?",
+                (RowCallbackHandler) rs -> consumer.accept(toRow(rs)), pageParameters.toArray());
+        return total == null ? 0 : total;
+    }
+
+    /**
+     * The value of the field as PostgreSQL sees it: text, or for numeric fields a number
+     * when the text is one. Indexes are built on exactly this expression.
+     */
+    private static String expression(Field field) {
+        String text = "(\"form_data\" #>> '{" + field.path().replace('.', ',') + "}')";
+        if (field.type() == FormFieldType.NUMBER) {
+            return "CASE WHEN " + text + " ~ '" + NUMBER_REGEX + "' THEN CAST(" + text + " AS NUMERIC) END";
+        }
+        return text;
+    }
+
+    private static void appendCondition(Criterion criterion, List<String> conditions, List<Object> parameters) {
+        String expression = "(" + expression(criterion.field()) + ")";
+        boolean numeric = criterion.field().type() == FormFieldType.NUMBER;
+        Object value = criterion.value() == null ? null
+                : numeric ? new BigDecimal(criterion.value()) : criterion.value();
+        switch (criterion.comparison()) {
+            case EXISTS -> conditions.add(expression + " IS NOT NULL");
+            case PREFIX -> {
+                conditions.add(expression + " LIKE ? ESCAPE '\\'");
+                parameters.add(escapeLike(criterion.value()) + "%");
+            }
+            case NOT_EQUALS -> {
+                conditions.add(expression + " IS DISTINCT FROM ?");
+                parameters.add(value);
+            }
+            default -> {
+                conditions.add(expression + " " + operator(criterion.comparison()) + " ?");
+                parameters.add(value);
+            }
+        }
+    }
+
+    private static boolean matches(JsonNode data, List<Criterion> criteria) {
+        for (Criterion criterion : criteria) {
+            Object value = sortValue(data, criterion.field());
+            boolean matches = switch (criterion.comparison()) {
+                case EXISTS -> value != null;
+                case PREFIX -> value instanceof String text && text.startsWith(criterion.value());
+                case NOT_EQUALS -> value == null || compare(value, criterion) != 0;
+                default -> value != null && compare(compare(value, criterion), criterion.comparison());
+            };
+            if (!matches) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static int compare(Object value, Criterion criterion) {
+        if (value instanceof BigDecimal number) {
+            return number.compareTo(new BigDecimal(criterion.value()));
+        }
+        return ((String) value).compareTo(criterion.value());
+    }
+
+    private static boolean compare(int comparison, Comparison operator) {
+        return switch (operator) {
+            case EQUALS -> comparison == 0;
+            case LESS_THAN -> comparison < 0;
+            case LESS_THAN_OR_EQUAL -> comparison <= 0;
+            case GREATER_THAN -> comparison > 0;
+            case GREATER_THAN_OR_EQUAL -> comparison >= 0;
+            default -> throw new IllegalArgumentException("Not an ordering comparison: " + operator);
+        };
+    }
+
+    private static String operator(Comparison comparison) {
+        return switch (comparison) {
+            case EQUALS -> "=";
+            case LESS_THAN -> "<";
+            case LESS_THAN_OR_EQUAL -> "<=";
+            case GREATER_THAN -> ">";
+            case GREATER_THAN_OR_EQUAL -> ">=";
+            default -> throw new IllegalArgumentException("Not an ordering comparison: " + comparison);
+        };
+    }
+
+    /**
+     * The value of the field like {@link #expression}: a {@link BigDecimal} for numeric fields,
+     * otherwise the text, or {@code null} if missing.
+     */
+    private static Object sortValue(JsonNode data, Field field) {
+        JsonNode node = data;
+        for (String segment : field.path().split("\\.")) {
+            node = node == null ? null : node.get(segment);
+        }
+        if (node == null || node.isNull()) {
+            return null;
+        }
+        String text = node.isValueNode() ? node.asText() : node.toString();
+        if (field.type() == FormFieldType.NUMBER) {
+            return NUMBER.matcher(text).matches() ? new BigDecimal(text) : null;
+        }
+        return text;
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Match> comparator(List<Order> orders) {
+        Comparator<Match> comparator = (a, b) -> 0;
+        for (int i = 0; i < orders.size(); i++) {
+            int index = i;
+            Order order = orders.get(i);
+            if (order.field() == null) {
+                Comparator<Match> byCreation = Comparator.comparingLong(x -> x.row().createdAt());
+                comparator = comparator.thenComparing(order.ascending() ? byCreation : byCreation.reversed());
+            } else {
+                Comparator<Comparable> values = order.ascending()
+                        ? Comparator.naturalOrder() : Comparator.reverseOrder();
+                comparator = comparator.thenComparing(x -> (Comparable) x.keys().get(index),
+                        Comparator.nullsLast(values));
+            }
+        }
+        // Matches are collected in creation order, which the stable sort keeps for ties
+        return comparator;
+    }
+
+    private JsonNode readData(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return reader.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable form data: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static FormInstanceListingRepository.Row toRow(ResultSet rs) throws SQLException {
+        long updatedAt = rs.getLong(6);
+        Long updated = rs.wasNull() ? null : updatedAt;
+        return new FormInstanceListingRepository.Row(rs.getLong(1), rs.getString(2), rs.getString(3),
+                rs.getString(4), rs.getLong(5), updated);
+    }
+
+    private static String quoteIndexName(String indexName) {
+        if (!INDEX_NAME.matcher(indexName).matches()) {
+            throw new IllegalArgumentException("Invalid index name: " + indexName);
+        }
+        return "\"" + indexName + "\"";
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private record Match(FormInstanceListingRepository.Row row, List<Object> keys) {
+    }
+}
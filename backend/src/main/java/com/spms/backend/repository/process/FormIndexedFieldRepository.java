@@ -0,0 +1,13 @@
+package com.spms.backend.repository.process;
+
+import com.spms.backend.repository.entities.process.FormIndexedFieldEntity;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface FormIndexedFieldRepository extends JpaRepository<FormIndexedFieldEntity, Long> {
+    List<FormIndexedFieldEntity> findByFormKeyOrderByFieldPath(String formKey);
+    Optional<FormIndexedFieldEntity> findByFormKeyAndFieldPath(String formKey, String fieldPath);
+    long countByFormKey(String formKey);
+}
@@ -0,0 +1,105 @@
+package com.spms.backend.repository.process;
+
+import com.spms.backend.repository.JsonColumnSupport;
+import com.spms.backend.repository.entities.process.FormInstanceEntity;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Batched JDBC writes for {@code spms_form_instance}.
+ * <p>
+ * The IDENTITY keys of the entities make Hibernate insert rows one by one to learn each ID.
+ * Here, on PostgreSQL, a block of IDs is taken from the key's sequence in one query and the
+ * rows are inserted with those IDs in JDBC batches; other databases return the generated
+ * keys of each batch. Entity callbacks do not run, so audit fields must be set by the caller.
+ */
+@Repository
+public class FormInstanceBatchRepository {
+
+    static final int BATCH_SIZE = 500;
+
+    // Identifiers are quoted so the statements also match schemas created with globally quoted identifiers
+    private static final String INSERT_INSTANCE =
+            "INSERT INTO \"spms_form_instance\" (\"form_key\", \"version\", \"form_data\", \"created_at\", " +
+            "\"updated_at\") VALUES (?, ?, %s, ?, ?)";
+
+    private static final String INSERT_INSTANCE_WITH_ID =
+            "INSERT INTO \"spms_form_instance\" (\"id\", \"form_key\", \"version\", \"form_data\", \"created_at\", " +
+            "\"updated_at\") VALUES (?, ?, ?, %s, ?, ?)";
+
+    private static final String ALLOCATE_INSTANCE_IDS =
+            "SELECT nextval(pg_get_serial_sequence('spms_form_instance', 'id')) FROM generate_series(1, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final JsonColumnSupport jsonColumnSupport;
+
+    public FormInstanceBatchRepository(JdbcTemplate jdbcTemplate, JsonColumnSupport jsonColumnSupport) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.jsonColumnSupport = jsonColumnSupport;
+    }
+
+    /**
+     * Inserts new form instances and sets their generated IDs.
+     *
+     * @param instances instances to insert, without IDs
+     */
+    public void insertInstances(List<FormInstanceEntity> instances) {
+        if (instances.isEmpty()) {
+            return;
+        }
+        if (jsonColumnSupport.isPostgreSQL()) {
+            List<Long> ids = jdbcTemplate.queryForList(ALLOCATE_INSTANCE_IDS, Long.class, instances.size());
+            for (int i = 0; i < instances.size(); i++) {
+                instances.get(i).setId(ids.get(i));
+            }
+            String insert = INSERT_INSTANCE_WITH_ID.formatted(jsonColumnSupport.jsonParameter());
+            jdbcTemplate.batchUpdate(insert, instances, BATCH_SIZE, (ps, instance) -> {
+                ps.setLong(1, instance.getId());
+                setInstance(ps, 2, instance);
+            });
+            return;
+        }
+
+        String insert = INSERT_INSTANCE.formatted(jsonColumnSupport.jsonParameter());
+        for (int start = 0; start < instances.size(); start += BATCH_SIZE) {
+            List<FormInstanceEntity> batch = instances.subList(start, Math.min(start + BATCH_SIZE, instances.size()));
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(insert, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            setInstance(ps, 1, batch.get(i));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return batch.size();
+                        }
+                    }, keys);
+            List<Map<String, Object>> keyList = keys.getKeyList();
+            if (keyList.size() != batch.size()) {
+                throw new IllegalStateException("Expected " + batch.size() + " generated keys, got " + keyList.size());
+            }
+            for (int i = 0; i < batch.size(); i++) {
+                batch.get(i).setId(((Number) keyList.get(i).values().iterator().next()).longValue());
+            }
+        }
+    }
+
+    private static void setInstance(PreparedStatement ps, int first, FormInstanceEntity instance) throws SQLException {
+        ps.setString(first, instance.getFormKey());
+        ps.setString(first + 1, instance.getVersion());
+        ps.setString(first + 2, instance.getFormData());
+        ps.setLong(first + 3, instance.getCreatedAt());
+        ps.setObject(first + 4, instance.getUpdatedAt());
+    }
+}
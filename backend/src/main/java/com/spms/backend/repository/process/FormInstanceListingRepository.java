@@ -0,0 +1,91 @@
+package com.spms.backend.repository.process;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Lists form instances in creation order with keyset pagination, handing out the stored
+ * form data as JSON text instead of mapping rows to entities.
+ * <p>
+ * Rows are ordered by {@code created_at} and then {@code id}, so instances created in the
+ * same millisecond still have a stable position. A page continues after the position of
+ * the last row of the previous page, which the index on
+ * {@code (form_key, version, created_at, id)} serves without an offset scan.
+ */
+@Repository
+public class FormInstanceListingRepository {
+
+    /**
+     * A stored form instance.
+     *
+     * @param id        instance ID
+     * @param formKey   form key
+     * @param version   form version
+     * @param formData  stored JSON text of the form data, may be {@code null}
+     * @param createdAt creation time in milliseconds since the epoch
+     * @param updatedAt last update time in milliseconds since the epoch, may be {@code null}
+     */
+    public record Row(long id, String formKey, String version, String formData, long createdAt, Long updatedAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public FormInstanceListingRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Passes the instances of a form to the consumer, in creation order.
+     *
+     * @param formKey        form key
+     * @param version        form version, {@code null} for all versions
+     * @param afterCreatedAt creation time of the row to continue after, {@code null} to start at the beginning
+     * @param afterId        ID of the row to continue after; ignored without {@code afterCreatedAt}
+     * @param newestFirst    whether to list the newest instances first
+     * @param limit          maximum number of rows, {@code 0} or less for all
+     * @param fetchSize      number of rows the driver fetches at a time
+     * @param consumer       receives each row
+     */
+    public void forEach(String formKey, String version, Long afterCreatedAt, long afterId, boolean newestFirst,
+                        int limit, int fetchSize, Consumer<Row> consumer) {
+        // Identifiers are quoted so the statements also match schemas created with globally quoted identifiers
+        StringBuilder sql = new StringBuilder("SELECT \"id\", \"form_key\", \"version\", \"form_data\", " +
+                "\"created_at\", \"updated_at\" FROM \"spms_form_instance\" WHERE \"form_key\" = ?");
+        List<Object> parameters = new ArrayList<>();
+        parameters.add(formKey);
+        if (version != null) {
+            sql.append(" AND \"version\" = ?");
+            parameters.add(version);
+        }
+        if (afterCreatedAt != null) {
+            sql.append(newestFirst ? " AND (\"created_at\", \"id\") < (?, ?)" : " AND (\"created_at\", \"id\") > (?, ?)");
+            parameters.add(afterCreatedAt);
+            parameters.add(afterId);
+        }
+        String direction = newestFirst ? " DESC" : " ASC";
+        sql.append(" ORDER BY \"created_at\"").append(direction).append(", \"id\"").append(direction);
+        if (limit > 0) {
+            sql.append(" LIMIT ?");
+            parameters.add(limit);
+        }
+
+        jdbcTemplate.query(connection -> {
+            PreparedStatement statement = connection.prepareStatement(sql.toString());
+            statement.setFetchSize(fetchSize);
+            for (int i = 0; i < parameters.size(); i++) {
+                statement.setObject(i + 1, parameters.get(i));
+            }
+            return statement;
+        }, rs -> {
+            long updatedAt = rs.getLong(6);
+            Long updated = rs.wasNull() ? null : updatedAt;
+            consumer.accept(new Row(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                    rs.getLong(5), updated));
+        });
+    }
+}
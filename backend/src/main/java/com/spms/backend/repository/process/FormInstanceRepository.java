@@ -1,10 +1,19 @@
 package com.spms.backend.repository.process;
 
 import com.spms.backend.repository.entities.process.FormInstanceEntity;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import java.util.List;
+import java.util.Optional;
 
 public interface FormInstanceRepository extends JpaRepository<FormInstanceEntity, String> {
     List<FormInstanceEntity> findByFormKey(String formKey);
     List<FormInstanceEntity> findByFormKeyAndVersion(String formKey, String version);
+
+    /**
+     * Loads an instance and locks its row until the transaction ends.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<FormInstanceEntity> findForUpdateById(Long id);
 }
@@ -0,0 +1,31 @@
+package com.spms.backend.repository.process;
+
+import com.spms.backend.repository.entities.process.FormInstanceRevisionEntity;
+import com.spms.backend.repository.entities.process.FormRevisionKind;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.List;
+import java.util.Optional;
+
+public interface FormInstanceRevisionRepository extends JpaRepository<FormInstanceRevisionEntity, Long> {
+
+    @Query("SELECT MAX(r.revision) FROM FormInstanceRevisionEntity r WHERE r.instanceId = :instanceId")
+    Integer findLatestRevision(@Param("instanceId") Long instanceId);
+
+    @Query("SELECT new com.spms.backend.repository.process.FormInstanceRevisionSummary(r.revision, r.kind, r.createdAt) " +
+           "FROM FormInstanceRevisionEntity r WHERE r.instanceId = :instanceId ORDER BY r.revision DESC")
+    List<FormInstanceRevisionSummary> findSummariesByInstanceId(@Param("instanceId") Long instanceId);
+
+    Optional<FormInstanceRevisionEntity> findFirstByInstanceIdAndKindAndRevisionLessThanEqualOrderByRevisionDesc(
+            Long instanceId, FormRevisionKind kind, Integer revision);
+
+    List<FormInstanceRevisionEntity> findByInstanceIdAndRevisionBetweenOrderByRevision(
+            Long instanceId, Integer fromRevision, Integer toRevision);
+
+    @Modifying
+    @Query("DELETE FROM FormInstanceRevisionEntity r WHERE r.instanceId = :instanceId")
+    int deleteByInstanceId(@Param("instanceId") Long instanceId);
+}
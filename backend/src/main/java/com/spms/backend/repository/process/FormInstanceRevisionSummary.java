@@ -0,0 +1,13 @@
+package com.spms.backend.repository.process;
+
+import com.spms.backend.repository.entities.process.FormRevisionKind;
+
+/**
+ * Columns of a form instance revision without its payload.
+ *
+ * @param revision  revision number
+ * @param kind      whether the revision is a snapshot or a patch
+ * @param createdAt save time in milliseconds since the epoch
+ */
+public record FormInstanceRevisionSummary(Integer revision, FormRevisionKind kind, Long createdAt) {
+}
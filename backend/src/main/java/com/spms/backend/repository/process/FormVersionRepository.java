@@ -7,6 +7,7 @@ import java.util.List;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 /**
  * 表单版本数据访问接口，提供对表单版本实体的CRUD和自定义查询操作。
@@ -152,4 +153,56 @@ public interface FormVersionRepository extends JpaRepository<FormVersionEntity,
      */
     @Query("SELECT DISTINCT f.key FROM FormVersionEntity f")
     List<String> findDistinctKeys();
+
+    /**
+     * 查询指定键和版本号的表单版本，不加载表单定义内容。
+     *
+     * @param key     表单的唯一标识符
+     * @param version 表单的版本号
+     * @return 表单版本摘要，未找到时返回空Optional
+     */
+    @Query("SELECT new com.spms.backend.repository.process.FormVersionSummary(f.id, f.key, f.version, f.name, " +
+           "f.description, f.publishedDate, f.deprecated, f.deploymentId) " +
+           "FROM FormVersionEntity f WHERE f.key = :key AND f.version = :version")
+    Optional<FormVersionSummary> findSummaryByKeyAndVersion(@Param("key") String key, @Param("version") Long version);
+
+    /**
+     * 根据ID查询表单版本，不加载表单定义内容。
+     *
+     * @param id 表单版本ID
+     * @return 表单版本摘要，未找到时返回空Optional
+     */
+    @Query("SELECT new com.spms.backend.repository.process.FormVersionSummary(f.id, f.key, f.version, f.name, " +
+           "f.description, f.publishedDate, f.deprecated, f.deploymentId) " +
+           "FROM FormVersionEntity f WHERE f.id = :id")
+    Optional<FormVersionSummary> findSummaryById(@Param("id") Long id);
+
+    /**
+     * 查询指定键的所有表单版本，按发布时间降序排列，不加载表单定义内容。
+     *
+     * @param key 表单的唯一标识符
+     * @return 按发布时间降序排列的表单版本摘要列表
+     */
+    @Query("SELECT new com.spms.backend.repository.process.FormVersionSummary(f.id, f.key, f.version, f.name, " +
+           "f.description, f.publishedDate, f.deprecated, f.deploymentId) " +
+           "FROM FormVersionEntity f WHERE f.key = :key ORDER BY f.publishedDate DESC")
+    List<FormVersionSummary> findSummariesByKeyOrderByPublishedDateDesc(@Param("key") String key);
+
+    /**
+     * 查询指定键的最大版本号。
+     *
+     * @param key 表单的唯一标识符
+     * @return 最大版本号，没有任何版本时返回 null
+     */
+    @Query("SELECT MAX(f.version) FROM FormVersionEntity f WHERE f.key = :key")
+    Long findLatestVersionNumber(@Param("key") String key);
+
+    /**
+     * 只读取表单版本的定义内容。
+     *
+     * @param id 表单版本ID
+     * @return 表单定义内容，版本不存在或没有定义时返回 null
+     */
+    @Query("SELECT f.formDefinition FROM FormVersionEntity f WHERE f.id = :id")
+    String findFormDefinitionById(@Param("id") Long id);
 }
@@ -0,0 +1,17 @@
+package com.spms.backend.repository.process;
+
+/**
+ * Columns of a form version without its definition, so reading it does not load the Lob.
+ *
+ * @param id            ID of the form version
+ * @param key           form key
+ * @param version       encoded version number
+ * @param name          display name
+ * @param description   description
+ * @param publishedDate publication time in milliseconds since the epoch
+ * @param deprecated    whether the version is deprecated
+ * @param deploymentId  deployment ID, {@code null} when not deployed
+ */
+public record FormVersionSummary(Long id, String key, Long version, String name, String description,
+                                 Long publishedDate, boolean deprecated, String deploymentId) {
+}
@@ -13,6 +13,15 @@ import java.util.List;
 
 @Repository
 public interface ProcessVersionRepository extends JpaRepository<ProcessVersionEntity, Long> {
+
+    /**
+     * Select clause of the summary queries: every column except the BPMN XML.
+     */
+    String SUMMARY_SELECT = "SELECT new com.spms.backend.repository.process.ProcessVersionSummary(" +
+            "p.id, d.id, p.name, p.description, p.key, p.version, p.status, p.deployedToFlowable, " +
+            "p.flowableDefinitionId, p.createdAt, p.updatedAt, p.createdById, p.updatedById, f.id) " +
+            "FROM ProcessVersionEntity p LEFT JOIN p.processDefinition d LEFT JOIN p.formVersion f ";
+
     List<ProcessVersionEntity> findByKey(String key);
 
     /**
@@ -118,4 +127,43 @@ public interface ProcessVersionRepository extends JpaRepository<ProcessVersionEn
      */
     @Query("SELECT p FROM ProcessVersionEntity p WHERE p.processDefinition.id = :definitionId AND p.status = 'DEPLOYED' ORDER BY p.createdAt DESC")
     Page<ProcessVersionEntity> findLatestDeployedVersion(@Param("definitionId") Long definitionId, Pageable pageable);
+
+    /**
+     * Finds a process version by process definition ID and version string, without its BPMN XML.
+     *
+     * @param processDefinitionId The ID of the process definition
+     * @param version The version string
+     * @return An Optional containing the version summary, or empty if not found
+     */
+    @Query(SUMMARY_SELECT + "WHERE p.processDefinition.id = :definitionId AND p.version = :version")
+    Optional<ProcessVersionSummary> findSummaryByProcessDefinitionIdAndVersion(
+        @Param("definitionId") Long processDefinitionId,
+        @Param("version") String version);
+
+    /**
+     * Finds a process version by its ID, without its BPMN XML.
+     *
+     * @param id The ID of the process version
+     * @return An Optional containing the version summary, or empty if not found
+     */
+    @Query(SUMMARY_SELECT + "WHERE p.id = :id")
+    Optional<ProcessVersionSummary> findSummaryById(@Param("id") Long id);
+
+    /**
+     * Finds a process version by its Flowable deployment ID, without its BPMN XML.
+     *
+     * @param flowableDeploymentId the Flowable deployment ID
+     * @return An Optional containing the version summary, or empty if not found
+     */
+    @Query(SUMMARY_SELECT + "WHERE p.flowableDeploymentId = :deploymentId")
+    Optional<ProcessVersionSummary> findSummaryByFlowableDeploymentId(@Param("deploymentId") String flowableDeploymentId);
+
+    /**
+     * Reads only the BPMN XML of a process version.
+     *
+     * @param id The ID of the process version
+     * @return The BPMN XML, or null if the version does not exist
+     */
+    @Query("SELECT p.bpmnXml FROM ProcessVersionEntity p WHERE p.id = :id")
+    String findBpmnXmlById(@Param("id") Long id);
 }
@@ -0,0 +1,28 @@
+package com.spms.backend.repository.process;
+
+import com.spms.backend.repository.entities.process.ProcessVersionStatus;
+
+/**
+ * Columns of a process version without its BPMN XML, so reading it does not load the Lob.
+ *
+ * @param id                   ID of the process version
+ * @param processDefinitionId  ID of the process definition the version belongs to
+ * @param name                 display name
+ * @param description          description
+ * @param key                  process key
+ * @param version              semantic version
+ * @param status               lifecycle status
+ * @param deployedToFlowable   whether the version is deployed to Flowable
+ * @param flowableDefinitionId Flowable definition ID
+ * @param createdAt            creation time in milliseconds since the epoch
+ * @param updatedAt            last update time in milliseconds since the epoch
+ * @param createdById          ID of the creating user
+ * @param updatedById          ID of the last updating user
+ * @param formVersionId        ID of the related form version, {@code null} if none
+ */
+public record ProcessVersionSummary(Long id, Long processDefinitionId, String name, String description,
+                                    String key, String version, ProcessVersionStatus status,
+                                    Boolean deployedToFlowable, String flowableDefinitionId,
+                                    Long createdAt, Long updatedAt, Long createdById, Long updatedById,
+                                    Long formVersionId) {
+}
@@ -0,0 +1,77 @@
+package com.spms.backend.repository.search;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+
+/**
+ * Flat reads of the rows indexed for the global search.
+ * <p>
+ * Every source is read into the same shape: a title, a subtitle, free text and the two
+ * facet values. Full reads stream the rows, so indexing never holds a whole table in memory.
+ */
+@Repository
+public class SearchSourceRepository {
+
+    private static final String ACTIVE_STATUS = "CASE WHEN \"active\" = FALSE THEN 'INACTIVE' ELSE 'ACTIVE' END";
+
+    /**
+     * Tables read by the global search.
+     */
+    public enum Source {
+        // Identifiers are quoted so the statements also match schemas created with globally quoted identifiers
+        COMPANY("SELECT \"id\", \"name\", \"company_type\", \"description\", \"company_type\", " +
+                ACTIVE_STATUS + " FROM \"spms_company\""),
+        DIVISION("SELECT \"id\", \"name\", \"type\", \"description\", \"type\", " +
+                ACTIVE_STATUS + " FROM \"spms_division\""),
+        DEPARTMENT("SELECT \"id\", \"name\", \"type\", NULL, \"type\", " +
+                ACTIVE_STATUS + " FROM \"spms_department\""),
+        USER("SELECT \"id\", \"username\", \"email\", \"description\", \"type\", NULL FROM \"spms_user\""),
+        ROLE("SELECT \"id\", \"name\", NULL, \"description\", NULL, " +
+                ACTIVE_STATUS + " FROM \"spms_role\""),
+        PROCESS_DEFINITION("SELECT \"id\", \"name\", \"key\", \"description\", NULL, NULL FROM \"spms_process_def\""),
+        FORM_VERSION("SELECT \"id\", \"name\", \"key\", \"description\", NULL, " +
+                "CASE WHEN \"deprecated\" THEN 'DEPRECATED' ELSE 'ACTIVE' END FROM \"spms_form_version\"");
+
+        private final String select;
+
+        Source(String select) {
+            this.select = select;
+        }
+    }
+
+    private static final RowMapper<SourceRow> MAPPER = (rs, i) -> new SourceRow(
+            rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4), rs.getString(5), rs.getString(6));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public SearchSourceRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void forEach(Source source, Consumer<SourceRow> consumer) {
+        jdbcTemplate.query(source.select, rs -> {
+            consumer.accept(MAPPER.mapRow(rs, 0));
+        });
+    }
+
+    public Optional<SourceRow> find(Source source, long id) {
+        return jdbcTemplate.query(source.select + " WHERE \"id\" = ?", MAPPER, id).stream().findFirst();
+    }
+
+    /**
+     * An indexed row.
+     *
+     * @param id       row ID
+     * @param title    name of the entity, may be {@code null}
+     * @param subtitle short secondary text (type, email, key), may be {@code null}
+     * @param text     longer free text, may be {@code null}
+     * @param category category facet value, may be {@code null}
+     * @param status   status facet value, may be {@code null}
+     */
+    public record SourceRow(long id, String title, String subtitle, String text, String category, String status) {
+    }
+}
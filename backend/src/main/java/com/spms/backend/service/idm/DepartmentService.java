@@ -6,6 +6,7 @@ import com.spms.backend.service.model.idm.UserModel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -95,6 +96,30 @@ public interface DepartmentService {
      */
     boolean deleteUserFromDepartment(DepartmentModel department, List<UserModel> users);
 
+    /**
+     * Adds users to a department by ID without loading its existing members.
+     * Users that are already members are skipped.
+     *
+     * @param departmentId Department ID
+     * @param userIds IDs of users to add
+     * @return Number of users actually added
+     * @throws NotFoundException If the department does not exist
+     * @throws ValidationException If the list is empty or contains unknown user IDs
+     */
+    int addMembers(Long departmentId, Collection<Long> userIds);
+
+    /**
+     * Removes users from a department by ID without loading its existing members.
+     * Users that are not members are ignored.
+     *
+     * @param departmentId Department ID
+     * @param userIds IDs of users to remove
+     * @return Number of users actually removed
+     * @throws NotFoundException If the department does not exist
+     * @throws ValidationException If the list is empty
+     */
+    int removeMembers(Long departmentId, Collection<Long> userIds);
+
     /**
      * Retrieves departments associated with a user
      * 
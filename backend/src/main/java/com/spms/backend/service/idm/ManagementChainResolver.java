@@ -0,0 +1,49 @@
+package com.spms.backend.service.idm;
+
+import com.spms.backend.repository.entities.idm.DepartmentType;
+
+import java.util.List;
+
+/**
+ * Resolves the chain of department heads above a user for a given department line.
+ * <p>
+ * The chain is precomputed from the organization structure and cached, so resolving
+ * any level of a multi-level approval is a lookup rather than a query.
+ */
+public interface ManagementChainResolver {
+
+    /**
+     * Returns the head of the user's own department in the given line. Unlike level 1 of
+     * the chain, this does not fall back to a head further up when the department has none.
+     *
+     * @param username username to look up
+     * @param line     department line ({@link DepartmentType#LOCAL} or {@link DepartmentType#FUNCTIONAL})
+     * @return head username, or empty string if the user is unknown or their department has no head
+     */
+    String findHead(String username, DepartmentType line);
+
+    /**
+     * Returns the head at the given level of the management chain.
+     *
+     * @param username username to look up
+     * @param line     department line
+     * @param level    1 for the nearest head, which is the head of the user's own department if it
+     *                 has one, 2 for the next one up, and so on
+     * @return head username, or empty string if the chain is shorter than the level
+     */
+    String findHead(String username, DepartmentType line, int level);
+
+    /**
+     * Returns the full management chain, nearest head first.
+     *
+     * @param username username to look up
+     * @param line     department line
+     * @return list of head usernames, empty if the user has no department in the line
+     */
+    List<String> findChain(String username, DepartmentType line);
+
+    /**
+     * Drops the cached chains; they are rebuilt on the next lookup.
+     */
+    void invalidate();
+}
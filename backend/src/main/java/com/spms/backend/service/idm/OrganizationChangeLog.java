@@ -0,0 +1,31 @@
+package com.spms.backend.service.idm;
+
+import com.spms.backend.service.model.idm.ChangeFeed;
+
+/**
+ * Append-only log of organization changes, for consumers that synchronize incrementally.
+ * <p>
+ * Every {@link com.spms.backend.service.idm.event.OrganizationChangedEvent} is recorded in
+ * the transaction that caused it and receives a sequence number that increases in commit
+ * order. Consumers remember the last sequence number they processed and ask for the changes after it.
+ * Roles granted to or revoked from a user appear as an update of that user, or as a
+ * {@code ROLE_ASSIGNMENT} entry keyed by the user ID for bulk grants.
+ */
+public interface OrganizationChangeLog {
+
+    /**
+     * Returns the changes committed after the given sequence number.
+     *
+     * @param since last sequence number the consumer has processed, 0 to start from the beginning
+     * @param limit maximum number of entries; capped by the configured page size
+     * @return a page of changes, or a reset marker if the consumer fell behind the retention
+     */
+    ChangeFeed getChanges(long since, int limit);
+
+    /**
+     * Drops superseded and expired entries.
+     *
+     * @return number of entries removed
+     */
+    int compact();
+}
@@ -0,0 +1,34 @@
+package com.spms.backend.service.idm;
+
+import com.spms.backend.controller.dto.idm.ChartMode;
+import com.spms.backend.service.model.idm.ChartLevel;
+import com.spms.backend.service.model.idm.ChartNodeType;
+
+/**
+ * Child and member counts of every organization chart node, kept in a table so that one
+ * level of the chart is read with two indexed queries regardless of the size of the tree.
+ * <p>
+ * Membership changes adjust the counts of the department and its ancestors incrementally;
+ * changes to the structure itself rebuild the table. Both happen in the transaction that
+ * made the change.
+ */
+public interface OrganizationChartCounts {
+
+    /**
+     * Returns a node of the chart with its direct children.
+     *
+     * @param mode     chart to read
+     * @param nodeType kind of the node
+     * @param nodeId   ID of the company, division or department
+     * @return the node and its children with their counts
+     * @throws com.spms.backend.service.exception.NotFoundException if the node is not part of the chart
+     */
+    ChartLevel getLevel(ChartMode mode, ChartNodeType nodeType, Long nodeId);
+
+    /**
+     * Recomputes all counts from the current organization.
+     *
+     * @return number of chart nodes
+     */
+    int rebuild();
+}
@@ -0,0 +1,24 @@
+package com.spms.backend.service.idm;
+
+import com.spms.backend.controller.dto.idm.ChartMode;
+import com.spms.backend.service.model.idm.ChartSnapshot;
+
+/**
+ * Store of serialized organization charts per company and mode.
+ * <p>
+ * A chart is built and serialized once and then served as bytes until the organization
+ * changes. Changes regenerate the stored charts in the background; requests arriving
+ * meanwhile wait for the new snapshot instead of building their own.
+ */
+public interface OrganizationChartSnapshots {
+
+    /**
+     * Returns the current snapshot of a chart, building it if needed.
+     *
+     * @param companyId ID of the root company
+     * @param mode      chart display mode
+     * @return the serialized chart with its entity tag
+     * @throws com.spms.backend.service.exception.NotFoundException if the company does not exist
+     */
+    ChartSnapshot getSnapshot(Long companyId, ChartMode mode);
+}
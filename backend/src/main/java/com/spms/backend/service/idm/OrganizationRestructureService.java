@@ -0,0 +1,22 @@
+package com.spms.backend.service.idm;
+
+import com.spms.backend.service.model.idm.RestructurePlan;
+import com.spms.backend.service.model.idm.RestructureResult;
+
+/**
+ * Moves many companies and departments in one transaction.
+ * <p>
+ * The whole plan is checked against the hierarchy rules of {@link CompanyService#isValidParent}
+ * and {@link DepartmentService#isValidParent} and for cycles before anything is written.
+ */
+public interface OrganizationRestructureService {
+
+    /**
+     * Validates and applies a restructure plan.
+     *
+     * @param plan      company and department moves
+     * @param updatedBy username recorded as the last modifier of moved nodes
+     * @return counts of moved nodes, or the validation errors if the plan was rejected
+     */
+    RestructureResult restructure(RestructurePlan plan, String updatedBy);
+}
@@ -2,6 +2,8 @@ package com.spms.backend.service.idm;
 
 import com.spms.backend.controller.dto.idm.ChartMode;
 import com.spms.backend.controller.dto.idm.OrganizationChartDTO;
+import com.spms.backend.service.model.idm.ChartLevel;
+import com.spms.backend.service.model.idm.ChartNodeType;
 import com.spms.backend.service.model.idm.DepartmentModel;
 import com.spms.backend.service.model.idm.RoleModel;
 import com.spms.backend.service.model.idm.UserModel;
@@ -23,6 +25,17 @@ public interface OrganizationService {
      */
     OrganizationChartDTO getOrganizationChart(Long companyId, ChartMode mode);
 
+    /**
+     * Retrieves one level of the organization chart: a node and its direct children,
+     * each with child and member counts. Used to expand the chart on demand.
+     *
+     * @param mode The chart to read
+     * @param nodeType The kind of node to expand
+     * @param nodeId The ID of the company, division or department
+     * @return The node with its direct children
+     */
+    ChartLevel getOrganizationChartLevel(ChartMode mode, ChartNodeType nodeType, Long nodeId);
+
     /**
      * Assigns roles to a user.
      *
@@ -87,6 +100,27 @@ public interface OrganizationService {
      */
     String findUserDepartmentHead(String userName, String line);
 
+    /**
+     * Finds the department head at a given level above a user.
+     * Used in Flowable engine UEL expressions for multi-level approvals.
+     *
+     * @param userName The username to look up
+     * @param line The functional line (e.g., "local" for direct line)
+     * @param level 1 for the user's own department head, 2 for the next one up, and so on
+     * @return Department head identifier, or empty string if the chain is shorter
+     */
+    String findUserDepartmentHead(String userName, String line, int level);
+
+    /**
+     * Finds the chain of department heads above a user, nearest first.
+     * Used in Flowable engine UEL expressions.
+     *
+     * @param userName The username to look up
+     * @param line The functional line (e.g., "local" for direct line)
+     * @return List of department head identifiers
+     */
+    List<String> findUserManagementChain(String userName, String line);
+
     /**
      * Finds a department member using a specific selection method.
      *
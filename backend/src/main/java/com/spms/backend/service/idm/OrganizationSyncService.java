@@ -0,0 +1,23 @@
+package com.spms.backend.service.idm;
+
+import com.spms.backend.service.model.idm.OrganizationSnapshot;
+import com.spms.backend.service.model.idm.OrganizationSyncResult;
+
+/**
+ * Brings companies, divisions, departments, heads and memberships in line with a full
+ * snapshot from the HR system.
+ * <p>
+ * Only the differences are written, so the cost of a run depends on the amount of change
+ * rather than on the size of the organization.
+ */
+public interface OrganizationSyncService {
+
+    /**
+     * Validates the snapshot and applies the differences to the current organization.
+     *
+     * @param snapshot  the complete organization
+     * @param updatedBy username recorded as creator or last modifier of changed nodes
+     * @return counts of changed nodes and memberships, or the validation errors if the snapshot was rejected
+     */
+    OrganizationSyncResult sync(OrganizationSnapshot snapshot, String updatedBy);
+}
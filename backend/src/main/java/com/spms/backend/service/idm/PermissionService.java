@@ -0,0 +1,105 @@
+package com.spms.backend.service.idm;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Set;
+
+/**
+ * Effective permissions of roles and users, precomputed from the role hierarchy.
+ * <p>
+ * Permission strings are interned into a dense index that only ever grows, so a
+ * {@link BitSet} obtained from this service stays meaningful after the hierarchy changes.
+ * Each role's effective set (its own permissions plus those of all ancestors) is flattened
+ * once per change; authorization checks are then bitset operations.
+ */
+public interface PermissionService {
+
+    /**
+     * Returns the index of a permission in the interned permission table.
+     *
+     * @param permission permission string
+     * @return bit index, or -1 if the permission has never been granted or requested
+     */
+    int indexOf(String permission);
+
+    /**
+     * Converts permission strings to a bitset, interning permissions not seen before.
+     *
+     * @param permissions permission strings
+     * @return bitset with one bit per permission
+     */
+    BitSet toBitSet(Collection<String> permissions);
+
+    /**
+     * Converts a bitset back to permission strings.
+     *
+     * @param permissions bitset produced by this service
+     * @return permission strings
+     */
+    Set<String> toPermissions(BitSet permissions);
+
+    /**
+     * Returns the effective permissions of a role, including those inherited from ancestors.
+     *
+     * @param roleId role ID
+     * @return a copy of the effective permission set; empty if the role is unknown
+     */
+    BitSet getRolePermissions(Long roleId);
+
+    /**
+     * Returns the union of the effective permissions of several roles.
+     *
+     * @param roleIds role IDs
+     * @return effective permission set
+     */
+    BitSet getRolePermissions(Collection<Long> roleIds);
+
+    /**
+     * Returns the effective permissions of a user through all assigned roles.
+     *
+     * @param userId user ID
+     * @return effective permission set
+     */
+    BitSet getUserPermissions(Long userId);
+
+    /**
+     * Checks a single permission against a granted set.
+     *
+     * @param granted    effective permission set
+     * @param permission permission to check
+     * @return true if the permission is granted
+     */
+    boolean hasPermission(BitSet granted, String permission);
+
+    /**
+     * Checks that every required permission is granted.
+     *
+     * @param granted  effective permission set
+     * @param required required permission set
+     * @return true if {@code required} is a subset of {@code granted}
+     */
+    boolean hasAllPermissions(BitSet granted, BitSet required);
+
+    /**
+     * Checks whether making {@code parentId} a parent of {@code roleId} would close a cycle,
+     * i.e. whether {@code roleId} already is {@code parentId} or one of its ancestors.
+     *
+     * @param roleId   child role ID
+     * @param parentId proposed parent role ID
+     * @return true if the new edge would create a cycle
+     */
+    boolean createsCycle(Long roleId, Long parentId);
+
+    /**
+     * Returns a number that changes every time the effective permissions are recomputed.
+     * Callers that keep a permission set can compare versions to detect that it is stale.
+     *
+     * @return current version
+     */
+    long getVersion();
+
+    /**
+     * Rebuilds the effective permission sets from the database.
+     */
+    void recompute();
+}
@@ -1,9 +1,12 @@
 package com.spms.backend.service.idm;
 
+import com.spms.backend.service.model.idm.RoleAssignmentResult;
 import com.spms.backend.service.model.idm.RoleModel;
+import com.spms.backend.service.model.idm.UserSelector;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 
+import java.util.Collection;
 import java.util.Set;
 
 /**
@@ -82,4 +85,22 @@ public interface RoleService {
      * @return Page of matching role models
      */
     Page<RoleModel> searchRoles(String name, String description, Pageable pageable);
+
+    /**
+     * Grants roles to all selected users in batched statements
+     *
+     * @param roleIds Roles to grant
+     * @param users   Users to grant them to
+     * @return Counts of selected users and added assignments
+     */
+    RoleAssignmentResult grantRoles(Collection<Long> roleIds, UserSelector users);
+
+    /**
+     * Revokes roles from all selected users in batched statements
+     *
+     * @param roleIds Roles to revoke
+     * @param users   Users to revoke them from
+     * @return Counts of selected users and removed assignments
+     */
+    RoleAssignmentResult revokeRoles(Collection<Long> roleIds, UserSelector users);
 }
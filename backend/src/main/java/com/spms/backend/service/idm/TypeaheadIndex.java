@@ -0,0 +1,33 @@
+package com.spms.backend.service.idm;
+
+import com.spms.backend.service.model.idm.TypeaheadHit;
+import com.spms.backend.service.model.idm.TypeaheadKind;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * In-process index for the user and department pickers.
+ * <p>
+ * The index is built from the database at startup and kept current by the organization
+ * change events, so lookups never touch the database.
+ */
+public interface TypeaheadIndex {
+
+    /**
+     * Finds users and departments matching every word of the query.
+     *
+     * @param query text typed so far
+     * @param kinds kinds of entities to return; empty for all
+     * @param limit maximum number of hits; capped by the configured maximum
+     * @return hits ordered by relevance, best first
+     */
+    List<TypeaheadHit> search(String query, Set<TypeaheadKind> kinds, int limit);
+
+    /**
+     * Rebuilds the whole index from the database.
+     *
+     * @return number of indexed entries
+     */
+    int rebuild();
+}
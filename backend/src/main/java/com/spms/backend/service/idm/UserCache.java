@@ -0,0 +1,44 @@
+package com.spms.backend.service.idm;
+
+import com.spms.backend.service.model.idm.UserModel;
+
+import java.util.Optional;
+
+/**
+ * Small, bounded cache of users keyed by ID, used to resolve the authenticated user
+ * of a request without holding user state in the HTTP session.
+ * <p>
+ * Entries are evicted when the user changes on this node and expire after a short
+ * time to live, so changes made on other nodes become visible as well.
+ */
+public interface UserCache {
+
+    /**
+     * Returns the user with the given ID.
+     *
+     * @param userId user ID
+     * @return the user, or empty if it does not exist
+     */
+    Optional<UserModel> getUser(Long userId);
+
+    /**
+     * Returns the ID of the user linked to an identity provider account.
+     *
+     * @param provider   identity provider (client registration ID)
+     * @param providerId subject of the user at the provider
+     * @return user ID, or empty if no user is linked to the account
+     */
+    Optional<Long> findUserId(String provider, String providerId);
+
+    /**
+     * Evicts a single user.
+     *
+     * @param userId user ID
+     */
+    void invalidate(Long userId);
+
+    /**
+     * Evicts all users.
+     */
+    void invalidateAll();
+}
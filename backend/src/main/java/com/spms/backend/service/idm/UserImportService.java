@@ -0,0 +1,26 @@
+package com.spms.backend.service.idm;
+
+import com.spms.backend.service.model.idm.UserImportFormat;
+import com.spms.backend.service.model.idm.UserImportResult;
+
+import java.io.InputStream;
+
+/**
+ * Bulk creation of users from an uploaded file.
+ */
+public interface UserImportService {
+
+    /**
+     * Imports users from a CSV or NDJSON stream.
+     * <p>
+     * The stream is read and written in fixed-size batches, each committed on its own, so
+     * memory use does not grow with the file size. Rows that fail validation (missing fields,
+     * existing or repeated username/email, unknown departments) are reported and skipped.
+     *
+     * @param input      file content, UTF-8 encoded
+     * @param format     file format
+     * @param importedBy username recorded as creator of the imported users
+     * @return counts and row errors
+     */
+    UserImportResult importUsers(InputStream input, UserImportFormat format, String importedBy);
+}
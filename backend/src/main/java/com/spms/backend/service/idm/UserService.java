@@ -6,6 +6,7 @@ import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.ValidationException;
 import com.spms.backend.service.model.idm.DepartmentModel;
 import com.spms.backend.service.model.idm.RoleModel;
+import com.spms.backend.service.model.idm.ProfileFilter;
 import com.spms.backend.service.model.idm.UserModel;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
@@ -27,6 +28,13 @@ public interface UserService extends BaseService {
      */
     Long getCurrentUserId();
 
+    /**
+     * Get current authenticated username, without loading the user
+     *
+     * @return username
+     */
+    String getCurrentUsername();
+
     /**
      * Retrieves user by ID
      *
@@ -79,6 +87,16 @@ public interface UserService extends BaseService {
      */
     Page<UserModel> searchUsers(String query, Pageable pageable);
 
+    /**
+     * Searches users by query string and profile attributes with pagination support
+     *
+     * @param query          Search query (username, email, description or profile text)
+     * @param profileFilters Conditions on profile attributes, all of which must hold
+     * @param pageable       Pagination parameters
+     * @return Page of matching UserModels
+     */
+    Page<UserModel> searchUsers(String query, List<ProfileFilter> profileFilters, Pageable pageable);
+
     /**
      * Check if username exists
      *
@@ -0,0 +1,57 @@
+package com.spms.backend.service.idm.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by the IDM services whenever a company, division, department,
+ * user, department membership or role is created, updated or deleted, and
+ * when roles are granted to or revoked from users in bulk.
+ * <p>
+ * Listeners that keep derived state (caches, indexes) use it to invalidate
+ * or refresh themselves.
+ */
+public class OrganizationChangedEvent extends ApplicationEvent {
+
+    public enum EntityType {
+        COMPANY,
+        DIVISION,
+        DEPARTMENT,
+        USER,
+        MEMBERSHIP,
+        ROLE,
+        ROLE_ASSIGNMENT
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final EntityType entityType;
+    private final ChangeType changeType;
+    private final Long entityId;
+
+    public OrganizationChangedEvent(Object source, EntityType entityType, ChangeType changeType, Long entityId) {
+        super(source);
+        this.entityType = entityType;
+        this.changeType = changeType;
+        this.entityId = entityId;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    /**
+     * @return ID of the changed entity; for {@link EntityType#MEMBERSHIP} the department ID,
+     * for {@link EntityType#ROLE_ASSIGNMENT} the user ID
+     */
+    public Long getEntityId() {
+        return entityId;
+    }
+}
@@ -6,11 +6,16 @@ import com.spms.backend.repository.entities.idm.Company;
 import com.spms.backend.repository.idm.CompanyRepository;
 import com.spms.backend.service.BaseServiceImpl;
 import com.spms.backend.service.idm.CompanyService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.EntityType;
 import com.spms.backend.service.model.idm.CompanyModel;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.ArrayList;
 import java.util.HashSet;
@@ -23,29 +28,35 @@ import java.util.stream.Stream;
 @Service
 public class CompanyServiceImpl extends BaseServiceImpl<Company, CompanyRepository>
     implements CompanyService {
+
+    private final ApplicationEventPublisher eventPublisher;
+
     @Autowired
     public CompanyServiceImpl(
-        CompanyRepository repository
+        CompanyRepository repository,
+        ApplicationEventPublisher eventPublisher
     ) {
         super(repository);
+        this.eventPublisher = eventPublisher;
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<CompanyModel> getAllCompanies(String search, CompanyType type, Pageable pageable) {
         if (type != null) {
             if (search != null && !search.isEmpty()) {
                 return repository.findByCompanyTypeAndNameContainingIgnoreCase(type, search, pageable)
-                        .map(CompanyModel::fromEntity);
+                        .map(CompanyModel::summaryFromEntity);
             }
             return repository.findByCompanyType(type, pageable)
-                    .map(CompanyModel::fromEntity);
+                    .map(CompanyModel::summaryFromEntity);
         }
         if (search != null && !search.isEmpty()) {
             return repository.findByNameContainingIgnoreCase(search, pageable)
-                    .map(CompanyModel::fromEntity);
+                    .map(CompanyModel::summaryFromEntity);
         }
         return repository.findAll(pageable)
-                .map(CompanyModel::fromEntity);
+                .map(CompanyModel::summaryFromEntity);
     }
 
     @Override
@@ -60,7 +71,9 @@ public class CompanyServiceImpl extends BaseServiceImpl<Company, CompanyReposito
             throw new NotFoundException("Department head not found");
         }
 
-        return CompanyModel.fromEntity(repository.save(companyModel.toEntityForCreate()));
+        Company created = repository.save(companyModel.toEntityForCreate());
+        publishChange(ChangeType.CREATED, created.getId());
+        return CompanyModel.fromEntity(created);
     }
 
     @Override
@@ -80,8 +93,10 @@ public class CompanyServiceImpl extends BaseServiceImpl<Company, CompanyReposito
 
         Company updatedEntity = companyModel.toEntityForUpdate();
         updatedEntity.setId(existing.getId());
-        
-        return CompanyModel.fromEntity(repository.save(updatedEntity));
+
+        Company saved = repository.save(updatedEntity);
+        publishChange(ChangeType.UPDATED, saved.getId());
+        return CompanyModel.fromEntity(saved);
     }
 
     @Override
@@ -101,6 +116,7 @@ public class CompanyServiceImpl extends BaseServiceImpl<Company, CompanyReposito
             throw new NotFoundException("Company not found");
         }
         repository.deleteById(id);
+        publishChange(ChangeType.DELETED, id);
     }
 
     /**
@@ -197,6 +213,7 @@ public class CompanyServiceImpl extends BaseServiceImpl<Company, CompanyReposito
             parentCompany.getChildren().add(childCompany);
             
             repository.save(childCompany);
+            publishChange(ChangeType.UPDATED, childId);
         });
         
         // Save parent to ensure children collection is persisted
@@ -214,6 +231,7 @@ public class CompanyServiceImpl extends BaseServiceImpl<Company, CompanyReposito
     }
 
     @Override
+    @Transactional(readOnly = true)
     public Page<CompanyModel> getChildren(Long companyId, String search, Pageable pageable) {
         if (companyId == null || companyId < 1) {
             return getAllCompanies(search,null, pageable);
@@ -221,10 +239,10 @@ public class CompanyServiceImpl extends BaseServiceImpl<Company, CompanyReposito
 
         if (search != null && !search.isEmpty()) {
             return repository.findByParentIdAndNameContainingIgnoreCase(companyId, search, pageable)
-                    .map(CompanyModel::fromEntity);
+                    .map(CompanyModel::summaryFromEntity);
         }
         return repository.findByParentId(companyId, pageable)
-                .map(CompanyModel::fromEntity);
+                .map(CompanyModel::summaryFromEntity);
     }
 
     /**
@@ -234,6 +252,7 @@ public class CompanyServiceImpl extends BaseServiceImpl<Company, CompanyReposito
      * @return List of valid parent CompanyModels
      */
     @Override
+    @Transactional(readOnly = true)
     public List<CompanyModel> getValidParents(CompanyType type) {
         if (type == null) {
             return List.of();
@@ -245,14 +264,14 @@ public class CompanyServiceImpl extends BaseServiceImpl<Company, CompanyReposito
             case BUSINESS_ENTITY:
                 return repository.findByCompanyType(CompanyType.GROUP)
                         .stream()
-                        .map(CompanyModel::fromEntity)
+                        .map(CompanyModel::summaryFromEntity)
                         .toList();
             case VENDOR:
             case CUSTOMER:
                 return Stream.concat(
                     repository.findByCompanyType(CompanyType.GROUP).stream(),
                     repository.findByCompanyType(CompanyType.BUSINESS_ENTITY).stream())
-                    .map(CompanyModel::fromEntity)
+                    .map(CompanyModel::summaryFromEntity)
                     .toList();
             default:
                 return List.of();
@@ -315,4 +334,7 @@ public class CompanyServiceImpl extends BaseServiceImpl<Company, CompanyReposito
         }
     }
 
+    private void publishChange(ChangeType changeType, Long companyId) {
+        eventPublisher.publishEvent(new OrganizationChangedEvent(this, EntityType.COMPANY, changeType, companyId));
+    }
 }
@@ -4,15 +4,22 @@ import com.spms.backend.repository.entities.BaseEntity;
 import com.spms.backend.repository.entities.idm.CompanyType;
 import com.spms.backend.repository.entities.idm.DepartmentType;
 import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.repository.idm.DepartmentMembershipRepository;
 import com.spms.backend.repository.idm.DepartmentRepository;
 import com.spms.backend.repository.entities.idm.Department;
 import com.spms.backend.repository.idm.UserRepository;
 import com.spms.backend.service.idm.CompanyService;
 import com.spms.backend.service.idm.DepartmentService;
 import com.spms.backend.service.idm.DivisionService;
+import com.spms.backend.service.exception.NotFoundException;
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.EntityType;
 import com.spms.backend.service.model.idm.DepartmentModel;
 import com.spms.backend.service.model.idm.UserModel;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.domain.Specification;
@@ -20,7 +27,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import jakarta.persistence.EntityNotFoundException;
+import java.util.Collection;
 import java.util.HashSet;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Optional;
 import java.util.Set;
@@ -40,10 +49,14 @@ public class DepartmentServiceImpl implements DepartmentService {
 
     private final UserRepository userRepository;
 
+    private final DepartmentMembershipRepository membershipRepository;
+
     private final DivisionService divisionService;
 
     private final CompanyService companyService;
 
+    private final ApplicationEventPublisher eventPublisher;
+
     /**
      * Constructs DepartmentService implementation with required dependencies
      * 
@@ -51,16 +64,22 @@ public class DepartmentServiceImpl implements DepartmentService {
      * @param divisionService Service for division operations
      * @param companyService Service for company operations
      * @param userRepository Repository for user data access
+     * @param membershipRepository Repository for batched department membership changes
+     * @param eventPublisher Publisher for organization change events
      */
     public DepartmentServiceImpl(DepartmentRepository departmentRepository,
                                  DivisionService divisionService,
                                  CompanyService companyService,
-                                 UserRepository userRepository
+                                 UserRepository userRepository,
+                                 DepartmentMembershipRepository membershipRepository,
+                                 ApplicationEventPublisher eventPublisher
     ) {
         this.departmentRepository = departmentRepository;
         this.divisionService = divisionService;
         this.companyService = companyService;
         this.userRepository = userRepository;
+        this.membershipRepository = membershipRepository;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -72,6 +91,7 @@ public class DepartmentServiceImpl implements DepartmentService {
      * @return Page of filtered department models
      */
     @Override
+    @Transactional(readOnly = true)
     public Page<DepartmentModel> listDepartments(Pageable pageable, String name, DepartmentType departmentType) {
         // Create dynamic query using Specifications
         Specification<Department> spec = Specification.where(null);
@@ -90,7 +110,7 @@ public class DepartmentServiceImpl implements DepartmentService {
         
         // Execute query and map results
         Page<Department> departments = departmentRepository.findAll(spec, pageable);
-        return departments.map(DepartmentModel::new);
+        return departments.map(DepartmentModel::summaryOf);
     }
 
     /**
@@ -126,6 +146,7 @@ public class DepartmentServiceImpl implements DepartmentService {
 
         Department department = departmentModel.toEntityForCreate();
         department = departmentRepository.save(department);
+        publishChange(EntityType.DEPARTMENT, ChangeType.CREATED, department.getId());
         return new DepartmentModel(department);
     }
 
@@ -202,6 +223,7 @@ public class DepartmentServiceImpl implements DepartmentService {
             });
             log.info("Count of User :{}, department: {}", deptEntity.getUsers().size(), department.getName());
             this.departmentRepository.save(deptEntity);
+            publishChange(EntityType.MEMBERSHIP, ChangeType.UPDATED, department.getId());
             return true;
         } catch (Exception ex) {
             return false;
@@ -232,12 +254,75 @@ public class DepartmentServiceImpl implements DepartmentService {
                 }
             });
             this.departmentRepository.save(deptEntity);
+            publishChange(EntityType.MEMBERSHIP, ChangeType.UPDATED, department.getId());
             return true;
         } catch (Exception ex) {
             return false;
         }
     }
 
+    /**
+     * Adds users to a department with batched inserts into the membership table
+     *
+     * @param departmentId Department ID
+     * @param userIds IDs of users to add
+     * @return Number of users actually added
+     * @throws NotFoundException If the department does not exist
+     * @throws ValidationException If the list is empty or contains unknown user IDs
+     */
+    @Transactional
+    @Override
+    public int addMembers(Long departmentId, Collection<Long> userIds) {
+        Set<Long> ids = requireMemberIds(departmentId, userIds);
+
+        Set<Long> unknown = new LinkedHashSet<>(ids);
+        userRepository.findExistingIds(ids).forEach(unknown::remove);
+        if (!unknown.isEmpty()) {
+            throw new ValidationException("Users not found: " + unknown);
+        }
+
+        int added = membershipRepository.insertIfAbsent(departmentId, ids);
+        log.info("Added {} of {} users to department {}", added, ids.size(), departmentId);
+        if (added > 0) {
+            publishChange(EntityType.MEMBERSHIP, ChangeType.UPDATED, departmentId);
+        }
+        return added;
+    }
+
+    /**
+     * Removes users from a department with batched deletes from the membership table
+     *
+     * @param departmentId Department ID
+     * @param userIds IDs of users to remove
+     * @return Number of users actually removed
+     * @throws NotFoundException If the department does not exist
+     * @throws ValidationException If the list is empty
+     */
+    @Transactional
+    @Override
+    public int removeMembers(Long departmentId, Collection<Long> userIds) {
+        Set<Long> ids = requireMemberIds(departmentId, userIds);
+
+        int removed = membershipRepository.delete(departmentId, ids);
+        log.info("Removed {} of {} users from department {}", removed, ids.size(), departmentId);
+        if (removed > 0) {
+            publishChange(EntityType.MEMBERSHIP, ChangeType.UPDATED, departmentId);
+        }
+        return removed;
+    }
+
+    private Set<Long> requireMemberIds(Long departmentId, Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            throw new ValidationException("User IDs shall not be null or empty");
+        }
+        if (departmentId == null || !departmentRepository.existsById(departmentId)) {
+            throw new NotFoundException("Department not found: " + departmentId);
+        }
+        Set<Long> ids = new LinkedHashSet<>(userIds);
+        ids.remove(null);
+        return ids;
+    }
+
     /**
      * Retrieves departments associated with a user
      * 
@@ -377,6 +462,11 @@ public class DepartmentServiceImpl implements DepartmentService {
         
         // Save updated department
         Department updatedDepartment = departmentRepository.save(existingDepartment);
+        publishChange(EntityType.DEPARTMENT, ChangeType.UPDATED, updatedDepartment.getId());
         return new DepartmentModel(updatedDepartment);
     }
+
+    private void publishChange(EntityType entityType, ChangeType changeType, Long entityId) {
+        eventPublisher.publishEvent(new OrganizationChangedEvent(this, entityType, changeType, entityId));
+    }
 }
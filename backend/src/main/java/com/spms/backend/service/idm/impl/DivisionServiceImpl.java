@@ -4,10 +4,14 @@ import com.spms.backend.repository.entities.idm.Company;
 import com.spms.backend.repository.idm.CompanyRepository;
 import com.spms.backend.repository.idm.DivisionRepository;
 import com.spms.backend.service.idm.DivisionService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.EntityType;
 import com.spms.backend.service.model.idm.DivisionModel;
 import com.spms.backend.repository.entities.idm.Division;
 import com.spms.backend.service.exception.NotFoundException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -21,6 +25,7 @@ public class DivisionServiceImpl implements DivisionService {
 
     private final DivisionRepository divisionRepository;
     private final CompanyRepository companyRepository;
+    private final ApplicationEventPublisher eventPublisher;
 
     /**
      * Retrieves a paginated list of all divisions.
@@ -86,6 +91,7 @@ public class DivisionServiceImpl implements DivisionService {
                 .orElseThrow(() -> new NotFoundException("Business Unit not found with id: " + divisionModel.getCompanyId()));
         division.setCompany(company);
         Division savedDivision = divisionRepository.save(division);
+        publishChange(ChangeType.CREATED, savedDivision.getId());
         return DivisionModel.fromEntity(savedDivision);
     }
 
@@ -113,6 +119,7 @@ public class DivisionServiceImpl implements DivisionService {
         existingDivision.setActive(divisionModel.getActive());
         
         Division updatedDivision = divisionRepository.save(existingDivision);
+        publishChange(ChangeType.UPDATED, updatedDivision.getId());
         return DivisionModel.fromEntity(updatedDivision);
     }
 
@@ -128,6 +135,7 @@ public class DivisionServiceImpl implements DivisionService {
         Division division = divisionRepository.findById(id)
                 .orElseThrow(() -> new NotFoundException("Division not found with id: " + id));
         divisionRepository.delete(division);
+        publishChange(ChangeType.DELETED, id);
     }
 
     /**
@@ -144,6 +152,7 @@ public class DivisionServiceImpl implements DivisionService {
             throw new NotFoundException("Some divisions not found");
         }
         divisionRepository.deleteAll(divisions);
+        divisions.forEach(x -> publishChange(ChangeType.DELETED, x.getId()));
     }
 
     /**
@@ -184,5 +193,7 @@ public class DivisionServiceImpl implements DivisionService {
                 .map(DivisionModel::fromEntity);
     }
 
-
+    private void publishChange(ChangeType changeType, Long divisionId) {
+        eventPublisher.publishEvent(new OrganizationChangedEvent(this, EntityType.DIVISION, changeType, divisionId));
+    }
 }
@@ -0,0 +1,60 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.entities.idm.CompanyType;
+import com.spms.backend.repository.entities.idm.DepartmentType;
+
+/**
+ * Parent rules of the company and department trees, shared by the services that validate
+ * many nodes at once without loading the entities.
+ * <p>
+ * Same rules as {@code CompanyServiceImpl.isValidParent} and {@code DepartmentServiceImpl.isValidParent}.
+ */
+final class HierarchyRules {
+
+    private HierarchyRules() {
+    }
+
+    /**
+     * @param type       company type
+     * @param parentType type of the parent company, or {@code null} for a root
+     * @return whether a company of the given type may be placed below the parent
+     */
+    static boolean isValidCompanyParent(CompanyType type, CompanyType parentType) {
+        if (parentType == null) {
+            return type == CompanyType.GROUP;
+        }
+        return switch (type) {
+            case BUSINESS_ENTITY -> parentType == CompanyType.GROUP;
+            case VENDOR, CUSTOMER -> parentType == CompanyType.GROUP || parentType == CompanyType.BUSINESS_ENTITY;
+            default -> false;
+        };
+    }
+
+    /**
+     * Top level LOCAL/FUNCTIONAL departments hang below a company or division; all others below a department.
+     */
+    static boolean hasDepartmentParent(DepartmentType type, int level) {
+        return level > 1 || type == DepartmentType.TEAM || type == DepartmentType.FUNCTIONAL_TEAM;
+    }
+
+    /**
+     * Checks a department whose parent is another department (see {@link #hasDepartmentParent}).
+     *
+     * @param type        department type
+     * @param level       department level
+     * @param parentType  type of the parent department
+     * @param parentLevel level of the parent department
+     * @return whether the department may be placed below the parent
+     */
+    static boolean isValidParentDepartment(DepartmentType type, int level, DepartmentType parentType, int parentLevel) {
+        return switch (type) {
+            case FUNCTIONAL, LOCAL -> level > 1 && parentType == type && parentLevel < level;
+            case TEAM -> level == 1
+                    ? parentType == DepartmentType.LOCAL
+                    : parentType == DepartmentType.TEAM && parentLevel < level;
+            case FUNCTIONAL_TEAM -> level == 1
+                    ? parentType == DepartmentType.FUNCTIONAL
+                    : parentType == DepartmentType.FUNCTIONAL_TEAM && parentLevel < level;
+        };
+    }
+}
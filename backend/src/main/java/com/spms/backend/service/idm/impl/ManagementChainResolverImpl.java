@@ -0,0 +1,221 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.repository.idm.DepartmentRepository;
+import com.spms.backend.repository.idm.DivisionRepository;
+import com.spms.backend.service.idm.ManagementChainResolver;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache-backed implementation of {@link ManagementChainResolver}.
+ * <p>
+ * The whole chain table is built from three projection queries (department hierarchy,
+ * division heads and LOCAL/FUNCTIONAL memberships). Departments share one chain array,
+ * and each user only maps to the head of their own department and the chain it starts.
+ * Any organization or user change drops the table once the surrounding transaction commits.
+ */
+@Slf4j
+@Service
+public class ManagementChainResolverImpl implements ManagementChainResolver {
+
+    private static final String[] EMPTY_CHAIN = new String[0];
+
+    private static final Member NO_MEMBER = new Member(null, EMPTY_CHAIN);
+
+    private final DepartmentRepository departmentRepository;
+
+    private final DivisionRepository divisionRepository;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructs the resolver with required repositories
+     *
+     * @param departmentRepository Repository for department hierarchy and membership data
+     * @param divisionRepository Repository for division heads
+     */
+    public ManagementChainResolverImpl(DepartmentRepository departmentRepository,
+                                       DivisionRepository divisionRepository) {
+        this.departmentRepository = departmentRepository;
+        this.divisionRepository = divisionRepository;
+    }
+
+    @Override
+    public String findHead(String username, DepartmentType line) {
+        // Unlike level 1 of the chain, a department without a head does not fall back to the next one up
+        String head = memberOf(username, line).ownHead();
+        return head == null ? "" : head;
+    }
+
+    @Override
+    public String findHead(String username, DepartmentType line, int level) {
+        String[] chain = memberOf(username, line).chain();
+        if (level < 1 || level > chain.length) {
+            return "";
+        }
+        return chain[level - 1];
+    }
+
+    @Override
+    public List<String> findChain(String username, DepartmentType line) {
+        return List.of(memberOf(username, line).chain());
+    }
+
+    @Override
+    public void invalidate() {
+        generation.incrementAndGet();
+        snapshot = null;
+    }
+
+    /**
+     * Drops the cached chains after any organization or user change is committed.
+     *
+     * @param event the organization change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        // Roles play no part in the management chain
+        if (event.getEntityType() != OrganizationChangedEvent.EntityType.ROLE
+                && event.getEntityType() != OrganizationChangedEvent.EntityType.ROLE_ASSIGNMENT) {
+            invalidate();
+        }
+    }
+
+    private Member memberOf(String username, DepartmentType line) {
+        if (username == null || line == null) {
+            return NO_MEMBER;
+        }
+        Snapshot current = snapshot;
+        if (current == null) {
+            current = rebuild();
+        }
+        return current.memberOf(username, line);
+    }
+
+    private synchronized Snapshot rebuild() {
+        Snapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        long startGeneration = generation.get();
+        current = load();
+        // Only publish the table if nothing changed while it was being loaded
+        if (generation.get() == startGeneration) {
+            snapshot = current;
+        }
+        return current;
+    }
+
+    private Snapshot load() {
+        Map<Long, DepartmentRepository.HierarchyNode> nodes = new HashMap<>();
+        departmentRepository.findHierarchyNodes().forEach(x -> nodes.put(x.getId(), x));
+
+        Map<Long, String> divisionHeads = new HashMap<>();
+        divisionRepository.findDivisionHeads().forEach(x -> divisionHeads.put(x.getId(), x.getHeadUsername()));
+
+        Map<Long, String[]> departmentChains = new HashMap<>();
+        Map<String, Member> localMembers = new HashMap<>();
+        Map<String, Member> functionalMembers = new HashMap<>();
+
+        // Memberships are ordered by department id, so the first one per user wins
+        departmentRepository.findMemberships(List.of(DepartmentType.LOCAL, DepartmentType.FUNCTIONAL))
+                .forEach(m -> {
+                    Map<String, Member> target = m.getType() == DepartmentType.LOCAL ? localMembers : functionalMembers;
+                    if (!target.containsKey(m.getUsername())) {
+                        DepartmentRepository.HierarchyNode own = nodes.get(m.getDepartmentId());
+                        target.put(m.getUsername(), new Member(own == null ? null : own.getHeadUsername(),
+                                chainOfDepartment(m.getDepartmentId(), nodes, divisionHeads, departmentChains, new HashSet<>())));
+                    }
+                });
+
+        log.debug("Management chains built for {} local and {} functional members",
+                localMembers.size(), functionalMembers.size());
+        return new Snapshot(localMembers, functionalMembers);
+    }
+
+    /**
+     * Computes the head chain for a department, reusing chains already computed for its ancestors.
+     */
+    private String[] chainOfDepartment(Long departmentId,
+                                       Map<Long, DepartmentRepository.HierarchyNode> nodes,
+                                       Map<Long, String> divisionHeads,
+                                       Map<Long, String[]> departmentChains,
+                                       Set<Long> visiting) {
+        String[] cached = departmentChains.get(departmentId);
+        if (cached != null) {
+            return cached;
+        }
+        DepartmentRepository.HierarchyNode node = nodes.get(departmentId);
+        if (node == null || !visiting.add(departmentId)) {
+            return EMPTY_CHAIN;
+        }
+
+        List<String> chain = new ArrayList<>();
+        if (node.getHeadUsername() != null) {
+            chain.add(node.getHeadUsername());
+        }
+
+        DepartmentRepository.HierarchyNode parent = nodes.get(node.getParent());
+        if (node.getLevel() != null && node.getLevel() > 1
+                && parent != null && parent.getType() == node.getType()) {
+            for (String head : chainOfDepartment(parent.getId(), nodes, divisionHeads, departmentChains, visiting)) {
+                appendHead(chain, head);
+            }
+        } else if (node.getType() == DepartmentType.FUNCTIONAL) {
+            // Top level functional departments report to the division head
+            appendHead(chain, divisionHeads.get(node.getParent()));
+        }
+
+        String[] result = chain.isEmpty() ? EMPTY_CHAIN : chain.toArray(String[]::new);
+        departmentChains.put(departmentId, result);
+        return result;
+    }
+
+    private static void appendHead(List<String> chain, String head) {
+        // A person heading two consecutive levels only appears once
+        if (head != null && (chain.isEmpty() || !chain.get(chain.size() - 1).equals(head))) {
+            chain.add(head);
+        }
+    }
+
+    /**
+     * A user's place in one department line.
+     *
+     * @param ownHead head of the user's own department, {@code null} if it has none
+     * @param chain   heads from the user's department upwards, nearest first
+     */
+    private record Member(String ownHead, String[] chain) {
+    }
+
+    private static final class Snapshot {
+        private final Map<String, Member> localMembers;
+        private final Map<String, Member> functionalMembers;
+
+        private Snapshot(Map<String, Member> localMembers, Map<String, Member> functionalMembers) {
+            this.localMembers = localMembers;
+            this.functionalMembers = functionalMembers;
+        }
+
+        private Member memberOf(String username, DepartmentType line) {
+            Map<String, Member> members = switch (line) {
+                case LOCAL -> localMembers;
+                case FUNCTIONAL -> functionalMembers;
+                default -> Map.of();
+            };
+            return members.getOrDefault(username, NO_MEMBER);
+        }
+    }
+}
@@ -0,0 +1,266 @@
+package com.spms.backend.service.idm.impl;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index for typeahead lookups over short text fields.
+ * <p>
+ * Every field is indexed by its trigrams, for matches anywhere in the text, and by its
+ * words in a sorted map, for prefixes shorter than a trigram. A lookup only verifies the
+ * documents of the rarest trigram or of the matching words, never the whole index.
+ * Readers share a lock; writers replace one document at a time.
+ */
+final class NGramIndex {
+
+    private static final int GRAM = 3;
+
+    // Field scores, best first; the first field of a document counts fully, the others less
+    private static final int EXACT = 100;
+    private static final int PREFIX = 80;
+    private static final int WORD_PREFIX = 60;
+    private static final int INFIX = 40;
+    private static final double SECONDARY_FIELD_WEIGHT = 0.8;
+
+    private final Map<Long, Document> documents = new HashMap<>();
+
+    private final Map<String, Set<Long>> grams = new HashMap<>();
+
+    private final NavigableMap<String, Set<Long>> words = new TreeMap<>();
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * An indexed document.
+     *
+     * @param id     document ID
+     * @param label  display text
+     * @param detail secondary display text, may be {@code null}
+     * @param fields searchable texts, the most relevant first; {@code null} entries are skipped
+     */
+    record Document(long id, String label, String detail, List<String> fields) {
+    }
+
+    /**
+     * A matching document with its score.
+     */
+    record Match(Document document, double score) {
+    }
+
+    /**
+     * Adds a document or replaces the one with the same ID.
+     */
+    void put(Document document) {
+        List<String> fields = normalize(document.fields());
+        Document normalized = new Document(document.id(), document.label(), document.detail(), fields);
+        lock.writeLock().lock();
+        try {
+            removeLocked(document.id());
+            documents.put(document.id(), normalized);
+            for (String field : fields) {
+                for (String gram : gramsOf(field)) {
+                    grams.computeIfAbsent(gram, x -> new HashSet<>()).add(document.id());
+                }
+                for (String word : wordsOf(field)) {
+                    words.computeIfAbsent(word, x -> new HashSet<>()).add(document.id());
+                }
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(long id) {
+        lock.writeLock().lock();
+        try {
+            removeLocked(id);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the documents matching every word of the query, best first.
+     *
+     * @param query words to look for; each must occur in some field
+     * @param limit maximum number of matches
+     * @return matches ordered by descending score, then by label
+     */
+    List<Match> search(String query, int limit) {
+        List<String> terms = queryTerms(query);
+        if (terms.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        // The longest term has the most selective candidates
+        String driver = terms.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+
+        Comparator<Match> order = Comparator.comparingDouble(Match::score)
+                .thenComparing(x -> x.document().label(), Comparator.reverseOrder());
+        PriorityQueue<Match> best = new PriorityQueue<>(order);
+        lock.readLock().lock();
+        try {
+            for (Long id : candidates(driver)) {
+                Document document = documents.get(id);
+                double score = score(document, terms);
+                if (score <= 0) {
+                    continue;
+                }
+                best.add(new Match(document, score));
+                if (best.size() > limit) {
+                    best.poll();
+                }
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        List<Match> matches = new ArrayList<>(best);
+        matches.sort(order.reversed());
+        return matches;
+    }
+
+    private Collection<Long> candidates(String term) {
+        if (term.length() < GRAM) {
+            Set<Long> ids = new HashSet<>();
+            // Terms shorter than a trigram only match at the start of a word
+            words.subMap(term, true, term + Character.MAX_VALUE, false).values().forEach(ids::addAll);
+            return ids;
+        }
+        Set<Long> rarest = null;
+        for (String gram : gramsOf(term)) {
+            Set<Long> ids = grams.get(gram);
+            if (ids == null) {
+                return List.of();
+            }
+            if (rarest == null || ids.size() < rarest.size()) {
+                rarest = ids;
+            }
+        }
+        return rarest == null ? List.of() : rarest;
+    }
+
+    private static double score(Document document, List<String> terms) {
+        double total = 0;
+        for (String term : terms) {
+            double best = 0;
+            List<String> fields = document.fields();
+            for (int i = 0; i < fields.size(); i++) {
+                double weight = i == 0 ? 1 : SECONDARY_FIELD_WEIGHT;
+                best = Math.max(best, weight * fieldScore(fields.get(i), term));
+            }
+            if (best == 0) {
+                return 0;
+            }
+            total += best;
+        }
+        // Shorter labels rank first among equal matches
+        return total - document.label().length() / 1000.0;
+    }
+
+    private static int fieldScore(String field, String term) {
+        if (field.equals(term)) {
+            return EXACT;
+        }
+        if (field.startsWith(term)) {
+            return PREFIX;
+        }
+        int index = field.indexOf(term);
+        if (index < 0) {
+            return 0;
+        }
+        do {
+            if (!Character.isLetterOrDigit(field.charAt(index - 1))) {
+                return WORD_PREFIX;
+            }
+            index = field.indexOf(term, index + 1);
+        } while (index > 0);
+        return INFIX;
+    }
+
+    private void removeLocked(long id) {
+        Document previous = documents.remove(id);
+        if (previous == null) {
+            return;
+        }
+        for (String field : previous.fields()) {
+            for (String gram : gramsOf(field)) {
+                removePosting(grams, gram, id);
+            }
+            for (String word : wordsOf(field)) {
+                removePosting(words, word, id);
+            }
+        }
+    }
+
+    private static void removePosting(Map<String, Set<Long>> postings, String key, long id) {
+        Set<Long> ids = postings.get(key);
+        if (ids != null && ids.remove(id) && ids.isEmpty()) {
+            postings.remove(key);
+        }
+    }
+
+    private static List<String> normalize(List<String> fields) {
+        List<String> normalized = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            if (field != null && !field.isBlank()) {
+                normalized.add(field.trim().toLowerCase(Locale.ROOT));
+            }
+        }
+        return normalized;
+    }
+
+    private static List<String> queryTerms(String query) {
+        if (query == null) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        for (String term : query.trim().toLowerCase(Locale.ROOT).split("\\s+")) {
+            if (!term.isEmpty()) {
+                terms.add(term);
+            }
+        }
+        return terms;
+    }
+
+    private static Set<String> gramsOf(String text) {
+        Set<String> result = new HashSet<>();
+        for (int i = 0; i + GRAM <= text.length(); i++) {
+            result.add(text.substring(i, i + GRAM));
+        }
+        return result;
+    }
+
+    /**
+     * The whole field and each of its alphanumeric words.
+     */
+    private static Set<String> wordsOf(String text) {
+        Set<String> result = new HashSet<>();
+        result.add(text);
+        for (String word : text.split("[^\\p{L}\\p{N}]+")) {
+            if (!word.isEmpty()) {
+                result.add(word);
+            }
+        }
+        return result;
+    }
+}
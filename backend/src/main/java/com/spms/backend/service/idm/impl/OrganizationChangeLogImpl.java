@@ -0,0 +1,162 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.config.ChangeLogProperties;
+import com.spms.backend.repository.idm.OrganizationChangeRepository;
+import com.spms.backend.repository.idm.OrganizationChangeRepository.NewChange;
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.idm.OrganizationChangeLog;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.EntityType;
+import com.spms.backend.service.model.idm.ChangeFeed;
+import com.spms.backend.service.model.idm.ChangeLogEntry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Implementation of {@link OrganizationChangeLog}.
+ * <p>
+ * Changes are collected per transaction, coalesced per entity and appended with one
+ * batch right before the commit, after the persistence context has been flushed. The
+ * counter row is therefore only locked for the last moment of each writing transaction.
+ */
+@Slf4j
+@Service
+public class OrganizationChangeLogImpl implements OrganizationChangeLog {
+
+    private final OrganizationChangeRepository changeRepository;
+
+    private final ChangeLogProperties properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    // Key of the per-transaction buffer in the transaction synchronization resources
+    private final Object resourceKey = new Object();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructs the change log with required dependencies
+     *
+     * @param changeRepository Storage of change log entries
+     * @param properties Compaction and paging settings
+     * @param transactionManager Transaction manager for changes published outside a transaction
+     */
+    public OrganizationChangeLogImpl(OrganizationChangeRepository changeRepository,
+                                     ChangeLogProperties properties,
+                                     PlatformTransactionManager transactionManager) {
+        this.changeRepository = changeRepository;
+        this.properties = properties;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Records a change in the transaction that published it, so the entry is committed or
+     * rolled back together with the change itself.
+     *
+     * @param event the organization change
+     */
+    @EventListener
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            transactionTemplate.executeWithoutResult(status -> changeRepository.append(
+                    List.of(new NewChange(event.getEntityType().name(), event.getChangeType().name(), event.getEntityId())),
+                    LocalDateTime.now()));
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(resourceKey);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(resourceKey, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(event.getEntityType(), event.getChangeType(), event.getEntityId());
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeFeed getChanges(long since, int limit) {
+        if (since < 0) {
+            throw new ValidationException("Sequence number cannot be negative: " + since);
+        }
+        long latest = changeRepository.findLastSequence();
+        if (since < changeRepository.findPurgedThrough()) {
+            return new ChangeFeed(List.of(), latest, latest, false, true);
+        }
+
+        int pageSize = limit <= 0 ? properties.getMaxPageSize() : Math.min(limit, properties.getMaxPageSize());
+        List<OrganizationChangeRepository.Entry> entries = changeRepository.findSince(since, pageSize + 1);
+        boolean hasMore = entries.size() > pageSize;
+        List<ChangeLogEntry> changes = entries.stream()
+                .limit(pageSize)
+                .map(x -> new ChangeLogEntry(x.sequence(), EntityType.valueOf(x.entityType()),
+                        ChangeType.valueOf(x.changeType()), x.entityId(), x.changedAt()))
+                .toList();
+        long nextSince = changes.isEmpty() ? since : changes.get(changes.size() - 1).sequence();
+        return new ChangeFeed(changes, nextSince, Math.max(latest, nextSince), hasMore, false);
+    }
+
+    @Override
+    @Transactional
+    public int compact() {
+        LocalDateTime now = LocalDateTime.now();
+        int superseded = changeRepository.deleteSuperseded(now.minus(properties.getCompactAfter()));
+        int expired = changeRepository.purgeBefore(now.minus(properties.getRetention()));
+        log.info("Organization change log compacted: {} superseded and {} expired entries removed",
+                superseded, expired);
+        return superseded + expired;
+    }
+
+    /**
+     * Changes of one transaction, keyed by entity. A later change of the same entity
+     * replaces the earlier one, except that a created entity stays created.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Map<ChangeKey, ChangeType> changes = new LinkedHashMap<>();
+
+        private void add(EntityType entityType, ChangeType changeType, Long entityId) {
+            changes.merge(new ChangeKey(entityType, entityId), changeType,
+                    (previous, next) -> previous == ChangeType.CREATED && next == ChangeType.UPDATED ? previous : next);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            if (changes.isEmpty()) {
+                return;
+            }
+            // Pending entity writes go first, so nothing else is locked while the counter row is held
+            if (entityManager.isJoinedToTransaction()) {
+                entityManager.flush();
+            }
+            List<NewChange> entries = new ArrayList<>(changes.size());
+            changes.forEach((key, changeType) ->
+                    entries.add(new NewChange(key.entityType().name(), changeType.name(), key.entityId())));
+            changeRepository.append(entries, LocalDateTime.now());
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+        }
+    }
+
+    private record ChangeKey(EntityType entityType, Long entityId) {
+    }
+}
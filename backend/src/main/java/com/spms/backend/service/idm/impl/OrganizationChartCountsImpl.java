@@ -0,0 +1,453 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.controller.dto.idm.ChartMode;
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.repository.idm.OrganizationChartCountRepository;
+import com.spms.backend.repository.idm.OrganizationChartCountRepository.NodeView;
+import com.spms.backend.repository.idm.OrganizationChartCountRepository.Row;
+import com.spms.backend.repository.idm.OrganizationSyncRepository;
+import com.spms.backend.repository.idm.OrganizationSyncRepository.CompanyRow;
+import com.spms.backend.repository.idm.OrganizationSyncRepository.DepartmentRow;
+import com.spms.backend.repository.idm.OrganizationSyncRepository.DivisionRow;
+import com.spms.backend.service.exception.NotFoundException;
+import com.spms.backend.service.idm.OrganizationChartCounts;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.model.idm.ChartLevel;
+import com.spms.backend.service.model.idm.ChartNode;
+import com.spms.backend.service.model.idm.ChartNodeType;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Implementation of {@link OrganizationChartCounts}.
+ * <p>
+ * Changes are collected per transaction and applied right before the commit, after the
+ * persistence context has been flushed, while holding the guard row of the count table.
+ * A membership change recounts the department and adds the difference to each ancestor,
+ * which costs one update per level. Structural changes are rare and may move whole
+ * subtrees, so they rebuild the table from three flat selects instead. An update of a
+ * company, division or department only counts as structural if it moves the node, that is
+ * if its parent, type, level or active flag no longer match its row in the table.
+ */
+@Slf4j
+@Service
+public class OrganizationChartCountsImpl implements OrganizationChartCounts {
+
+    // Upper bound for walking up a chart; protects against cycles in inconsistent data
+    private static final int MAX_DEPTH = 64;
+
+    private final OrganizationChartCountRepository countRepository;
+
+    private final OrganizationSyncRepository organizationRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final TransactionTemplate buildTemplate;
+
+    // Key of the per-transaction buffer in the transaction synchronization resources
+    private final Object resourceKey = new Object();
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Constructs the chart counts with required dependencies
+     *
+     * @param countRepository Storage of the counts
+     * @param organizationRepository Flat reads of companies, divisions and departments
+     * @param transactionManager Transaction manager for changes published outside a transaction
+     */
+    public OrganizationChartCountsImpl(OrganizationChartCountRepository countRepository,
+                                       OrganizationSyncRepository organizationRepository,
+                                       PlatformTransactionManager transactionManager) {
+        this.countRepository = countRepository;
+        this.organizationRepository = organizationRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.buildTemplate = new TransactionTemplate(transactionManager);
+        this.buildTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Records a change in the transaction that published it, so the counts are committed
+     * or rolled back together with the change itself.
+     *
+     * @param event the organization change
+     */
+    @EventListener
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        if (!isCounted(event)) {
+            return;
+        }
+        if (!TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            PendingChanges pending = new PendingChanges();
+            pending.add(event);
+            transactionTemplate.executeWithoutResult(status -> pending.apply());
+            return;
+        }
+        PendingChanges pending = (PendingChanges) TransactionSynchronizationManager.getResource(resourceKey);
+        if (pending == null) {
+            pending = new PendingChanges();
+            TransactionSynchronizationManager.bindResource(resourceKey, pending);
+            TransactionSynchronizationManager.registerSynchronization(pending);
+        }
+        pending.add(event);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public ChartLevel getLevel(ChartMode mode, ChartNodeType nodeType, Long nodeId) {
+        if (!countRepository.isBuilt()) {
+            // Only the very first read writes; it builds the table in a transaction of its own
+            buildTemplate.executeWithoutResult(status -> {
+                if (!countRepository.lock()) {
+                    rebuildLocked();
+                }
+            });
+        }
+        NodeView node = countRepository.findView(mode.name(), nodeType.name(), nodeId)
+                .orElseThrow(() -> new NotFoundException("Chart node not found: " + nodeType + " " + nodeId));
+        List<ChartNode> children = countRepository.findChildViews(mode.name(), nodeType.name(), nodeId).stream()
+                .map(OrganizationChartCountsImpl::toChartNode)
+                .toList();
+        return new ChartLevel(toChartNode(node), children);
+    }
+
+    @Override
+    @Transactional
+    public int rebuild() {
+        countRepository.lock();
+        return rebuildLocked();
+    }
+
+    /**
+     * Recomputes all counts; the caller holds the guard row.
+     */
+    private int rebuildLocked() {
+        Map<Long, CompanyRow> companies = organizationRepository.findCompanies().stream()
+                .filter(CompanyRow::active)
+                .collect(Collectors.toMap(CompanyRow::id, Function.identity()));
+        Map<Long, DivisionRow> divisions = organizationRepository.findDivisions().stream()
+                .filter(DivisionRow::active)
+                .collect(Collectors.toMap(DivisionRow::id, Function.identity()));
+        Map<Long, DepartmentRow> departments = organizationRepository.findDepartments().stream()
+                .filter(DepartmentRow::active)
+                .collect(Collectors.toMap(DepartmentRow::id, Function.identity()));
+        Map<Long, Long> members = countRepository.countMembersByDepartment();
+
+        Map<NodeKey, Node> nodes = new LinkedHashMap<>();
+        for (CompanyRow company : companies.values()) {
+            // The realistic chart follows the company tree; in the functional chart every company roots its divisions
+            boolean hasParent = company.parentId() != null && companies.containsKey(company.parentId());
+            addNode(nodes, ChartMode.REALISTIC, ChartNodeType.COMPANY, company.id(),
+                    hasParent ? ChartNodeType.COMPANY : null, hasParent ? company.parentId() : null, 0);
+            addNode(nodes, ChartMode.FUNCTIONAL, ChartNodeType.COMPANY, company.id(), null, null, 0);
+        }
+        for (DivisionRow division : divisions.values()) {
+            if (division.companyId() != null && companies.containsKey(division.companyId())) {
+                addNode(nodes, ChartMode.FUNCTIONAL, ChartNodeType.DIVISION, division.id(),
+                        ChartNodeType.COMPANY, division.companyId(), 0);
+            }
+        }
+        Map<Long, ChartMode> departmentModes = new HashMap<>();
+        for (DepartmentRow department : departments.values()) {
+            ChartMode mode = modeOf(department, departments, companies, divisions, departmentModes, new HashSet<>());
+            if (mode == null) {
+                continue;
+            }
+            boolean topLevel = !HierarchyRules.hasDepartmentParent(department.type(), department.level());
+            ChartNodeType parentType = !topLevel ? ChartNodeType.DEPARTMENT
+                    : mode == ChartMode.REALISTIC ? ChartNodeType.COMPANY : ChartNodeType.DIVISION;
+            addNode(nodes, mode, ChartNodeType.DEPARTMENT, department.id(), parentType, department.parentId(),
+                    members.getOrDefault(department.id(), 0L));
+        }
+
+        for (Node node : nodes.values()) {
+            Node parent = parentOf(nodes, node);
+            if (parent != null) {
+                parent.directChildren++;
+            }
+            if (node.directMembers == 0) {
+                continue;
+            }
+            Node current = node;
+            for (int depth = 0; current != null && depth < MAX_DEPTH; depth++) {
+                current.totalMembers += node.directMembers;
+                current = parentOf(nodes, current);
+            }
+        }
+
+        List<Row> rows = new ArrayList<>(nodes.size());
+        nodes.forEach((key, node) -> rows.add(new Row(key.mode().name(), key.nodeType().name(), key.nodeId(),
+                node.parentType == null ? null : node.parentType.name(), node.parentId,
+                node.directChildren, node.directMembers, node.totalMembers)));
+        countRepository.replaceAll(rows, LocalDateTime.now());
+        log.debug("Organization chart counts rebuilt: {} nodes", rows.size());
+        return rows.size();
+    }
+
+    /**
+     * Recounts the members of a department and adds the difference to every ancestor; the
+     * caller holds the guard row.
+     */
+    private void applyMembershipChange(Long departmentId) {
+        List<Row> rows = countRepository.findByNode(ChartNodeType.DEPARTMENT.name(), departmentId);
+        if (rows.isEmpty()) {
+            // Inactive or detached departments are not part of any chart
+            return;
+        }
+        long count = countRepository.countMembers(departmentId);
+        for (Row row : rows) {
+            long delta = count - row.directMembers();
+            if (delta == 0) {
+                continue;
+            }
+            countRepository.updateDirectMembers(row.chartMode(), row.nodeType(), row.nodeId(), count);
+            Row current = row;
+            for (int depth = 0; current != null && depth < MAX_DEPTH; depth++) {
+                countRepository.addTotalMembers(current.chartMode(), current.nodeType(), current.nodeId(), delta);
+                current = current.parentId() == null ? null
+                        : countRepository.find(current.chartMode(), current.parentType(), current.parentId()).orElse(null);
+            }
+        }
+    }
+
+    /**
+     * Checks whether an updated company, division or department is placed differently than
+     * its rows in the table say; the caller holds the guard row. The parent's rows stand in
+     * for the parent being part of the chart, as a parent that changed itself triggers a
+     * rebuild through its own event.
+     */
+    private boolean isMoved(UpdatedNode node) {
+        Set<Placement> stored = countRepository.findByNode(node.nodeType().name(), node.id()).stream()
+                .map(row -> new Placement(row.chartMode(), row.parentType(), row.parentId()))
+                .collect(Collectors.toSet());
+        Set<Placement> current = switch (node.nodeType()) {
+            case COMPANY -> organizationRepository.findCompany(node.id())
+                    .filter(CompanyRow::active)
+                    .map(company -> {
+                        boolean hasParent = company.parentId() != null
+                                && isCharted(ChartMode.REALISTIC, ChartNodeType.COMPANY, company.parentId());
+                        return Set.of(
+                                new Placement(ChartMode.REALISTIC.name(), hasParent ? ChartNodeType.COMPANY.name() : null,
+                                        hasParent ? company.parentId() : null),
+                                new Placement(ChartMode.FUNCTIONAL.name(), null, null));
+                    })
+                    .orElse(Set.of());
+            case DIVISION -> organizationRepository.findDivision(node.id())
+                    .filter(division -> division.active() && division.companyId() != null
+                            && isCharted(ChartMode.FUNCTIONAL, ChartNodeType.COMPANY, division.companyId()))
+                    .map(division -> Set.of(new Placement(ChartMode.FUNCTIONAL.name(),
+                            ChartNodeType.COMPANY.name(), division.companyId())))
+                    .orElse(Set.of());
+            case DEPARTMENT -> organizationRepository.findDepartment(node.id())
+                    .filter(department -> department.active() && department.parentId() != null)
+                    .map(this::placementOf)
+                    .orElse(Set.of());
+        };
+        return !stored.equals(current);
+    }
+
+    /**
+     * Placement of an active department below its parent, following {@link #modeOf}.
+     */
+    private Set<Placement> placementOf(DepartmentRow department) {
+        Long parentId = department.parentId();
+        if (HierarchyRules.hasDepartmentParent(department.type(), department.level())) {
+            return countRepository.findByNode(ChartNodeType.DEPARTMENT.name(), parentId).stream()
+                    .map(parent -> new Placement(parent.chartMode(), ChartNodeType.DEPARTMENT.name(), parentId))
+                    .collect(Collectors.toSet());
+        }
+        if (department.type() == DepartmentType.LOCAL && isCharted(ChartMode.REALISTIC, ChartNodeType.COMPANY, parentId)) {
+            return Set.of(new Placement(ChartMode.REALISTIC.name(), ChartNodeType.COMPANY.name(), parentId));
+        }
+        // Departments of an active division are counted even if the division itself is not charted
+        if (department.type() == DepartmentType.FUNCTIONAL
+                && organizationRepository.findDivision(parentId).map(DivisionRow::active).orElse(false)) {
+            return Set.of(new Placement(ChartMode.FUNCTIONAL.name(), ChartNodeType.DIVISION.name(), parentId));
+        }
+        return Set.of();
+    }
+
+    private boolean isCharted(ChartMode mode, ChartNodeType nodeType, Long nodeId) {
+        return countRepository.find(mode.name(), nodeType.name(), nodeId).isPresent();
+    }
+
+    /**
+     * Chart a department belongs to: top level LOCAL departments below a company are part of
+     * the realistic chart, top level FUNCTIONAL departments below a division of the
+     * functional one; all others follow their parent department.
+     *
+     * @return the chart, or {@code null} if the department is not reachable from an active root
+     */
+    private static ChartMode modeOf(DepartmentRow department, Map<Long, DepartmentRow> departments,
+                                    Map<Long, CompanyRow> companies, Map<Long, DivisionRow> divisions,
+                                    Map<Long, ChartMode> resolved, Set<Long> visiting) {
+        if (resolved.containsKey(department.id())) {
+            return resolved.get(department.id());
+        }
+        ChartMode mode = null;
+        if (department.parentId() != null && visiting.add(department.id())) {
+            if (!HierarchyRules.hasDepartmentParent(department.type(), department.level())) {
+                if (department.type() == DepartmentType.LOCAL && companies.containsKey(department.parentId())) {
+                    mode = ChartMode.REALISTIC;
+                } else if (department.type() == DepartmentType.FUNCTIONAL && divisions.containsKey(department.parentId())) {
+                    mode = ChartMode.FUNCTIONAL;
+                }
+            } else {
+                DepartmentRow parent = departments.get(department.parentId());
+                if (parent != null) {
+                    mode = modeOf(parent, departments, companies, divisions, resolved, visiting);
+                }
+            }
+        }
+        resolved.put(department.id(), mode);
+        return mode;
+    }
+
+    private static void addNode(Map<NodeKey, Node> nodes, ChartMode mode, ChartNodeType nodeType, Long nodeId,
+                                ChartNodeType parentType, Long parentId, long directMembers) {
+        Node node = new Node(mode, parentType, parentId);
+        node.directMembers = directMembers;
+        nodes.put(new NodeKey(mode, nodeType, nodeId), node);
+    }
+
+    private static Node parentOf(Map<NodeKey, Node> nodes, Node node) {
+        if (node.parentType == null) {
+            return null;
+        }
+        return nodes.get(new NodeKey(node.mode, node.parentType, node.parentId));
+    }
+
+    private static boolean isCounted(OrganizationChangedEvent event) {
+        return switch (event.getEntityType()) {
+            case COMPANY, DIVISION, DEPARTMENT, MEMBERSHIP -> true;
+            // Deleting a user drops its memberships without a membership event
+            case USER -> event.getChangeType() == ChangeType.DELETED;
+            default -> false;
+        };
+    }
+
+    private static ChartNode toChartNode(NodeView view) {
+        ChartNodeType nodeType = ChartNodeType.valueOf(view.nodeType());
+        String type = nodeType == ChartNodeType.COMPANY && view.companyType() != null
+                ? view.companyType() : nodeType.name();
+        return new ChartNode(nodeType, view.nodeId(), view.name(), type,
+                view.directChildren(), view.directMembers(), view.totalMembers());
+    }
+
+    /**
+     * Departments whose memberships changed in one transaction, updated nodes that may have
+     * moved, or a pending rebuild.
+     */
+    private final class PendingChanges implements TransactionSynchronization {
+
+        private final Set<Long> departmentIds = new LinkedHashSet<>();
+
+        private final Set<UpdatedNode> updatedNodes = new LinkedHashSet<>();
+
+        private boolean rebuild;
+
+        private void add(OrganizationChangedEvent event) {
+            switch (event.getEntityType()) {
+                case MEMBERSHIP -> {
+                    if (event.getEntityId() != null) {
+                        departmentIds.add(event.getEntityId());
+                    }
+                }
+                case COMPANY, DIVISION, DEPARTMENT -> {
+                    if (event.getChangeType() == ChangeType.UPDATED && event.getEntityId() != null) {
+                        // Most updates only change names, descriptions or heads, which the table does not hold
+                        updatedNodes.add(new UpdatedNode(
+                                ChartNodeType.valueOf(event.getEntityType().name()), event.getEntityId()));
+                    } else {
+                        rebuild = true;
+                    }
+                }
+                default -> rebuild = true;
+            }
+        }
+
+        private void apply() {
+            if (!countRepository.lock() || rebuild
+                    || updatedNodes.stream().anyMatch(OrganizationChartCountsImpl.this::isMoved)) {
+                rebuildLocked();
+                return;
+            }
+            departmentIds.forEach(OrganizationChartCountsImpl.this::applyMembershipChange);
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Pending entity writes go first, so the counts see them
+            if (entityManager.isJoinedToTransaction()) {
+                entityManager.flush();
+            }
+            apply();
+        }
+
+        @Override
+        public void afterCompletion(int status) {
+            TransactionSynchronizationManager.unbindResourceIfPossible(resourceKey);
+        }
+
+        @Override
+        public int getOrder() {
+            // Runs before the change log, so every transaction takes the two guard rows in the same order
+            return Ordered.LOWEST_PRECEDENCE - 1;
+        }
+    }
+
+    private record NodeKey(ChartMode mode, ChartNodeType nodeType, Long nodeId) {
+    }
+
+    private record UpdatedNode(ChartNodeType nodeType, Long id) {
+    }
+
+    private record Placement(String chartMode, String parentType, Long parentId) {
+    }
+
+    private static final class Node {
+
+        private final ChartMode mode;
+
+        private final ChartNodeType parentType;
+
+        private final Long parentId;
+
+        private int directChildren;
+
+        private long directMembers;
+
+        private long totalMembers;
+
+        private Node(ChartMode mode, ChartNodeType parentType, Long parentId) {
+            this.mode = mode;
+            this.parentType = parentType;
+            this.parentId = parentId;
+        }
+    }
+}
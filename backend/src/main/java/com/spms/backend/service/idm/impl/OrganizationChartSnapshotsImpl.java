@@ -0,0 +1,181 @@
+package com.spms.backend.service.idm.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.backend.config.ChartSnapshotProperties;
+import com.spms.backend.controller.dto.idm.ChartMode;
+import com.spms.backend.controller.dto.idm.OrganizationChartDTO;
+import com.spms.backend.service.idm.OrganizationChartSnapshots;
+import com.spms.backend.service.idm.OrganizationService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.model.idm.ChartSnapshot;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-memory implementation of {@link OrganizationChartSnapshots}.
+ * <p>
+ * Each chart is held as a future, so concurrent requests for a chart that is being built
+ * share one build. After a company, division or department change is committed, every
+ * stored chart is replaced by a future that regenerates it on a single background thread.
+ * A chart has at most one such rebuild waiting at a time; a burst of changes is picked up
+ * by the rebuild that is already queued instead of queuing one per change.
+ */
+@Slf4j
+@Service
+public class OrganizationChartSnapshotsImpl implements OrganizationChartSnapshots {
+
+    // Leading bytes of the SHA-256 digest used as entity tag
+    private static final int HASH_BYTES = 16;
+
+    private final OrganizationService organizationService;
+
+    private final ObjectMapper objectMapper;
+
+    private final ChartSnapshotProperties properties;
+
+    private final Map<SnapshotKey, CompletableFuture<ChartSnapshot>> snapshots = new ConcurrentHashMap<>();
+
+    // Charts whose rebuild is queued but has not started reading the organization yet
+    private final Set<SnapshotKey> queued = ConcurrentHashMap.newKeySet();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "org-chart-snapshot");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs the snapshot store with required dependencies
+     *
+     * @param organizationService Service building the organization charts
+     * @param objectMapper Mapper used for the JSON, configured like the one of the web layer
+     * @param properties Compression and expiry settings
+     */
+    public OrganizationChartSnapshotsImpl(OrganizationService organizationService,
+                                          ObjectMapper objectMapper,
+                                          ChartSnapshotProperties properties) {
+        this.organizationService = organizationService;
+        this.objectMapper = objectMapper;
+        this.properties = properties;
+    }
+
+    @Override
+    public ChartSnapshot getSnapshot(Long companyId, ChartMode mode) {
+        SnapshotKey key = new SnapshotKey(companyId, mode);
+        CompletableFuture<ChartSnapshot> future = snapshots.computeIfAbsent(key, this::schedule);
+        ChartSnapshot snapshot = await(key, future);
+        if (isExpired(snapshot)) {
+            CompletableFuture<ChartSnapshot> expired = future;
+            // Another request may have renewed it already; take whatever is current then
+            future = snapshots.compute(key, (k, current) ->
+                    current == null || current == expired ? schedule(k) : current);
+            snapshot = await(key, future);
+        }
+        return snapshot;
+    }
+
+    /**
+     * Regenerates the stored charts after a structural change is committed. Memberships,
+     * users and roles are not part of the chart.
+     *
+     * @param event the organization change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        switch (event.getEntityType()) {
+            case COMPANY, DIVISION, DEPARTMENT -> snapshots.keySet().forEach(key ->
+                    // A rebuild still waiting in the queue will already see this change
+                    snapshots.computeIfPresent(key, (k, previous) -> queued.contains(k) ? previous : schedule(k)));
+            default -> {
+            }
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private CompletableFuture<ChartSnapshot> schedule(SnapshotKey key) {
+        queued.add(key);
+        return CompletableFuture.supplyAsync(() -> {
+            // Changes committed from here on need another rebuild
+            queued.remove(key);
+            return build(key);
+        }, executor);
+    }
+
+    private ChartSnapshot await(SnapshotKey key, CompletableFuture<ChartSnapshot> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            // Failed builds are not kept, so the next request tries again
+            snapshots.remove(key, future);
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private boolean isExpired(ChartSnapshot snapshot) {
+        return properties.getTimeToLive() != null && !properties.getTimeToLive().isZero()
+                && snapshot.createdAt().plus(properties.getTimeToLive()).isBefore(Instant.now());
+    }
+
+    private ChartSnapshot build(SnapshotKey key) {
+        OrganizationChartDTO chart = organizationService.getOrganizationChart(key.companyId(), key.mode());
+        byte[] json;
+        try {
+            json = objectMapper.writeValueAsBytes(chart);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Organization chart could not be serialized", e);
+        }
+        String hash = HexFormat.of().formatHex(sha256(json), 0, HASH_BYTES);
+        boolean gzip = json.length >= properties.getGzipMinSize();
+        byte[] body = gzip ? gzip(json) : json;
+        log.debug("Organization chart snapshot built for company {} ({}): {} bytes, {} stored",
+                key.companyId(), key.mode(), json.length, body.length);
+        return new ChartSnapshot(body, gzip, hash, Instant.now());
+    }
+
+    private static byte[] sha256(byte[] data) {
+        try {
+            return MessageDigest.getInstance("SHA-256").digest(data);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static byte[] gzip(byte[] data) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, data.length / 4));
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return out.toByteArray();
+    }
+
+    private record SnapshotKey(Long companyId, ChartMode mode) {
+    }
+}
@@ -0,0 +1,282 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.entities.idm.CompanyType;
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.repository.idm.CompanyRepository;
+import com.spms.backend.repository.idm.DepartmentRepository;
+import com.spms.backend.repository.idm.DivisionRepository;
+import com.spms.backend.repository.idm.OrganizationStructureRepository;
+import com.spms.backend.repository.idm.OrganizationStructureRepository.CompanyParent;
+import com.spms.backend.repository.idm.OrganizationStructureRepository.DepartmentParent;
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.idm.OrganizationRestructureService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.EntityType;
+import com.spms.backend.service.model.idm.RestructurePlan;
+import com.spms.backend.service.model.idm.RestructurePlan.CompanyMove;
+import com.spms.backend.service.model.idm.RestructurePlan.DepartmentMove;
+import com.spms.backend.service.model.idm.RestructureResult;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Implementation of {@link OrganizationRestructureService}.
+ * <p>
+ * The company and department trees are each read with one projection query. Moves are
+ * applied to an in-memory copy, every moved node and every direct child of a moved
+ * department is re-checked against the hierarchy rules, and cycles are detected by
+ * walking the new ancestor chains. Only a fully valid plan is written, with batched updates.
+ */
+@Service
+public class OrganizationRestructureServiceImpl implements OrganizationRestructureService {
+
+    private final CompanyRepository companyRepository;
+
+    private final DepartmentRepository departmentRepository;
+
+    private final DivisionRepository divisionRepository;
+
+    private final OrganizationStructureRepository structureRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Constructs the restructure service with required dependencies
+     *
+     * @param companyRepository Repository for the company tree
+     * @param departmentRepository Repository for the department tree
+     * @param divisionRepository Repository for division lookups
+     * @param structureRepository Batched writes of parent changes
+     * @param eventPublisher Publisher for organization change events
+     */
+    public OrganizationRestructureServiceImpl(CompanyRepository companyRepository,
+                                              DepartmentRepository departmentRepository,
+                                              DivisionRepository divisionRepository,
+                                              OrganizationStructureRepository structureRepository,
+                                              ApplicationEventPublisher eventPublisher) {
+        this.companyRepository = companyRepository;
+        this.departmentRepository = departmentRepository;
+        this.divisionRepository = divisionRepository;
+        this.structureRepository = structureRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public RestructureResult restructure(RestructurePlan plan, String updatedBy) {
+        List<CompanyMove> companyMoves = plan.getCompanies() == null ? List.of() : plan.getCompanies();
+        List<DepartmentMove> departmentMoves = plan.getDepartments() == null ? List.of() : plan.getDepartments();
+        if (companyMoves.isEmpty() && departmentMoves.isEmpty()) {
+            throw new ValidationException("Restructure plan contains no moves");
+        }
+
+        List<String> errors = new ArrayList<>();
+
+        Map<Long, CompanyRepository.CompanyNode> companies = new HashMap<>();
+        Map<Long, Long> companyParents = new HashMap<>();
+        companyRepository.findHierarchyNodes().forEach(x -> {
+            companies.put(x.getId(), x);
+            companyParents.put(x.getId(), x.getParentId());
+        });
+        List<CompanyParent> companyChanges = companyMoves.isEmpty()
+                ? List.of()
+                : planCompanyMoves(companyMoves, companies, companyParents, errors);
+
+        List<DepartmentParent> departmentChanges = departmentMoves.isEmpty()
+                ? List.of()
+                : planDepartmentMoves(departmentMoves, companies, errors);
+
+        if (!errors.isEmpty()) {
+            return RestructureResult.rejected(errors);
+        }
+
+        if (!companyChanges.isEmpty()) {
+            structureRepository.updateCompanyParents(companyChanges, updatedBy);
+            companyChanges.forEach(x -> publishChange(EntityType.COMPANY, x.companyId()));
+        }
+        if (!departmentChanges.isEmpty()) {
+            structureRepository.updateDepartmentParents(departmentChanges, updatedBy);
+            departmentChanges.forEach(x -> publishChange(EntityType.DEPARTMENT, x.departmentId()));
+        }
+        return new RestructureResult(companyChanges.size(), departmentChanges.size(), List.of());
+    }
+
+    private List<CompanyParent> planCompanyMoves(List<CompanyMove> moves,
+                                                 Map<Long, CompanyRepository.CompanyNode> companies,
+                                                 Map<Long, Long> parents,
+                                                 List<String> errors) {
+        List<CompanyParent> changes = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (CompanyMove move : moves) {
+            Long companyId = move.companyId();
+            if (companyId == null) {
+                errors.add("Company ID cannot be null");
+            } else if (!seen.add(companyId)) {
+                errors.add("Company moved more than once: " + companyId);
+            } else if (!companies.containsKey(companyId)) {
+                errors.add("Company not found: " + companyId);
+            } else if (move.parentId() != null && !companies.containsKey(move.parentId())) {
+                errors.add("Parent company not found: " + move.parentId());
+            } else if (!Objects.equals(parents.get(companyId), move.parentId())) {
+                parents.put(companyId, move.parentId());
+                changes.add(new CompanyParent(companyId, move.parentId()));
+            }
+        }
+
+        // Checked against the tree after all moves, so moves may depend on each other
+        for (CompanyParent change : changes) {
+            CompanyType type = companies.get(change.companyId()).getCompanyType();
+            CompanyType parentType = change.parentId() == null ? null : companies.get(change.parentId()).getCompanyType();
+            if (!HierarchyRules.isValidCompanyParent(type, parentType)) {
+                errors.add(String.format("Invalid parent for company %d: %s cannot be child of %s",
+                        change.companyId(), type, parentType == null ? "no parent" : parentType));
+            } else if (reaches(change.parentId(), change.companyId(), parents)) {
+                errors.add(String.format("Moving company %d under %d would create a cycle",
+                        change.companyId(), change.parentId()));
+            }
+        }
+        return changes;
+    }
+
+    private List<DepartmentParent> planDepartmentMoves(List<DepartmentMove> moves,
+                                                       Map<Long, CompanyRepository.CompanyNode> companies,
+                                                       List<String> errors) {
+        Map<Long, Node> departments = new HashMap<>();
+        departmentRepository.findHierarchyNodes()
+                .forEach(x -> departments.put(x.getId(), new Node(x.getType(), x.getParent(), x.getLevel())));
+
+        List<DepartmentParent> changes = new ArrayList<>();
+        Set<Long> seen = new HashSet<>();
+        for (DepartmentMove move : moves) {
+            Long departmentId = move.departmentId();
+            Node node = departmentId == null ? null : departments.get(departmentId);
+            if (departmentId == null) {
+                errors.add("Department ID cannot be null");
+            } else if (!seen.add(departmentId)) {
+                errors.add("Department moved more than once: " + departmentId);
+            } else if (node == null) {
+                errors.add("Department not found: " + departmentId);
+            } else if (move.parentId() == null) {
+                errors.add("Parent cannot be null for department " + departmentId);
+            } else if (move.level() != null && move.level() < 1) {
+                errors.add("Invalid level for department " + departmentId + ": " + move.level());
+            } else {
+                int level = move.level() == null ? node.level : move.level();
+                if (!Objects.equals(node.parent, move.parentId()) || node.level != level) {
+                    node.parent = move.parentId();
+                    node.level = level;
+                    changes.add(new DepartmentParent(departmentId, move.parentId(), level));
+                }
+            }
+        }
+        if (changes.isEmpty()) {
+            return changes;
+        }
+
+        // Moved departments and the departments directly below them must satisfy the rules afterwards
+        Set<Long> movedIds = new HashSet<>();
+        changes.forEach(x -> movedIds.add(x.departmentId()));
+        Set<Long> toCheck = new LinkedHashSet<>(movedIds);
+        departments.forEach((id, node) -> {
+            if (node.hasDepartmentParent() && movedIds.contains(node.parent)) {
+                toCheck.add(id);
+            }
+        });
+
+        Set<Long> divisionParents = new HashSet<>();
+        toCheck.forEach(id -> {
+            Node node = departments.get(id);
+            if (node.type == DepartmentType.FUNCTIONAL && node.level == 1) {
+                divisionParents.add(node.parent);
+            }
+        });
+        Set<Long> divisions = divisionParents.isEmpty()
+                ? Set.of()
+                : new HashSet<>(divisionRepository.findExistingIds(divisionParents));
+
+        Map<Long, Long> departmentParents = new HashMap<>();
+        departments.forEach((id, node) -> {
+            if (node.hasDepartmentParent()) {
+                departmentParents.put(id, node.parent);
+            }
+        });
+
+        for (Long id : toCheck) {
+            Node node = departments.get(id);
+            if (!isValidDepartmentParent(node, departments, companies, divisions)) {
+                errors.add(String.format("Invalid parent for department %d: %s level %d cannot be placed under %d",
+                        id, node.type, node.level, node.parent));
+            } else if (node.hasDepartmentParent() && reaches(node.parent, id, departmentParents)) {
+                errors.add(String.format("Moving department %d under %d would create a cycle", id, node.parent));
+            }
+        }
+        return changes;
+    }
+
+    /**
+     * Checks a department against the rules, evaluated on the restructured tree.
+     */
+    private static boolean isValidDepartmentParent(Node node,
+                                                   Map<Long, Node> departments,
+                                                   Map<Long, CompanyRepository.CompanyNode> companies,
+                                                   Set<Long> divisions) {
+        if (node.hasDepartmentParent()) {
+            Node parent = departments.get(node.parent);
+            return parent != null && HierarchyRules.isValidParentDepartment(node.type, node.level, parent.type, parent.level);
+        }
+        if (node.type == DepartmentType.FUNCTIONAL) {
+            return divisions.contains(node.parent);
+        }
+        return companies.containsKey(node.parent)
+                && companies.get(node.parent).getCompanyType() == CompanyType.BUSINESS_ENTITY;
+    }
+
+    /**
+     * Walks up from {@code start} and reports whether {@code target} is an ancestor (or {@code start} itself).
+     */
+    private static boolean reaches(Long start, Long target, Map<Long, Long> parents) {
+        Set<Long> visited = new HashSet<>();
+        Long current = start;
+        while (current != null && visited.add(current)) {
+            if (current.equals(target)) {
+                return true;
+            }
+            current = parents.get(current);
+        }
+        return false;
+    }
+
+    private void publishChange(EntityType entityType, Long id) {
+        eventPublisher.publishEvent(new OrganizationChangedEvent(this, entityType, ChangeType.UPDATED, id));
+    }
+
+    /**
+     * Mutable copy of a department's position, updated with the planned moves.
+     */
+    private static final class Node {
+        private final DepartmentType type;
+        private Long parent;
+        private int level;
+
+        private Node(DepartmentType type, Long parent, Integer level) {
+            this.type = type;
+            this.parent = parent;
+            this.level = level == null ? 1 : level;
+        }
+
+        private boolean hasDepartmentParent() {
+            return HierarchyRules.hasDepartmentParent(type, level);
+        }
+    }
+}
@@ -23,6 +23,8 @@ public class OrganizationServiceImpl implements OrganizationService {
     private final CompanyService companyService;
     private final DivisionService divisionService;
     private final DepartmentService departmentService;
+    private final ManagementChainResolver managementChainResolver;
+    private final OrganizationChartCounts chartCounts;
 
     /**
      * Constructs an OrganizationServiceImpl with required services
@@ -31,17 +33,23 @@ public class OrganizationServiceImpl implements OrganizationService {
      * @param departmentService service for department operations
      * @param companyService service for company operations
      * @param userService service for user operations
+     * @param managementChainResolver cached resolver for department head chains
+     * @param chartCounts precomputed child and member counts of the chart nodes
      */
     public OrganizationServiceImpl(
             DivisionService divisionService,
             DepartmentService departmentService,
             CompanyService companyService,
-            UserService userService
+            UserService userService,
+            ManagementChainResolver managementChainResolver,
+            OrganizationChartCounts chartCounts
     ) {
         this.divisionService = divisionService;
         this.departmentService = departmentService;
         this.companyService = companyService;
         this.userService = userService;
+        this.managementChainResolver = managementChainResolver;
+        this.chartCounts = chartCounts;
     }
 
 
@@ -64,6 +72,19 @@ public class OrganizationServiceImpl implements OrganizationService {
         }
     }
 
+    /**
+     * Retrieves one level of the organization chart from the precomputed counts
+     *
+     * @param mode chart display mode (REALISTIC or FUNCTIONAL)
+     * @param nodeType kind of node to expand
+     * @param nodeId ID of the company, division or department
+     * @return the node with its direct children
+     */
+    @Override
+    public ChartLevel getOrganizationChartLevel(ChartMode mode, ChartNodeType nodeType, Long nodeId) {
+        return chartCounts.getLevel(mode, nodeType, nodeId);
+    }
+
     /**
      * Assigns roles to a user
      * 
@@ -255,22 +276,54 @@ public class OrganizationServiceImpl implements OrganizationService {
      */
     @Override
     public String findUserDepartmentHead(String userName, String line) {
-        UserModel user = userService.getUserByUserName(userName);
-        if (user == null) {
+        DepartmentType departmentLine = parseLine(line);
+        if (departmentLine == null) {
             return "";
         }
-        
-        DepartmentModel department = null;
+        return managementChainResolver.findHead(userName, departmentLine);
+    }
+
+    /**
+     * Finds the department head at a given level above the user for Flowable UEL expressions
+     * ${organizationService.findUserDepartmentHead(initiator,"LOCAL",2)}
+     * @param userName username to lookup
+     * @param line department line type ("FUNCTIONAL" or "LOCAL")
+     * @param level 1 for the nearest head, which is the user's own department head if there is one,
+     *              2 for the next one up, and so on
+     * @return department head username or empty string
+     */
+    @Override
+    public String findUserDepartmentHead(String userName, String line, int level) {
+        DepartmentType departmentLine = parseLine(line);
+        if (departmentLine == null) {
+            return "";
+        }
+        return managementChainResolver.findHead(userName, departmentLine, level);
+    }
+
+    /**
+     * Finds the chain of department heads above a user for Flowable UEL expressions
+     * ${organizationService.findUserManagementChain(initiator,"FUNCTIONAL")}
+     * @param userName username to lookup
+     * @param line department line type ("FUNCTIONAL" or "LOCAL")
+     * @return head usernames, nearest first
+     */
+    @Override
+    public List<String> findUserManagementChain(String userName, String line) {
+        DepartmentType departmentLine = parseLine(line);
+        if (departmentLine == null) {
+            return Collections.emptyList();
+        }
+        return managementChainResolver.findChain(userName, departmentLine);
+    }
+
+    private static DepartmentType parseLine(String line) {
         if ("FUNCTIONAL".equalsIgnoreCase(line)) {
-            department = user.getFunctionalDepartment();
+            return DepartmentType.FUNCTIONAL;
         } else if ("LOCAL".equalsIgnoreCase(line)) {
-            department = user.getLocalDepartment();
-        }
-        
-        if (department == null || department.getDepartmentHead() == null) {
-            return "";
+            return DepartmentType.LOCAL;
         }
-        return department.getDepartmentHead().getUsername();
+        return null;
     }
 
 
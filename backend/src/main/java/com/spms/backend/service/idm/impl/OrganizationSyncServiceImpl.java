@@ -0,0 +1,569 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.entities.idm.CompanyType;
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.repository.idm.DepartmentMembershipRepository;
+import com.spms.backend.repository.idm.OrganizationSyncRepository;
+import com.spms.backend.repository.idm.OrganizationSyncRepository.CompanyRow;
+import com.spms.backend.repository.idm.OrganizationSyncRepository.DepartmentRow;
+import com.spms.backend.repository.idm.OrganizationSyncRepository.DivisionRow;
+import com.spms.backend.service.idm.OrganizationSyncService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.EntityType;
+import com.spms.backend.service.model.idm.OrganizationSnapshot;
+import com.spms.backend.service.model.idm.OrganizationSnapshot.CompanyEntry;
+import com.spms.backend.service.model.idm.OrganizationSnapshot.DepartmentEntry;
+import com.spms.backend.service.model.idm.OrganizationSnapshot.DivisionEntry;
+import com.spms.backend.service.model.idm.OrganizationSyncResult;
+import com.spms.backend.service.model.idm.OrganizationSyncResult.NodeChanges;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.function.Function;
+
+/**
+ * Implementation of {@link OrganizationSyncService}.
+ * <p>
+ * The current companies, divisions and departments are read with one flat select per
+ * table and matched to the snapshot by name. Every node is compared with its resolved
+ * columns, and only nodes that differ are written, with batched statements. Memberships
+ * are compared per department by counting, while streaming the join table, how many
+ * current members are wanted and how many are not; member lists are only loaded for
+ * departments that differ.
+ */
+@Slf4j
+@Service
+public class OrganizationSyncServiceImpl implements OrganizationSyncService {
+
+    private final OrganizationSyncRepository syncRepository;
+
+    private final DepartmentMembershipRepository membershipRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    /**
+     * Constructs the sync service with required dependencies
+     *
+     * @param syncRepository Flat reads and batched writes of the organization tables
+     * @param membershipRepository Batched writes of department memberships
+     * @param eventPublisher Publisher for organization change events
+     */
+    public OrganizationSyncServiceImpl(OrganizationSyncRepository syncRepository,
+                                       DepartmentMembershipRepository membershipRepository,
+                                       ApplicationEventPublisher eventPublisher) {
+        this.syncRepository = syncRepository;
+        this.membershipRepository = membershipRepository;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    @Transactional
+    public OrganizationSyncResult sync(OrganizationSnapshot snapshot, String updatedBy) {
+        List<String> errors = new ArrayList<>();
+        Map<String, CompanyEntry> companies = index(snapshot.getCompanies(), CompanyEntry::name, "Company", errors);
+        Map<String, DivisionEntry> divisions = index(snapshot.getDivisions(), DivisionEntry::name, "Division", errors);
+        Map<String, DepartmentEntry> departments =
+                index(snapshot.getDepartments(), DepartmentEntry::name, "Department", errors);
+
+        Map<String, CompanyRow> currentCompanies = index(syncRepository.findCompanies(), CompanyRow::name);
+        Map<String, DivisionRow> currentDivisions = index(syncRepository.findDivisions(), DivisionRow::name);
+        Map<String, DepartmentRow> currentDepartments = index(syncRepository.findDepartments(), DepartmentRow::name);
+
+        validateCompanies(companies, currentCompanies, errors);
+        validateDivisions(divisions, companies, currentCompanies, errors);
+        validateDepartments(departments, companies, currentCompanies, divisions, currentDivisions,
+                currentDepartments, errors);
+        if (!errors.isEmpty()) {
+            return OrganizationSyncResult.rejected(errors);
+        }
+
+        Set<String> unknownUsers = new TreeSet<>();
+        Map<String, Long> userIds = syncRepository.findUserIds(referencedUsernames(divisions, departments));
+
+        Map<String, Long> companyIds = ids(currentCompanies, CompanyRow::id);
+        NodeChanges companyChanges = syncCompanies(companies, currentCompanies, companyIds,
+                snapshot.isDeactivateMissing(), updatedBy);
+
+        Map<String, Long> divisionIds = ids(currentDivisions, DivisionRow::id);
+        NodeChanges divisionChanges = syncDivisions(divisions, currentDivisions, divisionIds, companyIds,
+                userIds, unknownUsers, snapshot.isDeactivateMissing(), updatedBy);
+
+        Map<String, Long> departmentIds = ids(currentDepartments, DepartmentRow::id);
+        NodeChanges departmentChanges = syncDepartments(departments, currentDepartments, departmentIds,
+                companyIds, divisionIds, userIds, unknownUsers, snapshot.isDeactivateMissing(), updatedBy);
+
+        int[] membershipChanges = syncMemberships(departments, departmentIds, userIds, unknownUsers);
+
+        List<String> warnings = new ArrayList<>();
+        unknownUsers.forEach(x -> warnings.add("Unknown user: " + x));
+
+        log.info("Organization sync by {}: companies {}, divisions {}, departments {}, memberships +{}/-{}",
+                updatedBy, companyChanges, divisionChanges, departmentChanges,
+                membershipChanges[0], membershipChanges[1]);
+        return new OrganizationSyncResult(companyChanges, divisionChanges, departmentChanges,
+                membershipChanges[0], membershipChanges[1], warnings, List.of());
+    }
+
+    private void validateCompanies(Map<String, CompanyEntry> companies,
+                                   Map<String, CompanyRow> current,
+                                   List<String> errors) {
+        Map<Long, String> names = names(current, CompanyRow::id);
+        Map<String, String> parents = new HashMap<>();
+        current.values().forEach(x -> parents.put(x.name(), names.get(x.parentId())));
+
+        for (CompanyEntry entry : companies.values()) {
+            parents.put(entry.name(), entry.parentName());
+            if (entry.companyType() == null) {
+                errors.add("Company type cannot be null for company " + entry.name());
+                continue;
+            }
+            CompanyType parentType = null;
+            if (entry.parentName() != null) {
+                parentType = companies.containsKey(entry.parentName())
+                        ? companies.get(entry.parentName()).companyType()
+                        : current.containsKey(entry.parentName()) ? current.get(entry.parentName()).companyType() : null;
+                if (parentType == null) {
+                    errors.add("Parent company not found for company " + entry.name() + ": " + entry.parentName());
+                    continue;
+                }
+            }
+            if (!HierarchyRules.isValidCompanyParent(entry.companyType(), parentType)) {
+                errors.add(String.format("Invalid parent for company %s: %s cannot be child of %s",
+                        entry.name(), entry.companyType(), parentType == null ? "no parent" : parentType));
+            }
+        }
+
+        companies.values().stream()
+                .filter(x -> x.parentName() != null && reaches(x.parentName(), x.name(), parents))
+                .forEach(x -> errors.add("Company hierarchy contains a cycle at " + x.name()));
+    }
+
+    private void validateDivisions(Map<String, DivisionEntry> divisions,
+                                   Map<String, CompanyEntry> companies,
+                                   Map<String, CompanyRow> currentCompanies,
+                                   List<String> errors) {
+        for (DivisionEntry entry : divisions.values()) {
+            if (entry.type() == null) {
+                errors.add("Division type cannot be null for division " + entry.name());
+            }
+            if (entry.companyName() == null
+                    || !(companies.containsKey(entry.companyName()) || currentCompanies.containsKey(entry.companyName()))) {
+                errors.add("Company not found for division " + entry.name() + ": " + entry.companyName());
+            }
+        }
+    }
+
+    private void validateDepartments(Map<String, DepartmentEntry> departments,
+                                     Map<String, CompanyEntry> companies,
+                                     Map<String, CompanyRow> currentCompanies,
+                                     Map<String, DivisionEntry> divisions,
+                                     Map<String, DivisionRow> currentDivisions,
+                                     Map<String, DepartmentRow> current,
+                                     List<String> errors) {
+        Map<Long, String> names = names(current, DepartmentRow::id);
+        Map<String, String> parents = new HashMap<>();
+        current.values().stream()
+                .filter(x -> HierarchyRules.hasDepartmentParent(x.type(), x.level()))
+                .forEach(x -> parents.put(x.name(), names.get(x.parentId())));
+
+        for (DepartmentEntry entry : departments.values()) {
+            parents.remove(entry.name());
+            int level = levelOf(entry);
+            if (entry.type() == null) {
+                errors.add("Department type cannot be null for department " + entry.name());
+                continue;
+            }
+            if (level < 1) {
+                errors.add("Invalid level for department " + entry.name() + ": " + level);
+                continue;
+            }
+            if (entry.parentName() == null) {
+                errors.add("Parent cannot be null for department " + entry.name());
+                continue;
+            }
+
+            boolean valid;
+            if (HierarchyRules.hasDepartmentParent(entry.type(), level)) {
+                parents.put(entry.name(), entry.parentName());
+                DepartmentEntry parent = departments.get(entry.parentName());
+                DepartmentRow currentParent = current.get(entry.parentName());
+                if (parent != null && parent.type() != null) {
+                    valid = HierarchyRules.isValidParentDepartment(entry.type(), level, parent.type(), levelOf(parent));
+                } else if (parent == null && currentParent != null) {
+                    valid = HierarchyRules.isValidParentDepartment(entry.type(), level,
+                            currentParent.type(), currentParent.level());
+                } else {
+                    valid = false;
+                }
+            } else if (entry.type() == DepartmentType.FUNCTIONAL) {
+                valid = divisions.containsKey(entry.parentName()) || currentDivisions.containsKey(entry.parentName());
+            } else {
+                CompanyType parentType = companies.containsKey(entry.parentName())
+                        ? companies.get(entry.parentName()).companyType()
+                        : currentCompanies.containsKey(entry.parentName())
+                                ? currentCompanies.get(entry.parentName()).companyType() : null;
+                valid = parentType == CompanyType.BUSINESS_ENTITY;
+            }
+            if (!valid) {
+                errors.add(String.format("Invalid parent for department %s: %s level %d cannot be placed under %s",
+                        entry.name(), entry.type(), level, entry.parentName()));
+            }
+        }
+
+        departments.values().stream()
+                .filter(x -> parents.containsKey(x.name()) && reaches(x.parentName(), x.name(), parents))
+                .forEach(x -> errors.add("Department hierarchy contains a cycle at " + x.name()));
+    }
+
+    private NodeChanges syncCompanies(Map<String, CompanyEntry> companies,
+                                      Map<String, CompanyRow> current,
+                                      Map<String, Long> ids,
+                                      boolean deactivateMissing,
+                                      String updatedBy) {
+        // New companies are inserted top down, so every parent has an ID before its children
+        List<CompanyEntry> pending = companies.values().stream().filter(x -> !current.containsKey(x.name())).toList();
+        int created = pending.size();
+        while (!pending.isEmpty()) {
+            List<CompanyRow> wave = new ArrayList<>();
+            List<CompanyEntry> waiting = new ArrayList<>();
+            for (CompanyEntry entry : pending) {
+                if (entry.parentName() == null || ids.containsKey(entry.parentName())) {
+                    wave.add(toRow(null, entry, ids));
+                } else {
+                    waiting.add(entry);
+                }
+            }
+            requireProgress(wave, waiting, "company");
+            syncRepository.insertCompanies(wave, updatedBy);
+            Map<String, Long> inserted = syncRepository.findCompanyIds(wave.stream().map(CompanyRow::name).toList());
+            ids.putAll(inserted);
+            inserted.values().forEach(x -> publishChange(EntityType.COMPANY, ChangeType.CREATED, x));
+            pending = waiting;
+        }
+
+        List<CompanyRow> updates = new ArrayList<>();
+        int updated = 0;
+        int deactivated = 0;
+        for (CompanyRow row : current.values()) {
+            CompanyEntry entry = companies.get(row.name());
+            if (entry != null) {
+                CompanyRow wanted = toRow(row.id(), entry, ids);
+                if (!wanted.equals(row)) {
+                    updates.add(wanted);
+                    updated++;
+                }
+            } else if (deactivateMissing && row.active()) {
+                updates.add(new CompanyRow(row.id(), row.name(), row.description(), row.companyType(),
+                        row.parentId(), false));
+                deactivated++;
+            }
+        }
+        if (!updates.isEmpty()) {
+            syncRepository.updateCompanies(updates, updatedBy);
+            updates.forEach(x -> publishChange(EntityType.COMPANY, ChangeType.UPDATED, x.id()));
+        }
+        return new NodeChanges(created, updated, deactivated, current.size() - updates.size());
+    }
+
+    private NodeChanges syncDivisions(Map<String, DivisionEntry> divisions,
+                                      Map<String, DivisionRow> current,
+                                      Map<String, Long> ids,
+                                      Map<String, Long> companyIds,
+                                      Map<String, Long> userIds,
+                                      Set<String> unknownUsers,
+                                      boolean deactivateMissing,
+                                      String updatedBy) {
+        List<DivisionRow> inserts = new ArrayList<>();
+        List<DivisionRow> updates = new ArrayList<>();
+        int updated = 0;
+        int deactivated = 0;
+        for (DivisionEntry entry : divisions.values()) {
+            DivisionRow row = current.get(entry.name());
+            DivisionRow wanted = new DivisionRow(row == null ? null : row.id(), entry.name(), entry.description(),
+                    entry.type(), companyIds.get(entry.companyName()),
+                    userId(entry.headUsername(), userIds, unknownUsers), isActive(entry.active()));
+            if (row == null) {
+                inserts.add(wanted);
+            } else if (!wanted.equals(row)) {
+                updates.add(wanted);
+                updated++;
+            }
+        }
+        if (deactivateMissing) {
+            for (DivisionRow row : current.values()) {
+                if (!divisions.containsKey(row.name()) && row.active()) {
+                    updates.add(new DivisionRow(row.id(), row.name(), row.description(), row.type(),
+                            row.companyId(), row.headId(), false));
+                    deactivated++;
+                }
+            }
+        }
+
+        if (!inserts.isEmpty()) {
+            syncRepository.insertDivisions(inserts, updatedBy);
+            Map<String, Long> inserted = syncRepository.findDivisionIds(inserts.stream().map(DivisionRow::name).toList());
+            ids.putAll(inserted);
+            inserted.values().forEach(x -> publishChange(EntityType.DIVISION, ChangeType.CREATED, x));
+        }
+        if (!updates.isEmpty()) {
+            syncRepository.updateDivisions(updates, updatedBy);
+            updates.forEach(x -> publishChange(EntityType.DIVISION, ChangeType.UPDATED, x.id()));
+        }
+        return new NodeChanges(inserts.size(), updated, deactivated, current.size() - updates.size());
+    }
+
+    private NodeChanges syncDepartments(Map<String, DepartmentEntry> departments,
+                                        Map<String, DepartmentRow> current,
+                                        Map<String, Long> ids,
+                                        Map<String, Long> companyIds,
+                                        Map<String, Long> divisionIds,
+                                        Map<String, Long> userIds,
+                                        Set<String> unknownUsers,
+                                        boolean deactivateMissing,
+                                        String updatedBy) {
+        // New departments below new departments are inserted level by level, like companies
+        List<DepartmentEntry> pending = departments.values().stream().filter(x -> !current.containsKey(x.name())).toList();
+        int created = pending.size();
+        while (!pending.isEmpty()) {
+            List<DepartmentRow> wave = new ArrayList<>();
+            List<DepartmentEntry> waiting = new ArrayList<>();
+            for (DepartmentEntry entry : pending) {
+                Long parentId = parentIdOf(entry, ids, companyIds, divisionIds);
+                if (parentId != null) {
+                    wave.add(toRow(null, entry, parentId, userId(entry.headUsername(), userIds, unknownUsers)));
+                } else {
+                    waiting.add(entry);
+                }
+            }
+            requireProgress(wave, waiting, "department");
+            syncRepository.insertDepartments(wave, updatedBy);
+            Map<String, Long> inserted =
+                    syncRepository.findDepartmentIds(wave.stream().map(DepartmentRow::name).toList());
+            ids.putAll(inserted);
+            inserted.values().forEach(x -> publishChange(EntityType.DEPARTMENT, ChangeType.CREATED, x));
+            pending = waiting;
+        }
+
+        List<DepartmentRow> updates = new ArrayList<>();
+        int updated = 0;
+        int deactivated = 0;
+        for (DepartmentRow row : current.values()) {
+            DepartmentEntry entry = departments.get(row.name());
+            if (entry != null) {
+                DepartmentRow wanted = toRow(row.id(), entry, parentIdOf(entry, ids, companyIds, divisionIds),
+                        userId(entry.headUsername(), userIds, unknownUsers));
+                if (!wanted.equals(row)) {
+                    updates.add(wanted);
+                    updated++;
+                }
+            } else if (deactivateMissing && row.active()) {
+                updates.add(new DepartmentRow(row.id(), row.name(), row.type(), row.level(),
+                        row.parentId(), row.headId(), false));
+                deactivated++;
+            }
+        }
+        if (!updates.isEmpty()) {
+            syncRepository.updateDepartments(updates, updatedBy);
+            updates.forEach(x -> publishChange(EntityType.DEPARTMENT, ChangeType.UPDATED, x.id()));
+        }
+        return new NodeChanges(created, updated, deactivated, current.size() - updates.size());
+    }
+
+    /**
+     * @return the number of memberships added and removed
+     */
+    private int[] syncMemberships(Map<String, DepartmentEntry> departments,
+                                  Map<String, Long> departmentIds,
+                                  Map<String, Long> userIds,
+                                  Set<String> unknownUsers) {
+        Map<Long, Set<Long>> wanted = new HashMap<>();
+        departments.values().stream()
+                .filter(x -> x.members() != null)
+                .forEach(entry -> {
+                    Set<Long> members = new HashSet<>();
+                    for (String username : entry.members()) {
+                        Long userId = userId(username, userIds, unknownUsers);
+                        if (userId != null) {
+                            members.add(userId);
+                        }
+                    }
+                    wanted.put(departmentIds.get(entry.name()), members);
+                });
+        if (wanted.isEmpty()) {
+            return new int[]{0, 0};
+        }
+
+        // Current members per department that are wanted and that are not, counted while streaming the join table
+        Map<Long, long[]> currentCounts = new HashMap<>();
+        syncRepository.forEachMembership((departmentId, userId) -> {
+            Set<Long> members = wanted.get(departmentId);
+            if (members != null) {
+                long[] counts = currentCounts.computeIfAbsent(departmentId, x -> new long[2]);
+                counts[members.contains(userId) ? 0 : 1]++;
+            }
+        });
+
+        // Memberships are unique, so a department is unchanged when all wanted members and nobody else are present
+        List<Long> changed = new ArrayList<>();
+        wanted.forEach((departmentId, members) -> {
+            long[] counts = currentCounts.getOrDefault(departmentId, new long[2]);
+            if (counts[0] != members.size() || counts[1] != 0) {
+                changed.add(departmentId);
+            }
+        });
+        if (changed.isEmpty()) {
+            return new int[]{0, 0};
+        }
+
+        Map<Long, Set<Long>> currentMembers = syncRepository.findMembers(changed);
+        List<DepartmentMembershipRepository.Entry> additions = new ArrayList<>();
+        List<DepartmentMembershipRepository.Entry> removals = new ArrayList<>();
+        for (Long departmentId : changed) {
+            Set<Long> members = wanted.get(departmentId);
+            Set<Long> existing = currentMembers.getOrDefault(departmentId, Set.of());
+            members.stream()
+                    .filter(x -> !existing.contains(x))
+                    .forEach(x -> additions.add(new DepartmentMembershipRepository.Entry(departmentId, x)));
+            existing.stream()
+                    .filter(x -> !members.contains(x))
+                    .forEach(x -> removals.add(new DepartmentMembershipRepository.Entry(departmentId, x)));
+        }
+        if (!additions.isEmpty()) {
+            membershipRepository.insertAll(additions);
+        }
+        int removed = removals.isEmpty() ? 0 : membershipRepository.deleteAll(removals);
+        changed.forEach(x -> publishChange(EntityType.MEMBERSHIP, ChangeType.UPDATED, x));
+        return new int[]{additions.size(), removed};
+    }
+
+    private static CompanyRow toRow(Long id, CompanyEntry entry, Map<String, Long> ids) {
+        return new CompanyRow(id, entry.name(), entry.description(), entry.companyType(),
+                entry.parentName() == null ? null : ids.get(entry.parentName()), isActive(entry.active()));
+    }
+
+    private static DepartmentRow toRow(Long id, DepartmentEntry entry, Long parentId, Long headId) {
+        return new DepartmentRow(id, entry.name(), entry.type(), levelOf(entry), parentId, headId,
+                isActive(entry.active()));
+    }
+
+    private static Long parentIdOf(DepartmentEntry entry,
+                                   Map<String, Long> departmentIds,
+                                   Map<String, Long> companyIds,
+                                   Map<String, Long> divisionIds) {
+        if (HierarchyRules.hasDepartmentParent(entry.type(), levelOf(entry))) {
+            return departmentIds.get(entry.parentName());
+        }
+        return entry.type() == DepartmentType.FUNCTIONAL
+                ? divisionIds.get(entry.parentName())
+                : companyIds.get(entry.parentName());
+    }
+
+    private static Long userId(String username, Map<String, Long> userIds, Set<String> unknownUsers) {
+        if (username == null) {
+            return null;
+        }
+        Long userId = userIds.get(username);
+        if (userId == null) {
+            unknownUsers.add(username);
+        }
+        return userId;
+    }
+
+    private static Set<String> referencedUsernames(Map<String, DivisionEntry> divisions,
+                                                   Map<String, DepartmentEntry> departments) {
+        Set<String> usernames = new HashSet<>();
+        divisions.values().forEach(x -> {
+            if (x.headUsername() != null) {
+                usernames.add(x.headUsername());
+            }
+        });
+        departments.values().forEach(x -> {
+            if (x.headUsername() != null) {
+                usernames.add(x.headUsername());
+            }
+            if (x.members() != null) {
+                x.members().stream().filter(m -> m != null).forEach(usernames::add);
+            }
+        });
+        return usernames;
+    }
+
+    private static <T> Map<String, T> index(List<T> entries, Function<T, String> name, String kind, List<String> errors) {
+        Map<String, T> index = new LinkedHashMap<>();
+        if (entries == null) {
+            return index;
+        }
+        for (T entry : entries) {
+            String key = name.apply(entry);
+            if (key == null || key.isBlank()) {
+                errors.add(kind + " name cannot be blank");
+            } else if (index.putIfAbsent(key, entry) != null) {
+                errors.add(kind + " listed more than once: " + key);
+            }
+        }
+        return index;
+    }
+
+    private static <T> Map<String, T> index(List<T> rows, Function<T, String> name) {
+        Map<String, T> index = new HashMap<>();
+        rows.forEach(x -> index.put(name.apply(x), x));
+        return index;
+    }
+
+    private static <T> Map<String, Long> ids(Map<String, T> rows, Function<T, Long> id) {
+        Map<String, Long> ids = new HashMap<>();
+        rows.forEach((name, row) -> ids.put(name, id.apply(row)));
+        return ids;
+    }
+
+    private static <T> Map<Long, String> names(Map<String, T> rows, Function<T, Long> id) {
+        Map<Long, String> names = new HashMap<>();
+        rows.forEach((name, row) -> names.put(id.apply(row), name));
+        return names;
+    }
+
+    private static int levelOf(DepartmentEntry entry) {
+        return entry.level() == null ? 1 : entry.level();
+    }
+
+    private static boolean isActive(Boolean active) {
+        return active == null || active;
+    }
+
+    /**
+     * Walks up from {@code start} and reports whether {@code target} is an ancestor (or {@code start} itself).
+     */
+    private static boolean reaches(String start, String target, Map<String, String> parents) {
+        Set<String> visited = new HashSet<>();
+        String current = start;
+        while (current != null && visited.add(current)) {
+            if (current.equals(target)) {
+                return true;
+            }
+            current = parents.get(current);
+        }
+        return false;
+    }
+
+    private static void requireProgress(List<?> wave, List<?> waiting, String kind) {
+        if (wave.isEmpty()) {
+            // Parents are validated before anything is written, so this means a bug rather than bad input
+            throw new IllegalStateException("Cannot resolve parents of " + waiting.size() + " new " + kind + " nodes");
+        }
+    }
+
+    private void publishChange(EntityType entityType, ChangeType changeType, Long id) {
+        eventPublisher.publishEvent(new OrganizationChangedEvent(this, entityType, changeType, id));
+    }
+}
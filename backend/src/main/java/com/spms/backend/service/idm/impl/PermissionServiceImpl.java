@@ -0,0 +1,243 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.idm.RoleRepository;
+import com.spms.backend.service.idm.PermissionService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of {@link PermissionService} backed by an in-memory snapshot.
+ * <p>
+ * The snapshot is built from two projection queries (direct grants and hierarchy edges).
+ * Each role's effective set is resolved once by a memoized depth-first walk, so shared
+ * ancestors are not revisited. It is rebuilt after every committed role change.
+ */
+@Slf4j
+@Service
+public class PermissionServiceImpl implements PermissionService {
+
+    private final RoleRepository roleRepository;
+
+    private final Map<String, Integer> permissionIndex = new ConcurrentHashMap<>();
+
+    private final List<String> permissionNames = new CopyOnWriteArrayList<>();
+
+    private final AtomicLong version = new AtomicLong();
+
+    private volatile Snapshot snapshot;
+
+    /**
+     * Constructs the permission service with required repository
+     *
+     * @param roleRepository Repository for role grants and hierarchy
+     */
+    public PermissionServiceImpl(RoleRepository roleRepository) {
+        this.roleRepository = roleRepository;
+    }
+
+    @Override
+    public int indexOf(String permission) {
+        return permissionIndex.getOrDefault(permission, -1);
+    }
+
+    @Override
+    public BitSet toBitSet(Collection<String> permissions) {
+        BitSet bits = new BitSet();
+        permissions.forEach(x -> bits.set(intern(x)));
+        return bits;
+    }
+
+    @Override
+    public Set<String> toPermissions(BitSet permissions) {
+        Set<String> names = new LinkedHashSet<>();
+        permissions.stream().forEach(x -> names.add(permissionNames.get(x)));
+        return names;
+    }
+
+    @Override
+    public BitSet getRolePermissions(Long roleId) {
+        BitSet bits = current().effective.get(roleId);
+        return bits == null ? new BitSet() : (BitSet) bits.clone();
+    }
+
+    @Override
+    public BitSet getRolePermissions(Collection<Long> roleIds) {
+        Snapshot current = current();
+        BitSet bits = new BitSet();
+        for (Long roleId : roleIds) {
+            BitSet roleBits = current.effective.get(roleId);
+            if (roleBits != null) {
+                bits.or(roleBits);
+            }
+        }
+        return bits;
+    }
+
+    @Override
+    public BitSet getUserPermissions(Long userId) {
+        return getRolePermissions(roleRepository.findRoleIdsByUserId(userId));
+    }
+
+    @Override
+    public boolean hasPermission(BitSet granted, String permission) {
+        int index = indexOf(permission);
+        return index >= 0 && granted.get(index);
+    }
+
+    @Override
+    public boolean hasAllPermissions(BitSet granted, BitSet required) {
+        BitSet missing = (BitSet) required.clone();
+        missing.andNot(granted);
+        return missing.isEmpty();
+    }
+
+    @Override
+    public boolean createsCycle(Long roleId, Long parentId) {
+        if (roleId.equals(parentId)) {
+            return true;
+        }
+        // Checked against the database rather than the snapshot, which may lag behind
+        Map<Long, List<Long>> parents = new HashMap<>();
+        roleRepository.findParentLinks()
+                .forEach(x -> parents.computeIfAbsent(x.getChildId(), k -> new ArrayList<>()).add(x.getParentId()));
+
+        Set<Long> visited = new HashSet<>();
+        Deque<Long> pending = new ArrayDeque<>();
+        pending.push(parentId);
+        while (!pending.isEmpty()) {
+            Long current = pending.pop();
+            if (current.equals(roleId)) {
+                return true;
+            }
+            if (visited.add(current)) {
+                parents.getOrDefault(current, List.of()).forEach(pending::push);
+            }
+        }
+        return false;
+    }
+
+    @Override
+    public long getVersion() {
+        return current().version;
+    }
+
+    @Override
+    public synchronized void recompute() {
+        snapshot = load(version.incrementAndGet());
+    }
+
+    /**
+     * Recomputes the effective permissions after a role change is committed.
+     *
+     * @param event the organization change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        if (event.getEntityType() == OrganizationChangedEvent.EntityType.ROLE) {
+            recompute();
+        }
+    }
+
+    private Snapshot current() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            synchronized (this) {
+                current = snapshot;
+                if (current == null) {
+                    current = load(version.incrementAndGet());
+                    snapshot = current;
+                }
+            }
+        }
+        return current;
+    }
+
+    private int intern(String permission) {
+        Integer index = permissionIndex.get(permission);
+        if (index != null) {
+            return index;
+        }
+        synchronized (permissionNames) {
+            return permissionIndex.computeIfAbsent(permission, x -> {
+                permissionNames.add(x);
+                return permissionNames.size() - 1;
+            });
+        }
+    }
+
+    private Snapshot load(long snapshotVersion) {
+        Map<Long, BitSet> own = new HashMap<>();
+        roleRepository.findPermissionGrants()
+                .forEach(x -> own.computeIfAbsent(x.getRoleId(), k -> new BitSet()).set(intern(x.getPermission())));
+
+        Map<Long, List<Long>> parents = new HashMap<>();
+        roleRepository.findParentLinks()
+                .forEach(x -> parents.computeIfAbsent(x.getChildId(), k -> new ArrayList<>()).add(x.getParentId()));
+
+        Set<Long> roleIds = new HashSet<>(own.keySet());
+        roleIds.addAll(parents.keySet());
+
+        Map<Long, BitSet> effective = new HashMap<>();
+        Set<Long> visiting = new HashSet<>();
+        for (Long roleId : roleIds) {
+            resolve(roleId, own, parents, effective, visiting);
+        }
+        log.debug("Effective permissions computed for {} roles over {} permissions (version {})",
+                effective.size(), permissionNames.size(), snapshotVersion);
+        return new Snapshot(snapshotVersion, effective);
+    }
+
+    private BitSet resolve(Long roleId,
+                           Map<Long, BitSet> own,
+                           Map<Long, List<Long>> parents,
+                           Map<Long, BitSet> effective,
+                           Set<Long> visiting) {
+        BitSet resolved = effective.get(roleId);
+        if (resolved != null) {
+            return resolved;
+        }
+        if (!visiting.add(roleId)) {
+            // Writes are validated with createsCycle, so this only happens for legacy data
+            log.warn("Cycle in role hierarchy detected at role {}", roleId);
+            return own.getOrDefault(roleId, new BitSet());
+        }
+        BitSet bits = new BitSet();
+        BitSet direct = own.get(roleId);
+        if (direct != null) {
+            bits.or(direct);
+        }
+        for (Long parentId : parents.getOrDefault(roleId, List.of())) {
+            bits.or(resolve(parentId, own, parents, effective, visiting));
+        }
+        visiting.remove(roleId);
+        effective.put(roleId, bits);
+        return bits;
+    }
+
+    private static final class Snapshot {
+        private final long version;
+        private final Map<Long, BitSet> effective;
+
+        private Snapshot(long version, Map<Long, BitSet> effective) {
+            this.version = version;
+            this.effective = effective;
+        }
+    }
+}
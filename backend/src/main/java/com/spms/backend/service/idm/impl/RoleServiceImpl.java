@@ -3,32 +3,77 @@ package com.spms.backend.service.idm.impl;
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.ValidationException;
 
+import com.spms.backend.repository.entities.idm.DepartmentType;
 import com.spms.backend.repository.entities.idm.Role;
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.repository.idm.DepartmentRepository;
 import com.spms.backend.repository.idm.RoleRepository;
+import com.spms.backend.repository.idm.UserProfileRepository;
+import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.repository.idm.UserRoleRepository;
+import com.spms.backend.service.idm.PermissionService;
 import com.spms.backend.service.idm.RoleService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.model.idm.RoleAssignmentResult;
 import com.spms.backend.service.model.idm.RoleModel;
+import com.spms.backend.service.model.idm.UserSelector;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 @Service
 public class RoleServiceImpl implements RoleService {
     private final RoleRepository roleRepository;
+    private final UserRepository userRepository;
+    private final DepartmentRepository departmentRepository;
+    private final UserRoleRepository userRoleRepository;
+    private final UserProfileRepository userProfileRepository;
+    private final PermissionService permissionService;
+    private final ApplicationEventPublisher eventPublisher;
     private static final Logger logger = LoggerFactory.getLogger(RoleServiceImpl.class);
 
     /**
      * Constructs RoleService with required repository
      *
      * @param roleRepository Role data access repository
+     * @param userRepository User data access repository, used to select users for bulk assignment
+     * @param departmentRepository Department data access repository, used to select department members
+     * @param userRoleRepository Batched access to role assignments
+     * @param userProfileRepository Profile attribute search, used to select users by query
+     * @param permissionService Effective permission service, used for hierarchy cycle checks
+     * @param eventPublisher Publisher for role change events
      */
-    public RoleServiceImpl(RoleRepository roleRepository) {
+    public RoleServiceImpl(RoleRepository roleRepository,
+                           UserRepository userRepository,
+                           DepartmentRepository departmentRepository,
+                           UserRoleRepository userRoleRepository,
+                           UserProfileRepository userProfileRepository,
+                           PermissionService permissionService,
+                           ApplicationEventPublisher eventPublisher) {
         this.roleRepository = roleRepository;
+        this.userRepository = userRepository;
+        this.departmentRepository = departmentRepository;
+        this.userRoleRepository = userRoleRepository;
+        this.userProfileRepository = userProfileRepository;
+        this.permissionService = permissionService;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -51,7 +96,9 @@ public class RoleServiceImpl implements RoleService {
         if (roleRepository.existsByName(roleModel.getName())) {
             throw new ValidationException("Role with this name already exists");
         }
-        return RoleModel.fromEntity(roleRepository.save(roleModel.toEntityForCreate()));
+        Role saved = roleRepository.save(roleModel.toEntityForCreate());
+        publishChange(OrganizationChangedEvent.ChangeType.CREATED, saved.getId());
+        return RoleModel.fromEntity(saved);
     }
 
     /**
@@ -107,7 +154,9 @@ public class RoleServiceImpl implements RoleService {
         }
 
         roleModel.setId(existingRole.getId());
-        return RoleModel.fromEntity(roleRepository.save(roleModel.toEntityForUpdate()));
+        Role saved = roleRepository.save(roleModel.toEntityForUpdate());
+        publishChange(OrganizationChangedEvent.ChangeType.UPDATED, id);
+        return RoleModel.fromEntity(saved);
     }
 
     /**
@@ -121,6 +170,7 @@ public class RoleServiceImpl implements RoleService {
     public void deleteRole(Long id) {
         RoleModel roleModel = getRoleById(id);
         roleRepository.delete(roleModel.toEntityForUpdate());
+        publishChange(OrganizationChangedEvent.ChangeType.DELETED, id);
     }
 
     /**
@@ -137,7 +187,9 @@ public class RoleServiceImpl implements RoleService {
         RoleModel roleModel = getRoleById(roleId);
         Role role = roleModel.toEntityForUpdate();
         role.getPermissions().add(permission);
-        return RoleModel.fromEntity(roleRepository.save(role));
+        Role saved = roleRepository.save(role);
+        publishChange(OrganizationChangedEvent.ChangeType.UPDATED, roleId);
+        return RoleModel.fromEntity(saved);
     }
 
     /**
@@ -159,7 +211,9 @@ public class RoleServiceImpl implements RoleService {
         } else {
             throw new ValidationException("permission is not found");
         }
-        return RoleModel.fromEntity(roleRepository.save(role));
+        Role saved = roleRepository.save(role);
+        publishChange(OrganizationChangedEvent.ChangeType.UPDATED, roleId);
+        return RoleModel.fromEntity(saved);
     }
 
     /**
@@ -182,7 +236,7 @@ public class RoleServiceImpl implements RoleService {
      * @param roleId   Child role ID
      * @param parentId Parent role ID
      * @return Updated role model with hierarchy
-     * @throws ValidationException if self-reference or duplicate
+     * @throws ValidationException if self-reference, duplicate or the link would create a cycle
      * @throws NotFoundException   if roles not found
      * @Transactional - Writes to database
      */
@@ -207,8 +261,13 @@ public class RoleServiceImpl implements RoleService {
             throw new ValidationException("Parent role already exists");
         }
 
+        if (permissionService.createsCycle(roleId, parentId)) {
+            throw new ValidationException("Parent role would create a cycle in the role hierarchy");
+        }
+
         role.getParentRoles().add(parentRole);
         Role savedRole = roleRepository.save(role);
+        publishChange(OrganizationChangedEvent.ChangeType.UPDATED, roleId);
         Role response = roleRepository.findByIdWithRelations(savedRole.getId()).get();
 
         // Refresh the entity to ensure relationships are loaded
@@ -242,9 +301,9 @@ public class RoleServiceImpl implements RoleService {
         }
 
         roleModel.getParentRoles().removeIf(parent -> parent.getId().equals(parentId));
-        return RoleModel.fromEntity(
-                roleRepository.save(roleModel.toEntityForUpdate())
-        );
+        Role saved = roleRepository.save(roleModel.toEntityForUpdate());
+        publishChange(OrganizationChangedEvent.ChangeType.UPDATED, roleId);
+        return RoleModel.fromEntity(saved);
     }
 
     /**
@@ -269,4 +328,145 @@ public class RoleServiceImpl implements RoleService {
         return this.getAllRoles(pageable);
     }
 
+    /**
+     * Grants roles to all selected users
+     *
+     * @param roleIds Roles to grant
+     * @param users   Users to grant them to
+     * @return Counts of selected users and added assignments
+     * @throws ValidationException if no roles are given, roles are unknown or the selector is invalid
+     * @throws NotFoundException   if the selected department doesn't exist
+     * @Transactional - Writes to database
+     */
+    @Override
+    @Transactional
+    public RoleAssignmentResult grantRoles(Collection<Long> roleIds, UserSelector users) {
+        Set<Long> roles = requireRoleIds(roleIds);
+        Set<Long> userIds = resolveUsers(users);
+        if (userIds.isEmpty()) {
+            return new RoleAssignmentResult(roles.size(), 0, 0);
+        }
+        UserRoleRepository.Changes changes = userRoleRepository.insertIfAbsent(userIds, roles);
+        publishAssignmentChange(changes.userIds());
+        return new RoleAssignmentResult(roles.size(), userIds.size(), changes.assignments());
+    }
+
+    /**
+     * Revokes roles from all selected users
+     *
+     * @param roleIds Roles to revoke
+     * @param users   Users to revoke them from
+     * @return Counts of selected users and removed assignments
+     * @throws ValidationException if no roles are given, roles are unknown or the selector is invalid
+     * @throws NotFoundException   if the selected department doesn't exist
+     * @Transactional - Writes to database
+     */
+    @Override
+    @Transactional
+    public RoleAssignmentResult revokeRoles(Collection<Long> roleIds, UserSelector users) {
+        Set<Long> roles = requireRoleIds(roleIds);
+        Set<Long> userIds = resolveUsers(users);
+        if (userIds.isEmpty()) {
+            return new RoleAssignmentResult(roles.size(), 0, 0);
+        }
+        UserRoleRepository.Changes changes = userRoleRepository.delete(userIds, roles);
+        publishAssignmentChange(changes.userIds());
+        return new RoleAssignmentResult(roles.size(), userIds.size(), changes.assignments());
+    }
+
+    private Set<Long> requireRoleIds(Collection<Long> roleIds) {
+        if (roleIds == null || roleIds.isEmpty()) {
+            throw new ValidationException("Role IDs cannot be empty");
+        }
+        Set<Long> roles = new LinkedHashSet<>(roleIds);
+        Set<Long> missing = new LinkedHashSet<>(roles);
+        roleRepository.findExistingIds(roles).forEach(missing::remove);
+        if (!missing.isEmpty()) {
+            throw new ValidationException("Roles not found: " + missing);
+        }
+        return roles;
+    }
+
+    /**
+     * Resolves a selector to user IDs with ID-only queries; no user entity is loaded.
+     */
+    private Set<Long> resolveUsers(UserSelector selector) {
+        if (selector == null) {
+            throw new ValidationException("Users must be selected");
+        }
+        boolean byIds = selector.getUserIds() != null && !selector.getUserIds().isEmpty();
+        boolean byDepartment = selector.getDepartmentId() != null;
+        boolean bySearch = StringUtils.hasText(selector.getQuery()) || selector.getType() != null;
+        if ((byIds ? 1 : 0) + (byDepartment ? 1 : 0) + (bySearch ? 1 : 0) != 1) {
+            throw new ValidationException("Exactly one of user IDs, department or search must be given");
+        }
+
+        if (byIds) {
+            Set<Long> userIds = new LinkedHashSet<>(selector.getUserIds());
+            Set<Long> missing = new LinkedHashSet<>(userIds);
+            userRepository.findExistingIds(userIds).forEach(missing::remove);
+            if (!missing.isEmpty()) {
+                throw new ValidationException("Users not found: " + missing);
+            }
+            return userIds;
+        }
+        if (byDepartment) {
+            if (!departmentRepository.existsById(selector.getDepartmentId())) {
+                throw new NotFoundException("Department not found");
+            }
+            Collection<Long> departmentIds = selector.isIncludeSubDepartments()
+                    ? findSubtree(selector.getDepartmentId())
+                    : List.of(selector.getDepartmentId());
+            return new LinkedHashSet<>(departmentRepository.findMemberIds(departmentIds));
+        }
+
+        Specification<User> spec = Specification.where(null);
+        if (StringUtils.hasText(selector.getQuery())) {
+            spec = spec.and(UserSpecifications.searchByQuery(selector.getQuery(),
+                    userProfileRepository.findIdsByProfileValue(selector.getQuery())));
+        }
+        if (selector.getType() != null) {
+            spec = spec.and(UserSpecifications.filterByType(selector.getType()));
+        }
+        return new LinkedHashSet<>(userRepository.findIds(spec));
+    }
+
+    /**
+     * Collects a department and all departments below it from the hierarchy projection.
+     */
+    private List<Long> findSubtree(Long departmentId) {
+        Map<Long, List<Long>> children = new HashMap<>();
+        departmentRepository.findHierarchyNodes().forEach(x -> {
+            // Top level LOCAL/FUNCTIONAL departments point at a company or division, teams and
+            // lower levels at a department
+            if ((x.getLevel() != null && x.getLevel() > 1)
+                    || x.getType() == DepartmentType.TEAM || x.getType() == DepartmentType.FUNCTIONAL_TEAM) {
+                children.computeIfAbsent(x.getParent(), k -> new ArrayList<>()).add(x.getId());
+            }
+        });
+
+        List<Long> subtree = new ArrayList<>();
+        Set<Long> visited = new HashSet<>();
+        Deque<Long> pending = new ArrayDeque<>();
+        pending.push(departmentId);
+        while (!pending.isEmpty()) {
+            Long current = pending.pop();
+            if (visited.add(current)) {
+                subtree.add(current);
+                children.getOrDefault(current, List.of()).forEach(pending::push);
+            }
+        }
+        return subtree;
+    }
+
+    // The roles themselves are unchanged, so only the affected users need to be refreshed
+    private void publishAssignmentChange(Collection<Long> userIds) {
+        userIds.forEach(x -> eventPublisher.publishEvent(new OrganizationChangedEvent(this,
+                OrganizationChangedEvent.EntityType.ROLE_ASSIGNMENT, OrganizationChangedEvent.ChangeType.UPDATED, x)));
+    }
+
+    private void publishChange(OrganizationChangedEvent.ChangeType changeType, Long roleId) {
+        eventPublisher.publishEvent(new OrganizationChangedEvent(this,
+                OrganizationChangedEvent.EntityType.ROLE, changeType, roleId));
+    }
 }
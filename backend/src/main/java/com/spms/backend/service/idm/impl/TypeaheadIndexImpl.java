@@ -0,0 +1,213 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.config.TypeaheadProperties;
+import com.spms.backend.repository.idm.TypeaheadSourceRepository;
+import com.spms.backend.repository.idm.TypeaheadSourceRepository.DepartmentRow;
+import com.spms.backend.repository.idm.TypeaheadSourceRepository.UserRow;
+import com.spms.backend.service.idm.TypeaheadIndex;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.model.idm.TypeaheadHit;
+import com.spms.backend.service.model.idm.TypeaheadKind;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Implementation of {@link TypeaheadIndex} on one {@link NGramIndex} per entity kind.
+ * <p>
+ * A committed user or department change re-reads that single row and replaces its entry.
+ * Full rebuilds (at startup and after the refresh interval) build new indexes next to the
+ * live ones and swap them in; entries changed while a rebuild was running are re-read
+ * afterwards, so the swap never loses an update.
+ */
+@Slf4j
+@Service
+public class TypeaheadIndexImpl implements TypeaheadIndex {
+
+    private final TypeaheadSourceRepository sourceRepository;
+
+    private final TypeaheadProperties properties;
+
+    private volatile Indexes indexes = new Indexes(new NGramIndex(), new NGramIndex());
+
+    private volatile Instant builtAt;
+
+    private volatile boolean rebuilding;
+
+    private final Set<Entry> changedDuringRebuild = ConcurrentHashMap.newKeySet();
+
+    private final AtomicBoolean refreshScheduled = new AtomicBoolean();
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "typeahead-refresh");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs the index with required dependencies
+     *
+     * @param sourceRepository Flat reads of users and departments
+     * @param properties Refresh and limit settings
+     */
+    public TypeaheadIndexImpl(TypeaheadSourceRepository sourceRepository, TypeaheadProperties properties) {
+        this.sourceRepository = sourceRepository;
+        this.properties = properties;
+    }
+
+    @Override
+    public List<TypeaheadHit> search(String query, Set<TypeaheadKind> kinds, int limit) {
+        scheduleRefreshIfDue();
+        int max = limit <= 0 ? properties.getMaxLimit() : Math.min(limit, properties.getMaxLimit());
+        Indexes current = indexes;
+
+        List<TypeaheadHit> hits = new ArrayList<>();
+        if (kinds == null || kinds.isEmpty() || kinds.contains(TypeaheadKind.USER)) {
+            current.users().search(query, max).forEach(x -> hits.add(toHit(TypeaheadKind.USER, x)));
+        }
+        if (kinds == null || kinds.isEmpty() || kinds.contains(TypeaheadKind.DEPARTMENT)) {
+            current.departments().search(query, max).forEach(x -> hits.add(toHit(TypeaheadKind.DEPARTMENT, x)));
+        }
+        if (hits.size() <= 1) {
+            return hits;
+        }
+        hits.sort(Comparator.comparingDouble(TypeaheadHit::score).reversed()
+                .thenComparing(TypeaheadHit::label));
+        return hits.size() > max ? List.copyOf(hits.subList(0, max)) : hits;
+    }
+
+    @Override
+    public synchronized int rebuild() {
+        rebuilding = true;
+        changedDuringRebuild.clear();
+        try {
+            NGramIndex users = new NGramIndex();
+            NGramIndex departments = new NGramIndex();
+            sourceRepository.forEachUser(x -> users.put(userDocument(x)));
+            sourceRepository.forEachDepartment(x -> departments.put(departmentDocument(x)));
+            indexes = new Indexes(users, departments);
+            builtAt = Instant.now();
+        } finally {
+            rebuilding = false;
+        }
+        for (Entry entry : changedDuringRebuild) {
+            refresh(entry);
+        }
+        changedDuringRebuild.clear();
+        int size = indexes.users().size() + indexes.departments().size();
+        log.debug("Typeahead index rebuilt with {} entries", size);
+        return size;
+    }
+
+    /**
+     * Builds the index once the application is ready to serve requests.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+
+    /**
+     * Updates the entry of a user or department after its change is committed.
+     *
+     * @param event the organization change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        if (event.getEntityId() == null) {
+            return;
+        }
+        TypeaheadKind kind = switch (event.getEntityType()) {
+            case USER -> TypeaheadKind.USER;
+            case DEPARTMENT -> TypeaheadKind.DEPARTMENT;
+            default -> null;
+        };
+        if (kind == null) {
+            return;
+        }
+        Entry entry = new Entry(kind, event.getEntityId());
+        if (rebuilding) {
+            changedDuringRebuild.add(entry);
+        }
+        if (event.getChangeType() == ChangeType.DELETED) {
+            indexOf(kind).remove(entry.id());
+        } else {
+            refresh(entry);
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private void refresh(Entry entry) {
+        NGramIndex index = indexOf(entry.kind());
+        if (entry.kind() == TypeaheadKind.USER) {
+            sourceRepository.findUser(entry.id()).ifPresentOrElse(
+                    x -> index.put(userDocument(x)), () -> index.remove(entry.id()));
+        } else {
+            sourceRepository.findDepartment(entry.id()).ifPresentOrElse(
+                    x -> index.put(departmentDocument(x)), () -> index.remove(entry.id()));
+        }
+    }
+
+    private void scheduleRefreshIfDue() {
+        Duration interval = properties.getRefreshInterval();
+        Instant built = builtAt;
+        boolean due = built == null
+                || (interval != null && !interval.isZero() && built.plus(interval).isBefore(Instant.now()));
+        if (due && refreshScheduled.compareAndSet(false, true)) {
+            executor.execute(() -> {
+                try {
+                    rebuild();
+                } catch (RuntimeException e) {
+                    log.warn("Typeahead index refresh failed", e);
+                } finally {
+                    refreshScheduled.set(false);
+                }
+            });
+        }
+    }
+
+    private NGramIndex indexOf(TypeaheadKind kind) {
+        return kind == TypeaheadKind.USER ? indexes.users() : indexes.departments();
+    }
+
+    private static NGramIndex.Document userDocument(UserRow user) {
+        return new NGramIndex.Document(user.id(), user.username(), user.email(),
+                Arrays.asList(user.username(), user.email(), user.description()));
+    }
+
+    private static NGramIndex.Document departmentDocument(DepartmentRow department) {
+        return new NGramIndex.Document(department.id(), department.name(), department.type().name(),
+                List.of(department.name()));
+    }
+
+    private static TypeaheadHit toHit(TypeaheadKind kind, NGramIndex.Match match) {
+        NGramIndex.Document document = match.document();
+        return new TypeaheadHit(kind, document.id(), document.label(), document.detail(), match.score());
+    }
+
+    private record Indexes(NGramIndex users, NGramIndex departments) {
+    }
+
+    private record Entry(TypeaheadKind kind, Long id) {
+    }
+}
@@ -0,0 +1,151 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.config.UserCacheProperties;
+import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.service.idm.UserCache;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.model.idm.UserModel;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * LRU implementation of {@link UserCache}.
+ * <p>
+ * Users are loaded in a short read-only transaction on a miss only; hits do not touch
+ * the database. A user change evicts that user, while membership, department and role
+ * changes evict everything because they alter the departments and roles of many users.
+ */
+@Service
+public class UserCacheImpl implements UserCache {
+
+    private final UserRepository userRepository;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final long timeToLiveMillis;
+
+    private final Map<Long, Entry<UserModel>> users;
+
+    private final Map<String, Entry<Long>> userIds;
+
+    private final AtomicLong generation = new AtomicLong();
+
+    /**
+     * Constructs the cache with required dependencies
+     *
+     * @param userRepository Repository for loading users
+     * @param properties Cache sizing
+     * @param transactionManager Transaction manager for loading users on a miss
+     */
+    public UserCacheImpl(UserRepository userRepository,
+                         UserCacheProperties properties,
+                         PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.timeToLiveMillis = properties.getTimeToLive().toMillis();
+        this.users = lruMap(properties.getMaxSize());
+        this.userIds = lruMap(properties.getMaxSize());
+    }
+
+    @Override
+    public Optional<UserModel> getUser(Long userId) {
+        if (userId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(lookup(users, userId, () -> transactionTemplate.execute(status ->
+                userRepository.findById(userId)
+                        .map(x -> UserModel.fromEntity(x, x.getUserProfiles() == null
+                                ? new HashMap<>() : new HashMap<>(x.getUserProfiles())))
+                        .orElse(null))));
+    }
+
+    @Override
+    public Optional<Long> findUserId(String provider, String providerId) {
+        if (provider == null || providerId == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(lookup(userIds, provider + '\u0000' + providerId, () ->
+                userRepository.findIdByProviderAndProviderId(provider, providerId).orElse(null)));
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        generation.incrementAndGet();
+        synchronized (users) {
+            users.remove(userId);
+        }
+        // The provider link may have changed as well; the reverse index is cheap to rebuild
+        synchronized (userIds) {
+            userIds.clear();
+        }
+    }
+
+    @Override
+    public void invalidateAll() {
+        generation.incrementAndGet();
+        synchronized (users) {
+            users.clear();
+        }
+        synchronized (userIds) {
+            userIds.clear();
+        }
+    }
+
+    /**
+     * Evicts cached users after a relevant change is committed.
+     *
+     * @param event the organization change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        switch (event.getEntityType()) {
+            case USER, ROLE_ASSIGNMENT -> invalidate(event.getEntityId());
+            case MEMBERSHIP, DEPARTMENT, ROLE -> invalidateAll();
+            default -> {
+                // Companies and divisions are not part of the cached user
+            }
+        }
+    }
+
+    private <K, V> V lookup(Map<K, Entry<V>> cache, K key, Supplier<V> loader) {
+        long now = System.currentTimeMillis();
+        synchronized (cache) {
+            Entry<V> entry = cache.get(key);
+            if (entry != null && entry.expiresAt > now) {
+                return entry.value;
+            }
+        }
+        long startGeneration = generation.get();
+        V value = loader.get();
+        // Misses are not cached, so a user linked later is found on the next request.
+        // Values loaded while an eviction happened may already be stale and are not kept either.
+        if (value != null && generation.get() == startGeneration) {
+            synchronized (cache) {
+                cache.put(key, new Entry<>(value, now + timeToLiveMillis));
+            }
+        }
+        return value;
+    }
+
+    private static <K, V> Map<K, V> lruMap(int maxSize) {
+        return new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<K, V> eldest) {
+                return size() > maxSize;
+            }
+        };
+    }
+
+    private record Entry<V>(V value, long expiresAt) {
+    }
+}
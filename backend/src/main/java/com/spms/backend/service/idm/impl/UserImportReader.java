@@ -0,0 +1,274 @@
+package com.spms.backend.service.idm.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.service.model.idm.UserImportFormat;
+import com.spms.backend.service.model.idm.UserModel;
+
+import java.io.BufferedReader;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads user import records one at a time, so only the current record is held in memory.
+ * <p>
+ * Both formats share the same fields: {@code username}, {@code email}, {@code type},
+ * {@code description}, {@code provider}, {@code providerId} and {@code departments}
+ * (department IDs). In CSV, departments are separated by {@code ;} and every other column
+ * is stored as a user profile entry; in NDJSON, profiles are given as a {@code userProfiles} object.
+ */
+abstract class UserImportReader implements Closeable {
+
+    /**
+     * Longest accepted record, so a missing quote or newline cannot pull the whole file into memory
+     */
+    static final int MAX_RECORD_LENGTH = 64 * 1024;
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final BufferedReader reader;
+
+    protected long row;
+
+    protected UserImportReader(InputStream input) {
+        this.reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8));
+    }
+
+    static UserImportReader open(InputStream input, UserImportFormat format) throws IOException {
+        return switch (format) {
+            case CSV -> new Csv(input);
+            case NDJSON -> new Ndjson(input);
+        };
+    }
+
+    /**
+     * @return next record, or null at the end of the input
+     * @throws IOException if the input cannot be read or a record is too long
+     */
+    abstract UserImportRecord next() throws IOException;
+
+    @Override
+    public void close() throws IOException {
+        reader.close();
+    }
+
+    protected int read() throws IOException {
+        return reader.read();
+    }
+
+    protected void mark() throws IOException {
+        reader.mark(1);
+    }
+
+    protected void reset() throws IOException {
+        reader.reset();
+    }
+
+    protected String readLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c;
+        while ((c = reader.read()) != -1 && c != '\n') {
+            if (c != '\r') {
+                append(line, c);
+            }
+        }
+        return c == -1 && line.isEmpty() ? null : line.toString();
+    }
+
+    protected void append(StringBuilder builder, int c) throws IOException {
+        if (builder.length() >= MAX_RECORD_LENGTH) {
+            throw new IOException("Record " + (row + 1) + " exceeds " + MAX_RECORD_LENGTH + " characters");
+        }
+        builder.append((char) c);
+    }
+
+    static UserModel newUser(String username, String email) {
+        UserModel user = new UserModel();
+        user.setUsername(trimToNull(username));
+        user.setEmail(trimToNull(email));
+        user.setType(User.UserType.STAFF);
+        user.setUserProfiles(new HashMap<>());
+        return user;
+    }
+
+    static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+
+    private static final class Csv extends UserImportReader {
+
+        private final List<String> header;
+
+        private Csv(InputStream input) throws IOException {
+            super(input);
+            List<String> fields = readRecord();
+            if (fields == null) {
+                throw new IOException("CSV header is missing");
+            }
+            header = fields.stream().map(String::trim).toList();
+            if (!header.contains("username") || !header.contains("email")) {
+                throw new IOException("CSV header must contain username and email columns");
+            }
+        }
+
+        @Override
+        UserImportRecord next() throws IOException {
+            List<String> fields;
+            do {
+                fields = readRecord();
+                if (fields == null) {
+                    return null;
+                }
+            } while (fields.size() == 1 && fields.get(0).isBlank());
+            row++;
+
+            if (fields.size() != header.size()) {
+                return UserImportRecord.failed(row, null,
+                        "Expected " + header.size() + " columns but found " + fields.size());
+            }
+            Map<String, String> values = new HashMap<>();
+            for (int i = 0; i < header.size(); i++) {
+                values.put(header.get(i), fields.get(i));
+            }
+            UserModel user = newUser(values.remove("username"), values.remove("email"));
+            user.setType(User.UserType.of(trimToNull(values.remove("type"))));
+            user.setDescription(trimToNull(values.remove("description")));
+            user.setProvider(trimToNull(values.remove("provider")));
+            user.setProviderId(trimToNull(values.remove("providerId")));
+
+            List<Long> departments = new ArrayList<>();
+            String departmentList = values.remove("departments");
+            if (departmentList != null) {
+                for (String id : departmentList.split(";")) {
+                    if (!id.isBlank()) {
+                        try {
+                            departments.add(Long.parseLong(id.trim()));
+                        } catch (NumberFormatException ex) {
+                            return UserImportRecord.failed(row, user.getUsername(), "Invalid department ID: " + id.trim());
+                        }
+                    }
+                }
+            }
+            values.forEach((key, value) -> {
+                if (trimToNull(value) != null) {
+                    user.getUserProfiles().put(key, value.trim());
+                }
+            });
+            return new UserImportRecord(row, user, departments, null);
+        }
+
+        /**
+         * Reads one RFC 4180 record; quoted fields may contain commas, doubled quotes and line breaks.
+         */
+        private List<String> readRecord() throws IOException {
+            List<String> fields = new ArrayList<>();
+            StringBuilder field = new StringBuilder();
+            boolean quoted = false;
+            boolean empty = true;
+            int length = 0;
+            int c;
+            while ((c = read()) != -1) {
+                empty = false;
+                if (++length > MAX_RECORD_LENGTH) {
+                    throw new IOException("Record " + (row + 1) + " exceeds " + MAX_RECORD_LENGTH + " characters");
+                }
+                if (quoted) {
+                    if (c == '"') {
+                        mark();
+                        int nextChar = read();
+                        if (nextChar == '"') {
+                            field.append('"');
+                        } else {
+                            quoted = false;
+                            if (nextChar != -1) {
+                                reset();
+                            }
+                        }
+                    } else {
+                        field.append((char) c);
+                    }
+                } else if (c == '"') {
+                    quoted = true;
+                } else if (c == ',') {
+                    fields.add(field.toString());
+                    field.setLength(0);
+                } else if (c == '\n') {
+                    break;
+                } else if (c != '\r') {
+                    field.append((char) c);
+                }
+            }
+            if (empty) {
+                return null;
+            }
+            fields.add(field.toString());
+            return fields;
+        }
+    }
+
+    private static final class Ndjson extends UserImportReader {
+
+        private Ndjson(InputStream input) {
+            super(input);
+        }
+
+        @Override
+        UserImportRecord next() throws IOException {
+            String line;
+            do {
+                line = readLine();
+                if (line == null) {
+                    return null;
+                }
+            } while (line.isBlank());
+            row++;
+
+            JsonNode node;
+            try {
+                node = objectMapper.readTree(line);
+            } catch (JsonProcessingException ex) {
+                return UserImportRecord.failed(row, null, "Invalid JSON: " + ex.getOriginalMessage());
+            }
+            if (!node.isObject()) {
+                return UserImportRecord.failed(row, null, "Expected a JSON object");
+            }
+
+            UserModel user = newUser(node.path("username").asText(null), node.path("email").asText(null));
+            user.setType(User.UserType.of(node.path("type").asText(null)));
+            user.setDescription(trimToNull(node.path("description").asText(null)));
+            user.setProvider(trimToNull(node.path("provider").asText(null)));
+            user.setProviderId(trimToNull(node.path("providerId").asText(null)));
+
+            Iterator<Map.Entry<String, JsonNode>> profiles = node.path("userProfiles").fields();
+            while (profiles.hasNext()) {
+                Map.Entry<String, JsonNode> entry = profiles.next();
+                if (!entry.getValue().isNull()) {
+                    user.getUserProfiles().put(entry.getKey(), entry.getValue().asText());
+                }
+            }
+
+            List<Long> departments = new ArrayList<>();
+            for (JsonNode id : node.path("departments")) {
+                if (!id.canConvertToLong()) {
+                    return UserImportRecord.failed(row, user.getUsername(), "Invalid department ID: " + id.asText());
+                }
+                departments.add(id.asLong());
+            }
+            return new UserImportRecord(row, user, departments, null);
+        }
+    }
+}
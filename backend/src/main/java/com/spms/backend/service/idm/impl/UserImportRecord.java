@@ -0,0 +1,29 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.service.model.idm.UserModel;
+
+import java.util.List;
+
+/**
+ * A single parsed row of a user import file.
+ *
+ * @param row         1-based record number
+ * @param user        user to create, null if the row could not be parsed
+ * @param departments IDs of departments the user joins
+ * @param error       parse error, null if the row was read successfully
+ */
+record UserImportRecord(long row, UserModel user, List<Long> departments, String error) {
+
+    static UserImportRecord failed(long row, String username, String error) {
+        UserModel user = null;
+        if (username != null) {
+            user = new UserModel();
+            user.setUsername(username);
+        }
+        return new UserImportRecord(row, user, List.of(), error);
+    }
+
+    String username() {
+        return user == null ? null : user.getUsername();
+    }
+}
@@ -0,0 +1,214 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.repository.idm.DepartmentMembershipRepository;
+import com.spms.backend.repository.idm.DepartmentRepository;
+import com.spms.backend.repository.idm.UserBatchRepository;
+import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.service.idm.UserImportService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.EntityType;
+import com.spms.backend.service.model.idm.UserImportFormat;
+import com.spms.backend.service.model.idm.UserImportResult;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+/**
+ * Streaming implementation of {@link UserImportService}.
+ * <p>
+ * Each batch costs a fixed number of queries: one lookup each for existing usernames,
+ * emails and departments, batched inserts for users (with their profiles) and memberships, and one
+ * query to read back the generated user IDs.
+ */
+@Slf4j
+@Service
+public class UserImportServiceImpl implements UserImportService {
+
+    static final int BATCH_SIZE = 500;
+
+    private final UserRepository userRepository;
+
+    private final DepartmentRepository departmentRepository;
+
+    private final UserBatchRepository userBatchRepository;
+
+    private final DepartmentMembershipRepository membershipRepository;
+
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final TransactionTemplate transactionTemplate;
+
+    /**
+     * Constructs the import service with required dependencies
+     *
+     * @param userRepository Repository for user lookups
+     * @param departmentRepository Repository for department lookups
+     * @param userBatchRepository Repository for batched user inserts
+     * @param membershipRepository Repository for batched membership inserts
+     * @param eventPublisher Publisher for organization change events
+     * @param transactionManager Transaction manager used to commit each batch separately
+     */
+    public UserImportServiceImpl(UserRepository userRepository,
+                                 DepartmentRepository departmentRepository,
+                                 UserBatchRepository userBatchRepository,
+                                 DepartmentMembershipRepository membershipRepository,
+                                 ApplicationEventPublisher eventPublisher,
+                                 PlatformTransactionManager transactionManager) {
+        this.userRepository = userRepository;
+        this.departmentRepository = departmentRepository;
+        this.userBatchRepository = userBatchRepository;
+        this.membershipRepository = membershipRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    public UserImportResult importUsers(InputStream input, UserImportFormat format, String importedBy) {
+        UserImportResult result = new UserImportResult();
+        try (UserImportReader reader = UserImportReader.open(input, format)) {
+            List<UserImportRecord> batch = new ArrayList<>(BATCH_SIZE);
+            UserImportRecord record;
+            while ((record = reader.next()) != null) {
+                batch.add(record);
+                if (batch.size() == BATCH_SIZE) {
+                    importBatch(batch, importedBy, result);
+                    batch.clear();
+                }
+            }
+            if (!batch.isEmpty()) {
+                importBatch(batch, importedBy, result);
+            }
+        } catch (IOException ex) {
+            log.warn("User import stopped after {} rows: {}", result.getProcessed(), ex.getMessage());
+            result.abort(ex.getMessage());
+        }
+        log.info("User import finished: {} processed, {} imported, {} failed",
+                result.getProcessed(), result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private void importBatch(List<UserImportRecord> batch, String importedBy, UserImportResult result) {
+        result.addProcessed(batch.size());
+        // Errors are collected per batch and reported in row order
+        Map<UserImportRecord, String> rejected = new TreeMap<>(Comparator.comparingLong(UserImportRecord::row));
+        try {
+            List<UserImportRecord> accepted = validateBatch(batch, rejected);
+            if (!accepted.isEmpty()) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> insertBatch(accepted, importedBy));
+                    result.addImported(accepted.size());
+                } catch (RuntimeException ex) {
+                    String message = "Batch insert failed: " + NestedExceptionUtils.getMostSpecificCause(ex).getMessage();
+                    log.warn("User import batch starting at row {} failed", accepted.get(0).row(), ex);
+                    accepted.forEach(x -> rejected.put(x, message));
+                }
+            }
+        } finally {
+            rejected.forEach((record, message) -> result.addError(record.row(), record.username(), message));
+        }
+        log.info("User import progress: {} processed, {} imported, {} failed",
+                result.getProcessed(), result.getImported(), result.getFailed());
+    }
+
+    private List<UserImportRecord> validateBatch(List<UserImportRecord> batch, Map<UserImportRecord, String> rejected) {
+        // Duplicates within the batch are caught here; earlier batches are already committed
+        // and therefore covered by the database lookups below
+        List<UserImportRecord> candidates = new ArrayList<>();
+        Set<String> usernames = new HashSet<>();
+        Set<String> emails = new HashSet<>();
+        Set<Long> departmentIds = new HashSet<>();
+        for (UserImportRecord record : batch) {
+            if (record.error() != null) {
+                rejected.put(record, record.error());
+            } else if (record.user().getUsername() == null || record.user().getEmail() == null) {
+                rejected.put(record, "Username and email are required");
+            } else if (usernames.contains(record.user().getUsername())) {
+                rejected.put(record, "Duplicate username in file");
+            } else if (emails.contains(record.user().getEmail())) {
+                rejected.put(record, "Duplicate email in file");
+            } else {
+                usernames.add(record.user().getUsername());
+                emails.add(record.user().getEmail());
+                departmentIds.addAll(record.departments());
+                candidates.add(record);
+            }
+        }
+        if (candidates.isEmpty()) {
+            return candidates;
+        }
+
+        Set<String> existingUsernames = new HashSet<>(userRepository.findExistingUsernames(usernames));
+        Set<String> existingEmails = new HashSet<>(userRepository.findExistingEmails(emails));
+        Set<Long> existingDepartments = departmentIds.isEmpty()
+                ? Set.of() : new HashSet<>(departmentRepository.findExistingIds(departmentIds));
+
+        List<UserImportRecord> accepted = new ArrayList<>();
+        for (UserImportRecord record : candidates) {
+            if (existingUsernames.contains(record.user().getUsername())) {
+                rejected.put(record, "Username already exists");
+            } else if (existingEmails.contains(record.user().getEmail())) {
+                rejected.put(record, "Email already exists");
+            } else if (!existingDepartments.containsAll(record.departments())) {
+                List<Long> unknown = record.departments().stream().filter(x -> !existingDepartments.contains(x)).toList();
+                rejected.put(record, "Departments not found: " + unknown);
+            } else {
+                accepted.add(record);
+            }
+        }
+        return accepted;
+    }
+
+    private void insertBatch(List<UserImportRecord> records, String importedBy) {
+        LocalDateTime now = LocalDateTime.now();
+        List<User> users = new ArrayList<>(records.size());
+        for (UserImportRecord record : records) {
+            User user = record.user().toEntityForCreate();
+            user.setCreatedAt(now);
+            user.setUpdatedAt(now);
+            user.setCreatedBy(importedBy);
+            users.add(user);
+        }
+        userBatchRepository.insertUsers(users);
+
+        Map<String, Long> ids = new HashMap<>();
+        userRepository.findIdentitiesByUsernames(users.stream().map(User::getUsername).toList())
+                .forEach(x -> ids.put(x.getUsername(), x.getId()));
+        users.forEach(x -> x.setId(ids.get(x.getUsername())));
+
+        List<DepartmentMembershipRepository.Entry> memberships = new ArrayList<>();
+        Set<Long> changedDepartments = new LinkedHashSet<>();
+        for (int i = 0; i < records.size(); i++) {
+            Long userId = users.get(i).getId();
+            for (Long departmentId : new LinkedHashSet<>(records.get(i).departments())) {
+                memberships.add(new DepartmentMembershipRepository.Entry(departmentId, userId));
+                changedDepartments.add(departmentId);
+            }
+        }
+        membershipRepository.insertAll(memberships);
+
+        users.forEach(x -> publishChange(EntityType.USER, ChangeType.CREATED, x.getId()));
+        changedDepartments.forEach(x -> publishChange(EntityType.MEMBERSHIP, ChangeType.UPDATED, x));
+    }
+
+    private void publishChange(EntityType entityType, ChangeType changeType, Long entityId) {
+        eventPublisher.publishEvent(new OrganizationChangedEvent(this, entityType, changeType, entityId));
+    }
+}
@@ -1,6 +1,6 @@
 package com.spms.backend.service.idm.impl;
 
-import com.spms.backend.config.SpmsOidcUser;
+import com.spms.backend.config.SpmsPrincipal;
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.ValidationException;
 import com.spms.backend.repository.entities.idm.Department;
@@ -9,12 +9,20 @@ import com.spms.backend.repository.idm.*;
 import com.spms.backend.service.model.idm.RoleModel;
 import com.spms.backend.service.BaseServiceImpl;
 import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.service.idm.UserCache;
 import com.spms.backend.service.idm.UserModelFulfilledSupporter;
 import com.spms.backend.service.idm.UserService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.EntityType;
 import com.spms.backend.service.model.idm.DepartmentModel;
+import com.spms.backend.service.model.idm.ProfileFilter;
 import com.spms.backend.service.model.idm.UserModel;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
@@ -35,14 +43,23 @@ public class UserServiceImpl extends BaseServiceImpl<User, UserRepository> imple
 
     private DepartmentRepository departmentRepository;
     private final RoleRepository roleRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final UserCache userCache;
+    private final UserProfileRepository userProfileRepository;
 
     public UserServiceImpl(UserRepository repository,
                            DepartmentRepository departmentRepository,
-                           RoleRepository roleRepository
+                           RoleRepository roleRepository,
+                           ApplicationEventPublisher eventPublisher,
+                           UserCache userCache,
+                           UserProfileRepository userProfileRepository
     ) {
         super(repository);
         this.departmentRepository = departmentRepository;
         this.roleRepository = roleRepository;
+        this.eventPublisher = eventPublisher;
+        this.userCache = userCache;
+        this.userProfileRepository = userProfileRepository;
     }
 
 
@@ -53,11 +70,18 @@ public class UserServiceImpl extends BaseServiceImpl<User, UserRepository> imple
      * @return the ID of the current user
      */
     @Override
-    @Transactional(readOnly = true)
     public Long getCurrentUserId() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        SpmsOidcUser user = (SpmsOidcUser) authentication.getPrincipal();
-        return user.getAuthenticatedUser().getId();
+        return currentPrincipal().getUserId();
+    }
+
+    /**
+     * Retrieves the username of the currently authenticated user without loading the user
+     *
+     * @return the username of the current user
+     */
+    @Override
+    public String getCurrentUsername() {
+        return currentPrincipal().getUsername();
     }
 
     /**
@@ -66,13 +90,11 @@ public class UserServiceImpl extends BaseServiceImpl<User, UserRepository> imple
      * @return UserModel containing current user details
      */
     public UserModel getCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
-        SpmsOidcUser user = (SpmsOidcUser) authentication.getPrincipal();
-
-
         //TODO: add the execution context principal
 
-        return user.getAuthenticatedUser();
+        // The principal only carries the user ID; the shared cache keeps the details current
+        return userCache.getUser(currentPrincipal().getUserId())
+                .orElseThrow(() -> new NotFoundException("User not found"));
     }
 
     /**
@@ -134,10 +156,11 @@ public class UserServiceImpl extends BaseServiceImpl<User, UserRepository> imple
         }
 
         // Set createdBy to current authenticated user
-        UserModel currentUser = getCurrentUser();
-        userModel.setCreatedBy(currentUser.getUsername());
+        userModel.setCreatedBy(getCurrentUsername());
 
-        return UserModel.fromEntity(this.repository.save(userModel.toEntityForCreate()));
+        User created = this.repository.save(userModel.toEntityForCreate());
+        publishChange(ChangeType.CREATED, created.getId());
+        return UserModel.fromEntity(created);
     }
 
     /**
@@ -184,7 +207,8 @@ public class UserServiceImpl extends BaseServiceImpl<User, UserRepository> imple
     public Optional<UserModel> linkUserToProvider(String provider, String providerId, String userName) {
         User userByUserName = repository.findByUsername(userName);
         //Only Human can link to  && this user linked provider shall be pre-defined.
-        if (userByUserName.getType() != User.UserType.MACHINE && provider.equals(userByUserName.getProvider())) {
+        if (userByUserName != null && userByUserName.getType() != User.UserType.MACHINE
+                && provider.equals(userByUserName.getProvider())) {
             userByUserName.setProviderId(providerId);
         } else {
             return Optional.empty();
@@ -231,6 +255,7 @@ public class UserServiceImpl extends BaseServiceImpl<User, UserRepository> imple
         // Add roles to user
         user.getRoles().addAll(roleEntities);
         repository.save(user);
+        publishChange(ChangeType.UPDATED, user.getId());
         return true;
     }
 
@@ -249,6 +274,7 @@ public class UserServiceImpl extends BaseServiceImpl<User, UserRepository> imple
         // Remove roles from user
         user.getRoles().removeAll(roleEntities);
         repository.save(user);
+        publishChange(ChangeType.UPDATED, user.getId());
         return true;
     }
 
@@ -267,11 +293,12 @@ public class UserServiceImpl extends BaseServiceImpl<User, UserRepository> imple
                 .orElseThrow(() -> new NotFoundException("User not found"));
 
         // Set modifiedBy to current authenticated user
-        UserModel currentUser = getCurrentUser();
-        userModel.setModifiedBy(currentUser.getUsername());
+        userModel.setModifiedBy(getCurrentUsername());
         userModel.setId(existingUser.getId());
         var entUpdate = userModel.toEntityForUpdate();
-        return UserModel.fromEntity(repository.save(entUpdate));
+        User updated = repository.save(entUpdate);
+        publishChange(ChangeType.UPDATED, updated.getId());
+        return UserModel.fromEntity(updated);
     }
 
     /**
@@ -286,6 +313,7 @@ public class UserServiceImpl extends BaseServiceImpl<User, UserRepository> imple
         var user = repository.findById(id)
                 .orElseThrow(() -> new NotFoundException("User not found"));
         repository.delete(user);
+        publishChange(ChangeType.DELETED, id);
     }
 
 
@@ -315,14 +343,83 @@ public class UserServiceImpl extends BaseServiceImpl<User, UserRepository> imple
         Specification<User> spec = Specification.where(null);
 
         if (query != null && !query.isEmpty()) {
-            spec = spec.and(UserSpecifications.searchByQuery(query));
+            spec = spec.and(UserSpecifications.searchByQuery(query, userProfileRepository.findIdsByProfileValue(query)));
         }
 
         Page<User> users = repository.findAll(spec, pageable);
-        return users.map(UserModel::fromEntity);
+        return users.map(UserModel::summaryFromEntity);
+    }
+
+    /**
+     * Searches for users by query string and profile attributes with pagination. The IDs of
+     * the requested page are found with one query on the profile column, then the users are loaded.
+     *
+     * @param query the search query string
+     * @param profileFilters conditions on profile attributes, all of which must hold
+     * @param pageable pagination information; sorting supports id, username, email, createdAt and updatedAt
+     * @return Page of UserModel results matching the query and filters
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public Page<UserModel> searchUsers(String query, List<ProfileFilter> profileFilters, Pageable pageable) {
+        if (profileFilters == null || profileFilters.isEmpty()) {
+            return searchUsers(query, pageable);
+        }
+        List<UserProfileRepository.Criterion> criteria = profileFilters.stream()
+                .map(x -> new UserProfileRepository.Criterion(x.key(), toComparison(x.operator()), x.value()))
+                .toList();
+        List<UserProfileRepository.Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            orders.add(new UserProfileRepository.Order(toSortColumn(order.getProperty()), order.isAscending()));
+        }
+        long offset = pageable.isPaged() ? pageable.getOffset() : 0;
+        int limit = pageable.isPaged() ? pageable.getPageSize() : Integer.MAX_VALUE;
+
+        UserProfileRepository.IdPage page = userProfileRepository.findUserIds(query, criteria, orders, offset, limit);
+        Map<Long, User> users = new HashMap<>();
+        repository.findAllById(page.ids()).forEach(x -> users.put(x.getId(), x));
+        List<UserModel> models = page.ids().stream()
+                .map(users::get)
+                .filter(Objects::nonNull)
+                .map(UserModel::summaryFromEntity)
+                .toList();
+        return new PageImpl<>(models, pageable, page.total());
     }
 
+    private static UserProfileRepository.Comparison toComparison(ProfileFilter.Operator operator) {
+        return switch (operator) {
+            case EQ -> UserProfileRepository.Comparison.EQUALS;
+            case NE -> UserProfileRepository.Comparison.NOT_EQUALS;
+            case PREFIX -> UserProfileRepository.Comparison.PREFIX;
+            case LT -> UserProfileRepository.Comparison.LESS_THAN;
+            case LTE -> UserProfileRepository.Comparison.LESS_THAN_OR_EQUAL;
+            case GT -> UserProfileRepository.Comparison.GREATER_THAN;
+            case GTE -> UserProfileRepository.Comparison.GREATER_THAN_OR_EQUAL;
+            case EXISTS -> UserProfileRepository.Comparison.EXISTS;
+        };
+    }
 
+    private static UserProfileRepository.SortColumn toSortColumn(String property) {
+        return switch (property) {
+            case "id" -> UserProfileRepository.SortColumn.ID;
+            case "username" -> UserProfileRepository.SortColumn.USERNAME;
+            case "email" -> UserProfileRepository.SortColumn.EMAIL;
+            case "createdAt" -> UserProfileRepository.SortColumn.CREATED_AT;
+            case "updatedAt" -> UserProfileRepository.SortColumn.UPDATED_AT;
+            default -> throw new ValidationException("Cannot sort a profile search by " + property);
+        };
+    }
 
+    private static SpmsPrincipal currentPrincipal() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        // Bearer-token requests authenticate with the token itself, logins with the OIDC user
+        if (authentication instanceof SpmsPrincipal principal) {
+            return principal;
+        }
+        return (SpmsPrincipal) authentication.getPrincipal();
+    }
 
+    private void publishChange(ChangeType changeType, Long userId) {
+        eventPublisher.publishEvent(new OrganizationChangedEvent(this, EntityType.USER, changeType, userId));
+    }
 }
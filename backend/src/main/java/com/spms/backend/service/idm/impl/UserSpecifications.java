@@ -4,27 +4,31 @@ import com.spms.backend.repository.entities.idm.User;
 import jakarta.persistence.criteria.*;
 import org.springframework.data.jpa.domain.Specification;
 
+import java.util.Collection;
+
 public class UserSpecifications {
 
     private UserSpecifications() {
         // Private constructor to prevent instantiation
     }
 
-    public static Specification<User> searchByQuery(String searchTerm) {
+    /**
+     * Matches users whose username, email or description contains the search term, or whose ID
+     * is one of the profile matches. Profiles are a JSON document, so their values are matched
+     * by {@code UserProfileRepository#findIdsByProfileValue} instead of the JSON text.
+     */
+    public static Specification<User> searchByQuery(String searchTerm, Collection<Long> profileMatches) {
         return (Root<User> root, CriteriaQuery<?> cq, CriteriaBuilder cb) -> {
             String pattern = "%" + searchTerm.toLowerCase() + "%";
             
             Predicate usernamePred = cb.like(cb.lower(root.get("username")), pattern);
             Predicate emailPred = cb.like(cb.lower(root.get("email")), pattern);
             Predicate descriptionPred = cb.like(cb.lower(root.get("description")), pattern);
-            
-            try {
-                Expression<String> userProfilesJson = root.get("userProfilesJson");
-                Predicate jsonPred = cb.like(userProfilesJson, pattern);
-                return cb.or(usernamePred, emailPred, descriptionPred, jsonPred);
-            } catch (Exception e) {
+
+            if (profileMatches.isEmpty()) {
                 return cb.or(usernamePred, emailPred, descriptionPred);
             }
+            return cb.or(usernamePred, emailPred, descriptionPred, root.get("id").in(profileMatches));
         };
     }
 
@@ -0,0 +1,17 @@
+package com.spms.backend.service.model.idm;
+
+import java.util.List;
+
+/**
+ * A page of the organization change log.
+ *
+ * @param changes        entries after the requested sequence number, oldest first
+ * @param nextSince      sequence number to pass as {@code since} for the next page
+ * @param latestSequence last sequence number assigned so far
+ * @param hasMore        whether more entries follow this page
+ * @param resetRequired  whether entries after the requested sequence number were already purged;
+ *                       the consumer must reload everything and continue from {@code nextSince}
+ */
+public record ChangeFeed(List<ChangeLogEntry> changes, long nextSince, long latestSequence,
+                         boolean hasMore, boolean resetRequired) {
+}
@@ -0,0 +1,19 @@
+package com.spms.backend.service.model.idm;
+
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.EntityType;
+
+import java.time.LocalDateTime;
+
+/**
+ * A single entry of the organization change log.
+ *
+ * @param sequence   position in the log; increases in commit order
+ * @param entityType type of the changed entity
+ * @param changeType kind of change
+ * @param entityId   ID of the changed entity; for {@link EntityType#MEMBERSHIP} the department ID
+ * @param changedAt  time the change was committed
+ */
+public record ChangeLogEntry(long sequence, EntityType entityType, ChangeType changeType,
+                             Long entityId, LocalDateTime changedAt) {
+}
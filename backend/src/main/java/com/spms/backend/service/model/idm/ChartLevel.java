@@ -0,0 +1,12 @@
+package com.spms.backend.service.model.idm;
+
+import java.util.List;
+
+/**
+ * One level of an organization chart: a node and its direct children.
+ *
+ * @param node     the expanded node
+ * @param children its direct children, companies first, then divisions and departments, each by name
+ */
+public record ChartLevel(ChartNode node, List<ChartNode> children) {
+}
@@ -0,0 +1,16 @@
+package com.spms.backend.service.model.idm;
+
+/**
+ * A node of an organization chart with its precomputed counts.
+ *
+ * @param nodeType       kind of entity behind the node
+ * @param id             ID of the company, division or department
+ * @param name           display name
+ * @param type           chart type as used by the full chart: the company type, {@code DIVISION} or {@code DEPARTMENT}
+ * @param directChildren number of child nodes in the same chart
+ * @param directMembers  number of members of the node itself; always 0 for companies and divisions
+ * @param totalMembers   number of memberships of all departments in the subtree
+ */
+public record ChartNode(ChartNodeType nodeType, Long id, String name, String type,
+                        int directChildren, long directMembers, long totalMembers) {
+}
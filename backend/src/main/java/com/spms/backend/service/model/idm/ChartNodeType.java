@@ -0,0 +1,10 @@
+package com.spms.backend.service.model.idm;
+
+/**
+ * Kind of entity behind an organization chart node.
+ */
+public enum ChartNodeType {
+    COMPANY,
+    DIVISION,
+    DEPARTMENT
+}
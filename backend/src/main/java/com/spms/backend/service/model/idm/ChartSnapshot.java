@@ -0,0 +1,62 @@
+package com.spms.backend.service.model.idm;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Instant;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Serialized organization chart, ready to be written to a response as is.
+ *
+ * @param body      JSON bytes, gzip-compressed if {@code gzipped} is set
+ * @param gzipped   whether {@code body} is gzip-compressed
+ * @param hash      hex digest of the uncompressed JSON
+ * @param createdAt time the snapshot was generated
+ */
+public record ChartSnapshot(byte[] body, boolean gzipped, String hash, Instant createdAt) {
+
+    /**
+     * Returns the strong entity tag of one representation. The compressed and the plain
+     * representation are different byte sequences and therefore get different tags.
+     *
+     * @param gzip whether the tag is for the gzip-encoded representation
+     * @return quoted entity tag
+     */
+    public String etag(boolean gzip) {
+        return gzip ? "\"" + hash + "-gzip\"" : "\"" + hash + "\"";
+    }
+
+    /**
+     * Checks an {@code If-None-Match} header against both representations.
+     *
+     * @param ifNoneMatch header value, may be {@code null}
+     * @return whether the client already has the current chart
+     */
+    public boolean matches(String ifNoneMatch) {
+        if (ifNoneMatch == null || ifNoneMatch.isBlank()) {
+            return false;
+        }
+        for (String tag : ifNoneMatch.split(",")) {
+            String candidate = tag.trim();
+            if (candidate.equals("*") || candidate.equals(etag(false)) || candidate.equals(etag(true))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the uncompressed JSON, for clients that do not accept gzip
+     */
+    public byte[] plainBody() {
+        if (!gzipped) {
+            return body;
+        }
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -96,4 +96,33 @@ public class CompanyModel extends BaseModel<Company> {
         company.setDepartmentHeadId(companyE.getDepartmentHeadId());
         return company;
     }
+
+    /**
+     * Lighter conversion for list views: the parent is only a reference (id, name and type),
+     * so its own collections and ancestors are not loaded.
+     */
+    public static CompanyModel summaryFromEntity(Company companyE) {
+        CompanyModel company = new CompanyModel();
+        company.setCompanyType(companyE.getCompanyType());
+        company.setCompanyProfiles(companyE.getCompanyProfiles());
+        company.setId(companyE.getId());
+        company.setActive(companyE.getActive());
+        company.setName(companyE.getName());
+        company.setDescription(companyE.getDescription());
+        company.setLanguageTags(companyE.getLanguageTags());
+        company.setLastModified(companyE.getLastModified());
+        company.setUpdatedBy(companyE.getUpdatedBy());
+        company.setCreatedBy(companyE.getCreatedBy());
+        company.setCreatedTime(companyE.getCreatedTime());
+        if (companyE.getParent() != null) {
+            CompanyModel parent = new CompanyModel();
+            parent.setId(companyE.getParent().getId());
+            parent.setName(companyE.getParent().getName());
+            parent.setCompanyType(companyE.getParent().getCompanyType());
+            company.setParent(parent);
+        }
+        company.setDivisionHeadId(companyE.getDivisionHeadId());
+        company.setDepartmentHeadId(companyE.getDepartmentHeadId());
+        return company;
+    }
 }
@@ -54,6 +54,29 @@ public class DepartmentModel extends BaseModel<Department> {
         }
     }
 
+    /**
+     * Lighter conversion for list views: the department head is only a reference,
+     * not a full user model with roles and departments.
+     */
+    public static DepartmentModel summaryOf(Department department) {
+        DepartmentModel model = new DepartmentModel();
+        model.setId(department.getId());
+        model.setName(department.getName());
+        model.setTags(department.getTags());
+        model.setParent(department.getParent());
+        model.setType(department.getType());
+        model.setLevel(department.getLevel());
+        model.setCreatedAt(department.getCreatedAt());
+        model.setUpdatedAt(department.getUpdatedAt());
+        model.setCreatedBy(department.getCreatedBy());
+        model.setUpdatedBy(department.getUpdatedBy());
+        model.setActive(Boolean.TRUE.equals(department.getActive()));
+        if (department.getDepartmentHead() != null) {
+            model.setDepartmentHead(UserModel.referenceOf(department.getDepartmentHead()));
+        }
+        return model;
+    }
+
     @Override
     public Department toEntityForCreate() {
         Department department = new Department();
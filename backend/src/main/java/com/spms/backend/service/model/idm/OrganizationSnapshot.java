@@ -0,0 +1,67 @@
+package com.spms.backend.service.model.idm;
+
+import com.spms.backend.repository.entities.idm.CompanyType;
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.repository.entities.idm.DivisionType;
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Full picture of the organization as exported by the HR system.
+ * <p>
+ * Nodes are identified by their unique names and refer to each other by name, so the
+ * snapshot does not depend on SPMS IDs. Heads and members are referred to by username.
+ */
+@Data
+public class OrganizationSnapshot {
+
+    /**
+     * @param name        unique company name
+     * @param description company description
+     * @param companyType company type
+     * @param parentName  name of the parent company, or {@code null} for a root
+     * @param active      whether the company is active; {@code null} means active
+     */
+    public record CompanyEntry(String name, String description, CompanyType companyType,
+                               String parentName, Boolean active) {
+    }
+
+    /**
+     * @param name         unique division name
+     * @param description  division description
+     * @param type         division type
+     * @param companyName  name of the owning company
+     * @param headUsername username of the division head, or {@code null}
+     * @param active       whether the division is active; {@code null} means active
+     */
+    public record DivisionEntry(String name, String description, DivisionType type,
+                                String companyName, String headUsername, Boolean active) {
+    }
+
+    /**
+     * @param name         unique department name
+     * @param type         department type
+     * @param level        department level; {@code null} means 1
+     * @param parentName   name of the parent: a company or division for top level
+     *                     LOCAL/FUNCTIONAL departments, otherwise a department
+     * @param headUsername username of the department head, or {@code null}
+     * @param active       whether the department is active; {@code null} means active
+     * @param members      usernames of all members, or {@code null} to leave memberships untouched
+     */
+    public record DepartmentEntry(String name, DepartmentType type, Integer level, String parentName,
+                                  String headUsername, Boolean active, List<String> members) {
+    }
+
+    private List<CompanyEntry> companies = new ArrayList<>();
+
+    private List<DivisionEntry> divisions = new ArrayList<>();
+
+    private List<DepartmentEntry> departments = new ArrayList<>();
+
+    /**
+     * Whether companies, divisions and departments missing from the snapshot are deactivated.
+     */
+    private boolean deactivateMissing = true;
+}
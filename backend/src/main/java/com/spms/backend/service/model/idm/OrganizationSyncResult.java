@@ -0,0 +1,44 @@
+package com.spms.backend.service.model.idm;
+
+import java.util.List;
+
+/**
+ * Outcome of an organization synchronization. If the snapshot is inconsistent, nothing is
+ * applied and all problems are reported at once.
+ *
+ * @param companies          changes to companies
+ * @param divisions          changes to divisions
+ * @param departments        changes to departments
+ * @param membershipsAdded   number of department memberships added
+ * @param membershipsRemoved number of department memberships removed
+ * @param warnings           problems that were skipped, e.g. unknown usernames
+ * @param errors             validation errors; empty if the snapshot was applied
+ */
+public record OrganizationSyncResult(NodeChanges companies,
+                                     NodeChanges divisions,
+                                     NodeChanges departments,
+                                     int membershipsAdded,
+                                     int membershipsRemoved,
+                                     List<String> warnings,
+                                     List<String> errors) {
+
+    /**
+     * @param created     number of nodes created
+     * @param updated     number of nodes whose columns changed
+     * @param deactivated number of nodes deactivated because they are missing from the snapshot
+     * @param unchanged   number of nodes left as they were
+     */
+    public record NodeChanges(int created, int updated, int deactivated, int unchanged) {
+
+        public static final NodeChanges NONE = new NodeChanges(0, 0, 0, 0);
+    }
+
+    public static OrganizationSyncResult rejected(List<String> errors) {
+        return new OrganizationSyncResult(NodeChanges.NONE, NodeChanges.NONE, NodeChanges.NONE,
+                0, 0, List.of(), List.copyOf(errors));
+    }
+
+    public boolean isApplied() {
+        return errors.isEmpty();
+    }
+}
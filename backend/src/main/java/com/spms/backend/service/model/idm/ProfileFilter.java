@@ -0,0 +1,77 @@
+package com.spms.backend.service.model.idm;
+
+import com.spms.backend.service.exception.ValidationException;
+
+import java.math.BigDecimal;
+import java.util.Locale;
+
+/**
+ * A condition on one user profile attribute.
+ * <p>
+ * The operator decides how the value is compared: {@link Operator#EQ}, {@link Operator#NE}
+ * and {@link Operator#PREFIX} compare text, the ordering operators compare numbers, and
+ * {@link Operator#EXISTS} only requires the attribute to be present. An attribute whose value
+ * is not a number never matches a numeric comparison.
+ *
+ * @param key      profile attribute name
+ * @param operator comparison
+ * @param value    value to compare with; {@code null} for {@link Operator#EXISTS}
+ */
+public record ProfileFilter(String key, Operator operator, String value) {
+
+    public enum Operator {
+        EQ,
+        NE,
+        PREFIX,
+        LT,
+        LTE,
+        GT,
+        GTE,
+        EXISTS;
+
+        public boolean isNumeric() {
+            return this == LT || this == LTE || this == GT || this == GTE;
+        }
+    }
+
+    public ProfileFilter {
+        if (key == null || key.isBlank()) {
+            throw new ValidationException("Profile filter key cannot be empty");
+        }
+        if (operator == null) {
+            throw new ValidationException("Profile filter operator cannot be null");
+        }
+        if (operator != Operator.EXISTS && value == null) {
+            throw new ValidationException("Profile filter on '" + key + "' requires a value");
+        }
+        if (operator.isNumeric()) {
+            try {
+                new BigDecimal(value);
+            } catch (NumberFormatException e) {
+                throw new ValidationException("Profile filter on '" + key + "' requires a number: " + value);
+            }
+        }
+    }
+
+    /**
+     * Parses {@code key:operator:value}, or {@code key:exists}. The operator is case-insensitive;
+     * the value may contain further colons.
+     *
+     * @param text filter as given in a request parameter
+     * @return the filter
+     * @throws ValidationException if the text is malformed
+     */
+    public static ProfileFilter parse(String text) {
+        String[] parts = text == null ? new String[0] : text.split(":", 3);
+        if (parts.length < 2) {
+            throw new ValidationException("Profile filter must look like key:operator:value: " + text);
+        }
+        Operator operator;
+        try {
+            operator = Operator.valueOf(parts[1].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown profile filter operator: " + parts[1]);
+        }
+        return new ProfileFilter(parts[0].trim(), operator, parts.length == 3 ? parts[2] : null);
+    }
+}
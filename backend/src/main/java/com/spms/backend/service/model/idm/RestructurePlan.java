@@ -0,0 +1,37 @@
+package com.spms.backend.service.model.idm;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A set of company and department moves that is validated and applied as a whole.
+ */
+@Data
+public class RestructurePlan {
+
+    /**
+     * Moves a company under another company.
+     *
+     * @param companyId ID of the company to move
+     * @param parentId  ID of the new parent company, or {@code null} to make it a root
+     */
+    public record CompanyMove(Long companyId, Long parentId) {
+    }
+
+    /**
+     * Moves a department under another parent.
+     *
+     * @param departmentId ID of the department to move
+     * @param parentId     ID of the new parent: a company or division for top level
+     *                     LOCAL/FUNCTIONAL departments, otherwise a department
+     * @param level        new level, or {@code null} to keep the current one
+     */
+    public record DepartmentMove(Long departmentId, Long parentId, Integer level) {
+    }
+
+    private List<CompanyMove> companies = new ArrayList<>();
+
+    private List<DepartmentMove> departments = new ArrayList<>();
+}
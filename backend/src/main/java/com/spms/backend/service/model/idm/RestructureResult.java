@@ -0,0 +1,22 @@
+package com.spms.backend.service.model.idm;
+
+import java.util.List;
+
+/**
+ * Outcome of a restructure. If any move is invalid, nothing is applied and all
+ * problems are reported at once.
+ *
+ * @param companiesMoved   number of companies moved
+ * @param departmentsMoved number of departments moved
+ * @param errors           validation errors; empty if the plan was applied
+ */
+public record RestructureResult(int companiesMoved, int departmentsMoved, List<String> errors) {
+
+    public static RestructureResult rejected(List<String> errors) {
+        return new RestructureResult(0, 0, List.copyOf(errors));
+    }
+
+    public boolean isApplied() {
+        return errors.isEmpty();
+    }
+}
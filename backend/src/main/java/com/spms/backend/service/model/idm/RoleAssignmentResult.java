@@ -0,0 +1,11 @@
+package com.spms.backend.service.model.idm;
+
+/**
+ * Outcome of a bulk role grant or revoke.
+ *
+ * @param roles         number of roles granted or revoked
+ * @param matchedUsers  number of users selected
+ * @param affected      number of user/role assignments actually added or removed
+ */
+public record RoleAssignmentResult(int roles, int matchedUsers, int affected) {
+}
@@ -0,0 +1,13 @@
+package com.spms.backend.service.model.idm;
+
+/**
+ * A typeahead match.
+ *
+ * @param kind   kind of the matched entity
+ * @param id     ID of the user or department
+ * @param label  display text: the username or department name
+ * @param detail secondary display text: the email or department type
+ * @param score  relevance; higher is better, only comparable within one lookup
+ */
+public record TypeaheadHit(TypeaheadKind kind, Long id, String label, String detail, double score) {
+}
@@ -0,0 +1,9 @@
+package com.spms.backend.service.model.idm;
+
+/**
+ * Kind of entity returned by a typeahead lookup.
+ */
+public enum TypeaheadKind {
+    USER,
+    DEPARTMENT
+}
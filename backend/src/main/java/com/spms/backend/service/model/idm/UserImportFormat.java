@@ -0,0 +1,42 @@
+package com.spms.backend.service.model.idm;
+
+import java.util.Arrays;
+import java.util.Optional;
+
+/**
+ * Supported file formats for bulk user import.
+ */
+public enum UserImportFormat {
+    /**
+     * Comma separated values with a header row
+     */
+    CSV("text/csv"),
+    /**
+     * One JSON object per line
+     */
+    NDJSON("application/x-ndjson");
+
+    private final String mediaType;
+
+    UserImportFormat(String mediaType) {
+        this.mediaType = mediaType;
+    }
+
+    public String getMediaType() {
+        return mediaType;
+    }
+
+    /**
+     * Resolves the format from a request content type, ignoring parameters such as charset.
+     *
+     * @param contentType content type header value
+     * @return matching format, or empty if the content type is not supported
+     */
+    public static Optional<UserImportFormat> fromContentType(String contentType) {
+        if (contentType == null) {
+            return Optional.empty();
+        }
+        String mediaType = contentType.split(";", 2)[0].trim();
+        return Arrays.stream(values()).filter(x -> x.mediaType.equalsIgnoreCase(mediaType)).findFirst();
+    }
+}
@@ -0,0 +1,59 @@
+package com.spms.backend.service.model.idm;
+
+import lombok.Getter;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Outcome of a bulk user import.
+ * <p>
+ * Only the first {@link #MAX_REPORTED_ERRORS} row errors are kept, so the result stays
+ * small however many rows fail.
+ */
+@Getter
+public class UserImportResult {
+
+    public static final int MAX_REPORTED_ERRORS = 1000;
+
+    /**
+     * A row that was not imported
+     *
+     * @param row      1-based record number in the file, not counting the CSV header
+     * @param username username of the row, if it could be read
+     * @param message  reason the row was rejected
+     */
+    public record RowError(long row, String username, String message) {
+    }
+
+    private long processed;
+    private long imported;
+    private long failed;
+    private final List<RowError> errors = new ArrayList<>();
+    private boolean errorsTruncated;
+    /**
+     * Set when the file could not be read to the end; rows before that point are still imported.
+     */
+    private String abortReason;
+
+    public void addProcessed(long count) {
+        processed += count;
+    }
+
+    public void addImported(long count) {
+        imported += count;
+    }
+
+    public void addError(long row, String username, String message) {
+        failed++;
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new RowError(row, username, message));
+        } else {
+            errorsTruncated = true;
+        }
+    }
+
+    public void abort(String reason) {
+        this.abortReason = reason;
+    }
+}
@@ -113,4 +113,41 @@ public class UserModel extends BaseModel<User> {
         }
         return model;
     }
+
+    /**
+     * Lighter conversion for list views: departments are converted with {@link DepartmentModel#summaryOf},
+     * so department heads are not expanded into full user models.
+     */
+    public static UserModel summaryFromEntity(User user) {
+        UserModel model = referenceOf(user);
+        model.setProvider(user.getProvider());
+        model.setProviderId(user.getProviderId());
+        model.setDescription(user.getDescription());
+        model.setCreatedAt(user.getCreatedAt());
+        model.setUpdatedAt(user.getUpdatedAt());
+        model.setCreatedBy(user.getCreatedBy());
+        model.setModifiedBy(user.getModifiedBy());
+        model.setRoles(user.getRoles().stream().map(RoleModel::fromEntity).collect(Collectors.toSet()));
+        if (user.getDepartments() != null && !user.getDepartments().isEmpty()) {
+            model.setDepartments(user.getDepartments().stream().map(DepartmentModel::summaryOf).toList());
+            model.getDepartments().stream().filter(x -> x.getType() == DepartmentType.FUNCTIONAL).findFirst()
+                    .ifPresent(model::setFunctionalDepartment);
+            model.getDepartments().stream().filter(x -> x.getType() == DepartmentType.LOCAL).findFirst()
+                    .ifPresent(model::setLocalDepartment);
+        }
+        model.setUserProfiles(user.getUserProfiles());
+        return model;
+    }
+
+    /**
+     * Minimal user reference (id, username, email and type) that does not touch any association.
+     */
+    public static UserModel referenceOf(User user) {
+        UserModel model = new UserModel();
+        model.setId(user.getId());
+        model.setUsername(user.getUsername());
+        model.setEmail(user.getEmail());
+        model.setType(user.getType());
+        return model;
+    }
 }
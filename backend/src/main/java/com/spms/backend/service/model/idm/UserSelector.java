@@ -0,0 +1,48 @@
+package com.spms.backend.service.model.idm;
+
+import com.spms.backend.repository.entities.idm.User;
+import lombok.Data;
+
+import java.util.List;
+
+/**
+ * Selects the users a bulk operation applies to.
+ * <p>
+ * Exactly one kind of target must be given: an explicit ID list, a department
+ * (optionally with its sub-departments), or a search over query text and/or user type.
+ */
+@Data
+public class UserSelector {
+
+    private List<Long> userIds;
+
+    private Long departmentId;
+
+    /** Also select members of all departments below {@link #departmentId} */
+    private boolean includeSubDepartments;
+
+    /** Matched against username, email and description, as in the user search */
+    private String query;
+
+    private User.UserType type;
+
+    public static UserSelector ofUserIds(List<Long> userIds) {
+        UserSelector selector = new UserSelector();
+        selector.setUserIds(userIds);
+        return selector;
+    }
+
+    public static UserSelector ofDepartment(Long departmentId, boolean includeSubDepartments) {
+        UserSelector selector = new UserSelector();
+        selector.setDepartmentId(departmentId);
+        selector.setIncludeSubDepartments(includeSubDepartments);
+        return selector;
+    }
+
+    public static UserSelector ofSearch(String query, User.UserType type) {
+        UserSelector selector = new UserSelector();
+        selector.setQuery(query);
+        selector.setType(type);
+        return selector;
+    }
+}
@@ -0,0 +1,22 @@
+package com.spms.backend.service.model.process;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Result of an aggregation over the form data of the instances of a form.
+ *
+ * @param groupBy grouping keys, in request order
+ * @param metrics computed metrics, in request order
+ * @param rows    number of instances aggregated
+ * @param groups  groups ordered by key
+ */
+public record FormDataAggregation(List<String> groupBy, List<FormDataMetric> metrics, long rows, List<Group> groups) {
+
+    /**
+     * @param key    value of each grouping key, {@code null} where the instances have none
+     * @param values value of each metric, {@code null} where the group has no numbers for it
+     */
+    public record Group(List<String> key, List<BigDecimal> values) {
+    }
+}
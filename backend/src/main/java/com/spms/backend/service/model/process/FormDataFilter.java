@@ -0,0 +1,64 @@
+package com.spms.backend.service.model.process;
+
+import com.spms.backend.service.exception.ValidationException;
+
+import java.util.Locale;
+
+/**
+ * A condition on one indexed field of the form data.
+ * <p>
+ * Values compare as the declared type of the field: text for {@code STRING} fields, numbers
+ * for {@code NUMBER} fields. {@link Operator#PREFIX} only applies to text, and
+ * {@link Operator#EXISTS} only requires the field to have a value.
+ *
+ * @param field    dot-separated path of the field
+ * @param operator comparison
+ * @param value    value to compare with; {@code null} for {@link Operator#EXISTS}
+ */
+public record FormDataFilter(String field, Operator operator, String value) {
+
+    public enum Operator {
+        EQ,
+        NE,
+        PREFIX,
+        LT,
+        LTE,
+        GT,
+        GTE,
+        EXISTS
+    }
+
+    public FormDataFilter {
+        if (field == null || field.isBlank()) {
+            throw new ValidationException("Form data filter field cannot be empty");
+        }
+        if (operator == null) {
+            throw new ValidationException("Form data filter operator cannot be null");
+        }
+        if (operator != Operator.EXISTS && value == null) {
+            throw new ValidationException("Form data filter on '" + field + "' requires a value");
+        }
+    }
+
+    /**
+     * Parses {@code field:operator:value}, or {@code field:exists}. The operator is case-insensitive;
+     * the value may contain further colons.
+     *
+     * @param text filter as given in a request parameter
+     * @return the filter
+     * @throws ValidationException if the text is malformed
+     */
+    public static FormDataFilter parse(String text) {
+        String[] parts = text == null ? new String[0] : text.split(":", 3);
+        if (parts.length < 2) {
+            throw new ValidationException("Form data filter must look like field:operator:value: " + text);
+        }
+        Operator operator;
+        try {
+            operator = Operator.valueOf(parts[1].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown form data filter operator: " + parts[1]);
+        }
+        return new FormDataFilter(parts[0].trim(), operator, parts.length == 3 ? parts[2] : null);
+    }
+}
@@ -0,0 +1,62 @@
+package com.spms.backend.service.model.process;
+
+import com.spms.backend.service.exception.ValidationException;
+
+import java.util.Locale;
+
+/**
+ * A value computed per group of an aggregation over form data.
+ * <p>
+ * {@link Function#COUNT} without a field counts the instances of the group; with a field it
+ * counts the instances where the field has a value. The other functions take numbers, and
+ * text that reads as a number; other values of the field are ignored.
+ *
+ * @param function computation
+ * @param field    dot-separated path of the field, {@code null} for {@link Function#COUNT} of instances
+ */
+public record FormDataMetric(Function function, String field) {
+
+    public enum Function {
+        COUNT,
+        SUM,
+        AVG,
+        MIN,
+        MAX
+    }
+
+    public FormDataMetric {
+        if (function == null) {
+            throw new ValidationException("Metric function cannot be null");
+        }
+        if (function != Function.COUNT && (field == null || field.isBlank())) {
+            throw new ValidationException("Metric " + function.name().toLowerCase(Locale.ROOT) + " requires a field");
+        }
+    }
+
+    /**
+     * Parses {@code function:field}, or {@code count}. The function is case-insensitive.
+     *
+     * @param text metric as given in a request parameter
+     * @return the metric
+     * @throws ValidationException if the text is malformed
+     */
+    public static FormDataMetric parse(String text) {
+        String[] parts = text == null ? new String[0] : text.split(":", 2);
+        if (parts.length == 0 || parts[0].isBlank()) {
+            throw new ValidationException("Metric must look like function:field: " + text);
+        }
+        Function function;
+        try {
+            function = Function.valueOf(parts[0].trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException e) {
+            throw new ValidationException("Unknown metric function: " + parts[0]);
+        }
+        return new FormDataMetric(function, parts.length == 2 ? parts[1].trim() : null);
+    }
+
+    @Override
+    public String toString() {
+        String name = function.name().toLowerCase(Locale.ROOT);
+        return field == null ? name : name + ":" + field;
+    }
+}
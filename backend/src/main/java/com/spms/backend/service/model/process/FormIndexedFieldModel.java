@@ -0,0 +1,16 @@
+package com.spms.backend.service.model.process;
+
+import com.spms.backend.repository.entities.process.FormFieldType;
+
+import java.time.Instant;
+
+/**
+ * A field of the form data that the instances of a form can be filtered and sorted on.
+ *
+ * @param formKey     key of the form
+ * @param field       dot-separated path of the field in the form data
+ * @param type        how values of the field compare
+ * @param createdDate when the field was declared
+ */
+public record FormIndexedFieldModel(String formKey, String field, FormFieldType type, Instant createdDate) {
+}
@@ -0,0 +1,45 @@
+package com.spms.backend.service.model.process;
+
+import com.spms.backend.service.exception.ValidationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in a listing of form instances: the creation time and ID of the last instance
+ * returned. Clients receive it as an opaque token and send it back for the next page.
+ *
+ * @param createdAt creation time of the last instance, in milliseconds since the epoch
+ * @param id        ID of the last instance
+ */
+public record FormInstanceCursor(long createdAt, long id) {
+
+    /**
+     * @return the cursor as a URL-safe token
+     */
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding()
+                .encodeToString((createdAt + ":" + id).getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Reads a token made by {@link #encode()}.
+     *
+     * @param token the token, may be {@code null} or blank
+     * @return the cursor, or {@code null} if there is no token
+     * @throws ValidationException if the token is malformed
+     */
+    public static FormInstanceCursor decode(String token) {
+        if (token == null || token.isBlank()) {
+            return null;
+        }
+        try {
+            String value = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.US_ASCII);
+            int separator = value.indexOf(':');
+            return new FormInstanceCursor(Long.parseLong(value.substring(0, separator)),
+                    Long.parseLong(value.substring(separator + 1)));
+        } catch (IllegalArgumentException | StringIndexOutOfBoundsException e) {
+            throw new ValidationException("Invalid cursor: " + token);
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.spms.backend.service.model.process;
+
+import com.spms.backend.repository.entities.process.FormRevisionKind;
+
+import java.time.Instant;
+
+/**
+ * A stored revision of the data of a form instance.
+ *
+ * @param revision    revision number, starting at 1 when the instance was created
+ * @param kind        whether the revision is stored in full or as a patch
+ * @param createdDate when the revision was saved
+ */
+public record FormInstanceRevisionModel(int revision, FormRevisionKind kind, Instant createdDate) {
+}
@@ -1,6 +1,7 @@
 package com.spms.backend.service.model.process;
 
 import com.spms.backend.repository.entities.process.FormVersionEntity;
+import com.spms.backend.repository.process.FormVersionSummary;
 import com.spms.backend.service.BaseModel;
 
 /**
@@ -222,6 +223,27 @@ public class FormVersionModel extends BaseModel<FormVersionEntity> {
         return model;
     }
 
+    /**
+     * 由表单版本摘要和表单定义内容构造 FormVersionModel。
+     *
+     * @param summary        不含表单定义的表单版本摘要。
+     * @param formDefinition 表单定义内容。
+     * @return 构造的 FormVersionModel 对象。
+     */
+    public static FormVersionModel fromSummary(FormVersionSummary summary, String formDefinition) {
+        FormVersionModel model = new FormVersionModel();
+        model.setId(summary.id());
+        model.setKey(summary.key());
+        model.setVersion(summary.version());
+        model.setPublishedDate(summary.publishedDate());
+        model.setDeprecated(summary.deprecated());
+        model.setFormDefinition(formDefinition);
+        model.setName(summary.name());
+        model.setDescription(summary.description());
+        model.setDeploymentId(summary.deploymentId());
+        return model;
+    }
+
     /**
      * 将 FormVersionModel 转换为 FormVersionEntity。
      * 
@@ -0,0 +1,13 @@
+package com.spms.backend.service.model.process;
+
+import java.util.Map;
+
+/**
+ * A form instance to create in a batch.
+ *
+ * @param formKey key of the form
+ * @param version version of the form
+ * @param data    submitted form data
+ */
+public record NewFormInstance(String formKey, String version, Map<String, Object> data) {
+}
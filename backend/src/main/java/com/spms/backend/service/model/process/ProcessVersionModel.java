@@ -1,6 +1,7 @@
 package com.spms.backend.service.model.process;
 
 import com.spms.backend.repository.entities.process.ProcessVersionEntity;
+import com.spms.backend.repository.process.ProcessVersionSummary;
 import com.spms.backend.service.model.BaseModel;
 import lombok.Getter;
 import lombok.Setter;
@@ -49,6 +50,26 @@ public class ProcessVersionModel extends BaseModel<ProcessVersionEntity> {
         return model;
     }
     
+    public static ProcessVersionModel fromSummary(ProcessVersionSummary summary, String bpmnXml,
+                                                  FormVersionModel relatedForm) {
+        ProcessVersionModel model = new ProcessVersionModel();
+        model.setId(summary.id());
+        model.setName(summary.name());
+        model.setDescription(summary.description());
+        model.setKey(summary.key());
+        model.setVersion(summary.version());
+        model.setStatus(VersionStatus.valueOf(summary.status().name()));
+        model.setDeployedToFlowable(summary.deployedToFlowable());
+        model.setFlowableDefinitionId(summary.flowableDefinitionId());
+        model.setCreatedAt(summary.createdAt());
+        model.setUpdatedAt(summary.updatedAt());
+        model.setCreatedById(summary.createdById());
+        model.setUpdatedById(summary.updatedById());
+        model.setBpmnXml(bpmnXml);
+        model.setRelatedForm(relatedForm);
+        return model;
+    }
+
     @Override
     public ProcessVersionEntity toEntityForCreate() {
         ProcessVersionEntity entity = toEntityForUpdate();
@@ -0,0 +1,18 @@
+package com.spms.backend.service.model.process;
+
+import java.time.Instant;
+
+/**
+ * Form instance whose data is kept as the stored JSON text, for listings that write it
+ * to the response as is.
+ *
+ * @param id           instance ID
+ * @param formKey      form key
+ * @param version      form version
+ * @param data         stored JSON text of the form data, may be {@code null}
+ * @param createdDate  creation time
+ * @param modifiedDate last update time, may be {@code null}
+ */
+public record RawFormInstance(String id, String formKey, String version, String data,
+                              Instant createdDate, Instant modifiedDate) {
+}
@@ -0,0 +1,14 @@
+package com.spms.backend.service.model.search;
+
+/**
+ * Kind of entity found by the global search.
+ */
+public enum SearchDocumentType {
+    COMPANY,
+    DIVISION,
+    DEPARTMENT,
+    USER,
+    ROLE,
+    PROCESS_DEFINITION,
+    FORM_VERSION
+}
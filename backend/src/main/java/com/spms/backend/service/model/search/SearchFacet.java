@@ -0,0 +1,15 @@
+package com.spms.backend.service.model.search;
+
+/**
+ * Facets of the global search.
+ * <ul>
+ *   <li>{@link #TYPE}: the {@link SearchDocumentType}</li>
+ *   <li>{@link #CATEGORY}: company type, division type, department type or user type</li>
+ *   <li>{@link #STATUS}: {@code ACTIVE}, {@code INACTIVE} or, for form versions, {@code DEPRECATED}</li>
+ * </ul>
+ */
+public enum SearchFacet {
+    TYPE,
+    CATEGORY,
+    STATUS
+}
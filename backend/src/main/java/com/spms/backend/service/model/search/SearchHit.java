@@ -0,0 +1,16 @@
+package com.spms.backend.service.model.search;
+
+/**
+ * A global search match.
+ *
+ * @param type     kind of the matched entity
+ * @param id       ID of the entity
+ * @param title    display text, usually the name
+ * @param subtitle secondary display text, may be {@code null}
+ * @param category category facet value, may be {@code null}
+ * @param status   status facet value, may be {@code null}
+ * @param score    relevance; higher is better, only comparable within one search
+ */
+public record SearchHit(SearchDocumentType type, Long id, String title, String subtitle,
+                        String category, String status, double score) {
+}
@@ -0,0 +1,18 @@
+package com.spms.backend.service.model.search;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of global search results.
+ *
+ * @param hits   matches of the page, best first
+ * @param total  number of matches over all pages
+ * @param page   zero-based page number
+ * @param size   page size
+ * @param facets number of matches per value of each facet; the count of a facet ignores
+ *               the filter on that facet itself, so it shows what selecting another value yields
+ */
+public record SearchResult(List<SearchHit> hits, long total, int page, int size,
+                           Map<SearchFacet, Map<String, Long>> facets) {
+}
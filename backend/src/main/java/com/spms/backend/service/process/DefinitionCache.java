@@ -0,0 +1,68 @@
+package com.spms.backend.service.process;
+
+import java.util.function.Supplier;
+
+/**
+ * Cache of the large, immutable payloads of published versions: form definitions and BPMN
+ * XML, keyed by kind, key and version. It also remembers the latest version number per form key.
+ * <p>
+ * The cache only holds payloads; callers still read the small, mutable columns of a version
+ * (status, deprecation) from the database. Invalidations made inside a transaction are
+ * repeated after it completes, so readers cannot re-cache what the transaction replaces.
+ */
+public interface DefinitionCache {
+
+    /**
+     * Kind of payload.
+     */
+    enum Kind {
+        FORM,
+        PROCESS
+    }
+
+    /**
+     * Statistics of the cache.
+     *
+     * @param entries           number of cached payloads
+     * @param compressedBytes   off-heap size of the cached payloads
+     * @param uncompressedBytes size of the cached payloads once decompressed
+     * @param hits              lookups served from the cache
+     * @param misses            lookups that had to load the payload
+     * @param evictions         payloads dropped to stay within the size limits
+     */
+    record Statistics(int entries, long compressedBytes, long uncompressedBytes,
+                      long hits, long misses, long evictions) {
+    }
+
+    /**
+     * Returns a payload, loading and caching it if it is not cached yet.
+     *
+     * @param kind    kind of payload
+     * @param key     form or process key
+     * @param version version of the form or process
+     * @param loader  reads the payload from the database; a {@code null} result is not cached
+     * @return the payload, or {@code null} if the loader found none
+     */
+    String get(Kind kind, String key, String version, Supplier<String> loader);
+
+    /**
+     * Drops a cached payload.
+     */
+    void evict(Kind kind, String key, String version);
+
+    /**
+     * Returns the highest version number of a form, loading and remembering it if needed.
+     *
+     * @param key    form key
+     * @param loader reads the highest version number; a {@code null} result is not remembered
+     * @return the highest version number, or {@code null} if the form has no version
+     */
+    Long getLatestFormVersion(String key, Supplier<Long> loader);
+
+    /**
+     * Forgets the latest version number of a form, after versions are added or changed.
+     */
+    void invalidateLatestFormVersion(String key);
+
+    Statistics getStatistics();
+}
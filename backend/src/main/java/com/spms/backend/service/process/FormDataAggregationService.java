@@ -0,0 +1,32 @@
+package com.spms.backend.service.process;
+
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.model.process.FormDataAggregation;
+import com.spms.backend.service.model.process.FormDataMetric;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Computes totals and breakdowns over the form data of the instances of a form.
+ */
+public interface FormDataAggregationService {
+
+    /**
+     * Aggregates the form data of the instances of a form in a single pass over the rows.
+     *
+     * @param formKey    Key identifier of the form
+     * @param version    Version of the form, null for all versions
+     * @param from       Earliest creation time, inclusive; null for no bound
+     * @param to         Latest creation time, exclusive; null for no bound
+     * @param groupBy    Dot-separated field paths, or {@code createdAt:year}, {@code createdAt:month} or
+     *                   {@code createdAt:day} for the creation time in UTC; empty for a single group
+     * @param metrics    Values to compute per group
+     * @param partitions Number of ID ranges to read in parallel
+     * @return The groups with their metrics, ordered by key
+     * @throws ValidationException if a grouping key, metric or the number of partitions is invalid,
+     *                             or there are more groups than allowed
+     */
+    FormDataAggregation aggregate(String formKey, String version, Instant from, Instant to, List<String> groupBy,
+                                  List<FormDataMetric> metrics, int partitions) throws ValidationException;
+}
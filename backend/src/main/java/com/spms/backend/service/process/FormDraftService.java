@@ -0,0 +1,55 @@
+package com.spms.backend.service.process;
+
+import com.spms.backend.service.exception.NotFoundException;
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.model.process.FormInstanceModel;
+
+import java.util.Map;
+
+/**
+ * Autosave of form instance drafts. Drafts are buffered and only the latest one per
+ * instance is written, on an interval or when the instance is submitted.
+ */
+public interface FormDraftService {
+
+    /**
+     * Buffers a draft of an instance's data, replacing a draft that is not written yet.
+     * Drafts are not validated against the form definition.
+     *
+     * @param id   Form instance ID
+     * @param data Draft data
+     * @throws ValidationException if the data is empty
+     * @throws NotFoundException   if no form instance has the ID
+     */
+    void buffer(String id, Map<String, Object> data) throws ValidationException, NotFoundException;
+
+    /**
+     * Updates an instance with full validation, replacing its buffered draft, which would
+     * otherwise overwrite the update when flushed.
+     *
+     * @param id   Form instance ID
+     * @param data Updated data
+     * @return The saved instance
+     * @throws ValidationException if the data is invalid for the form
+     * @throws NotFoundException   if no form instance has the ID
+     */
+    FormInstanceModel update(String id, Map<String, Object> data) throws ValidationException, NotFoundException;
+
+    /**
+     * Submits an instance: drops its buffered draft and saves the data with full validation.
+     *
+     * @param id   Form instance ID
+     * @param data Data to submit, or null to submit the buffered draft or else the stored data
+     * @return The saved instance
+     * @throws ValidationException if the data is invalid for the form
+     * @throws NotFoundException   if no form instance has the ID
+     */
+    FormInstanceModel submit(String id, Map<String, Object> data) throws ValidationException, NotFoundException;
+
+    /**
+     * Writes all buffered drafts.
+     *
+     * @return Number of drafts written
+     */
+    int flush();
+}
@@ -0,0 +1,46 @@
+package com.spms.backend.service.process;
+
+import com.spms.backend.repository.entities.process.FormFieldType;
+import com.spms.backend.service.exception.NotFoundException;
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.model.process.FormIndexedFieldModel;
+
+import java.util.List;
+
+/**
+ * Manages the fields of the form data that form instances can be filtered and sorted on.
+ */
+public interface FormIndexedFieldService {
+
+    /**
+     * Lists the indexed fields of a form
+     *
+     * @param formKey Key identifier of the form
+     * @return Indexed fields ordered by path
+     */
+    List<FormIndexedFieldModel> list(String formKey);
+
+    /**
+     * Declares a field as indexed and builds its database index. Declaring a field again
+     * with the same type does nothing.
+     *
+     * @param formKey Key identifier of the form
+     * @param field   Dot-separated path of the field in the form data
+     * @param type    How values of the field compare
+     * @return The indexed field
+     * @throws ValidationException if the path is invalid, the field is indexed with another type,
+     *                             or the form has the maximum number of indexed fields
+     * @throws NotFoundException if the form has no versions
+     */
+    FormIndexedFieldModel declare(String formKey, String field, FormFieldType type)
+            throws ValidationException, NotFoundException;
+
+    /**
+     * Removes an indexed field and drops its database index
+     *
+     * @param formKey Key identifier of the form
+     * @param field   Dot-separated path of the field in the form data
+     * @throws NotFoundException if the field is not indexed
+     */
+    void remove(String formKey, String field) throws NotFoundException;
+}
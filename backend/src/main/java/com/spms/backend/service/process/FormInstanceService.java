@@ -2,18 +2,124 @@ package com.spms.backend.service.process;
 
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.exception.VersionConflictException;
+import com.spms.backend.service.model.process.FormDataFilter;
+import com.spms.backend.service.model.process.FormInstanceCursor;
 import com.spms.backend.service.model.process.FormInstanceModel;
+import com.spms.backend.service.model.process.FormInstanceRevisionModel;
+import com.spms.backend.service.model.process.NewFormInstance;
+import com.spms.backend.service.model.process.RawFormInstance;
+import org.springframework.data.domain.Pageable;
+import java.time.Instant;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Consumer;
 
 /**
  * Service interface for managing form instances.
  */
 public interface FormInstanceService {
     FormInstanceModel create(String formKey, String version, Map<String, Object> data) throws ValidationException;
+
+    /**
+     * Creates many form instances at once. Either all instances are created or, if any is
+     * invalid, none.
+     *
+     * @param instances Instances to create
+     * @return IDs of the created instances, in the order of {@code instances}
+     * @throws ValidationException if the batch is empty or too large, or any instance is invalid;
+     *                             the message names each invalid instance by its position
+     */
+    List<String> createAll(List<NewFormInstance> instances) throws ValidationException;
+
     FormInstanceModel getById(String id) throws NotFoundException;
     FormInstanceModel update(String id, Map<String, Object> data) throws ValidationException, NotFoundException;
     void delete(String id) throws NotFoundException;
+
+    /**
+     * Saves a draft of an instance's data without validating it against the form definition.
+     *
+     * @param id   Form instance ID
+     * @param data Draft data
+     * @return The saved instance
+     * @throws ValidationException if the data is empty
+     * @throws NotFoundException   if no form instance has the ID
+     */
+    FormInstanceModel saveDraft(String id, Map<String, Object> data) throws ValidationException, NotFoundException;
+
+    /**
+     * Saves a draft of an instance's data unless the instance has been written since the draft
+     * was made, so a draft held back for a while never overwrites a later update or submit.
+     *
+     * @param id                 Form instance ID
+     * @param data               Draft data
+     * @param baseModifiedDate   Modification date of the instance when the draft was made
+     * @return The saved instance
+     * @throws ValidationException      if the data is empty
+     * @throws NotFoundException        if no form instance has the ID
+     * @throws VersionConflictException if the instance has been modified since
+     */
+    FormInstanceModel saveDraft(String id, Map<String, Object> data, Instant baseModifiedDate)
+            throws ValidationException, NotFoundException, VersionConflictException;
+
+    /**
+     * @param id Form instance ID
+     * @return The stored revisions of the instance's data, newest first
+     * @throws NotFoundException if no form instance has the ID
+     */
+    List<FormInstanceRevisionModel> listRevisions(String id) throws NotFoundException;
+
+    /**
+     * @param id       Form instance ID
+     * @param revision Revision number
+     * @return The instance's data as of the revision
+     * @throws NotFoundException if no form instance has the ID or it has no such revision
+     */
+    Map<String, Object> getRevisionData(String id, int revision) throws NotFoundException;
     List<FormInstanceModel> findByFormKey(String formKey);
     List<FormInstanceModel> findByFormKeyAndVersion(String formKey, String version);
+
+    /**
+     * Lists one page of the instances of a form, in creation order, without parsing their data.
+     *
+     * @param formKey     Key identifier of the form
+     * @param version     Version of the form, null for all versions
+     * @param after       Cursor returned with the previous page, null for the first page
+     * @param size        Maximum number of instances in the page
+     * @param newestFirst Whether the newest instances come first
+     * @param consumer    Receives each instance of the page, with its stored JSON data
+     * @return Cursor of the next page, or null if this page is the last one
+     * @throws ValidationException if the page size is out of range
+     */
+    FormInstanceCursor listRaw(String formKey, String version, FormInstanceCursor after, int size,
+                               boolean newestFirst, Consumer<RawFormInstance> consumer) throws ValidationException;
+
+    /**
+     * Passes every instance of a form to the consumer, in creation order, without parsing
+     * their data or holding more than one fetch of rows in memory.
+     *
+     * @param formKey     Key identifier of the form
+     * @param version     Version of the form, null for all versions
+     * @param after       Cursor to continue after, null to start at the beginning
+     * @param newestFirst Whether the newest instances come first
+     * @param consumer    Receives each instance, with its stored JSON data
+     */
+    void streamRaw(String formKey, String version, FormInstanceCursor after, boolean newestFirst,
+                   Consumer<RawFormInstance> consumer);
+
+    /**
+     * Finds the instances of a form whose data matches every filter, without parsing their data.
+     * Filters and sort keys may only use the indexed fields of the form; the sort may also use
+     * {@code createdAt}.
+     *
+     * @param formKey  Key identifier of the form
+     * @param filters  Conditions on indexed fields
+     * @param pageable Page and sort; creation order breaks ties
+     * @param consumer Receives each instance of the page, with its stored JSON data
+     * @return Number of matching instances over all pages
+     * @throws ValidationException if a filter or sort uses a field that is not indexed,
+     *                             or does not fit the type of the field
+     */
+    long query(String formKey, List<FormDataFilter> filters, Pageable pageable,
+               Consumer<RawFormInstance> consumer) throws ValidationException;
 }
@@ -0,0 +1,48 @@
+package com.spms.backend.service.process.event;
+
+import org.springframework.context.ApplicationEvent;
+
+/**
+ * Published by the process services whenever a process definition, a process
+ * version or a form version is created, updated or deleted.
+ * <p>
+ * Listeners that keep derived state (caches, indexes) use it to invalidate
+ * or refresh themselves.
+ */
+public class ProcessCatalogChangedEvent extends ApplicationEvent {
+
+    public enum EntityType {
+        PROCESS_DEFINITION,
+        PROCESS_VERSION,
+        FORM_VERSION
+    }
+
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    private final EntityType entityType;
+    private final ChangeType changeType;
+    private final Long entityId;
+
+    public ProcessCatalogChangedEvent(Object source, EntityType entityType, ChangeType changeType, Long entityId) {
+        super(source);
+        this.entityType = entityType;
+        this.changeType = changeType;
+        this.entityId = entityId;
+    }
+
+    public EntityType getEntityType() {
+        return entityType;
+    }
+
+    public ChangeType getChangeType() {
+        return changeType;
+    }
+
+    public Long getEntityId() {
+        return entityId;
+    }
+}
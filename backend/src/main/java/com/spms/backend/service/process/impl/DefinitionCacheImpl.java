@@ -0,0 +1,234 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.config.DefinitionCacheProperties;
+import com.spms.backend.service.process.DefinitionCache;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.ByteArrayOutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+
+/**
+ * Off-heap implementation of {@link DefinitionCache}.
+ * <p>
+ * Each payload is deflated and copied into a direct buffer of its own, so hundreds of large
+ * definitions add almost nothing to the heap the garbage collector scans; a buffer is freed
+ * once its entry is dropped and collected. Entries are kept in least recently used order
+ * and dropped when the compressed total or the entry count exceeds the configured limits.
+ * <p>
+ * Loads run outside the lock and may race with invalidations. Every invalidation bumps a
+ * counter, and a load only stores its result if no invalidation happened while it ran.
+ */
+@Service
+public class DefinitionCacheImpl implements DefinitionCache {
+
+    private static final int CHUNK_SIZE = 8192;
+
+    private final DefinitionCacheProperties properties;
+
+    private final LinkedHashMap<EntryKey, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+
+    private final Map<String, Long> latestFormVersions = new ConcurrentHashMap<>();
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    private long compressedBytes;
+
+    private long uncompressedBytes;
+
+    private final LongAdder hits = new LongAdder();
+
+    private final LongAdder misses = new LongAdder();
+
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * Constructs the cache
+     *
+     * @param properties Size limits of the cache
+     */
+    public DefinitionCacheImpl(DefinitionCacheProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public String get(Kind kind, String key, String version, Supplier<String> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        EntryKey entryKey = new EntryKey(kind, key, version);
+        Entry entry;
+        synchronized (entries) {
+            entry = entries.get(entryKey);
+        }
+        if (entry != null) {
+            hits.increment();
+            return inflate(entry);
+        }
+        misses.increment();
+
+        long stamp = invalidations.get();
+        String payload = loader.get();
+        if (payload == null) {
+            return null;
+        }
+        byte[] bytes = payload.getBytes(StandardCharsets.UTF_8);
+        ByteBuffer data = deflate(bytes);
+        if (data.capacity() > properties.getMaxSize().toBytes()) {
+            return payload;
+        }
+        synchronized (entries) {
+            if (invalidations.get() == stamp) {
+                Entry previous = entries.put(entryKey, new Entry(data, bytes.length));
+                if (previous != null) {
+                    release(previous);
+                }
+                compressedBytes += data.capacity();
+                uncompressedBytes += bytes.length;
+                trim();
+            }
+        }
+        return payload;
+    }
+
+    @Override
+    public void evict(Kind kind, String key, String version) {
+        EntryKey entryKey = new EntryKey(kind, key, version);
+        invalidate(() -> {
+            synchronized (entries) {
+                Entry entry = entries.remove(entryKey);
+                if (entry != null) {
+                    release(entry);
+                }
+            }
+        });
+    }
+
+    @Override
+    public Long getLatestFormVersion(String key, Supplier<Long> loader) {
+        if (!properties.isEnabled()) {
+            return loader.get();
+        }
+        Long latest = latestFormVersions.get(key);
+        if (latest != null) {
+            return latest;
+        }
+        long stamp = invalidations.get();
+        latest = loader.get();
+        if (latest != null) {
+            latestFormVersions.put(key, latest);
+            // An invalidation may have slipped in between the check above and the put
+            if (invalidations.get() != stamp) {
+                latestFormVersions.remove(key, latest);
+            }
+        }
+        return latest;
+    }
+
+    @Override
+    public void invalidateLatestFormVersion(String key) {
+        invalidate(() -> latestFormVersions.remove(key));
+    }
+
+    @Override
+    public Statistics getStatistics() {
+        synchronized (entries) {
+            return new Statistics(entries.size(), compressedBytes, uncompressedBytes,
+                    hits.sum(), misses.sum(), evictions.sum());
+        }
+    }
+
+    /**
+     * Runs the invalidation now and, inside a transaction, again once the transaction
+     * completes, as readers may reload the old state until the changes are committed.
+     */
+    private void invalidate(Runnable action) {
+        invalidations.incrementAndGet();
+        action.run();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    invalidations.incrementAndGet();
+                    action.run();
+                }
+            });
+        }
+    }
+
+    // Callers hold the lock on entries
+    private void trim() {
+        long maxSize = properties.getMaxSize().toBytes();
+        int maxEntries = properties.getMaxEntries();
+        Iterator<Entry> eldest = entries.values().iterator();
+        while (eldest.hasNext() && (compressedBytes > maxSize || (maxEntries > 0 && entries.size() > maxEntries))) {
+            release(eldest.next());
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    // Callers hold the lock on entries
+    private void release(Entry entry) {
+        compressedBytes -= entry.data().capacity();
+        uncompressedBytes -= entry.length();
+    }
+
+    private static ByteBuffer deflate(byte[] bytes) {
+        Deflater deflater = new Deflater();
+        try {
+            deflater.setInput(bytes);
+            deflater.finish();
+            ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(64, bytes.length / 4));
+            byte[] chunk = new byte[CHUNK_SIZE];
+            while (!deflater.finished()) {
+                out.write(chunk, 0, deflater.deflate(chunk));
+            }
+            ByteBuffer data = ByteBuffer.allocateDirect(out.size());
+            data.put(out.toByteArray()).flip();
+            return data;
+        } finally {
+            deflater.end();
+        }
+    }
+
+    private static String inflate(Entry entry) {
+        Inflater inflater = new Inflater();
+        try {
+            // A duplicate has its own position, so concurrent readers do not interfere
+            inflater.setInput(entry.data().duplicate());
+            byte[] bytes = new byte[entry.length()];
+            int length = 0;
+            while (length < bytes.length) {
+                int read = inflater.inflate(bytes, length, bytes.length - length);
+                if (read == 0 && (inflater.finished() || inflater.needsInput())) {
+                    throw new IllegalStateException("Cached definition is truncated");
+                }
+                length += read;
+            }
+            return new String(bytes, StandardCharsets.UTF_8);
+        } catch (DataFormatException e) {
+            throw new IllegalStateException("Cached definition is corrupt", e);
+        } finally {
+            inflater.end();
+        }
+    }
+
+    private record EntryKey(Kind kind, String key, String version) {
+    }
+
+    private record Entry(ByteBuffer data, int length) {
+    }
+}
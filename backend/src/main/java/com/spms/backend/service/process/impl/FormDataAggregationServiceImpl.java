@@ -0,0 +1,352 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.config.FormInstanceProperties;
+import com.spms.backend.repository.process.FormDataAggregationRepository;
+import com.spms.backend.repository.process.FormDataQueryRepository;
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.model.process.FormDataAggregation;
+import com.spms.backend.service.model.process.FormDataMetric;
+import com.spms.backend.service.process.FormDataAggregationService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Aggregates form data in a single streamed pass over the rows.
+ * <p>
+ * Rows are read with a fetch size and only the fields named by the grouping keys and
+ * metrics are pulled out of each row's JSON text by {@link FormDataExtractor}, so memory
+ * holds one fetch of rows and one accumulator per group, however many rows there are.
+ * With several partitions the ID range of the instances is split evenly and each range is
+ * aggregated on its own thread and connection; the partial groups are merged at the end.
+ */
+@Service
+public class FormDataAggregationServiceImpl implements FormDataAggregationService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FormDataAggregationServiceImpl.class);
+
+    private static final int MAX_GROUP_BY = 5;
+
+    private static final String CREATED_AT_PREFIX = "createdAt:";
+
+    private static final long DAY_MILLIS = 86_400_000L;
+
+    private static final Comparator<List<String>> KEY_ORDER = (a, b) -> {
+        for (int i = 0; i < a.size(); i++) {
+            int result = Comparator.nullsFirst(Comparator.<String>naturalOrder()).compare(a.get(i), b.get(i));
+            if (result != 0) {
+                return result;
+            }
+        }
+        return 0;
+    };
+
+    private enum TimeBucket {
+        YEAR,
+        MONTH,
+        DAY
+    }
+
+    /**
+     * Compiled grouping keys and metrics.
+     *
+     * @param keySlots    extractor slot of each grouping key, or -1 for a time bucket
+     * @param buckets     time bucket of each grouping key that is one
+     * @param metricSlots extractor slot of each metric's field, or -1 for a count of instances
+     */
+    private record Plan(FormDataExtractor extractor, int[] keySlots, TimeBucket[] buckets, int[] metricSlots,
+                        List<FormDataMetric> metrics) {
+    }
+
+    private final FormDataAggregationRepository aggregationRepository;
+
+    private final FormInstanceProperties properties;
+
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService executor;
+
+    public FormDataAggregationServiceImpl(FormDataAggregationRepository aggregationRepository,
+                                          FormInstanceProperties properties,
+                                          PlatformTransactionManager transactionManager) {
+        this.aggregationRepository = aggregationRepository;
+        this.properties = properties;
+        // Drivers such as PostgreSQL's only stream with a fetch size inside a transaction
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        AtomicInteger threads = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(Math.max(1, properties.getMaxAggregationPartitions()), runnable -> {
+            Thread thread = new Thread(runnable, "form-aggregation-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    @Override
+    public FormDataAggregation aggregate(String formKey, String version, Instant from, Instant to, List<String> groupBy,
+                                         List<FormDataMetric> metrics, int partitions) throws ValidationException {
+        if (partitions < 1 || partitions > properties.getMaxAggregationPartitions()) {
+            throw new ValidationException("Partitions must be between 1 and " + properties.getMaxAggregationPartitions());
+        }
+        List<String> keys = groupBy == null ? List.of() : groupBy;
+        if (keys.size() > MAX_GROUP_BY) {
+            throw new ValidationException("At most " + MAX_GROUP_BY + " grouping keys are allowed");
+        }
+        if (metrics == null || metrics.isEmpty()) {
+            throw new ValidationException("At least one metric is required");
+        }
+        Plan plan = compile(keys, metrics);
+        FormDataAggregationRepository.Scope scope = new FormDataAggregationRepository.Scope(formKey, version,
+                from == null ? null : from.toEpochMilli(), to == null ? null : to.toEpochMilli());
+
+        long started = System.nanoTime();
+        long[] range = aggregationRepository.findIdRange(scope);
+        Partial result;
+        if (range == null) {
+            result = new Partial();
+        } else if (partitions == 1 || range[1] - range[0] < partitions) {
+            result = scan(plan, scope, range[0], range[1]);
+        } else {
+            result = scanPartitions(plan, scope, range, partitions);
+        }
+
+        List<FormDataAggregation.Group> groups = new ArrayList<>(result.groups.size());
+        result.groups.entrySet().stream()
+                .sorted(Map.Entry.comparingByKey(KEY_ORDER))
+                .forEach(x -> groups.add(new FormDataAggregation.Group(x.getKey(), x.getValue().values(plan))));
+        logger.debug("Aggregated {} instances of form {} into {} groups in {} ms", result.rows, formKey,
+                groups.size(), (System.nanoTime() - started) / 1_000_000);
+        return new FormDataAggregation(keys, List.copyOf(metrics), result.rows, groups);
+    }
+
+    private Plan compile(List<String> groupBy, List<FormDataMetric> metrics) {
+        List<String> paths = new ArrayList<>();
+        int[] keySlots = new int[groupBy.size()];
+        TimeBucket[] buckets = new TimeBucket[groupBy.size()];
+        for (int i = 0; i < groupBy.size(); i++) {
+            String key = groupBy.get(i);
+            if (key != null && key.startsWith(CREATED_AT_PREFIX)) {
+                try {
+                    buckets[i] = TimeBucket.valueOf(key.substring(CREATED_AT_PREFIX.length()).toUpperCase(Locale.ROOT));
+                } catch (IllegalArgumentException e) {
+                    throw new ValidationException("Invalid grouping key: " + key +
+                            ", expected createdAt:year, createdAt:month or createdAt:day");
+                }
+                keySlots[i] = -1;
+            } else {
+                keySlots[i] = slot(paths, key);
+            }
+        }
+        int[] metricSlots = new int[metrics.size()];
+        for (int i = 0; i < metrics.size(); i++) {
+            metricSlots[i] = metrics.get(i).field() == null ? -1 : slot(paths, metrics.get(i).field());
+        }
+        return new Plan(new FormDataExtractor(paths), keySlots, buckets, metricSlots, metrics);
+    }
+
+    private static int slot(List<String> paths, String path) {
+        if (path == null || !FormDataQueryRepository.FIELD_PATH.matcher(path).matches()) {
+            throw new ValidationException("Invalid field path: " + path +
+                    "; use up to five dot-separated names of letters, digits and underscores");
+        }
+        int slot = paths.indexOf(path);
+        if (slot < 0) {
+            paths.add(path);
+            slot = paths.size() - 1;
+        }
+        return slot;
+    }
+
+    private Partial scanPartitions(Plan plan, FormDataAggregationRepository.Scope scope, long[] range, int partitions) {
+        long step = (range[1] - range[0] + partitions) / partitions;
+        List<Future<Partial>> futures = new ArrayList<>();
+        for (long start = range[0]; start <= range[1]; start += step) {
+            long min = start;
+            long max = Math.min(range[1], start + step - 1);
+            futures.add(executor.submit(() -> scan(plan, scope, min, max)));
+        }
+        Partial result = new Partial();
+        try {
+            for (Future<Partial> future : futures) {
+                result.merge(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while aggregating form data", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Failed to aggregate form data", e.getCause());
+        } finally {
+            futures.forEach(x -> x.cancel(true));
+        }
+        checkGroupCount(result.groups.size());
+        return result;
+    }
+
+    private Partial scan(Plan plan, FormDataAggregationRepository.Scope scope, long minId, long maxId) {
+        Partial partial = new Partial();
+        Object[] values = new Object[plan.extractor().size()];
+        String[] key = new String[plan.keySlots().length];
+        // Looked up through a view of the reused key array; only new groups copy it
+        List<String> lookup = Arrays.asList(key);
+        transactionTemplate.executeWithoutResult(status -> aggregationRepository.forEach(scope, minId, maxId,
+                properties.getFetchSize(), (createdAt, formData) -> {
+                    plan.extractor().extract(formData, values);
+                    for (int i = 0; i < key.length; i++) {
+                        int slot = plan.keySlots()[i];
+                        key[i] = slot >= 0 ? text(values[slot]) : bucket(plan.buckets()[i], createdAt);
+                    }
+                    Accumulator accumulator = partial.groups.get(lookup);
+                    if (accumulator == null) {
+                        checkGroupCount(partial.groups.size() + 1);
+                        accumulator = new Accumulator(plan.metrics().size());
+                        partial.groups.put(Arrays.asList(key.clone()), accumulator);
+                    }
+                    accumulator.add(plan, values);
+                    partial.rows++;
+                }));
+        return partial;
+    }
+
+    private void checkGroupCount(int groups) {
+        if (groups > properties.getMaxAggregationGroups()) {
+            throw new ValidationException("Aggregation exceeds " + properties.getMaxAggregationGroups() +
+                    " groups; group by fewer or coarser keys");
+        }
+    }
+
+    private static String text(Object value) {
+        return value instanceof BigDecimal number ? number.toPlainString() : (String) value;
+    }
+
+    private static String bucket(TimeBucket bucket, long createdAt) {
+        LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(createdAt, DAY_MILLIS));
+        return switch (bucket) {
+            case YEAR -> String.valueOf(date.getYear());
+            case MONTH -> YearMonth.from(date).toString();
+            case DAY -> date.toString();
+        };
+    }
+
+    private static BigDecimal toNumber(Object value) {
+        if (value instanceof BigDecimal number) {
+            return number;
+        }
+        if (value instanceof String text && !text.isBlank()) {
+            // The form renderer submits numbers as strings when the field serializes to text
+            try {
+                return new BigDecimal(text.trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static final class Partial {
+        private final Map<List<String>, Accumulator> groups = new HashMap<>();
+        private long rows;
+
+        void merge(Partial other) {
+            rows += other.rows;
+            other.groups.forEach((key, accumulator) -> groups.merge(key, accumulator, (a, b) -> a.merge(b)));
+        }
+    }
+
+    /**
+     * Running values of one group: the instance count, and per metric the number of present
+     * values and the count, sum, minimum and maximum of the numeric ones.
+     */
+    private static final class Accumulator {
+        private long rows;
+        private final long[] present;
+        private final long[] numbers;
+        private final BigDecimal[] sums;
+        private final BigDecimal[] mins;
+        private final BigDecimal[] maxs;
+
+        Accumulator(int metrics) {
+            present = new long[metrics];
+            numbers = new long[metrics];
+            sums = new BigDecimal[metrics];
+            mins = new BigDecimal[metrics];
+            maxs = new BigDecimal[metrics];
+        }
+
+        void add(Plan plan, Object[] values) {
+            rows++;
+            int[] slots = plan.metricSlots();
+            for (int m = 0; m < slots.length; m++) {
+                Object value = slots[m] < 0 ? null : values[slots[m]];
+                if (value == null) {
+                    continue;
+                }
+                present[m]++;
+                if (plan.metrics().get(m).function() != FormDataMetric.Function.COUNT) {
+                    BigDecimal number = toNumber(value);
+                    if (number != null) {
+                        numbers[m]++;
+                        sums[m] = sums[m] == null ? number : sums[m].add(number);
+                        mins[m] = mins[m] == null || number.compareTo(mins[m]) < 0 ? number : mins[m];
+                        maxs[m] = maxs[m] == null || number.compareTo(maxs[m]) > 0 ? number : maxs[m];
+                    }
+                }
+            }
+        }
+
+        Accumulator merge(Accumulator other) {
+            rows += other.rows;
+            for (int m = 0; m < present.length; m++) {
+                present[m] += other.present[m];
+                numbers[m] += other.numbers[m];
+                sums[m] = sums[m] == null ? other.sums[m] : other.sums[m] == null ? sums[m] : sums[m].add(other.sums[m]);
+                mins[m] = mins[m] == null || other.mins[m] != null && other.mins[m].compareTo(mins[m]) < 0 ? other.mins[m] : mins[m];
+                maxs[m] = maxs[m] == null || other.maxs[m] != null && other.maxs[m].compareTo(maxs[m]) > 0 ? other.maxs[m] : maxs[m];
+            }
+            return this;
+        }
+
+        List<BigDecimal> values(Plan plan) {
+            List<BigDecimal> values = new ArrayList<>(present.length);
+            for (int m = 0; m < present.length; m++) {
+                FormDataMetric metric = plan.metrics().get(m);
+                values.add(switch (metric.function()) {
+                    case COUNT -> BigDecimal.valueOf(metric.field() == null ? rows : present[m]);
+                    case SUM -> sums[m];
+                    case AVG -> numbers[m] == 0 ? null : sums[m].divide(BigDecimal.valueOf(numbers[m]), MathContext.DECIMAL64);
+                    case MIN -> mins[m];
+                    case MAX -> maxs[m];
+                });
+            }
+            return values;
+        }
+    }
+}
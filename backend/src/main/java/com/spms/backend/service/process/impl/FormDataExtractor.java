@@ -0,0 +1,102 @@
+package com.spms.backend.service.process.impl;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Pulls a fixed set of fields out of JSON text with Jackson's streaming parser, without
+ * building a tree of the document.
+ * <p>
+ * The dot-separated paths are compiled into a trie of object keys. While parsing, members
+ * that are not on a path are skipped as a whole, and arrays are never entered. Numbers are
+ * read as {@link java.math.BigDecimal}, other scalar values as text; objects, arrays and
+ * {@code null} give no value.
+ */
+final class FormDataExtractor {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final Node root = new Node();
+
+    private final int size;
+
+    /**
+     * @param paths dot-separated field paths; the value of {@code paths.get(i)} is extracted into slot {@code i}
+     */
+    FormDataExtractor(List<String> paths) {
+        for (int i = 0; i < paths.size(); i++) {
+            Node node = root;
+            for (String name : paths.get(i).split("\\.")) {
+                node = node.children.computeIfAbsent(name, x -> new Node());
+            }
+            node.slot = i;
+        }
+        this.size = paths.size();
+    }
+
+    /**
+     * @return number of slots, one per path
+     */
+    int size() {
+        return size;
+    }
+
+    /**
+     * Extracts the fields of a JSON document.
+     *
+     * @param json   JSON text, may be {@code null}
+     * @param values receives the value of each path, {@code null} where the document has none
+     * @return whether the document could be read; if not, all values are {@code null}
+     */
+    boolean extract(String json, Object[] values) {
+        Arrays.fill(values, null);
+        if (json == null) {
+            return true;
+        }
+        try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+            if (parser.nextToken() == JsonToken.START_OBJECT) {
+                extract(parser, root, values);
+            }
+            return true;
+        } catch (IOException e) {
+            Arrays.fill(values, null);
+            return false;
+        }
+    }
+
+    private static void extract(JsonParser parser, Node node, Object[] values) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            Node child = node.children.get(parser.currentName());
+            JsonToken token = parser.nextToken();
+            if (child == null) {
+                parser.skipChildren();
+            } else if (token == JsonToken.START_OBJECT) {
+                if (child.children.isEmpty()) {
+                    parser.skipChildren();
+                } else {
+                    extract(parser, child, values);
+                }
+            } else if (token == JsonToken.START_ARRAY) {
+                parser.skipChildren();
+            } else if (child.slot >= 0) {
+                values[child.slot] = switch (token) {
+                    case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDecimalValue();
+                    case VALUE_NULL -> null;
+                    default -> parser.getText();
+                };
+            }
+        }
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>();
+        private int slot = -1;
+    }
+}
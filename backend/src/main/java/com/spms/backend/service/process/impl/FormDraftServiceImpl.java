@@ -0,0 +1,148 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.config.FormInstanceProperties;
+import com.spms.backend.service.exception.NotFoundException;
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.exception.VersionConflictException;
+import com.spms.backend.service.model.process.FormInstanceModel;
+import com.spms.backend.service.process.FormDraftService;
+import com.spms.backend.service.process.FormInstanceService;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Buffers autosaved drafts in memory, keeping the latest per instance, and writes them
+ * from a single background thread every {@code autosaveFlushInterval}.
+ * <p>
+ * Writes and submits of an instance hold a lock of the instance's stripe, so a submit never
+ * races with the flush of an older draft. Drafts live on the node that received them until
+ * flushed; reads return the last written state. A buffered draft remembers when the instance
+ * was last modified and is dropped if the instance has been written since, so an update or
+ * submit handled by another node is never overwritten. When {@code maxPendingDrafts} instances
+ * are waiting, further drafts are written straight away.
+ */
+@Service
+public class FormDraftServiceImpl implements FormDraftService {
+
+    private static final Logger logger = LoggerFactory.getLogger(FormDraftServiceImpl.class);
+
+    private static final int LOCK_STRIPES = 64;
+
+    private final FormInstanceService formInstanceService;
+
+    private final FormInstanceProperties properties;
+
+    private final Map<String, Draft> pending = new ConcurrentHashMap<>();
+
+    private final Object[] locks = new Object[LOCK_STRIPES];
+
+    private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "form-autosave");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public FormDraftServiceImpl(FormInstanceService formInstanceService, FormInstanceProperties properties) {
+        this.formInstanceService = formInstanceService;
+        this.properties = properties;
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            locks[i] = new Object();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        long interval = Math.max(1, properties.getAutosaveFlushInterval().toMillis());
+        executor.scheduleWithFixedDelay(this::flush, interval, interval, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+        flush();
+    }
+
+    @Override
+    public void buffer(String id, Map<String, Object> data) throws ValidationException, NotFoundException {
+        if (data == null || data.isEmpty()) {
+            throw new ValidationException("Form data is required");
+        }
+        synchronized (lock(id)) {
+            // Later drafts of an interval keep the modification date the first one was made on
+            if (pending.computeIfPresent(id, (key, draft) -> new Draft(data, draft.baseModifiedDate())) != null) {
+                return;
+            }
+            if (pending.size() >= properties.getMaxPendingDrafts()) {
+                formInstanceService.saveDraft(id, data);
+                return;
+            }
+            // Only the first draft of an interval pays for the existence check
+            pending.put(id, new Draft(data, formInstanceService.getById(id).getModifiedDate()));
+        }
+    }
+
+    @Override
+    public FormInstanceModel update(String id, Map<String, Object> data) throws ValidationException, NotFoundException {
+        synchronized (lock(id)) {
+            pending.remove(id);
+            return formInstanceService.update(id, data);
+        }
+    }
+
+    @Override
+    public FormInstanceModel submit(String id, Map<String, Object> data) throws ValidationException, NotFoundException {
+        synchronized (lock(id)) {
+            Draft draft = pending.remove(id);
+            Map<String, Object> submitted = data != null ? data
+                    : draft != null ? draft.data()
+                    : formInstanceService.getById(id).getData();
+            return formInstanceService.update(id, submitted);
+        }
+    }
+
+    @Override
+    public int flush() {
+        int written = 0;
+        for (String id : new ArrayList<>(pending.keySet())) {
+            synchronized (lock(id)) {
+                Draft draft = pending.remove(id);
+                if (draft == null) {
+                    continue;
+                }
+                try {
+                    formInstanceService.saveDraft(id, draft.data(), draft.baseModifiedDate());
+                    written++;
+                } catch (NotFoundException e) {
+                    logger.debug("Dropping draft of deleted form instance {}", id);
+                } catch (VersionConflictException e) {
+                    logger.debug("Dropping draft of form instance {} modified since", id);
+                } catch (RuntimeException e) {
+                    logger.warn("Failed to write draft of form instance {}: {}", id, e.getMessage());
+                }
+            }
+        }
+        return written;
+    }
+
+    private record Draft(Map<String, Object> data, Instant baseModifiedDate) {
+    }
+
+    private Object lock(String id) {
+        return locks[Math.floorMod(id.hashCode(), LOCK_STRIPES)];
+    }
+}
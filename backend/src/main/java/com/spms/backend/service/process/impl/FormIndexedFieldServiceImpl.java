@@ -0,0 +1,140 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.config.FormInstanceProperties;
+import com.spms.backend.repository.entities.process.FormFieldType;
+import com.spms.backend.repository.entities.process.FormIndexedFieldEntity;
+import com.spms.backend.repository.process.FormDataQueryRepository;
+import com.spms.backend.repository.process.FormIndexedFieldRepository;
+import com.spms.backend.repository.process.FormVersionRepository;
+import com.spms.backend.service.exception.NotFoundException;
+import com.spms.backend.service.exception.SpmsRuntimeException;
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.model.process.FormIndexedFieldModel;
+import com.spms.backend.service.process.FormIndexedFieldService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Stores the indexed field declarations and keeps one database index per declared field.
+ * <p>
+ * Not transactional as a whole: PostgreSQL builds the indexes concurrently, which cannot
+ * happen inside a transaction. A declaration whose index cannot be built is removed again.
+ * <p>
+ * The indexes need the form data column to be {@code jsonb}. The schema update leaves an
+ * existing text column as it is, so the column is converted at startup; if that fails,
+ * declaring fields is refused until the column is converted by hand.
+ */
+@Service
+public class FormIndexedFieldServiceImpl implements FormIndexedFieldService, SmartInitializingSingleton {
+
+    private static final Logger logger = LoggerFactory.getLogger(FormIndexedFieldServiceImpl.class);
+
+    private final FormIndexedFieldRepository indexedFieldRepository;
+
+    private final FormDataQueryRepository queryRepository;
+
+    private final FormVersionRepository formVersionRepository;
+
+    private final FormInstanceProperties properties;
+
+    public FormIndexedFieldServiceImpl(FormIndexedFieldRepository indexedFieldRepository,
+                                       FormDataQueryRepository queryRepository,
+                                       FormVersionRepository formVersionRepository,
+                                       FormInstanceProperties properties) {
+        this.indexedFieldRepository = indexedFieldRepository;
+        this.queryRepository = queryRepository;
+        this.formVersionRepository = formVersionRepository;
+        this.properties = properties;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        try {
+            if (queryRepository.convertFormDataToJsonb()) {
+                logger.info("Converted spms_form_instance.form_data to jsonb");
+            }
+        } catch (DataAccessException e) {
+            logger.error("Could not convert spms_form_instance.form_data to jsonb; " +
+                    "indexed fields are unavailable until it is converted", e);
+        }
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FormIndexedFieldModel> list(String formKey) {
+        return indexedFieldRepository.findByFormKeyOrderByFieldPath(formKey).stream()
+                .map(FormIndexedFieldServiceImpl::toModel)
+                .toList();
+    }
+
+    @Override
+    public FormIndexedFieldModel declare(String formKey, String field, FormFieldType type)
+            throws ValidationException, NotFoundException {
+        if (formVersionRepository.countByKey(formKey) == 0) {
+            throw new NotFoundException("Form not found: " + formKey);
+        }
+        if (field == null || !FormDataQueryRepository.FIELD_PATH.matcher(field).matches()) {
+            throw new ValidationException("Invalid field path: " + field +
+                    "; use up to five dot-separated names of letters, digits and underscores");
+        }
+        if (type == null) {
+            throw new ValidationException("Field type is required");
+        }
+        FormIndexedFieldEntity existing = indexedFieldRepository.findByFormKeyAndFieldPath(formKey, field).orElse(null);
+        if (existing != null) {
+            if (existing.getFieldType() != type) {
+                throw new ValidationException("Field " + field + " of form " + formKey + " is indexed as " +
+                        existing.getFieldType() + "; remove it before declaring it as " + type);
+            }
+            return toModel(existing);
+        }
+        if (!queryRepository.isFormDataJsonb()) {
+            throw new SpmsRuntimeException("Column spms_form_instance.form_data is not jsonb; convert it with " +
+                    "ALTER TABLE spms_form_instance ALTER COLUMN form_data TYPE jsonb USING form_data::jsonb", null);
+        }
+        if (indexedFieldRepository.countByFormKey(formKey) >= properties.getMaxIndexedFields()) {
+            throw new ValidationException("Form " + formKey + " already has the maximum of " +
+                    properties.getMaxIndexedFields() + " indexed fields");
+        }
+
+        FormIndexedFieldEntity entity = new FormIndexedFieldEntity();
+        entity.setFormKey(formKey);
+        entity.setFieldPath(field);
+        entity.setFieldType(type);
+        entity.setCreatedAt(System.currentTimeMillis());
+        entity = indexedFieldRepository.save(entity);
+        try {
+            queryRepository.createIndex(indexName(entity), new FormDataQueryRepository.Field(field, type));
+        } catch (RuntimeException e) {
+            indexedFieldRepository.delete(entity);
+            throw e;
+        }
+        logger.info("Indexed field {} of form {} as {}", field, formKey, type);
+        return toModel(entity);
+    }
+
+    @Override
+    public void remove(String formKey, String field) throws NotFoundException {
+        FormIndexedFieldEntity entity = indexedFieldRepository.findByFormKeyAndFieldPath(formKey, field)
+                .orElseThrow(() -> new NotFoundException("Field " + field + " of form " + formKey + " is not indexed"));
+        queryRepository.dropIndex(indexName(entity));
+        indexedFieldRepository.delete(entity);
+        logger.info("Removed index of field {} of form {}", field, formKey);
+    }
+
+    private static String indexName(FormIndexedFieldEntity entity) {
+        return "idx_form_field_" + entity.getId();
+    }
+
+    private static FormIndexedFieldModel toModel(FormIndexedFieldEntity entity) {
+        return new FormIndexedFieldModel(entity.getFormKey(), entity.getFieldPath(), entity.getFieldType(),
+                Instant.ofEpochMilli(entity.getCreatedAt()));
+    }
+}
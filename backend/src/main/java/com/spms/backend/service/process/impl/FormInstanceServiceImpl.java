@@ -3,21 +3,42 @@ package com.spms.backend.service.process.impl;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import java.util.Map;
+import com.spms.backend.config.FormInstanceProperties;
+import com.spms.backend.repository.entities.process.FormFieldType;
+import com.spms.backend.repository.entities.process.FormIndexedFieldEntity;
 import com.spms.backend.repository.entities.process.FormInstanceEntity;
+import com.spms.backend.repository.process.FormDataQueryRepository;
+import com.spms.backend.repository.process.FormInstanceBatchRepository;
+import com.spms.backend.repository.process.FormIndexedFieldRepository;
+import com.spms.backend.repository.process.FormInstanceListingRepository;
 import com.spms.backend.repository.process.FormInstanceRepository;
+import com.spms.backend.repository.process.FormInstanceRevisionSummary;
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.exception.VersionConflictException;
+import com.spms.backend.service.model.process.FormDataFilter;
+import com.spms.backend.service.model.process.FormInstanceCursor;
 import com.spms.backend.service.model.process.FormInstanceModel;
+import com.spms.backend.service.model.process.FormInstanceRevisionModel;
+import com.spms.backend.service.model.process.NewFormInstance;
+import com.spms.backend.service.model.process.RawFormInstance;
 import com.spms.backend.service.process.FormInstanceService;
+import com.spms.backend.service.process.validation.FormValidationPlan;
+import com.spms.backend.service.process.validation.FormValidationPlanCache;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.time.Instant;
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.function.Consumer;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
 @Service
 @Transactional
@@ -25,12 +46,42 @@ public class FormInstanceServiceImpl implements FormInstanceService {
 
     private static final Pattern FORM_KEY_PATTERN = Pattern.compile("^[a-zA-Z0-9_-]{3,50}$");
     private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private static final int MAX_REPORTED_ERRORS = 20;
     
     private final FormInstanceRepository formInstanceRepository;
 
+    private final FormInstanceListingRepository listingRepository;
+
+    private final FormInstanceProperties properties;
+
+    private final FormIndexedFieldRepository indexedFieldRepository;
+
+    private final FormDataQueryRepository queryRepository;
+
+    private final FormValidationPlanCache validationPlanCache;
+
+    private final FormRevisionRecorder revisionRecorder;
+
+    private final FormInstanceBatchRepository batchRepository;
+
     @Autowired
-    public FormInstanceServiceImpl(FormInstanceRepository formInstanceRepository) {
+    public FormInstanceServiceImpl(FormInstanceRepository formInstanceRepository,
+                                   FormInstanceListingRepository listingRepository,
+                                   FormInstanceProperties properties,
+                                   FormIndexedFieldRepository indexedFieldRepository,
+                                   FormDataQueryRepository queryRepository,
+                                   FormValidationPlanCache validationPlanCache,
+                                   FormRevisionRecorder revisionRecorder,
+                                   FormInstanceBatchRepository batchRepository) {
         this.formInstanceRepository = formInstanceRepository;
+        this.listingRepository = listingRepository;
+        this.properties = properties;
+        this.indexedFieldRepository = indexedFieldRepository;
+        this.queryRepository = queryRepository;
+        this.validationPlanCache = validationPlanCache;
+        this.revisionRecorder = revisionRecorder;
+        this.batchRepository = batchRepository;
     }
 
     /**
@@ -44,7 +95,7 @@ public class FormInstanceServiceImpl implements FormInstanceService {
     public FormInstanceModel create(String formKey, String version, Map<String, Object> data) throws ValidationException {
         validateFormKey(formKey);
         validateVersion(version);
-        validateFormData(data);
+        validateFormData(formKey, version, data);
         FormInstanceEntity entity = new FormInstanceEntity();
         entity.setFormKey(formKey);
         entity.setVersion(version);
@@ -55,6 +106,70 @@ public class FormInstanceServiceImpl implements FormInstanceService {
         return convertToModel(savedEntity);
     }
 
+    /**
+     * Creates form instances in JDBC batches. Validation plans are looked up once per form
+     * version, then the instances are validated and serialized in parallel; nothing is
+     * created unless every instance is valid.
+     */
+    @Override
+    public List<String> createAll(List<NewFormInstance> instances) throws ValidationException {
+        if (instances == null || instances.isEmpty()) {
+            throw new ValidationException("At least one form instance is required");
+        }
+        if (instances.size() > properties.getMaxBatchSize()) {
+            throw new ValidationException("At most " + properties.getMaxBatchSize() + " form instances can be created at once");
+        }
+        Map<List<String>, Optional<FormValidationPlan>> plans = new HashMap<>();
+        for (NewFormInstance instance : instances) {
+            if (instance != null && instance.formKey() != null && instance.version() != null) {
+                plans.computeIfAbsent(List.of(instance.formKey(), instance.version()),
+                        x -> Optional.ofNullable(validationPlanCache.get(x.get(0), x.get(1))));
+            }
+        }
+
+        String[] formData = new String[instances.size()];
+        String[] errors = new String[instances.size()];
+        IntStream.range(0, instances.size()).parallel().forEach(i -> {
+            NewFormInstance instance = instances.get(i);
+            try {
+                if (instance == null) {
+                    throw new ValidationException("Form instance is required");
+                }
+                validateFormKey(instance.formKey());
+                validateVersion(instance.version());
+                checkFormData(plans.get(List.of(instance.formKey(), instance.version())).orElse(null), instance.data());
+                formData[i] = convertDataToString(instance.data());
+            } catch (ValidationException e) {
+                errors[i] = e.getMessage();
+            }
+        });
+        List<String> problems = new ArrayList<>();
+        for (int i = 0; i < errors.length; i++) {
+            if (errors[i] != null) {
+                problems.add("[" + i + "] " + errors[i]);
+            }
+        }
+        if (!problems.isEmpty()) {
+            String reported = String.join("; ", problems.subList(0, Math.min(problems.size(), MAX_REPORTED_ERRORS)));
+            throw new ValidationException("Invalid form instances: " + reported
+                    + (problems.size() > MAX_REPORTED_ERRORS ? "; and " + (problems.size() - MAX_REPORTED_ERRORS) + " more" : ""));
+        }
+
+        long now = new Date().getTime();
+        List<FormInstanceEntity> entities = new ArrayList<>(instances.size());
+        for (int i = 0; i < instances.size(); i++) {
+            FormInstanceEntity entity = new FormInstanceEntity();
+            entity.setFormKey(instances.get(i).formKey());
+            entity.setVersion(instances.get(i).version());
+            entity.setFormData(formData[i]);
+            entity.setCreatedAt(now);
+            entity.setUpdatedAt(now);
+            entities.add(entity);
+        }
+        batchRepository.insertInstances(entities);
+        return entities.stream().map(x -> x.getId().toString()).toList();
+    }
+
     /**
      * Retrieves a form instance by its unique identifier
      * 
@@ -64,15 +179,11 @@ public class FormInstanceServiceImpl implements FormInstanceService {
      */
     @Override
     public FormInstanceModel getById(String id) throws NotFoundException {
-        Optional<FormInstanceEntity> entity = formInstanceRepository.findById(id);
-        if (entity.isEmpty()) {
-            throw new NotFoundException("Form instance not found with ID: " + id);
-        }
-        return convertToModel(entity.get());
+        return convertToModel(findEntity(id));
     }
 
     /**
-     * Updates an existing form instance
+     * Updates an existing form instance. Data equal to the stored data is not written again.
      * 
      * @param id UUID of the form to update
      * @param request UpdateFormInstanceRequestDTO with updated data
@@ -83,33 +194,66 @@ public class FormInstanceServiceImpl implements FormInstanceService {
     @Override
     public FormInstanceModel update(String id, Map<String, Object> data) 
         throws ValidationException, NotFoundException {
-        
-        Optional<FormInstanceEntity> optionalEntity = formInstanceRepository.findById(id);
-        if (optionalEntity.isEmpty()) {
-            throw new NotFoundException("Form instance not found with ID: " + id);
+        FormInstanceEntity entity = findEntityForUpdate(id);
+        validateFormData(entity.getFormKey(), entity.getVersion(), data);
+        return convertToModel(write(entity, data));
+    }
+
+    /**
+     * Saves a draft of the data, which is only checked to be present: a draft may still
+     * miss required fields.
+     */
+    @Override
+    public FormInstanceModel saveDraft(String id, Map<String, Object> data)
+            throws ValidationException, NotFoundException {
+        if (data == null || data.isEmpty()) {
+            throw new ValidationException("Form data is required");
         }
-        
-        FormInstanceEntity entity = optionalEntity.get();
-        validateFormData(data);
-        entity.setFormData(convertDataToString(data));
-        entity.setUpdatedAt(new Date().getTime());
-        
-        FormInstanceEntity updatedEntity = formInstanceRepository.save(entity);
-        return convertToModel(updatedEntity);
+        return convertToModel(write(findEntityForUpdate(id), data));
+    }
+
+    @Override
+    public FormInstanceModel saveDraft(String id, Map<String, Object> data, Instant baseModifiedDate)
+            throws ValidationException, NotFoundException, VersionConflictException {
+        if (data == null || data.isEmpty()) {
+            throw new ValidationException("Form data is required");
+        }
+        FormInstanceEntity entity = findEntityForUpdate(id);
+        Long base = baseModifiedDate == null ? null : baseModifiedDate.toEpochMilli();
+        if (!Objects.equals(entity.getUpdatedAt(), base)) {
+            throw new VersionConflictException("Form instance " + id + " has been modified since the draft was made");
+        }
+        return convertToModel(write(entity, data));
     }
 
     /**
-     * Deletes a form instance by its ID
+     * Deletes a form instance and its revisions
      * 
      * @param id UUID of the form to delete
      * @throws NotFoundException if no form found with given ID
      */
     @Override
     public void delete(String id) throws NotFoundException {
-        if (!formInstanceRepository.existsById(id)) {
-            throw new NotFoundException("Form instance not found with ID: " + id);
+        FormInstanceEntity entity = findEntity(id);
+        revisionRecorder.deleteAll(entity.getId());
+        formInstanceRepository.delete(entity);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<FormInstanceRevisionModel> listRevisions(String id) throws NotFoundException {
+        List<FormInstanceRevisionModel> revisions = new ArrayList<>();
+        for (FormInstanceRevisionSummary summary : revisionRecorder.list(findEntity(id))) {
+            revisions.add(new FormInstanceRevisionModel(summary.revision(), summary.kind(),
+                    Instant.ofEpochMilli(summary.createdAt())));
         }
-        formInstanceRepository.deleteById(id);
+        return revisions;
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Map<String, Object> getRevisionData(String id, int revision) throws NotFoundException {
+        return objectMapper.convertValue(revisionRecorder.dataAt(findEntity(id), revision), Map.class);
     }
 
     /**
@@ -141,6 +285,157 @@ public class FormInstanceServiceImpl implements FormInstanceService {
                 .collect(Collectors.toList());
     }
 
+    /**
+     * Lists one page of form instances, reading one row more than requested to learn
+     * whether another page follows.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public FormInstanceCursor listRaw(String formKey, String version, FormInstanceCursor after, int size,
+                                      boolean newestFirst, Consumer<RawFormInstance> consumer) throws ValidationException {
+        if (size < 1 || size > properties.getMaxPageSize()) {
+            throw new ValidationException("Page size must be between 1 and " + properties.getMaxPageSize());
+        }
+        FormInstanceListingRepository.Row[] last = new FormInstanceListingRepository.Row[1];
+        boolean[] more = new boolean[1];
+        int[] count = new int[1];
+        listingRepository.forEach(formKey, version, after == null ? null : after.createdAt(),
+                after == null ? 0 : after.id(), newestFirst, size + 1, size + 1, row -> {
+                    if (count[0]++ == size) {
+                        more[0] = true;
+                        return;
+                    }
+                    last[0] = row;
+                    consumer.accept(toRawInstance(row));
+                });
+        return more[0] ? new FormInstanceCursor(last[0].createdAt(), last[0].id()) : null;
+    }
+
+    /**
+     * Streams form instances. Runs in a read-only transaction so that drivers such as
+     * PostgreSQL's honor the fetch size instead of loading the whole result.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public void streamRaw(String formKey, String version, FormInstanceCursor after, boolean newestFirst,
+                          Consumer<RawFormInstance> consumer) {
+        listingRepository.forEach(formKey, version, after == null ? null : after.createdAt(),
+                after == null ? 0 : after.id(), newestFirst, 0, properties.getFetchSize(),
+                row -> consumer.accept(toRawInstance(row)));
+    }
+
+    /**
+     * Queries form instances by their data. Only indexed fields are accepted, so that on
+     * PostgreSQL every condition is served by an index.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    public long query(String formKey, List<FormDataFilter> filters, Pageable pageable,
+                      Consumer<RawFormInstance> consumer) throws ValidationException {
+        if (pageable.getPageSize() > properties.getMaxPageSize()) {
+            throw new ValidationException("Page size must be between 1 and " + properties.getMaxPageSize());
+        }
+        Map<String, FormFieldType> fields = new HashMap<>();
+        for (FormIndexedFieldEntity field : indexedFieldRepository.findByFormKeyOrderByFieldPath(formKey)) {
+            fields.put(field.getFieldPath(), field.getFieldType());
+        }
+
+        List<FormDataQueryRepository.Criterion> criteria = new ArrayList<>();
+        for (FormDataFilter filter : filters) {
+            FormDataQueryRepository.Field field = indexedField(formKey, filter.field(), fields);
+            if (field.type() == FormFieldType.NUMBER && filter.operator() != FormDataFilter.Operator.EXISTS) {
+                if (filter.operator() == FormDataFilter.Operator.PREFIX) {
+                    throw new ValidationException("Prefix filter on '" + filter.field() + "' requires a STRING field");
+                }
+                try {
+                    new BigDecimal(filter.value());
+                } catch (NumberFormatException e) {
+                    throw new ValidationException("Filter on '" + filter.field() + "' requires a number: " + filter.value());
+                }
+            }
+            criteria.add(new FormDataQueryRepository.Criterion(field, toComparison(filter.operator()), filter.value()));
+        }
+        List<FormDataQueryRepository.Order> orders = new ArrayList<>();
+        for (Sort.Order order : pageable.getSort()) {
+            FormDataQueryRepository.Field field = "createdAt".equals(order.getProperty())
+                    ? null : indexedField(formKey, order.getProperty(), fields);
+            orders.add(new FormDataQueryRepository.Order(field, order.isAscending()));
+        }
+
+        return queryRepository.findPage(formKey, criteria, orders, pageable.getOffset(), pageable.getPageSize(),
+                row -> consumer.accept(toRawInstance(row)));
+    }
+
+    private static FormDataQueryRepository.Field indexedField(String formKey, String path,
+                                                              Map<String, FormFieldType> fields) {
+        FormFieldType type = fields.get(path);
+        if (type == null) {
+            throw new ValidationException("Field " + path + " of form " + formKey +
+                    " is not indexed; declare it as an indexed field first");
+        }
+        return new FormDataQueryRepository.Field(path, type);
+    }
+
+    private static FormDataQueryRepository.Comparison toComparison(FormDataFilter.Operator operator) {
+        return switch (operator) {
+            case EQ -> FormDataQueryRepository.Comparison.EQUALS;
+            case NE -> FormDataQueryRepository.Comparison.NOT_EQUALS;
+            case PREFIX -> FormDataQueryRepository.Comparison.PREFIX;
+            case LT -> FormDataQueryRepository.Comparison.LESS_THAN;
+            case LTE -> FormDataQueryRepository.Comparison.LESS_THAN_OR_EQUAL;
+            case GT -> FormDataQueryRepository.Comparison.GREATER_THAN;
+            case GTE -> FormDataQueryRepository.Comparison.GREATER_THAN_OR_EQUAL;
+            case EXISTS -> FormDataQueryRepository.Comparison.EXISTS;
+        };
+    }
+
+    private static RawFormInstance toRawInstance(FormInstanceListingRepository.Row row) {
+        return new RawFormInstance(String.valueOf(row.id()), row.formKey(), row.version(), row.formData(),
+                Instant.ofEpochMilli(row.createdAt()),
+                row.updatedAt() == null ? null : Instant.ofEpochMilli(row.updatedAt()));
+    }
+
+    private FormInstanceEntity findEntity(String id) throws NotFoundException {
+        Optional<FormInstanceEntity> entity = formInstanceRepository.findById(id);
+        if (entity.isEmpty()) {
+            throw new NotFoundException("Form instance not found with ID: " + id);
+        }
+        return entity.get();
+    }
+
+    /**
+     * Loads an instance for {@link #write}. Its row stays locked until the transaction ends,
+     * so concurrent writes of one instance read the data and number their revisions in turn.
+     */
+    private FormInstanceEntity findEntityForUpdate(String id) throws NotFoundException {
+        Optional<FormInstanceEntity> entity;
+        try {
+            entity = formInstanceRepository.findForUpdateById(Long.valueOf(id));
+        } catch (NumberFormatException e) {
+            entity = Optional.empty();
+        }
+        if (entity.isEmpty()) {
+            throw new NotFoundException("Form instance not found with ID: " + id);
+        }
+        return entity.get();
+    }
+
+    /**
+     * Stores new data of an instance along with its revision, unless it equals the stored data.
+     * The entity must be loaded with {@link #findEntityForUpdate}.
+     */
+    private FormInstanceEntity write(FormInstanceEntity entity, Map<String, Object> data) {
+        String formData = convertDataToString(data);
+        if (!revisionRecorder.append(entity, formData)) {
+            return entity;
+        }
+        entity.setFormData(formData);
+        // Strictly increasing, so a draft can tell whether the instance was written after it was made
+        long now = new Date().getTime();
+        entity.setUpdatedAt(entity.getUpdatedAt() == null ? now : Math.max(now, entity.getUpdatedAt() + 1));
+        return formInstanceRepository.save(entity);
+    }
+
     private void validateFormKey(String formKey) throws ValidationException {
         if (formKey == null || formKey.isBlank()) {
             throw new ValidationException("Form key is required");
@@ -157,10 +452,24 @@ public class FormInstanceServiceImpl implements FormInstanceService {
         // Additional semantic version validation can be added here
     }
 
-    private void validateFormData(Map<String, Object> data) throws ValidationException {
+    /**
+     * Checks the data against the compiled validation plan of the form version. Versions
+     * without a stored definition only require the data to be present.
+     */
+    private void validateFormData(String formKey, String version, Map<String, Object> data) throws ValidationException {
+        checkFormData(validationPlanCache.get(formKey, version), data);
+    }
+
+    private static void checkFormData(FormValidationPlan plan, Map<String, Object> data) throws ValidationException {
         if (data == null || data.isEmpty()) {
             throw new ValidationException("Form data is required");
         }
+        if (plan != null) {
+            List<String> violations = plan.validate(data);
+            if (!violations.isEmpty()) {
+                throw new ValidationException("Invalid form data: " + String.join("; ", violations));
+            }
+        }
     }
 
     private String convertDataToString(Map<String, Object> data) throws ValidationException {
@@ -185,10 +494,11 @@ public class FormInstanceServiceImpl implements FormInstanceService {
         model.setFormKey(entity.getFormKey());
         model.setVersion(entity.getVersion());
         model.setData(convertStringToData(entity.getFormData()));
-        entity.setCreatedAt(new Date().getTime());
-        
+        if (entity.getCreatedAt() != null) {
+            model.setCreatedDate(Instant.ofEpochMilli(entity.getCreatedAt()));
+        }
         if (entity.getUpdatedAt() != null) {
-            entity.setUpdatedAt(new Date().getTime());
+            model.setModifiedDate(Instant.ofEpochMilli(entity.getUpdatedAt()));
         }
         return model;
     }
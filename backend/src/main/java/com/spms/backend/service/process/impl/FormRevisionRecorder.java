@@ -0,0 +1,151 @@
+package com.spms.backend.service.process.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.backend.config.FormInstanceProperties;
+import com.spms.backend.repository.entities.process.FormInstanceEntity;
+import com.spms.backend.repository.entities.process.FormInstanceRevisionEntity;
+import com.spms.backend.repository.entities.process.FormRevisionKind;
+import com.spms.backend.repository.process.FormInstanceRevisionRepository;
+import com.spms.backend.repository.process.FormInstanceRevisionSummary;
+import com.spms.backend.service.exception.NotFoundException;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Keeps the revision history of form instance data.
+ * <p>
+ * The first revision of an instance, and every {@code snapshotInterval}-th after it, is a
+ * full snapshot; the others are JSON Patches against the previous revision. A state is
+ * rebuilt by applying the patches that follow the nearest snapshot. Saves that do not change
+ * the data add no revision.
+ * <p>
+ * The current data stays in {@code spms_form_instance.form_data}, which listing, field queries
+ * and aggregations read. An instance whose data never changed therefore has no stored history:
+ * its only revision is the row itself. The first change stores the data it replaces as the
+ * first snapshot, so history costs storage only for instances that are edited.
+ */
+@Component
+public class FormRevisionRecorder {
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final FormInstanceRevisionRepository revisionRepository;
+
+    private final FormInstanceProperties properties;
+
+    public FormRevisionRecorder(FormInstanceRevisionRepository revisionRepository,
+                                FormInstanceProperties properties) {
+        this.revisionRepository = revisionRepository;
+        this.properties = properties;
+    }
+
+    /**
+     * Appends a revision for a change of an instance's data, in the caller's transaction.
+     * Must be called before the instance takes the new data.
+     *
+     * @param instance instance as stored before the change
+     * @param newData  data after the change as JSON text
+     * @return whether the data changed; if not, nothing was stored
+     */
+    public boolean append(FormInstanceEntity instance, String newData) {
+        JsonNode previous = instance.getFormData() == null ? null : read(instance.getFormData());
+        JsonNode current = read(newData);
+        if (current.equals(previous)) {
+            return false;
+        }
+        Integer latest = revisionRepository.findLatestRevision(instance.getId());
+        if (latest == null) {
+            if (previous == null) {
+                // Nothing to keep: the row with the new data is the first revision
+                return true;
+            }
+            save(instance.getId(), 1, FormRevisionKind.SNAPSHOT, instance.getFormData(), modifiedAt(instance));
+            latest = 1;
+        }
+        int revision = latest + 1;
+        if (previous == null || (revision - 1) % Math.max(1, properties.getSnapshotInterval()) == 0) {
+            save(instance.getId(), revision, FormRevisionKind.SNAPSHOT, newData, System.currentTimeMillis());
+        } else {
+            save(instance.getId(), revision, FormRevisionKind.PATCH, JsonPatch.diff(previous, current).toString(),
+                    System.currentTimeMillis());
+        }
+        return true;
+    }
+
+    /**
+     * @return the revisions of an instance, newest first
+     */
+    public List<FormInstanceRevisionSummary> list(FormInstanceEntity instance) {
+        List<FormInstanceRevisionSummary> revisions = revisionRepository.findSummariesByInstanceId(instance.getId());
+        if (revisions.isEmpty() && instance.getFormData() != null) {
+            return List.of(new FormInstanceRevisionSummary(1, FormRevisionKind.SNAPSHOT, modifiedAt(instance)));
+        }
+        return revisions;
+    }
+
+    /**
+     * Rebuilds the data of an instance as of a revision.
+     *
+     * @throws NotFoundException if the instance has no such revision
+     */
+    public JsonNode dataAt(FormInstanceEntity instance, int revision) throws NotFoundException {
+        Long instanceId = instance.getId();
+        FormInstanceRevisionEntity snapshot = revisionRepository
+                .findFirstByInstanceIdAndKindAndRevisionLessThanEqualOrderByRevisionDesc(
+                        instanceId, FormRevisionKind.SNAPSHOT, revision)
+                .orElse(null);
+        if (snapshot == null) {
+            if (revision == 1 && instance.getFormData() != null
+                    && revisionRepository.findLatestRevision(instanceId) == null) {
+                return read(instance.getFormData());
+            }
+            throw notFound(instanceId, revision);
+        }
+        List<FormInstanceRevisionEntity> patches = revisionRepository
+                .findByInstanceIdAndRevisionBetweenOrderByRevision(instanceId, snapshot.getRevision() + 1, revision);
+        if (snapshot.getRevision() + patches.size() != revision) {
+            throw notFound(instanceId, revision);
+        }
+        JsonNode data = read(snapshot.getPayload());
+        for (FormInstanceRevisionEntity patch : patches) {
+            data = JsonPatch.apply(data, read(patch.getPayload()));
+        }
+        return data;
+    }
+
+    /**
+     * Removes the history of a deleted instance.
+     */
+    public void deleteAll(Long instanceId) {
+        revisionRepository.deleteByInstanceId(instanceId);
+    }
+
+    private void save(Long instanceId, int revision, FormRevisionKind kind, String payload, long createdAt) {
+        FormInstanceRevisionEntity entity = new FormInstanceRevisionEntity();
+        entity.setInstanceId(instanceId);
+        entity.setRevision(revision);
+        entity.setKind(kind);
+        entity.setPayload(payload);
+        entity.setCreatedAt(createdAt);
+        revisionRepository.save(entity);
+    }
+
+    private static long modifiedAt(FormInstanceEntity instance) {
+        return instance.getUpdatedAt() != null ? instance.getUpdatedAt() : instance.getCreatedAt();
+    }
+
+    private static NotFoundException notFound(Long instanceId, int revision) {
+        return new NotFoundException("Revision " + revision + " of form instance " + instanceId + " not found");
+    }
+
+    private static JsonNode read(String json) {
+        try {
+            return objectMapper.readTree(json);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Unreadable form data: " + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -3,12 +3,19 @@ package com.spms.backend.service.process.impl;
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.repository.entities.process.FormVersionEntity;
 import com.spms.backend.repository.process.FormVersionRepository;
+import com.spms.backend.repository.process.FormVersionSummary;
 import com.spms.backend.service.model.process.FormDefinitionModel;
 import com.spms.backend.service.model.process.FormVersionModel;
+import com.spms.backend.service.process.DefinitionCache;
+import com.spms.backend.service.process.DefinitionCache.Kind;
 import com.spms.backend.service.process.FormService;
+import com.spms.backend.service.process.event.ProcessCatalogChangedEvent;
+import com.spms.backend.service.process.event.ProcessCatalogChangedEvent.ChangeType;
+import com.spms.backend.service.process.event.ProcessCatalogChangedEvent.EntityType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -17,6 +24,7 @@ import org.springframework.transaction.annotation.Transactional;
 import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
@@ -25,9 +33,16 @@ public class FormServiceImpl implements FormService {
 
     private final FormVersionRepository formVersionRepository;
 
+    private final ApplicationEventPublisher eventPublisher;
+
+    private final DefinitionCache definitionCache;
+
     @Autowired
-    public FormServiceImpl(FormVersionRepository formVersionRepository) {
+    public FormServiceImpl(FormVersionRepository formVersionRepository, ApplicationEventPublisher eventPublisher,
+                           DefinitionCache definitionCache) {
         this.formVersionRepository = formVersionRepository;
+        this.eventPublisher = eventPublisher;
+        this.definitionCache = definitionCache;
     }
 
     /**
@@ -61,12 +76,15 @@ public class FormServiceImpl implements FormService {
         entity.setDescription(model.getDescription());
         entity.setName(model.getName());
         FormVersionEntity savedEntity = formVersionRepository.save(entity);
+        definitionCache.invalidateLatestFormVersion(key);
+        publishChange(ChangeType.CREATED, savedEntity);
         logger.info("Form version created successfully for key: {}, version: {}", key, model.getVersion());
         return FormVersionModel.fromEntity(savedEntity);
     }
 
     /**
      * 根据表单键和版本号获取表单版本模型。
+     * 表单定义内容从定义缓存读取，只有缓存未命中时才从数据库加载。
      *
      * @param key     表单的唯一标识键。
      * @param version 表单的版本号（字符串格式）。
@@ -78,8 +96,8 @@ public class FormServiceImpl implements FormService {
     public FormVersionModel getVersion(String key, String version) {
         logger.debug("Fetching form version for key: {}, version: {}", key, version);
         Long versionLong = FormVersionModel.convertVersionStringToLong(version);
-        return formVersionRepository.findByKeyAndVersion(key, versionLong)
-            .map(FormVersionModel::fromEntity)
+        return formVersionRepository.findSummaryByKeyAndVersion(key, versionLong)
+            .map(this::toModel)
             .orElseThrow(() -> {
                 logger.error("Form version not found for key: {}, version: {}", key, version);
                 return new NotFoundException("Version not found: " + version);
@@ -111,7 +129,8 @@ public class FormServiceImpl implements FormService {
 
         if (!entity.isDeprecated()) {
             entity.setDeprecated(true);
-            formVersionRepository.save(entity);
+            publishChange(ChangeType.UPDATED, formVersionRepository.save(entity));
+            definitionCache.invalidateLatestFormVersion(key);
             logger.info("Form version deprecated successfully for key: {}, version: {}", key, version);
         } else {
             logger.warn("Form version already deprecated for key: {}, version: {}", key, version);
@@ -120,6 +139,7 @@ public class FormServiceImpl implements FormService {
 
     /**
      * 获取指定表单键（key）的最新版本。
+     * 最新版本号由定义缓存记录，创建、发布、废弃或回滚版本时失效。
      *
      * @param key 表单的唯一标识符。
      * @return 返回最新版本的 {@link FormVersionModel} 对象。
@@ -129,8 +149,17 @@ public class FormServiceImpl implements FormService {
     @Transactional
     public FormVersionModel getLatestVersion(String key) {
         logger.debug("Fetching latest version for form key: {}", key);
-        return formVersionRepository.findFirstByKeyOrderByVersionDesc(key)
-            .map(FormVersionModel::fromEntity)
+        Long latest = definitionCache.getLatestFormVersion(key, () -> formVersionRepository.findLatestVersionNumber(key));
+        Optional<FormVersionSummary> summary = Optional.ofNullable(latest)
+            .flatMap(version -> formVersionRepository.findSummaryByKeyAndVersion(key, version));
+        if (latest != null && summary.isEmpty()) {
+            // 版本在别处被删除，记录的最新版本号已过期
+            definitionCache.invalidateLatestFormVersion(key);
+            summary = Optional.ofNullable(formVersionRepository.findLatestVersionNumber(key))
+                .flatMap(version -> formVersionRepository.findSummaryByKeyAndVersion(key, version));
+        }
+        return summary
+            .map(this::toModel)
             .orElseThrow(() -> {
                 logger.warn("No versions found for form key: {}", key);
                 return new NotFoundException("No versions found for form: " + key);
@@ -146,10 +175,9 @@ public class FormServiceImpl implements FormService {
     @Override
     @Transactional
     public List<FormVersionModel> listVersions(String key) {
-        // Using existing repository method with un-paged
-        return formVersionRepository.findByKeyOrderByPublishedDateDesc(key, Pageable.unpaged())
+        return formVersionRepository.findSummariesByKeyOrderByPublishedDateDesc(key)
             .stream()
-            .map(FormVersionModel::fromEntity)
+            .map(this::toModel)
             .collect(Collectors.toList());
     }
 
@@ -172,9 +200,10 @@ public class FormServiceImpl implements FormService {
             
             for (FormVersionEntity version : versions) {
                 version.setDeprecated(deprecated);
-                formVersionRepository.save(version);
+                publishChange(ChangeType.UPDATED, formVersionRepository.save(version));
                 count++;
             }
+            definitionCache.invalidateLatestFormVersion(key);
         }
         return count;
     }
@@ -201,6 +230,8 @@ public class FormServiceImpl implements FormService {
         } else {
             entity.setDeprecated(false);
             FormVersionEntity savedEntity = formVersionRepository.save(entity);
+            definitionCache.invalidateLatestFormVersion(key);
+            publishChange(ChangeType.UPDATED, savedEntity);
             logger.info("Form version rolled back successfully for key: {}, version: {}", key, version);
             return FormVersionModel.fromEntity(savedEntity);
         }
@@ -232,6 +263,10 @@ public class FormServiceImpl implements FormService {
         model.setDeprecated(false);
         FormVersionEntity entity = FormVersionModel.toEntity(model);
         FormVersionEntity savedEntity = formVersionRepository.save(entity);
+        // 发布可能覆盖同一版本的表单定义内容
+        definitionCache.evict(Kind.FORM, model.getKey(), String.valueOf(model.getVersion()));
+        definitionCache.invalidateLatestFormVersion(model.getKey());
+        publishChange(ChangeType.UPDATED, savedEntity);
         logger.info("Form version published successfully for key: {}, version: {}", model.getKey(), model.getVersion());
         return FormVersionModel.fromEntity(savedEntity);
     }
@@ -281,5 +316,16 @@ public class FormServiceImpl implements FormService {
         return getAllFormKeys().size();
     }
 
+    private FormVersionModel toModel(FormVersionSummary summary) {
+        String definition = definitionCache.get(Kind.FORM, summary.key(), String.valueOf(summary.version()),
+            () -> formVersionRepository.findFormDefinitionById(summary.id()));
+        return FormVersionModel.fromSummary(summary, definition);
+    }
 
+    private void publishChange(ChangeType changeType, FormVersionEntity entity) {
+        if (entity != null) {
+            eventPublisher.publishEvent(new ProcessCatalogChangedEvent(this,
+                    EntityType.FORM_VERSION, changeType, entity.getId()));
+        }
+    }
 }
@@ -0,0 +1,203 @@
+package com.spms.backend.service.process.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+
+/**
+ * JSON Patch (RFC 6902) documents: computing one between two JSON values, and applying one.
+ * <p>
+ * {@link #diff} produces {@code add}, {@code remove} and {@code replace} operations only:
+ * objects are compared member by member, arrays element by element with elements added
+ * or removed at the end. {@link #apply} accepts every operation of the RFC.
+ */
+final class JsonPatch {
+
+    private static final JsonNodeFactory FACTORY = JsonNodeFactory.instance;
+
+    private JsonPatch() {
+    }
+
+    /**
+     * @return a patch that turns {@code source} into {@code target}; empty if they are equal
+     */
+    static ArrayNode diff(JsonNode source, JsonNode target) {
+        ArrayNode patch = FACTORY.arrayNode();
+        diff("", source, target, patch);
+        return patch;
+    }
+
+    /**
+     * Applies a patch to a copy of a document.
+     *
+     * @param document the document, left unchanged
+     * @param patch    array of patch operations
+     * @return the patched document
+     * @throws IllegalArgumentException if an operation is malformed, its path does not exist,
+     *                                  or a {@code test} operation fails
+     */
+    static JsonNode apply(JsonNode document, JsonNode patch) {
+        if (!patch.isArray()) {
+            throw new IllegalArgumentException("JSON patch must be an array");
+        }
+        JsonNode result = document == null ? FACTORY.nullNode() : document.deepCopy();
+        for (JsonNode operation : patch) {
+            String op = operation.path("op").asText();
+            List<String> path = parsePointer(operation.path("path").asText(null));
+            result = switch (op) {
+                case "add" -> add(result, path, value(operation));
+                case "remove" -> {
+                    get(result, path);
+                    yield remove(result, path);
+                }
+                case "replace" -> {
+                    get(result, path);
+                    yield add(remove(result, path), path, value(operation));
+                }
+                case "move" -> {
+                    List<String> from = parsePointer(operation.path("from").asText(null));
+                    JsonNode value = get(result, from);
+                    yield add(remove(result, from), path, value);
+                }
+                case "copy" -> add(result, path, get(result, parsePointer(operation.path("from").asText(null))).deepCopy());
+                case "test" -> {
+                    if (!get(result, path).equals(value(operation))) {
+                        throw new IllegalArgumentException("JSON patch test failed at " + operation.path("path").asText());
+                    }
+                    yield result;
+                }
+                default -> throw new IllegalArgumentException("Unknown JSON patch operation: " + op);
+            };
+        }
+        return result;
+    }
+
+    private static void diff(String path, JsonNode source, JsonNode target, ArrayNode patch) {
+        if (source.equals(target)) {
+            return;
+        }
+        if (source.isObject() && target.isObject()) {
+            Iterator<String> names = source.fieldNames();
+            while (names.hasNext()) {
+                String name = names.next();
+                if (!target.has(name)) {
+                    patch.addObject().put("op", "remove").put("path", path + "/" + escape(name));
+                }
+            }
+            Iterator<String> targetNames = target.fieldNames();
+            while (targetNames.hasNext()) {
+                String name = targetNames.next();
+                String childPath = path + "/" + escape(name);
+                if (source.has(name)) {
+                    diff(childPath, source.get(name), target.get(name), patch);
+                } else {
+                    patch.addObject().put("op", "add").put("path", childPath).set("value", target.get(name));
+                }
+            }
+        } else if (source.isArray() && target.isArray()) {
+            int common = Math.min(source.size(), target.size());
+            for (int i = 0; i < common; i++) {
+                diff(path + "/" + i, source.get(i), target.get(i), patch);
+            }
+            // Removed from the end so that the remaining indexes stay valid
+            for (int i = source.size() - 1; i >= common; i--) {
+                patch.addObject().put("op", "remove").put("path", path + "/" + i);
+            }
+            for (int i = common; i < target.size(); i++) {
+                patch.addObject().put("op", "add").put("path", path + "/" + i).set("value", target.get(i));
+            }
+        } else {
+            patch.addObject().put("op", "replace").put("path", path).set("value", target);
+        }
+    }
+
+    private static JsonNode value(JsonNode operation) {
+        if (!operation.has("value")) {
+            throw new IllegalArgumentException("JSON patch operation " + operation.path("op").asText() + " requires a value");
+        }
+        return operation.get("value").deepCopy();
+    }
+
+    private static JsonNode get(JsonNode document, List<String> path) {
+        JsonNode node = document;
+        for (String token : path) {
+            node = node.isArray() ? node.get(index(node, token, false)) : node.get(token);
+            if (node == null) {
+                throw new IllegalArgumentException("JSON patch path does not exist: /" + String.join("/", path));
+            }
+        }
+        return node;
+    }
+
+    private static JsonNode add(JsonNode document, List<String> path, JsonNode value) {
+        if (path.isEmpty()) {
+            return value;
+        }
+        JsonNode parent = get(document, path.subList(0, path.size() - 1));
+        String token = path.get(path.size() - 1);
+        if (parent instanceof ObjectNode object) {
+            object.set(token, value);
+        } else if (parent instanceof ArrayNode array) {
+            array.insert(index(array, token, true), value);
+        } else {
+            throw new IllegalArgumentException("JSON patch path has no container: /" + String.join("/", path));
+        }
+        return document;
+    }
+
+    private static JsonNode remove(JsonNode document, List<String> path) {
+        if (path.isEmpty()) {
+            return FACTORY.nullNode();
+        }
+        JsonNode parent = get(document, path.subList(0, path.size() - 1));
+        String token = path.get(path.size() - 1);
+        if (parent instanceof ObjectNode object) {
+            object.remove(token);
+        } else if (parent instanceof ArrayNode array) {
+            array.remove(index(array, token, false));
+        }
+        return document;
+    }
+
+    private static int index(JsonNode array, String token, boolean forInsert) {
+        if (forInsert && "-".equals(token)) {
+            return array.size();
+        }
+        int index;
+        try {
+            index = Integer.parseInt(token);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid JSON patch array index: " + token);
+        }
+        if (index < 0 || index > (forInsert ? array.size() : array.size() - 1)) {
+            throw new IllegalArgumentException("JSON patch array index out of bounds: " + token);
+        }
+        return index;
+    }
+
+    private static List<String> parsePointer(String pointer) {
+        if (pointer == null) {
+            throw new IllegalArgumentException("JSON patch operation requires a path");
+        }
+        List<String> tokens = new ArrayList<>();
+        if (pointer.isEmpty()) {
+            return tokens;
+        }
+        if (pointer.charAt(0) != '/') {
+            throw new IllegalArgumentException("Invalid JSON pointer: " + pointer);
+        }
+        for (String token : pointer.substring(1).split("/", -1)) {
+            tokens.add(token.replace("~1", "/").replace("~0", "~"));
+        }
+        return tokens;
+    }
+
+    private static String escape(String name) {
+        return name.replace("~", "~0").replace("/", "~1");
+    }
+}
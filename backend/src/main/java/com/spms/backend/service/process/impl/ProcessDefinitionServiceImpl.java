@@ -4,17 +4,24 @@ import com.spms.backend.repository.entities.process.ProcessDefinitionEntity;
 import com.spms.backend.repository.entities.process.ProcessVersionStatus;
 import com.spms.backend.repository.process.FormVersionRepository;
 import com.spms.backend.repository.process.ProcessDefinitionRepository;
+import com.spms.backend.repository.process.ProcessVersionSummary;
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.ValidationException;
 import com.spms.backend.service.idm.UserService;
 import com.spms.backend.service.model.process.FormVersionModel;
 import com.spms.backend.service.model.process.ProcessDefinitionModel;
 import com.spms.backend.service.model.process.ProcessVersionModel;
+import com.spms.backend.service.process.DefinitionCache;
+import com.spms.backend.service.process.DefinitionCache.Kind;
 import com.spms.backend.service.process.ProcessDefinitionService;
+import com.spms.backend.service.process.event.ProcessCatalogChangedEvent;
+import com.spms.backend.service.process.event.ProcessCatalogChangedEvent.ChangeType;
+import com.spms.backend.service.process.event.ProcessCatalogChangedEvent.EntityType;
 import com.spms.backend.repository.entities.process.ProcessVersionEntity;
 import com.spms.backend.repository.process.ProcessVersionRepository;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -22,6 +29,7 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.util.Date;
 import java.util.Optional;
+import java.util.function.Supplier;
 
 @Service
 public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
@@ -30,6 +38,8 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
     private final ProcessVersionRepository processVersionRepository;
     private final ProcessDefinitionRepository processDefinitionRepository;
     private final FormVersionRepository formVersionRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final DefinitionCache definitionCache;
     
     private static final Logger log = LoggerFactory.getLogger(ProcessDefinitionServiceImpl.class);
 
@@ -37,12 +47,16 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
             UserService userService,
             ProcessVersionRepository processVersionRepository,
             ProcessDefinitionRepository processDefinitionRepository,
-            FormVersionRepository formVersionRepository
+            FormVersionRepository formVersionRepository,
+            ApplicationEventPublisher eventPublisher,
+            DefinitionCache definitionCache
     ) {
         this.userService = userService;
         this.processVersionRepository = processVersionRepository;
         this.processDefinitionRepository = processDefinitionRepository;
         this.formVersionRepository = formVersionRepository;
+        this.eventPublisher = eventPublisher;
+        this.definitionCache = definitionCache;
     }
 
     @Override
@@ -102,8 +116,8 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
 
     @Override
     public Optional<ProcessVersionModel> getProcessDefinitionVersion(Long definitionId, String version) {
-        Optional<ProcessVersionEntity> entity = processVersionRepository.findByProcessDefinitionIdAndVersion(definitionId, version);
-        return entity.map(ProcessVersionModel::fromEntity);
+        return processVersionRepository.findSummaryByProcessDefinitionIdAndVersion(definitionId, version)
+                .map(this::toVersionModel);
     }
 
     public Optional<ProcessVersionModel> getProcessVersionByDeploymentId(String deploymentId) {
@@ -111,7 +125,7 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
         if (deploymentId == null || deploymentId.isEmpty()) {
             throw new ValidationException("Definition ID cannot be null or empty");
         }
-        return processVersionRepository.findByFlowableDeploymentId(deploymentId).map(ProcessVersionModel::fromEntity);
+        return processVersionRepository.findSummaryByFlowableDeploymentId(deploymentId).map(this::toVersionModel);
 
     }
 
@@ -127,9 +141,9 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
             Long defId = Long.parseLong(definitionId);
             Long versionId = Long.parseLong(versionIdStr);
 
-            return processVersionRepository.findById(versionId)
-                    .filter(version -> version.getProcessDefinition().getId().equals(defId))
-                    .map(ProcessVersionModel::fromEntity);
+            return processVersionRepository.findSummaryById(versionId)
+                    .filter(version -> defId.equals(version.processDefinitionId()))
+                    .map(this::toVersionModel);
         } catch (NumberFormatException e) {
             throw new ValidationException("Invalid definition ID format");
         }
@@ -182,6 +196,8 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
         }
         // Save new version
         ProcessVersionEntity savedVersion = processVersionRepository.save(newVersion);
+        eventPublisher.publishEvent(new ProcessCatalogChangedEvent(this,
+                EntityType.PROCESS_VERSION, ChangeType.CREATED, savedVersion.getId()));
 
         // Return created version as model
         return ProcessVersionModel.fromEntity(savedVersion);
@@ -199,6 +215,8 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
         entity.setUpdatedById(userService.getCurrentUserId());
         entity.setCreatedById(userService.getCurrentUserId());
         ProcessDefinitionEntity savedEntity = this.processDefinitionRepository.save(entity);
+        eventPublisher.publishEvent(new ProcessCatalogChangedEvent(this,
+                EntityType.PROCESS_DEFINITION, ChangeType.CREATED, savedEntity.getId()));
         var support = userService.getFulfilledSupporter();
         var result = ProcessDefinitionModel.fromEntity(savedEntity, support);
         support.fulfill();
@@ -248,8 +266,27 @@ public class ProcessDefinitionServiceImpl implements ProcessDefinitionService {
 
         // Save updated version
         ProcessVersionEntity updatedVersion = processVersionRepository.save(existingVersion);
+        eventPublisher.publishEvent(new ProcessCatalogChangedEvent(this,
+                EntityType.PROCESS_VERSION, ChangeType.UPDATED, versionId));
 
         // Return updated version as model
         return ProcessVersionModel.fromEntity(updatedVersion);
     }
+
+    /**
+     * Builds a version model from its columns, taking the BPMN XML and the form definition
+     * from the definition cache. Drafts can still be edited, so their BPMN XML is always read.
+     */
+    private ProcessVersionModel toVersionModel(ProcessVersionSummary summary) {
+        Supplier<String> loader = () -> processVersionRepository.findBpmnXmlById(summary.id());
+        String bpmnXml = summary.status() == ProcessVersionStatus.DRAFT
+                ? loader.get()
+                : definitionCache.get(Kind.PROCESS, summary.key(), summary.version(), loader);
+        FormVersionModel relatedForm = summary.formVersionId() == null ? null
+                : formVersionRepository.findSummaryById(summary.formVersionId())
+                        .map(form -> FormVersionModel.fromSummary(form, definitionCache.get(Kind.FORM, form.key(),
+                                String.valueOf(form.version()), () -> formVersionRepository.findFormDefinitionById(form.id()))))
+                        .orElse(null);
+        return ProcessVersionModel.fromSummary(summary, bpmnXml, relatedForm);
+    }
 }
@@ -7,12 +7,18 @@ import com.spms.backend.repository.process.ProcessVersionRepository;
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.SpmsRuntimeException;
 import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.process.DefinitionCache;
+import com.spms.backend.service.process.DefinitionCache.Kind;
 import com.spms.backend.service.process.ProcessDeploymentService;
+import com.spms.backend.service.process.event.ProcessCatalogChangedEvent;
+import com.spms.backend.service.process.event.ProcessCatalogChangedEvent.ChangeType;
+import com.spms.backend.service.process.event.ProcessCatalogChangedEvent.EntityType;
 import org.flowable.engine.ProcessEngine;
 import org.flowable.engine.RepositoryService;
 import org.flowable.engine.repository.Deployment;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
@@ -28,17 +34,23 @@ public class ProcessDeploymentServiceImpl implements ProcessDeploymentService {
     private final ProcessDefinitionRepository processDefinitionRepository;
     private final ProcessVersionRepository processVersionRepository;
     private final ProcessEngine flowableEngine;
+    private final DefinitionCache definitionCache;
+    private final ApplicationEventPublisher eventPublisher;
     
     private static final Logger log = LoggerFactory.getLogger(ProcessDeploymentServiceImpl.class);
 
     public ProcessDeploymentServiceImpl(
             ProcessDefinitionRepository processDefinitionRepository,
             ProcessVersionRepository processVersionRepository,
-            ProcessEngine flowableEngine
+            ProcessEngine flowableEngine,
+            DefinitionCache definitionCache,
+            ApplicationEventPublisher eventPublisher
     ) {
         this.processDefinitionRepository = processDefinitionRepository;
         this.processVersionRepository = processVersionRepository;
         this.flowableEngine = flowableEngine;
+        this.definitionCache = definitionCache;
+        this.eventPublisher = eventPublisher;
     }
 
     /**
@@ -78,6 +90,7 @@ public class ProcessDeploymentServiceImpl implements ProcessDeploymentService {
                 deployedVersion.setStatus(ProcessVersionStatus.DEPRECATED);
                 deployedVersion.setUpdatedById(ownerId);
                 processVersionRepository.save(deployedVersion);
+                publishChange(deployedVersion);
                 log.info("Marked version {} as DEPRECATED for definition {} (ID: {})", 
                          deployedVersion.getVersion(), definition.getName(), definitionId);
             }
@@ -122,6 +135,8 @@ public class ProcessDeploymentServiceImpl implements ProcessDeploymentService {
                 entity.setDeployedToFlowable(true);
                 entity.setUpdatedById(ownerId);
                 processVersionRepository.save(entity);
+                definitionCache.evict(Kind.PROCESS, entity.getKey(), entity.getVersion());
+                publishChange(entity);
 
                 log.info("Successfully deployed process. Definition: {} (ID: {}), Version: {}, Deployment ID: {}", 
                          definition.getName(), definitionId, version, deployment.getId());
@@ -179,6 +194,8 @@ public class ProcessDeploymentServiceImpl implements ProcessDeploymentService {
             entity.setFlowableDeploymentId(null);
             entity.setStatus(ProcessVersionStatus.DEPRECATED);
             processVersionRepository.save(entity);
+            definitionCache.evict(Kind.PROCESS, entity.getKey(), entity.getVersion());
+            publishChange(entity);
             
             log.info("Marked version {} as DEPRECATED for definition {} (ID: {})", 
                      version, entity.getProcessDefinition().getName(), definitionId);
@@ -188,4 +205,9 @@ public class ProcessDeploymentServiceImpl implements ProcessDeploymentService {
             throw new SpmsRuntimeException("Failed to undeploy process from Flowable", e);
         }
     }
+
+    private void publishChange(ProcessVersionEntity entity) {
+        eventPublisher.publishEvent(new ProcessCatalogChangedEvent(this,
+                EntityType.PROCESS_VERSION, ChangeType.UPDATED, entity.getId()));
+    }
 }
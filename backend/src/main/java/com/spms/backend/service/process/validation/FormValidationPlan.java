@@ -0,0 +1,149 @@
+package com.spms.backend.service.process.validation;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable, precompiled validation of the data submitted for one form version, built by
+ * {@link FormValidatorCompiler}.
+ * <p>
+ * The plan mirrors the shape of the data: a scope per object level maps each key to its field,
+ * with the checks of the field ready to run (patterns compiled, bounds parsed, allowed values
+ * hashed). Validation walks the submitted map once; required fields are tracked per scope
+ * while walking and reported afterwards. Keys the form does not declare are ignored.
+ */
+public final class FormValidationPlan {
+
+    /**
+     * A check of a non-empty value.
+     */
+    @FunctionalInterface
+    interface Check {
+        /**
+         * @return the problem, completing "&lt;field&gt; ...", or {@code null} if the value passes
+         */
+        String apply(Object value);
+    }
+
+    /**
+     * A key of an object level. Exactly one of {@code checks}, {@code object} and
+     * {@code listElement} describes its value.
+     *
+     * @param requiredSlot position of the field in {@link Scope#required()} of its scope, or -1
+     */
+    record Field(String name, int requiredSlot, Check[] checks, Scope object, Scope listElement) {
+    }
+
+    /**
+     * One object level of the data.
+     *
+     * @param fields   fields by key
+     * @param required fields whose absence is a violation: required values, and objects
+     *                 containing required values
+     */
+    record Scope(Map<String, Field> fields, Field[] required) {
+    }
+
+    private final Scope root;
+
+    private final int fieldCount;
+
+    FormValidationPlan(Scope root, int fieldCount) {
+        this.root = root;
+        this.fieldCount = fieldCount;
+    }
+
+    /**
+     * @return number of validated fields, including those of nested objects and list elements
+     */
+    public int getFieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * Validates submitted form data.
+     *
+     * @param data submitted form data
+     * @return the violations, each naming the field path; empty if the data is valid
+     */
+    public List<String> validate(Map<String, ?> data) {
+        List<String> violations = new ArrayList<>();
+        validate(root, data, "", violations);
+        return violations;
+    }
+
+    private static void validate(Scope scope, Map<?, ?> data, String prefix, List<String> violations) {
+        Field[] required = scope.required();
+        int seen = 0;
+        boolean[] present = required.length == 0 ? null : new boolean[required.length];
+        for (Map.Entry<?, ?> entry : data.entrySet()) {
+            Field field = scope.fields().get(String.valueOf(entry.getKey()));
+            Object value = entry.getValue();
+            if (field == null || isEmpty(value)) {
+                continue;
+            }
+            if (field.requiredSlot() >= 0 && !present[field.requiredSlot()]) {
+                present[field.requiredSlot()] = true;
+                seen++;
+            }
+            String path = prefix + field.name();
+            if (field.object() != null) {
+                if (value instanceof Map<?, ?> map) {
+                    validate(field.object(), map, path + ".", violations);
+                } else {
+                    violations.add(path + " must be an object");
+                }
+            } else if (field.listElement() != null) {
+                validateList(field.listElement(), value, path, violations);
+            } else {
+                for (Check check : field.checks()) {
+                    String problem = check.apply(value);
+                    if (problem != null) {
+                        violations.add(path + " " + problem);
+                        break;
+                    }
+                }
+            }
+        }
+        if (seen < required.length) {
+            for (int i = 0; i < required.length; i++) {
+                if (!present[i]) {
+                    reportMissing(required[i], prefix, violations);
+                }
+            }
+        }
+    }
+
+    private static void validateList(Scope element, Object value, String path, List<String> violations) {
+        if (!(value instanceof List<?> list)) {
+            violations.add(path + " must be a list");
+            return;
+        }
+        for (int i = 0; i < list.size(); i++) {
+            if (list.get(i) instanceof Map<?, ?> map) {
+                validate(element, map, path + "[" + i + "].", violations);
+            } else {
+                violations.add(path + "[" + i + "] must be an object");
+            }
+        }
+    }
+
+    private static void reportMissing(Field field, String prefix, List<String> violations) {
+        String path = prefix + field.name();
+        if (field.object() != null) {
+            for (Field child : field.object().required()) {
+                reportMissing(child, path + ".", violations);
+            }
+        } else {
+            violations.add(path + " is required");
+        }
+    }
+
+    private static boolean isEmpty(Object value) {
+        return value == null
+                || value instanceof String text && text.isEmpty()
+                || value instanceof Collection<?> collection && collection.isEmpty();
+    }
+}
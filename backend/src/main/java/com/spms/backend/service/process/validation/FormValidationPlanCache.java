@@ -0,0 +1,120 @@
+package com.spms.backend.service.process.validation;
+
+import com.spms.backend.config.FormInstanceProperties;
+import com.spms.backend.repository.process.FormVersionRepository;
+import com.spms.backend.repository.process.FormVersionSummary;
+import com.spms.backend.service.model.process.FormVersionModel;
+import com.spms.backend.service.process.DefinitionCache;
+import com.spms.backend.service.process.event.ProcessCatalogChangedEvent;
+import com.spms.backend.service.process.event.ProcessCatalogChangedEvent.EntityType;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Validation plans of form versions, compiled once per key and version and kept in an LRU map.
+ * <p>
+ * A version without a stored definition has no plan, which is remembered as well. Any change
+ * to a form version clears the map, since published definitions may be replaced.
+ */
+@Component
+public class FormValidationPlanCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(FormValidationPlanCache.class);
+
+    private final FormVersionRepository formVersionRepository;
+
+    private final DefinitionCache definitionCache;
+
+    private final Map<String, Optional<FormValidationPlan>> plans;
+
+    private final AtomicLong invalidations = new AtomicLong();
+
+    public FormValidationPlanCache(FormVersionRepository formVersionRepository, DefinitionCache definitionCache,
+                                   FormInstanceProperties properties) {
+        this.formVersionRepository = formVersionRepository;
+        this.definitionCache = definitionCache;
+        this.plans = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Optional<FormValidationPlan>> eldest) {
+                return size() > properties.getValidatorCacheSize();
+            }
+        };
+    }
+
+    /**
+     * Returns the validation plan of a form version, compiling it on first use.
+     *
+     * @param formKey form key
+     * @param version version as submitted with form instances, such as {@code 1.2.0}
+     * @return the plan, or {@code null} if the version does not exist or has no usable definition
+     */
+    public FormValidationPlan get(String formKey, String version) {
+        Long versionNumber;
+        try {
+            versionNumber = FormVersionModel.convertVersionStringToLong(version);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+        String cacheKey = formKey + ":" + versionNumber;
+        synchronized (plans) {
+            Optional<FormValidationPlan> plan = plans.get(cacheKey);
+            if (plan != null) {
+                return plan.orElse(null);
+            }
+        }
+
+        long stamp = invalidations.get();
+        Optional<FormValidationPlan> plan = Optional.ofNullable(load(formKey, versionNumber));
+        synchronized (plans) {
+            // A change committed while compiling may not be part of what was compiled
+            if (invalidations.get() == stamp) {
+                plans.put(cacheKey, plan);
+            }
+        }
+        return plan.orElse(null);
+    }
+
+    /**
+     * Drops all plans when a form version changes.
+     *
+     * @param event the process catalog change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProcessCatalogChanged(ProcessCatalogChangedEvent event) {
+        if (event.getEntityType() != EntityType.FORM_VERSION) {
+            return;
+        }
+        synchronized (plans) {
+            invalidations.incrementAndGet();
+            plans.clear();
+        }
+    }
+
+    private FormValidationPlan load(String formKey, Long version) {
+        FormVersionSummary summary = formVersionRepository.findSummaryByKeyAndVersion(formKey, version).orElse(null);
+        if (summary == null) {
+            return null;
+        }
+        String definition = definitionCache.get(DefinitionCache.Kind.FORM, formKey, String.valueOf(version),
+                () -> formVersionRepository.findFormDefinitionById(summary.id()));
+        if (definition == null || definition.isBlank()) {
+            return null;
+        }
+        try {
+            FormValidationPlan plan = FormValidatorCompiler.compile(definition);
+            logger.debug("Compiled validation plan of form {} version {} with {} fields",
+                    formKey, version, plan.getFieldCount());
+            return plan;
+        } catch (IllegalArgumentException e) {
+            logger.warn("Form {} version {} has an unusable definition: {}", formKey, version, e.getMessage());
+            return null;
+        }
+    }
+}
@@ -0,0 +1,314 @@
+package com.spms.backend.service.process.validation;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.backend.service.process.validation.FormValidationPlan.Check;
+import com.spms.backend.service.process.validation.FormValidationPlan.Field;
+import com.spms.backend.service.process.validation.FormValidationPlan.Scope;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * Compiles a form definition, as stored in {@code FormVersionEntity.formDefinition}, into a
+ * {@link FormValidationPlan}.
+ * <p>
+ * Definitions are form-js schemas: a tree of {@code components}, each with a {@code type}, a
+ * {@code key} naming its value (dots in a key make nested objects), optional static
+ * {@code values} and a {@code validate} block ({@code required}, {@code min}/{@code max},
+ * {@code minLength}/{@code maxLength}, {@code pattern}, {@code validationType}). Groups with a
+ * {@code path} nest their fields in an object, dynamic lists in a list of objects. Display-only
+ * components are skipped.
+ * <p>
+ * Fields that are disabled or shown conditionally are never required, since their condition
+ * is evaluated by the form renderer; their values are still checked when present.
+ */
+public final class FormValidatorCompiler {
+
+    private static final Logger logger = LoggerFactory.getLogger(FormValidatorCompiler.class);
+
+    private static final ObjectMapper objectMapper = new ObjectMapper();
+
+    // Same checks as the form renderer applies for validationType
+    private static final Pattern EMAIL = Pattern.compile("^[\\w.+-]+@([\\w-]+\\.)+[\\w-]{2,}$");
+    private static final Pattern PHONE = Pattern.compile("^\\+?[0-9\\s()-]{5,}$");
+
+    private static final Set<String> DISPLAY_TYPES = Set.of(
+            "text", "html", "image", "spacer", "separator", "button", "iframe", "table", "documentPreview");
+
+    private static final Check TEXT = x -> x instanceof String ? null : "must be text";
+    private static final Check BOOLEAN = x -> x instanceof Boolean ? null : "must be true or false";
+    private static final Check LIST = x -> x instanceof List ? null : "must be a list";
+    private static final Check NUMBER = x -> toNumber(x) != null ? null : "must be a number";
+    private static final Check DATE = x -> {
+        try {
+            LocalDate.parse((String) x);
+            return null;
+        } catch (DateTimeParseException e) {
+            return "must be a date (yyyy-MM-dd)";
+        }
+    };
+
+    private FormValidatorCompiler() {
+    }
+
+    /**
+     * Compiles a form definition.
+     *
+     * @param formDefinition form-js schema as JSON text
+     * @return the validation plan
+     * @throws IllegalArgumentException if the definition is not a JSON object
+     */
+    public static FormValidationPlan compile(String formDefinition) {
+        JsonNode definition;
+        try {
+            definition = objectMapper.readTree(formDefinition);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Form definition is not valid JSON: " + e.getOriginalMessage(), e);
+        }
+        if (definition == null || !definition.isObject()) {
+            throw new IllegalArgumentException("Form definition must be a JSON object");
+        }
+        ScopeBuilder root = new ScopeBuilder();
+        addComponents(definition.path("components"), root);
+        int[] fieldCount = new int[1];
+        return new FormValidationPlan(root.build(fieldCount), fieldCount[0]);
+    }
+
+    private static void addComponents(JsonNode components, ScopeBuilder scope) {
+        for (JsonNode component : components) {
+            String type = component.path("type").asText("");
+            if (DISPLAY_TYPES.contains(type)) {
+                continue;
+            }
+            switch (type) {
+                case "group" -> {
+                    String path = component.path("path").asText("");
+                    addComponents(component.path("components"),
+                            path.isEmpty() ? scope : scope.object(path.split("\\.")));
+                }
+                case "dynamiclist" -> {
+                    String path = component.path("path").asText("");
+                    if (!path.isEmpty()) {
+                        addComponents(component.path("components"), scope.list(path.split("\\.")));
+                    }
+                }
+                default -> {
+                    String key = component.path("key").asText("");
+                    if (!key.isEmpty()) {
+                        FieldBuilder field = scope.field(key.split("\\."));
+                        JsonNode validate = component.path("validate");
+                        field.required = validate.path("required").asBoolean(false)
+                                && !component.path("disabled").asBoolean(false)
+                                && !component.has("conditional");
+                        field.checks = compileChecks(type, component, validate);
+                    }
+                }
+            }
+        }
+    }
+
+    private static List<Check> compileChecks(String type, JsonNode component, JsonNode validate) {
+        List<Check> checks = new ArrayList<>();
+        switch (type) {
+            case "textfield", "textarea" -> {
+                checks.add(TEXT);
+                addLengthChecks(validate, checks);
+                addPatternCheck(validate, checks);
+            }
+            case "number" -> {
+                checks.add(NUMBER);
+                addRangeChecks(validate, checks);
+                if (component.path("decimalDigits").isInt()) {
+                    int digits = component.path("decimalDigits").asInt();
+                    checks.add(x -> toNumber(x).stripTrailingZeros().scale() <= digits ? null
+                            : "must have at most " + digits + " decimal digits");
+                }
+            }
+            case "checkbox" -> checks.add(BOOLEAN);
+            case "radio", "select" -> {
+                Set<String> values = staticValues(component);
+                if (values != null) {
+                    checks.add(x -> values.contains(String.valueOf(x)) ? null : "must be one of " + values);
+                }
+            }
+            case "checklist", "taglist" -> {
+                checks.add(LIST);
+                Set<String> values = staticValues(component);
+                if (values != null) {
+                    checks.add(x -> {
+                        for (Object item : (List<?>) x) {
+                            if (!values.contains(String.valueOf(item))) {
+                                return "must only contain values of " + values;
+                            }
+                        }
+                        return null;
+                    });
+                }
+            }
+            case "datetime" -> {
+                checks.add(TEXT);
+                if ("date".equals(component.path("subtype").asText())) {
+                    checks.add(DATE);
+                }
+            }
+            default -> {
+                // Other inputs (file pickers, expressions, custom components) are only checked for presence
+            }
+        }
+        return checks;
+    }
+
+    private static void addLengthChecks(JsonNode validate, List<Check> checks) {
+        if (validate.path("minLength").isInt()) {
+            int minLength = validate.path("minLength").asInt();
+            checks.add(x -> ((String) x).length() >= minLength ? null
+                    : "must have at least " + minLength + " characters");
+        }
+        if (validate.path("maxLength").isInt()) {
+            int maxLength = validate.path("maxLength").asInt();
+            checks.add(x -> ((String) x).length() <= maxLength ? null
+                    : "must have at most " + maxLength + " characters");
+        }
+    }
+
+    private static void addPatternCheck(JsonNode validate, List<Check> checks) {
+        String validationType = validate.path("validationType").asText("");
+        if ("email".equals(validationType)) {
+            checks.add(x -> EMAIL.matcher((String) x).matches() ? null : "must be a valid email address");
+        } else if ("phone".equals(validationType)) {
+            checks.add(x -> PHONE.matcher((String) x).matches() ? null : "must be a valid phone number");
+        } else if (validate.hasNonNull("pattern") && !validate.path("pattern").asText().isEmpty()) {
+            String regex = validate.path("pattern").asText();
+            try {
+                // Like the renderer's RegExp.test, the pattern may match anywhere unless anchored
+                Pattern pattern = Pattern.compile(regex);
+                checks.add(x -> pattern.matcher((String) x).find() ? null : "does not match the required pattern");
+            } catch (PatternSyntaxException e) {
+                logger.warn("Ignoring invalid pattern in form definition: {}", regex);
+            }
+        }
+    }
+
+    private static void addRangeChecks(JsonNode validate, List<Check> checks) {
+        if (validate.path("min").isNumber()) {
+            BigDecimal min = validate.path("min").decimalValue();
+            checks.add(x -> toNumber(x).compareTo(min) >= 0 ? null : "must be at least " + min.toPlainString());
+        }
+        if (validate.path("max").isNumber()) {
+            BigDecimal max = validate.path("max").decimalValue();
+            checks.add(x -> toNumber(x).compareTo(max) <= 0 ? null : "must be at most " + max.toPlainString());
+        }
+    }
+
+    /**
+     * @return the allowed values, or {@code null} if they are not static (loaded from data or an expression)
+     */
+    private static Set<String> staticValues(JsonNode component) {
+        JsonNode values = component.path("values");
+        if (!values.isArray()) {
+            return null;
+        }
+        Set<String> allowed = new HashSet<>();
+        for (JsonNode value : values) {
+            allowed.add(value.path("value").asText());
+        }
+        return Set.copyOf(allowed);
+    }
+
+    private static BigDecimal toNumber(Object value) {
+        if (value instanceof BigDecimal number) {
+            return number;
+        }
+        if (value instanceof Number || value instanceof String) {
+            // The renderer submits numbers as strings when the field serializes to text
+            try {
+                return new BigDecimal(value.toString().trim());
+            } catch (NumberFormatException e) {
+                return null;
+            }
+        }
+        return null;
+    }
+
+    private static final class ScopeBuilder {
+        private final Map<String, FieldBuilder> fields = new LinkedHashMap<>();
+
+        FieldBuilder field(String[] path) {
+            ScopeBuilder scope = this;
+            for (int i = 0; i < path.length - 1; i++) {
+                scope = scope.child(path[i]).object();
+            }
+            return scope.child(path[path.length - 1]);
+        }
+
+        ScopeBuilder object(String[] path) {
+            return field(path).object();
+        }
+
+        ScopeBuilder list(String[] path) {
+            FieldBuilder field = field(path);
+            if (field.listElement == null) {
+                field.listElement = new ScopeBuilder();
+            }
+            return field.listElement;
+        }
+
+        private FieldBuilder child(String name) {
+            return fields.computeIfAbsent(name, FieldBuilder::new);
+        }
+
+        Scope build(int[] fieldCount) {
+            Map<String, Field> built = new HashMap<>();
+            List<Field> required = new ArrayList<>();
+            for (FieldBuilder builder : fields.values()) {
+                Scope object = builder.object == null ? null : builder.object.build(fieldCount);
+                Scope listElement = builder.listElement == null ? null : builder.listElement.build(fieldCount);
+                boolean isRequired = object != null ? object.required().length > 0 : builder.required;
+                Field field = new Field(builder.name, isRequired ? required.size() : -1,
+                        builder.checks.toArray(new Check[0]), object,
+                        object == null ? listElement : null);
+                if (isRequired) {
+                    required.add(field);
+                }
+                if (object == null && listElement == null) {
+                    fieldCount[0]++;
+                }
+                built.put(builder.name, field);
+            }
+            return new Scope(Map.copyOf(built), required.toArray(new Field[0]));
+        }
+    }
+
+    private static final class FieldBuilder {
+        private final String name;
+        private boolean required;
+        private List<Check> checks = List.of();
+        private ScopeBuilder object;
+        private ScopeBuilder listElement;
+
+        FieldBuilder(String name) {
+            this.name = name;
+        }
+
+        ScopeBuilder object() {
+            if (object == null) {
+                object = new ScopeBuilder();
+            }
+            return object;
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package com.spms.backend.service.search;
+
+import com.spms.backend.service.model.search.SearchDocumentType;
+import com.spms.backend.service.model.search.SearchFacet;
+import com.spms.backend.service.model.search.SearchResult;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Global full-text search over companies, divisions, departments, users, roles, process
+ * definitions and form versions.
+ * <p>
+ * Searches are answered from an embedded index saved on local disk. The index follows
+ * committed changes asynchronously, so a change may take a moment to become searchable.
+ */
+public interface SearchService {
+
+    /**
+     * Finds entities matching every word of the query; the last word also matches as a prefix.
+     *
+     * @param query   search text
+     * @param types   kinds of entities to return; empty for all
+     * @param filters required facet values; {@link SearchFacet#TYPE} is ignored, use {@code types}
+     * @param page    zero-based page number
+     * @param size    page size; capped by the configured maximum
+     * @return the requested page with facet counts
+     */
+    SearchResult search(String query, Set<SearchDocumentType> types, Map<SearchFacet, String> filters,
+                        int page, int size);
+
+    /**
+     * Requests a full rebuild of the index from the database. The rebuild runs in the
+     * background; searches keep using the current index until it is done.
+     */
+    void reindex();
+}
@@ -0,0 +1,343 @@
+package com.spms.backend.service.search.impl;
+
+import com.spms.backend.service.model.search.SearchDocumentType;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * In-memory inverted index with BM25 ranking for the global search.
+ * <p>
+ * Words are indexed with their frequency per document, where a word in the title counts
+ * three times and a word in the subtitle twice. All query words must match; the last one
+ * also matches as a prefix, with a lower score than an exact match. Han characters are
+ * indexed one by one, so Chinese names match on any of their characters.
+ * <p>
+ * Only the documents are written to disk; the postings are rebuilt when reading them.
+ * Readers share a lock; writers replace one document at a time.
+ */
+final class FullTextIndex {
+
+    private static final int FORMAT_VERSION = 1;
+
+    // Upper bound of a single field when reading, so a corrupt length cannot exhaust the heap
+    static final int MAX_FIELD_BYTES = 8 * 1024 * 1024;
+
+    private static final int TITLE_WEIGHT = 3;
+    private static final int SUBTITLE_WEIGHT = 2;
+    private static final int TEXT_WEIGHT = 1;
+
+    private static final double K1 = 1.2;
+    private static final double B = 0.75;
+    private static final double PREFIX_WEIGHT = 0.8;
+
+    private final Map<Key, Entry> documents = new HashMap<>();
+
+    private final NavigableMap<String, Map<Entry, Integer>> postings = new TreeMap<>();
+
+    private long totalLength;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /**
+     * An indexed document.
+     *
+     * @param type     kind of entity
+     * @param id       entity ID
+     * @param title    display text, may be {@code null}
+     * @param subtitle secondary display text, may be {@code null}
+     * @param text     further searchable text, may be {@code null}
+     * @param category category facet value, may be {@code null}
+     * @param status   status facet value, may be {@code null}
+     */
+    record Document(SearchDocumentType type, long id, String title, String subtitle, String text,
+                    String category, String status) {
+    }
+
+    /**
+     * A matching document with its score.
+     */
+    record Match(Document document, double score) {
+    }
+
+    private record Key(SearchDocumentType type, long id) {
+    }
+
+    private static final class Entry {
+        private final Document document;
+        private final Map<String, Integer> frequencies;
+        private final int length;
+
+        private Entry(Document document) {
+            this.document = document;
+            this.frequencies = new HashMap<>();
+            addTerms(frequencies, document.title(), TITLE_WEIGHT);
+            addTerms(frequencies, document.subtitle(), SUBTITLE_WEIGHT);
+            addTerms(frequencies, document.text(), TEXT_WEIGHT);
+            this.length = frequencies.values().stream().mapToInt(Integer::intValue).sum();
+        }
+    }
+
+    /**
+     * Adds the document, replacing the one with the same type and ID.
+     */
+    void put(Document document) {
+        Entry entry = new Entry(document);
+        lock.writeLock().lock();
+        try {
+            removeEntry(new Key(document.type(), document.id()));
+            documents.put(new Key(document.type(), document.id()), entry);
+            entry.frequencies.forEach((term, frequency) ->
+                    postings.computeIfAbsent(term, x -> new HashMap<>()).put(entry, frequency));
+            totalLength += entry.length;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * @return whether the document was indexed
+     */
+    boolean remove(SearchDocumentType type, long id) {
+        lock.writeLock().lock();
+        try {
+            return removeEntry(new Key(type, id));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return documents.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Finds the documents matching every word of the query, in no particular order.
+     * A query without words matches every document with a score of zero.
+     */
+    List<Match> search(String query) {
+        List<String> terms = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        lock.readLock().lock();
+        try {
+            if (terms.isEmpty()) {
+                return documents.values().stream().map(x -> new Match(x.document, 0)).toList();
+            }
+            double averageLength = documents.isEmpty() ? 1 : (double) totalLength / documents.size();
+            List<Map<Entry, Double>> scores = new ArrayList<>(terms.size());
+            for (int i = 0; i < terms.size(); i++) {
+                Map<Entry, Double> termScores = i == terms.size() - 1
+                        ? scorePrefix(terms.get(i), averageLength)
+                        : score(terms.get(i), averageLength);
+                if (termScores.isEmpty()) {
+                    return List.of();
+                }
+                scores.add(termScores);
+            }
+            scores.sort(Comparator.comparingInt(Map::size));
+
+            List<Match> matches = new ArrayList<>();
+            candidates:
+            for (Map.Entry<Entry, Double> candidate : scores.get(0).entrySet()) {
+                double total = candidate.getValue();
+                for (int i = 1; i < scores.size(); i++) {
+                    Double score = scores.get(i).get(candidate.getKey());
+                    if (score == null) {
+                        continue candidates;
+                    }
+                    total += score;
+                }
+                matches.add(new Match(candidate.getKey().document, total));
+            }
+            return matches;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Writes the documents; {@link #readFrom} rebuilds the index from them.
+     */
+    void writeTo(OutputStream out) throws IOException {
+        DataOutputStream data = new DataOutputStream(out);
+        lock.readLock().lock();
+        try {
+            data.writeInt(FORMAT_VERSION);
+            data.writeInt(documents.size());
+            for (Entry entry : documents.values()) {
+                Document document = entry.document;
+                data.writeUTF(document.type().name());
+                data.writeLong(document.id());
+                writeString(data, document.title());
+                writeString(data, document.subtitle());
+                writeString(data, document.text());
+                writeString(data, document.category());
+                writeString(data, document.status());
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        data.flush();
+    }
+
+    /**
+     * @throws IOException if the data is truncated, corrupt or was written in another format
+     */
+    static FullTextIndex readFrom(InputStream in) throws IOException {
+        DataInputStream data = new DataInputStream(in);
+        int version = data.readInt();
+        if (version != FORMAT_VERSION) {
+            throw new IOException("Unsupported search index format: " + version);
+        }
+        FullTextIndex index = new FullTextIndex();
+        int count = data.readInt();
+        if (count < 0) {
+            throw new IOException("Invalid document count in search index: " + count);
+        }
+        for (int i = 0; i < count; i++) {
+            SearchDocumentType type;
+            try {
+                type = SearchDocumentType.valueOf(data.readUTF());
+            } catch (IllegalArgumentException e) {
+                throw new IOException("Unknown document type in search index", e);
+            }
+            index.put(new Document(type, data.readLong(), readString(data), readString(data),
+                    readString(data), readString(data), readString(data)));
+        }
+        return index;
+    }
+
+    /**
+     * Splits text into lower-case words of letters and digits; every Han character is a word of its own.
+     */
+    static List<String> tokenize(String text) {
+        if (text == null || text.isEmpty()) {
+            return List.of();
+        }
+        List<String> terms = new ArrayList<>();
+        StringBuilder word = new StringBuilder();
+        text.toLowerCase(Locale.ROOT).codePoints().forEach(codePoint -> {
+            if (Character.isIdeographic(codePoint)) {
+                flush(word, terms);
+                terms.add(new String(Character.toChars(codePoint)));
+            } else if (Character.isLetterOrDigit(codePoint)) {
+                word.appendCodePoint(codePoint);
+            } else {
+                flush(word, terms);
+            }
+        });
+        flush(word, terms);
+        return terms;
+    }
+
+    private Map<Entry, Double> score(String term, double averageLength) {
+        Map<Entry, Integer> termPostings = postings.getOrDefault(term, Map.of());
+        Map<Entry, Double> scores = new HashMap<>();
+        score(termPostings, idf(termPostings.size()), averageLength, 1, scores);
+        return scores;
+    }
+
+    private Map<Entry, Double> scorePrefix(String prefix, double averageLength) {
+        Map<Entry, Integer> exact = postings.getOrDefault(prefix, Map.of());
+        Collection<Map<Entry, Integer>> longer =
+                postings.subMap(prefix, false, prefix + Character.MAX_VALUE, false).values();
+        // All words starting with the prefix share the rarity of the prefix, so a rare longer
+        // word cannot outrank an exact match of a common one
+        Set<Entry> matching = new HashSet<>(exact.keySet());
+        longer.forEach(x -> matching.addAll(x.keySet()));
+        double idf = idf(matching.size());
+
+        Map<Entry, Double> scores = new HashMap<>();
+        score(exact, idf, averageLength, 1, scores);
+        for (Map<Entry, Integer> termPostings : longer) {
+            score(termPostings, idf, averageLength, PREFIX_WEIGHT, scores);
+        }
+        return scores;
+    }
+
+    private void score(Map<Entry, Integer> termPostings, double idf, double averageLength, double weight,
+                       Map<Entry, Double> scores) {
+        termPostings.forEach((entry, frequency) -> {
+            double norm = K1 * (1 - B + B * entry.length / averageLength);
+            scores.merge(entry, weight * idf * frequency * (K1 + 1) / (frequency + norm), Math::max);
+        });
+    }
+
+    private double idf(int documentFrequency) {
+        return Math.log(1 + (documents.size() - documentFrequency + 0.5) / (documentFrequency + 0.5));
+    }
+
+    private boolean removeEntry(Key key) {
+        Entry entry = documents.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        for (String term : entry.frequencies.keySet()) {
+            Map<Entry, Integer> termPostings = postings.get(term);
+            termPostings.remove(entry);
+            if (termPostings.isEmpty()) {
+                postings.remove(term);
+            }
+        }
+        totalLength -= entry.length;
+        return true;
+    }
+
+    private static void addTerms(Map<String, Integer> frequencies, String text, int weight) {
+        for (String term : tokenize(text)) {
+            frequencies.merge(term, weight, Integer::sum);
+        }
+    }
+
+    private static void flush(StringBuilder word, Collection<String> terms) {
+        if (!word.isEmpty()) {
+            terms.add(word.toString());
+            word.setLength(0);
+        }
+    }
+
+    private static void writeString(DataOutputStream data, String value) throws IOException {
+        if (value == null) {
+            data.writeInt(-1);
+            return;
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        data.writeInt(bytes.length);
+        data.write(bytes);
+    }
+
+    private static String readString(DataInputStream data) throws IOException {
+        int length = data.readInt();
+        if (length == -1) {
+            return null;
+        }
+        if (length < 0 || length > MAX_FIELD_BYTES) {
+            throw new IOException("Invalid field length in search index: " + length);
+        }
+        byte[] bytes = new byte[length];
+        data.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,401 @@
+package com.spms.backend.service.search.impl;
+
+import com.spms.backend.config.SearchProperties;
+import com.spms.backend.repository.search.SearchSourceRepository;
+import com.spms.backend.repository.search.SearchSourceRepository.Source;
+import com.spms.backend.repository.search.SearchSourceRepository.SourceRow;
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.model.search.SearchDocumentType;
+import com.spms.backend.service.model.search.SearchFacet;
+import com.spms.backend.service.model.search.SearchHit;
+import com.spms.backend.service.model.search.SearchResult;
+import com.spms.backend.service.process.event.ProcessCatalogChangedEvent;
+import com.spms.backend.service.search.SearchService;
+import com.spms.backend.service.search.impl.FullTextIndex.Document;
+import com.spms.backend.service.search.impl.FullTextIndex.Match;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Implementation of {@link SearchService} on a {@link FullTextIndex} saved on local disk.
+ * <p>
+ * Committed changes are queued and applied by a single indexing thread, which re-reads the
+ * changed row. The queue is bounded: when it is full, further changes are dropped and the
+ * indexing thread rebuilds the whole index instead, as it does once at startup after
+ * loading the saved index. A rebuild fills a new index next to the live one and swaps it in.
+ * The index is saved, to a temporary file that then replaces the previous one, at most once
+ * per flush interval and when the application stops.
+ */
+@Slf4j
+@Service
+public class SearchServiceImpl implements SearchService {
+
+    static final String INDEX_FILE = "search-index.bin.gz";
+
+    private static final Comparator<Match> RANKING = Comparator.comparingDouble(Match::score).reversed()
+            .thenComparing(x -> x.document().title(), Comparator.nullsLast(String.CASE_INSENSITIVE_ORDER))
+            .thenComparing(x -> x.document().type())
+            .thenComparingLong(x -> x.document().id());
+
+    private final SearchSourceRepository sourceRepository;
+
+    private final SearchProperties properties;
+
+    private final BlockingQueue<Task> queue;
+
+    private final AtomicBoolean reindexRequested = new AtomicBoolean();
+
+    private volatile FullTextIndex index = new FullTextIndex();
+
+    private volatile boolean running = true;
+
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "search-indexer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * Constructs the search service with required dependencies
+     *
+     * @param sourceRepository Flat reads of the indexed tables
+     * @param properties Index location, queue and paging settings
+     */
+    public SearchServiceImpl(SearchSourceRepository sourceRepository, SearchProperties properties) {
+        this.sourceRepository = sourceRepository;
+        this.properties = properties;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, properties.getQueueCapacity()));
+    }
+
+    @Override
+    public SearchResult search(String query, Set<SearchDocumentType> types, Map<SearchFacet, String> filters,
+                               int page, int size) {
+        if (page < 0) {
+            throw new ValidationException("Page cannot be negative: " + page);
+        }
+        int pageSize = size <= 0 ? properties.getMaxPageSize() : Math.min(size, properties.getMaxPageSize());
+        Map<SearchFacet, String> required = new EnumMap<>(SearchFacet.class);
+        if (filters != null) {
+            filters.forEach((facet, value) -> {
+                if (facet != SearchFacet.TYPE && value != null && !value.isBlank()) {
+                    required.put(facet, value.trim());
+                }
+            });
+        }
+
+        Map<SearchFacet, Map<String, Long>> counts = new EnumMap<>(SearchFacet.class);
+        for (SearchFacet facet : SearchFacet.values()) {
+            counts.put(facet, new LinkedHashMap<>());
+        }
+        List<Match> selected = new ArrayList<>();
+        for (Match match : index.search(query)) {
+            Document document = match.document();
+            SearchFacet rejectedBy = null;
+            int rejections = 0;
+            if (types != null && !types.isEmpty() && !types.contains(document.type())) {
+                rejectedBy = SearchFacet.TYPE;
+                rejections++;
+            }
+            for (Map.Entry<SearchFacet, String> filter : required.entrySet()) {
+                if (!filter.getValue().equalsIgnoreCase(facetValue(document, filter.getKey()))) {
+                    rejectedBy = filter.getKey();
+                    rejections++;
+                }
+            }
+            if (rejections == 0) {
+                selected.add(match);
+                for (SearchFacet facet : SearchFacet.values()) {
+                    count(counts, facet, document);
+                }
+            } else if (rejections == 1) {
+                // Counted for the facet that rejected it: selecting its value there would include it
+                count(counts, rejectedBy, document);
+            }
+        }
+
+        selected.sort(RANKING);
+        List<SearchHit> hits = selected.stream()
+                .skip((long) page * pageSize)
+                .limit(pageSize)
+                .map(x -> toHit(x.document(), x.score()))
+                .toList();
+        counts.replaceAll((facet, values) -> sortByCount(values));
+        return new SearchResult(hits, selected.size(), page, pageSize, counts);
+    }
+
+    @Override
+    public void reindex() {
+        reindexRequested.set(true);
+        queue.offer(new Barrier());
+    }
+
+    /**
+     * Loads the saved index and starts the indexing thread, which begins with a full rebuild.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        reindexRequested.set(true);
+        executor.execute(this::run);
+    }
+
+    /**
+     * Queues committed organization changes; memberships are not part of the search.
+     *
+     * @param event the organization change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrganizationChanged(OrganizationChangedEvent event) {
+        SearchDocumentType type = switch (event.getEntityType()) {
+            case COMPANY -> SearchDocumentType.COMPANY;
+            case DIVISION -> SearchDocumentType.DIVISION;
+            case DEPARTMENT -> SearchDocumentType.DEPARTMENT;
+            case USER -> SearchDocumentType.USER;
+            case ROLE -> SearchDocumentType.ROLE;
+            case MEMBERSHIP, ROLE_ASSIGNMENT -> null;
+        };
+        if (type != null && event.getEntityId() != null) {
+            enqueue(new Change(type, event.getEntityId(),
+                    event.getChangeType() == OrganizationChangedEvent.ChangeType.DELETED));
+        }
+    }
+
+    /**
+     * Queues committed process definition and form version changes.
+     *
+     * @param event the process catalog change
+     */
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onProcessCatalogChanged(ProcessCatalogChangedEvent event) {
+        if (event.getEntityId() == null) {
+            return;
+        }
+        SearchDocumentType type = switch (event.getEntityType()) {
+            case PROCESS_DEFINITION -> SearchDocumentType.PROCESS_DEFINITION;
+            case FORM_VERSION -> SearchDocumentType.FORM_VERSION;
+            case PROCESS_VERSION -> null;
+        };
+        if (type == null) {
+            return;
+        }
+        enqueue(new Change(type, event.getEntityId(),
+                event.getChangeType() == ProcessCatalogChangedEvent.ChangeType.DELETED));
+    }
+
+    /**
+     * Waits until every change queued so far has been applied.
+     *
+     * @return {@code false} if the timeout elapsed first
+     */
+    boolean awaitIndexed(Duration timeout) throws InterruptedException {
+        Barrier barrier = new Barrier();
+        return queue.offer(barrier, timeout.toMillis(), TimeUnit.MILLISECONDS)
+                && barrier.latch().await(timeout.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        running = false;
+        queue.offer(new Barrier());
+        executor.shutdown();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            executor.shutdownNow();
+        }
+    }
+
+    private void enqueue(Change change) {
+        if (!queue.offer(change) && !reindexRequested.getAndSet(true)) {
+            log.warn("Search index queue is full ({} changes); the index will be rebuilt", properties.getQueueCapacity());
+        }
+    }
+
+    private void run() {
+        load();
+        boolean dirty = false;
+        long flushedAt = System.nanoTime();
+        long flushInterval = Math.max(1, properties.getFlushInterval().toNanos());
+        while (running || !queue.isEmpty()) {
+            Task task;
+            try {
+                task = queue.poll(flushInterval, TimeUnit.NANOSECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (reindexRequested.getAndSet(false)) {
+                // Everything waiting now is covered by the rebuild; only the waiters are kept
+                List<Task> pending = new ArrayList<>();
+                if (task != null) {
+                    pending.add(task);
+                }
+                queue.drainTo(pending);
+                dirty |= rebuild();
+                pending.stream().filter(Barrier.class::isInstance).forEach(x -> ((Barrier) x).latch().countDown());
+            } else if (task instanceof Change change) {
+                dirty |= apply(change);
+            } else if (task instanceof Barrier barrier) {
+                barrier.latch().countDown();
+            }
+            if (dirty && System.nanoTime() - flushedAt >= flushInterval) {
+                dirty = !save();
+                flushedAt = System.nanoTime();
+            }
+        }
+        if (dirty) {
+            save();
+        }
+    }
+
+    private boolean apply(Change change) {
+        try {
+            if (change.deleted()) {
+                return index.remove(change.type(), change.id());
+            }
+            Source source = Source.valueOf(change.type().name());
+            return sourceRepository.find(source, change.id())
+                    .map(row -> {
+                        index.put(toDocument(change.type(), row));
+                        return true;
+                    })
+                    .orElseGet(() -> index.remove(change.type(), change.id()));
+        } catch (RuntimeException e) {
+            log.warn("Failed to index {} {}: {}", change.type(), change.id(), e.getMessage());
+            return false;
+        }
+    }
+
+    private boolean rebuild() {
+        long started = System.currentTimeMillis();
+        try {
+            FullTextIndex fresh = new FullTextIndex();
+            for (SearchDocumentType type : SearchDocumentType.values()) {
+                sourceRepository.forEach(Source.valueOf(type.name()), row -> fresh.put(toDocument(type, row)));
+            }
+            index = fresh;
+            log.info("Search index rebuilt with {} documents in {} ms", fresh.size(), System.currentTimeMillis() - started);
+            return true;
+        } catch (RuntimeException e) {
+            log.error("Failed to rebuild the search index", e);
+            return false;
+        }
+    }
+
+    private void load() {
+        Path file = properties.getDirectory().resolve(INDEX_FILE);
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try (InputStream in = new GZIPInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            index = FullTextIndex.readFrom(in);
+            log.info("Search index loaded from {} with {} documents", file, index.size());
+        } catch (IOException | RuntimeException e) {
+            // The rebuild that follows recreates the index from the database
+            log.warn("Ignoring unreadable search index {}: {}", file, e.getMessage());
+        }
+    }
+
+    private boolean save() {
+        Path directory = properties.getDirectory();
+        Path temporary = null;
+        try {
+            Files.createDirectories(directory);
+            temporary = Files.createTempFile(directory, "search-index", ".tmp");
+            try (OutputStream out = new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary)))) {
+                index.writeTo(out);
+            }
+            Path file = directory.resolve(INDEX_FILE);
+            try {
+                Files.move(temporary, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            } catch (AtomicMoveNotSupportedException e) {
+                Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return true;
+        } catch (IOException e) {
+            log.warn("Failed to save the search index to {}: {}", directory, e.getMessage());
+            if (temporary != null) {
+                try {
+                    Files.deleteIfExists(temporary);
+                } catch (IOException ignored) {
+                    // The next save uses another temporary file
+                }
+            }
+            return false;
+        }
+    }
+
+    private static Document toDocument(SearchDocumentType type, SourceRow row) {
+        String title = row.title() != null ? row.title() : row.subtitle();
+        return new Document(type, row.id(), title, row.subtitle(), row.text(), row.category(), row.status());
+    }
+
+    private static SearchHit toHit(Document document, double score) {
+        return new SearchHit(document.type(), document.id(), document.title(), document.subtitle(),
+                document.category(), document.status(), score);
+    }
+
+    private static String facetValue(Document document, SearchFacet facet) {
+        return switch (facet) {
+            case TYPE -> document.type().name();
+            case CATEGORY -> document.category();
+            case STATUS -> document.status();
+        };
+    }
+
+    private static void count(Map<SearchFacet, Map<String, Long>> counts, SearchFacet facet, Document document) {
+        String value = facetValue(document, facet);
+        if (value != null) {
+            counts.get(facet).merge(value, 1L, Long::sum);
+        }
+    }
+
+    private static Map<String, Long> sortByCount(Map<String, Long> values) {
+        Map<String, Long> sorted = new LinkedHashMap<>();
+        values.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .forEach(x -> sorted.put(x.getKey(), x.getValue()));
+        return sorted;
+    }
+
+    private sealed interface Task permits Change, Barrier {
+    }
+
+    private record Change(SearchDocumentType type, long id, boolean deleted) implements Task {
+    }
+
+    private record Barrier(CountDownLatch latch) implements Task {
+        private Barrier() {
+            this(new CountDownLatch(1));
+        }
+    }
+}
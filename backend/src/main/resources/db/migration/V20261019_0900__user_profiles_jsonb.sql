@@ -0,0 +1,17 @@
+-- Move user profiles from the spms_user_profiles key/value table into a JSONB column
+ALTER TABLE spms_user ADD COLUMN IF NOT EXISTS profiles JSONB;
+
+UPDATE spms_user u
+SET profiles = p.profiles
+FROM (
+    SELECT user_id, jsonb_object_agg(key, value) AS profiles
+    FROM spms_user_profiles
+    GROUP BY user_id
+) p
+WHERE p.user_id = u.id
+  AND u.profiles IS NULL;
+
+-- Serves the containment (@>) queries of the profile equality filters
+CREATE INDEX IF NOT EXISTS idx_spms_user_profiles ON spms_user USING GIN (profiles jsonb_path_ops);
+
+DROP TABLE spms_user_profiles;
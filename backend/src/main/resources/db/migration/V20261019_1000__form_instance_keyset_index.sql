@@ -0,0 +1,6 @@
+-- Serve the keyset pagination of form instances, which orders by (created_at, id) within a form
+CREATE INDEX IF NOT EXISTS idx_form_instance_key_created
+    ON spms_form_instance (form_key, created_at, id);
+
+CREATE INDEX IF NOT EXISTS idx_form_instance_key_version_created
+    ON spms_form_instance (form_key, version, created_at, id);
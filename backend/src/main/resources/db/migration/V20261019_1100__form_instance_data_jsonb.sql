@@ -0,0 +1,13 @@
+-- Store form instance data as JSONB so indexed fields can be filtered on
+ALTER TABLE spms_form_instance ALTER COLUMN form_data TYPE JSONB USING form_data::jsonb;
+
+-- Fields of the form data that instances can be filtered and sorted on; each has an
+-- expression index on spms_form_instance, created by the application when it is declared
+CREATE TABLE IF NOT EXISTS spms_form_indexed_field (
+    id BIGSERIAL PRIMARY KEY,
+    form_key VARCHAR(255) NOT NULL,
+    field_path VARCHAR(200) NOT NULL,
+    field_type VARCHAR(20) NOT NULL,
+    created_at BIGINT NOT NULL,
+    CONSTRAINT uk_form_indexed_field UNIQUE (form_key, field_path)
+);
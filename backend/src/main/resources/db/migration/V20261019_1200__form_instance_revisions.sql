@@ -0,0 +1,14 @@
+-- Revisions of form instance data: full snapshots every few revisions, JSON Patches
+-- (RFC 6902) against the previous revision in between
+CREATE TABLE IF NOT EXISTS spms_form_instance_revision (
+    id BIGSERIAL PRIMARY KEY,
+    instance_id BIGINT NOT NULL,
+    revision INTEGER NOT NULL,
+    kind VARCHAR(20) NOT NULL,
+    payload JSONB NOT NULL,
+    created_at BIGINT NOT NULL,
+    CONSTRAINT uk_form_instance_revision UNIQUE (instance_id, revision)
+);
+
+-- No history is copied here: an instance without revisions has its current row as its only
+-- revision, and the first change stores the data it replaces as the first snapshot
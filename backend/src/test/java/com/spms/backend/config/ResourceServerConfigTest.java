@@ -0,0 +1,40 @@
+package com.spms.backend.config;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class ResourceServerConfigTest {
+
+    private final ResourceServerConfig config = new ResourceServerConfig();
+
+    @Test
+    void jwtDecoder_requiresIssuer() {
+        ResourceServerProperties properties = properties();
+        properties.setIssuerUri(null);
+
+        assertThrows(IllegalStateException.class, () -> config.jwtDecoder(properties));
+    }
+
+    @Test
+    void jwtDecoder_requiresAudience() {
+        ResourceServerProperties properties = properties();
+        properties.setAudience("");
+
+        assertThrows(IllegalStateException.class, () -> config.jwtDecoder(properties));
+    }
+
+    @Test
+    void jwtDecoder_createdWhenIssuerAndAudienceSet() throws Exception {
+        assertNotNull(config.jwtDecoder(properties()));
+    }
+
+    private static ResourceServerProperties properties() {
+        ResourceServerProperties properties = new ResourceServerProperties();
+        properties.setJwkSetUri("http://idp.localhost/realms/spms/protocol/openid-connect/certs");
+        properties.setIssuerUri("http://idp.localhost/realms/spms");
+        properties.setAudience("spms-application");
+        return properties;
+    }
+}
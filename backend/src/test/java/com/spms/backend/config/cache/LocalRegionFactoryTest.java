@@ -0,0 +1,95 @@
+package com.spms.backend.config.cache;
+
+import com.spms.backend.repository.entities.idm.Company;
+import com.spms.backend.repository.entities.idm.CompanyType;
+import com.spms.backend.repository.idm.CompanyRepository;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.EntityType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class LocalRegionFactoryTest {
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private LocalRegionFactory regionFactory;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @AfterEach
+    void tearDown() {
+        companyRepository.deleteAll();
+    }
+
+    @Test
+    void findById_shouldBeServedFromCacheAfterFirstLoad() {
+        Long id = createCompany("Cached group").getId();
+        RegionStatistics before = statistics();
+
+        assertEquals("Cached group", loadName(id));
+        assertEquals("Cached group", loadName(id));
+
+        RegionStatistics after = statistics();
+        assertTrue(after.hits() > before.hits(), after::toString);
+        assertEquals(2000, after.maxEntries());
+    }
+
+    @Test
+    void changeEvent_shouldEvictEntriesWrittenBehindHibernate() {
+        Long id = createCompany("Bypassed group").getId();
+        loadName(id);
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+            jdbcTemplate.update("UPDATE \"spms_company\" SET \"name\" = ? WHERE \"id\" = ?", "Renamed group", id);
+            eventPublisher.publishEvent(new OrganizationChangedEvent(this, EntityType.COMPANY, ChangeType.UPDATED, id));
+        });
+
+        assertEquals("Renamed group", loadName(id));
+    }
+
+    private String loadName(Long id) {
+        // Each lookup runs in its own session, so only the second-level cache can serve it
+        return new TransactionTemplate(transactionManager)
+                .execute(status -> companyRepository.findById(id).orElseThrow().getName());
+    }
+
+    private Company createCompany(String name) {
+        Company company = new Company();
+        company.setName(name);
+        company.setCompanyType(CompanyType.GROUP);
+        return companyRepository.save(company);
+    }
+
+    private RegionStatistics statistics() {
+        return regionFactory.getStatistics().stream()
+                .filter(x -> x.region().equals("idm-company"))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,63 @@
+package com.spms.backend.config.cache;
+
+import org.hibernate.cache.spi.access.SoftLock;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LocalStorageAccessTest {
+
+    @Test
+    void putIntoCache_shouldEvictLeastRecentlyUsedEntries() {
+        LocalStorageAccess storage = new LocalStorageAccess("test", 2, null);
+
+        storage.putIntoCache("a", "A", null);
+        storage.putIntoCache("b", "B", null);
+        storage.getFromCache("a", null);
+        storage.putIntoCache("c", "C", null);
+
+        assertTrue(storage.contains("a"));
+        assertFalse(storage.contains("b"));
+        assertTrue(storage.contains("c"));
+    }
+
+    @Test
+    void putIntoCache_shouldNotEvictSoftLocks() {
+        LocalStorageAccess storage = new LocalStorageAccess("test", 2, null);
+        SoftLock lock = new SoftLock() {
+        };
+
+        storage.putIntoCache("locked", lock, null);
+        for (int i = 0; i < 10; i++) {
+            storage.putIntoCache("key" + i, "value" + i, null);
+        }
+
+        assertSame(lock, storage.getFromCache("locked", null));
+        assertEquals(3, storage.getStatistics().size());
+    }
+
+    @Test
+    void putIntoCache_shouldReplaceSoftLockWithValue() {
+        LocalStorageAccess storage = new LocalStorageAccess("test", 2, null);
+        storage.putIntoCache("key", new SoftLock() {
+        }, null);
+
+        storage.putIntoCache("key", "value", null);
+
+        assertEquals("value", storage.getFromCache("key", null));
+        assertEquals(1, storage.getStatistics().size());
+    }
+
+    @Test
+    void getFromCache_shouldExpireSoftLocksAfterTimeToLive() throws InterruptedException {
+        LocalStorageAccess storage = new LocalStorageAccess("test", 2, Duration.ofMillis(1));
+        storage.putIntoCache("locked", new SoftLock() {
+        }, null);
+
+        Thread.sleep(5);
+
+        assertNull(storage.getFromCache("locked", null));
+    }
+}
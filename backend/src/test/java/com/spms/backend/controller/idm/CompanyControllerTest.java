@@ -6,8 +6,11 @@ import com.spms.backend.controller.dto.idm.JoinToChildrenRequestDTO;
 import com.spms.backend.controller.dto.idm.OrganizationChartDTO;
 import com.spms.backend.controller.dto.idm.ChartMode;
 import com.spms.backend.repository.entities.idm.CompanyType;
+import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.idm.CompanyService;
+import com.spms.backend.service.idm.OrganizationChartSnapshots;
 import com.spms.backend.service.idm.OrganizationService;
+import com.spms.backend.service.model.idm.ChartSnapshot;
 import com.spms.backend.service.model.idm.CompanyModel;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -17,8 +20,11 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -36,6 +42,9 @@ class CompanyControllerTest {
     @Mock
     private OrganizationService organizationService;
 
+    @Mock
+    private OrganizationChartSnapshots chartSnapshots;
+
     @InjectMocks
     private CompanyController companyController;
 
@@ -78,6 +87,11 @@ class CompanyControllerTest {
             chart.setName("Test Org Chart");
             return chart;
         }
+
+        static ChartSnapshot validChartSnapshot() {
+            byte[] json = "{\"id\":\"1\",\"name\":\"Test Org Chart\"}".getBytes(StandardCharsets.UTF_8);
+            return new ChartSnapshot(json, false, "abc123", Instant.now());
+        }
     }
 
     @Test
@@ -285,34 +299,46 @@ class CompanyControllerTest {
     @Test
     void getOrganizationChart_WithValidCompany_ReturnsChart() {
         // Given
-        OrganizationChartDTO chart = TestDataBuilder.validOrganizationChart();
-        
-        when(organizationService.getOrganizationChart(any(Long.class), any(ChartMode.class)))
-            .thenReturn(chart);
+        when(chartSnapshots.getSnapshot(any(Long.class), any(ChartMode.class)))
+            .thenReturn(TestDataBuilder.validChartSnapshot());
 
         // When
-        ResponseEntity<OrganizationChartDTO> response = 
-            companyController.getOrganizationChart(1L, ChartMode.FUNCTIONAL);
+        ResponseEntity<byte[]> response =
+            companyController.getOrganizationChart(1L, ChartMode.FUNCTIONAL, null, "gzip");
 
         // Then
         assertEquals(200, response.getStatusCodeValue());
         assertNotNull(response.getBody());
-        assertEquals("Test Org Chart", response.getBody().getName());
-        verify(organizationService).getOrganizationChart(any(Long.class), any());
+        assertTrue(new String(response.getBody(), StandardCharsets.UTF_8).contains("Test Org Chart"));
+        assertEquals("\"abc123\"", response.getHeaders().getETag());
+        assertNull(response.getHeaders().getFirst(HttpHeaders.CONTENT_ENCODING));
+        verify(chartSnapshots).getSnapshot(any(Long.class), any());
     }
 
     @Test
-    void getOrganizationChart_WithInvalidCompany_ReturnsNotFound() {
+    void getOrganizationChart_WithCurrentETag_ReturnsNotModified() {
         // Given
-        when(organizationService.getOrganizationChart(any(Long.class), any(ChartMode.class)))
-            .thenReturn(null);
+        when(chartSnapshots.getSnapshot(any(Long.class), any(ChartMode.class)))
+            .thenReturn(TestDataBuilder.validChartSnapshot());
 
         // When
-        ResponseEntity<OrganizationChartDTO> response = 
-            companyController.getOrganizationChart(1L, ChartMode.FUNCTIONAL);
+        ResponseEntity<byte[]> response =
+            companyController.getOrganizationChart(1L, ChartMode.FUNCTIONAL, "\"other\", \"abc123\"", null);
 
         // Then
-        assertEquals(200, response.getStatusCodeValue());
-        verify(organizationService).getOrganizationChart(any(Long.class), any());
+        assertEquals(304, response.getStatusCodeValue());
+        assertNull(response.getBody());
+    }
+
+    @Test
+    void getOrganizationChart_WithInvalidCompany_ReturnsNotFound() {
+        // Given
+        when(chartSnapshots.getSnapshot(any(Long.class), any(ChartMode.class)))
+            .thenThrow(new NotFoundException("Company not found"));
+
+        // When / Then
+        assertThrows(NotFoundException.class,
+            () -> companyController.getOrganizationChart(1L, ChartMode.FUNCTIONAL, null, null));
+        verify(chartSnapshots).getSnapshot(any(Long.class), any());
     }
 }
@@ -0,0 +1,95 @@
+package com.spms.backend.controller.idm;
+
+import com.spms.backend.config.SpmsOidcUser;
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.service.idm.PermissionService;
+import com.spms.backend.service.idm.UserService;
+import com.spms.backend.service.model.idm.UserModel;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.client.authentication.OAuth2AuthenticationToken;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.oauth2.core.oidc.OidcIdToken;
+import org.springframework.security.oauth2.core.oidc.OidcUserInfo;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.when;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.authentication;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class UserControllerAuthorizationTest {
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @MockitoBean
+    private UserService userService;
+
+    @MockitoSpyBean
+    private PermissionService permissionService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        UserModel user = new UserModel();
+        user.setId(1L);
+        user.setUsername("john.doe");
+        user.setType(User.UserType.STAFF);
+        when(userService.getUserById(1L)).thenReturn(user);
+    }
+
+    @Test
+    void getUser_allowedWhenRolesGrantPermission() throws Exception {
+        doReturn(permissionService.toBitSet(List.of("user:read"))).when(permissionService).getUserPermissions(7L);
+
+        mockMvc.perform(get("/api/v1/users/1").with(authentication(login(7L))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.username").value("john.doe"));
+    }
+
+    @Test
+    void getUser_deniedWhenRolesLackPermission() throws Exception {
+        doReturn(permissionService.toBitSet(List.of("user:write"))).when(permissionService).getUserPermissions(8L);
+
+        mockMvc.perform(get("/api/v1/users/1").with(authentication(login(8L))))
+                .andExpect(status().isForbidden());
+    }
+
+    @Test
+    void getUser_ignoresAuthorityNamesOfLinkedUsers() throws Exception {
+        // Granted authorities are not consulted once the login is linked to an SPMS user
+        doReturn(permissionService.toBitSet(List.of())).when(permissionService).getUserPermissions(9L);
+
+        mockMvc.perform(get("/api/v1/users/1").with(authentication(login(9L, "user:read"))))
+                .andExpect(status().isForbidden());
+    }
+
+    private static Authentication login(Long userId, String... authorities) {
+        Map<String, Object> claims = Map.of("sub", "user-" + userId);
+        OidcIdToken idToken = new OidcIdToken("token", Instant.now(), Instant.now().plusSeconds(300), claims);
+        List<SimpleGrantedAuthority> granted = Arrays.stream(authorities).map(SimpleGrantedAuthority::new).toList();
+        SpmsOidcUser user = new SpmsOidcUser(granted, idToken, new OidcUserInfo(claims), "sub", userId, "user-" + userId, 0L);
+        return new OAuth2AuthenticationToken(user, granted, "keycloak");
+    }
+}
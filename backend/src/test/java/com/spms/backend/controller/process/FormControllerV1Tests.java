@@ -1,5 +1,7 @@
 package com.spms.backend.controller.process;
 
+import com.spms.backend.config.HttpCacheProperties;
+import com.spms.backend.controller.ConditionalResponses;
 import com.spms.backend.service.model.process.FormVersionModel;
 import com.spms.backend.service.process.FormService;
 import com.spms.backend.service.exception.NotFoundException;
@@ -8,16 +10,21 @@ import java.util.List;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.http.HttpHeaders;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.doThrow;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(FormControllerV1.class)
+@Import({ConditionalResponses.class, HttpCacheProperties.class})
 class FormControllerV1Tests {
 
     @Autowired
@@ -83,6 +90,33 @@ class FormControllerV1Tests {
                 .andExpect(jsonPath("$.version").value("1.0.1"));
     }
 
+    @Test
+    void getVersion_MatchingEntityTag_ReturnsNotModifiedWithoutLoading() throws Exception {
+        FormVersionModel mockModel = createVersionModel("1.0.2");
+        when(formService.getVersion("leave-request", "1.0.2")).thenReturn(mockModel);
+
+        String etag = mockMvc.perform(get("/api/v1/forms/{key}/versions/{version}", "leave-request", "1.0.2"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"))
+                .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+        mockMvc.perform(get("/api/v1/forms/{key}/versions/{version}", "leave-request", "1.0.2")
+                        .header(HttpHeaders.IF_NONE_MATCH, etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string(HttpHeaders.ETAG, etag));
+        verify(formService, times(1)).getVersion("leave-request", "1.0.2");
+    }
+
+    @Test
+    void getLatestVersion_ReturnsShortLivedValidator() throws Exception {
+        when(formService.getLatestVersion("expense")).thenReturn(createVersionModel("2.0.0"));
+
+        mockMvc.perform(get("/api/v1/forms/{key}/versions/latest", "expense"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "max-age=30, must-revalidate, private"))
+                .andExpect(header().exists(HttpHeaders.ETAG));
+    }
+
     @Test
     void getVersion_InvalidKey_ReturnsNotFound() throws Exception {
         when(formService.getVersion("invalid-key", "1.0.0"))
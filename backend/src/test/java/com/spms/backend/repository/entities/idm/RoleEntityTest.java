@@ -56,19 +56,4 @@ public class RoleEntityTest {
         assertEquals("admin", role.getCreatedBy());
         assertEquals("user", role.getUpdatedBy());
     }
-
-    @Test
-    void testGetAllPermissions() {
-        Role parent = new Role("Parent");
-        parent.getPermissions().add("users.read");
-        
-        Role child = new Role("Child");
-        child.getPermissions().add("users.write");
-        child.getParentRoles().add(parent);
-        
-        Set<String> allPerms = child.getAllPermissions();
-        assertEquals(2, allPerms.size());
-        assertTrue(allPerms.contains("users.read"));
-        assertTrue(allPerms.contains("users.write"));
-    }
 }
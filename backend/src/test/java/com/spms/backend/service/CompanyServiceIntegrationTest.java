@@ -186,6 +186,21 @@ public class CompanyServiceIntegrationTest {
         assertEquals(groupCompany.getId(), updatedChild.getParent().getId());
     }
 
+    @Test
+    void getChildren_shouldReturnParentAsReference() {
+        businessEntity.setParent(groupCompany);
+        companyRepository.save(businessEntity);
+
+        Page<CompanyModel> result = companyService.getChildren(groupCompany.getId(), null, PageRequest.of(0, 10));
+
+        assertEquals(1, result.getTotalElements());
+        CompanyModel parent = result.getContent().get(0).getParent();
+        assertEquals(groupCompany.getId(), parent.getId());
+        assertEquals("Test Group", parent.getName());
+        assertEquals(CompanyType.GROUP, parent.getCompanyType());
+        assertNull(parent.getParent());
+    }
+
     @Test
     void getAllCompanies_withPaging_shouldReturnPage() {
         Pageable pageable = PageRequest.of(0, 10);
@@ -2,10 +2,22 @@ package com.spms.backend.service;
 
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.repository.entities.idm.Department;
+import com.spms.backend.repository.entities.idm.DepartmentType;
 import com.spms.backend.repository.entities.idm.Role;
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.repository.idm.DepartmentRepository;
 import com.spms.backend.repository.idm.RoleRepository;
+import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.service.idm.OrganizationChangeLog;
+import com.spms.backend.service.idm.PermissionService;
 import com.spms.backend.service.idm.RoleService;
+import com.spms.backend.service.idm.UserCache;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.model.idm.ChangeLogEntry;
+import com.spms.backend.service.model.idm.RoleAssignmentResult;
 import com.spms.backend.service.model.idm.RoleModel;
+import com.spms.backend.service.model.idm.UserSelector;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -14,10 +26,12 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.security.test.context.support.WithMockUser;
 
+import java.util.List;
 import java.util.Set;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -34,6 +48,24 @@ public class RoleServiceIntegrationTest {
     @Autowired
     private RoleService roleService;
 
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PermissionService permissionService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private OrganizationChangeLog changeLog;
+
     private Role adminRole;
     private Role userRole;
     private Role guestRole;
@@ -70,6 +102,9 @@ public class RoleServiceIntegrationTest {
 
     @AfterEach
     void tearDown() {
+        jdbcTemplate.update("DELETE FROM \"user_roles\"");
+        departmentRepository.deleteAll();
+        userRepository.deleteAll();
         roleRepository.deleteAll();
     }
 
@@ -296,4 +331,117 @@ public class RoleServiceIntegrationTest {
         
         assertEquals(3, result.getTotalElements());
     }
+
+    @Test
+    void grantRoles_byUserIds_shouldSkipExistingAssignments() {
+        User alice = createUser("alice");
+        User bob = createUser("bob");
+        UserSelector users = UserSelector.ofUserIds(List.of(alice.getId(), bob.getId()));
+
+        RoleAssignmentResult first = roleService.grantRoles(List.of(userRole.getId(), guestRole.getId()), users);
+        RoleAssignmentResult second = roleService.grantRoles(List.of(userRole.getId()), users);
+
+        assertEquals(2, first.matchedUsers());
+        assertEquals(4, first.affected());
+        assertEquals(0, second.affected());
+        assertEquals(4, countAssignments());
+    }
+
+    @Test
+    void grantRoles_byDepartmentSubtree_shouldIncludeSubDepartments() {
+        User head = createUser("head");
+        User member = createUser("member");
+        Department local = createDepartment("Bulk Local", DepartmentType.LOCAL, 1, 999L, Set.of(head));
+        createDepartment("Bulk Team", DepartmentType.TEAM, 1, local.getId(), Set.of(member));
+
+        RoleAssignmentResult direct = roleService.grantRoles(List.of(userRole.getId()),
+                UserSelector.ofDepartment(local.getId(), false));
+        RoleAssignmentResult subtree = roleService.grantRoles(List.of(userRole.getId()),
+                UserSelector.ofDepartment(local.getId(), true));
+
+        assertEquals(1, direct.matchedUsers());
+        assertEquals(2, subtree.matchedUsers());
+        assertEquals(1, subtree.affected());
+    }
+
+    @Test
+    void revokeRoles_bySearch_shouldOnlyAffectMatchingUsers() {
+        User alice = createUser("alice");
+        User bob = createUser("bob");
+        roleService.grantRoles(List.of(guestRole.getId()), UserSelector.ofUserIds(List.of(alice.getId(), bob.getId())));
+
+        RoleAssignmentResult result = roleService.revokeRoles(List.of(guestRole.getId()),
+                UserSelector.ofSearch("alice", null));
+
+        assertEquals(1, result.matchedUsers());
+        assertEquals(1, result.affected());
+        assertEquals(1, countAssignments());
+    }
+
+    @Test
+    void grantRoles_shouldRefreshAffectedUsersWithoutRecomputingPermissions() {
+        User alice = createUser("alice");
+        User bob = createUser("bob");
+        roleService.grantRoles(List.of(guestRole.getId()), UserSelector.ofUserIds(List.of(alice.getId())));
+        assertEquals(1, userCache.getUser(alice.getId()).orElseThrow().getRoles().size());
+        assertTrue(userCache.getUser(bob.getId()).orElseThrow().getRoles().isEmpty());
+        long version = permissionService.getVersion();
+
+        roleService.grantRoles(List.of(guestRole.getId()), UserSelector.ofUserIds(List.of(alice.getId(), bob.getId())));
+
+        assertEquals(version, permissionService.getVersion());
+        assertEquals(1, userCache.getUser(bob.getId()).orElseThrow().getRoles().size());
+    }
+
+    @Test
+    void grantAndRevokeRoles_shouldRecordAffectedUsersInChangeFeed() {
+        User alice = createUser("alice");
+        User bob = createUser("bob");
+        roleService.grantRoles(List.of(guestRole.getId()), UserSelector.ofUserIds(List.of(alice.getId())));
+        long since = changeLog.getChanges(0, 0).latestSequence();
+
+        roleService.grantRoles(List.of(guestRole.getId()), UserSelector.ofUserIds(List.of(alice.getId(), bob.getId())));
+        roleService.revokeRoles(List.of(guestRole.getId()), UserSelector.ofUserIds(List.of(alice.getId())));
+
+        List<ChangeLogEntry> changes = changeLog.getChanges(since, 0).changes();
+        assertEquals(List.of(bob.getId(), alice.getId()), changes.stream()
+                .filter(x -> x.entityType() == OrganizationChangedEvent.EntityType.ROLE_ASSIGNMENT)
+                .map(ChangeLogEntry::entityId)
+                .toList());
+    }
+
+    @Test
+    void grantRoles_invalidInput_shouldThrow() {
+        User alice = createUser("alice");
+        UserSelector users = UserSelector.ofUserIds(List.of(alice.getId()));
+
+        assertThrows(ValidationException.class, () -> roleService.grantRoles(List.of(), users));
+        assertThrows(ValidationException.class, () -> roleService.grantRoles(List.of(-1L), users));
+        assertThrows(ValidationException.class, () -> roleService.grantRoles(List.of(userRole.getId()), new UserSelector()));
+        assertThrows(NotFoundException.class, () -> roleService.grantRoles(List.of(userRole.getId()),
+                UserSelector.ofDepartment(-1L, true)));
+    }
+
+    private User createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setType(User.UserType.STAFF);
+        user.setProvider("keycloak");
+        return userRepository.save(user);
+    }
+
+    private Department createDepartment(String name, DepartmentType type, int level, Long parent, Set<User> users) {
+        Department department = new Department();
+        department.setName(name);
+        department.setType(type);
+        department.setLevel(level);
+        department.setParent(parent);
+        department.setUsers(users);
+        return departmentRepository.save(department);
+    }
+
+    private int countAssignments() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"user_roles\"", Integer.class);
+    }
 }
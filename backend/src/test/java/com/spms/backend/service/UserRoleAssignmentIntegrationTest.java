@@ -0,0 +1,105 @@
+package com.spms.backend.service;
+
+import com.spms.backend.repository.entities.idm.Role;
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.repository.idm.RoleRepository;
+import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.service.idm.OrganizationChangeLog;
+import com.spms.backend.service.idm.UserCache;
+import com.spms.backend.service.idm.UserService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.model.idm.RoleModel;
+import com.spms.backend.service.model.idm.UserModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserRoleAssignmentIntegrationTest {
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private OrganizationChangeLog changeLog;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RoleRepository roleRepository;
+
+    private User user;
+
+    private Role role;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("assignee-" + UUID.randomUUID());
+        user.setEmail(user.getUsername() + "@example.com");
+        user.setType(User.UserType.STAFF);
+        user.setProvider("keycloak");
+        user.setProviderId(UUID.randomUUID().toString());
+        user = userRepository.save(user);
+
+        role = new Role();
+        role.setName("assigned-" + UUID.randomUUID());
+        role = roleRepository.save(role);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteById(user.getId());
+        roleRepository.deleteById(role.getId());
+    }
+
+    @Test
+    void assignAndUnassignRoles_invalidateCachedUser() {
+        UserModel userModel = new UserModel();
+        userModel.setId(user.getId());
+        RoleModel roleModel = new RoleModel();
+        roleModel.setId(role.getId());
+        assertTrue(userCache.getUser(user.getId()).orElseThrow().getRoles().isEmpty());
+
+        userService.assignRoles(userModel, List.of(roleModel));
+        assertEquals(1, userCache.getUser(user.getId()).orElseThrow().getRoles().size());
+
+        userService.unassignRoles(userModel, List.of(roleModel));
+        assertTrue(userCache.getUser(user.getId()).orElseThrow().getRoles().isEmpty());
+    }
+
+    @Test
+    void assignRoles_recordsUserUpdateInChangeFeed() {
+        UserModel userModel = new UserModel();
+        userModel.setId(user.getId());
+        RoleModel roleModel = new RoleModel();
+        roleModel.setId(role.getId());
+        long since = changeLog.getChanges(0, 0).latestSequence();
+
+        userService.assignRoles(userModel, List.of(roleModel));
+
+        assertTrue(changeLog.getChanges(since, 0).changes().stream()
+                .anyMatch(x -> x.entityType() == OrganizationChangedEvent.EntityType.USER
+                        && x.changeType() == OrganizationChangedEvent.ChangeType.UPDATED
+                        && user.getId().equals(x.entityId())));
+    }
+}
@@ -4,10 +4,12 @@ package com.spms.backend.service;
 import com.spms.backend.config.SpmsOidcUser;
 import com.spms.backend.repository.idm.DepartmentRepository;
 import com.spms.backend.repository.idm.RoleRepository;
+import com.spms.backend.repository.idm.UserProfileRepository;
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.ValidationException;
 import com.spms.backend.repository.entities.idm.User;
 import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.service.idm.UserCache;
 import com.spms.backend.service.idm.impl.UserServiceImpl;
 import com.spms.backend.service.model.idm.UserModel;
 import org.junit.jupiter.api.AfterEach;
@@ -55,6 +57,12 @@ public class UserServiceIntegrationTest {
     @Autowired
     private RoleRepository roleRepository;
 
+    @Autowired
+    private UserCache userCache;
+
+    @Autowired
+    private UserProfileRepository userProfileRepository;
+
 
     @AfterEach
     void remove(){
@@ -63,7 +71,8 @@ public class UserServiceIntegrationTest {
 
     @BeforeEach()
     void setUp() {
-        userService = new UserServiceImpl(userRepository, departmentRepository,roleRepository);
+        userService = new UserServiceImpl(userRepository, departmentRepository, roleRepository, event -> { }, userCache,
+                userProfileRepository);
 
         
         // Create test users
@@ -106,9 +115,6 @@ public class UserServiceIntegrationTest {
 
         // 2. Create simple dependencies
         GrantedAuthority authority = new SimpleGrantedAuthority("ROLE_USER");
-        UserModel userModel = new UserModel(); // Add required user data
-        userModel.setId(100L);
-        userModel.setUsername("joe");
 
         // 3. Instantiate SpmsOidcUser
         SpmsOidcUser user = new SpmsOidcUser(
@@ -116,7 +122,9 @@ public class UserServiceIntegrationTest {
                 idToken,
                 new OidcUserInfo(claims), // or null if not needed
                 "sub",
-                userModel
+                100L,
+                "joe",
+                0L
         );
 
         Authentication auth = mock(Authentication.class);
@@ -315,6 +323,13 @@ public class UserServiceIntegrationTest {
     @Test
     void testGetCurrentUserId() {
         assertEquals(100L, userService.getCurrentUserId());
+        assertEquals("joe", userService.getCurrentUsername());
+    }
+
+    @Test
+    void testGetCurrentUser_resolvesFromPrincipalId() {
+        // The principal only holds the ID of a user that does not exist here
+        assertThrows(NotFoundException.class, () -> userService.getCurrentUser());
     }
 
     @Test
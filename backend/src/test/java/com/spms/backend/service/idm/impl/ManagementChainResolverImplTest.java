@@ -0,0 +1,122 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.repository.idm.DepartmentRepository;
+import com.spms.backend.repository.idm.DivisionRepository;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ManagementChainResolverImplTest {
+
+    @Mock
+    private DepartmentRepository departmentRepository;
+
+    @Mock
+    private DivisionRepository divisionRepository;
+
+    @InjectMocks
+    private ManagementChainResolverImpl resolver;
+
+    @BeforeEach
+    void setUp() {
+        // LOCAL: 10 (level 1, head alice) <- 11 (level 2, head bob) <- 12 (level 3, head bob)
+        // LOCAL: 10 <- 13 (level 2, no head)
+        // FUNCTIONAL: division 100 (head dora) <- 20 (level 1, head carol), 100 <- 21 (level 1, no head)
+        when(departmentRepository.findHierarchyNodes()).thenReturn(List.of(
+                node(10L, 1L, DepartmentType.LOCAL, 1, "alice"),
+                node(11L, 10L, DepartmentType.LOCAL, 2, "bob"),
+                node(12L, 11L, DepartmentType.LOCAL, 3, "bob"),
+                node(13L, 10L, DepartmentType.LOCAL, 2, null),
+                node(20L, 100L, DepartmentType.FUNCTIONAL, 1, "carol"),
+                node(21L, 100L, DepartmentType.FUNCTIONAL, 1, null)
+        ));
+        when(divisionRepository.findDivisionHeads()).thenReturn(List.of(divisionHead(100L, "dora")));
+        when(departmentRepository.findMemberships(anyCollection())).thenReturn(List.of(
+                membership("erin", 12L, DepartmentType.LOCAL),
+                membership("erin", 20L, DepartmentType.FUNCTIONAL),
+                membership("frank", 11L, DepartmentType.LOCAL),
+                membership("gina", 13L, DepartmentType.LOCAL),
+                membership("gina", 21L, DepartmentType.FUNCTIONAL)
+        ));
+    }
+
+    @Test
+    void findChain_walksAncestorHeadsAndSkipsRepeats() {
+        assertEquals(List.of("bob", "alice"), resolver.findChain("erin", DepartmentType.LOCAL));
+        assertEquals(List.of("bob", "alice"), resolver.findChain("frank", DepartmentType.LOCAL));
+    }
+
+    @Test
+    void findChain_functionalLineEndsWithDivisionHead() {
+        assertEquals(List.of("carol", "dora"), resolver.findChain("erin", DepartmentType.FUNCTIONAL));
+    }
+
+    @Test
+    void findHead_returnsHeadAtLevel() {
+        assertEquals("bob", resolver.findHead("erin", DepartmentType.LOCAL));
+        assertEquals("alice", resolver.findHead("erin", DepartmentType.LOCAL, 2));
+        assertEquals("", resolver.findHead("erin", DepartmentType.LOCAL, 3));
+        assertEquals("", resolver.findHead("unknown", DepartmentType.LOCAL));
+        assertEquals("", resolver.findHead("frank", DepartmentType.FUNCTIONAL));
+    }
+
+    @Test
+    void findHead_withoutLevelOnlyReturnsOwnDepartmentHead() {
+        assertEquals("", resolver.findHead("gina", DepartmentType.LOCAL));
+        assertEquals("", resolver.findHead("gina", DepartmentType.FUNCTIONAL));
+        // The chain still walks up past the headless department
+        assertEquals("alice", resolver.findHead("gina", DepartmentType.LOCAL, 1));
+        assertEquals("dora", resolver.findHead("gina", DepartmentType.FUNCTIONAL, 1));
+        assertEquals(List.of("alice"), resolver.findChain("gina", DepartmentType.LOCAL));
+    }
+
+    @Test
+    void lookups_reuseSnapshotUntilOrganizationChanges() {
+        resolver.findHead("erin", DepartmentType.LOCAL);
+        resolver.findHead("frank", DepartmentType.LOCAL);
+        verify(departmentRepository, times(1)).findHierarchyNodes();
+
+        resolver.onOrganizationChanged(new OrganizationChangedEvent(this,
+                OrganizationChangedEvent.EntityType.MEMBERSHIP, OrganizationChangedEvent.ChangeType.UPDATED, 11L));
+        resolver.findHead("erin", DepartmentType.LOCAL);
+        verify(departmentRepository, times(2)).findHierarchyNodes();
+    }
+
+    private static DepartmentRepository.HierarchyNode node(Long id, Long parent, DepartmentType type,
+                                                           Integer level, String head) {
+        return new DepartmentRepository.HierarchyNode() {
+            public Long getId() { return id; }
+            public Long getParent() { return parent; }
+            public DepartmentType getType() { return type; }
+            public Integer getLevel() { return level; }
+            public String getHeadUsername() { return head; }
+        };
+    }
+
+    private static DepartmentRepository.Membership membership(String username, Long departmentId, DepartmentType type) {
+        return new DepartmentRepository.Membership() {
+            public String getUsername() { return username; }
+            public Long getDepartmentId() { return departmentId; }
+            public DepartmentType getType() { return type; }
+        };
+    }
+
+    private static DivisionRepository.DivisionHead divisionHead(Long id, String head) {
+        return new DivisionRepository.DivisionHead() {
+            public Long getId() { return id; }
+            public String getHeadUsername() { return head; }
+        };
+    }
+}
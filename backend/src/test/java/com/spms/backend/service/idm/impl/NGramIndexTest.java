@@ -0,0 +1,69 @@
+package com.spms.backend.service.idm.impl;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NGramIndexTest {
+
+    private NGramIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new NGramIndex();
+        index.put(document(1, "jsmith", "john.smith@example.com", "Backend developer"));
+        index.put(document(2, "smithers", "w.smithers@example.com", null));
+        index.put(document(3, "ajones", "anna.jones@example.com", "Smith & Co liaison"));
+    }
+
+    @Test
+    void search_shouldRankExactThenPrefixThenWordThenSecondaryFields() {
+        index.put(document(4, "smith", "smith@example.com", null));
+
+        // Exact username, username prefix, description prefix, email word prefix
+        assertEquals(List.of(4L, 2L, 3L, 1L), ids(index.search("smith", 10)));
+    }
+
+    @Test
+    void search_shortQuery_shouldMatchWordPrefixes() {
+        assertEquals(List.of(1L, 3L), ids(index.search("jo", 10)));
+        assertTrue(index.search("mi", 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldRequireEveryWord() {
+        assertEquals(List.of(1L), ids(index.search("smith backend", 10)));
+        assertTrue(index.search("smith nobody", 10).isEmpty());
+    }
+
+    @Test
+    void search_shouldHonourLimit() {
+        assertEquals(1, index.search("example", 1).size());
+        assertEquals(3, index.search("EXAMPLE", 10).size());
+    }
+
+    @Test
+    void put_shouldReplaceAndRemoveShouldDropPostings() {
+        index.put(document(1, "jdoe", "john.doe@example.com", null));
+
+        assertEquals(List.of(2L, 3L), ids(index.search("smith", 10)));
+        assertEquals(List.of(1L), ids(index.search("jdoe", 10)));
+
+        index.remove(1);
+
+        assertTrue(index.search("jdoe", 10).isEmpty());
+        assertEquals(2, index.size());
+    }
+
+    private static NGramIndex.Document document(long id, String username, String email, String description) {
+        return new NGramIndex.Document(id, username, email, Arrays.asList(username, email, description));
+    }
+
+    private static List<Long> ids(List<NGramIndex.Match> matches) {
+        return matches.stream().map(x -> x.document().id()).toList();
+    }
+}
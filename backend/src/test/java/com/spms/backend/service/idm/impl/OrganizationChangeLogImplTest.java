@@ -0,0 +1,129 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.idm.OrganizationChangeRepository;
+import com.spms.backend.service.idm.OrganizationChangeLog;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.EntityType;
+import com.spms.backend.service.model.idm.ChangeFeed;
+import com.spms.backend.service.model.idm.ChangeLogEntry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrganizationChangeLogImplTest {
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private OrganizationChangeLog changeLog;
+
+    @Autowired
+    private OrganizationChangeRepository changeRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Test
+    void changesOfOneTransaction_shouldBeCoalescedAndNumberedInOrder() {
+        long since = changeLog.getChanges(0, 1).latestSequence();
+
+        inTransaction(() -> {
+            publish(EntityType.COMPANY, ChangeType.CREATED, 1L);
+            publish(EntityType.DEPARTMENT, ChangeType.UPDATED, 2L);
+            publish(EntityType.COMPANY, ChangeType.UPDATED, 1L);
+        });
+
+        ChangeFeed feed = changeLog.getChanges(since, 0);
+
+        assertFalse(feed.resetRequired());
+        assertEquals(2, feed.changes().size());
+        ChangeLogEntry company = feed.changes().get(0);
+        ChangeLogEntry department = feed.changes().get(1);
+        assertEquals(since + 1, company.sequence());
+        assertEquals(since + 2, department.sequence());
+        assertEquals(EntityType.COMPANY, company.entityType());
+        assertEquals(ChangeType.CREATED, company.changeType());
+        assertEquals(2L, department.entityId());
+        assertEquals(since + 2, feed.nextSince());
+    }
+
+    @Test
+    void rolledBackChanges_shouldNotBeRecorded() {
+        long since = changeLog.getChanges(0, 1).latestSequence();
+
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.executeWithoutResult(status -> {
+            publish(EntityType.USER, ChangeType.DELETED, 3L);
+            status.setRollbackOnly();
+        });
+
+        assertTrue(changeLog.getChanges(since, 0).changes().isEmpty());
+    }
+
+    @Test
+    void getChanges_shouldPage() {
+        long since = changeLog.getChanges(0, 1).latestSequence();
+        inTransaction(() -> {
+            for (long id = 1; id <= 5; id++) {
+                publish(EntityType.ROLE, ChangeType.UPDATED, id);
+            }
+        });
+
+        ChangeFeed first = changeLog.getChanges(since, 3);
+        ChangeFeed second = changeLog.getChanges(first.nextSince(), 3);
+
+        assertEquals(3, first.changes().size());
+        assertTrue(first.hasMore());
+        assertEquals(2, second.changes().size());
+        assertFalse(second.hasMore());
+        assertEquals(List.of(4L, 5L), second.changes().stream().map(ChangeLogEntry::entityId).toList());
+    }
+
+    @Test
+    void compact_shouldDropSupersededAndExpiredEntries() {
+        inTransaction(() -> changeRepository.append(List.of(
+                new OrganizationChangeRepository.NewChange("DIVISION", "CREATED", 10L),
+                new OrganizationChangeRepository.NewChange("DIVISION", "UPDATED", 11L)),
+                LocalDateTime.now().minusDays(200)));
+        long expiredThrough = changeLog.getChanges(0, 1).latestSequence();
+        inTransaction(() -> changeRepository.append(List.of(
+                new OrganizationChangeRepository.NewChange("DIVISION", "UPDATED", 12L),
+                new OrganizationChangeRepository.NewChange("DIVISION", "DELETED", 12L)),
+                LocalDateTime.now().minusDays(2)));
+
+        assertTrue(changeLog.compact() >= 3);
+
+        assertTrue(changeLog.getChanges(expiredThrough - 1, 0).resetRequired());
+        ChangeFeed feed = changeLog.getChanges(expiredThrough, 0);
+        assertFalse(feed.resetRequired());
+        List<ChangeLogEntry> division12 = feed.changes().stream().filter(x -> x.entityId() == 12L).toList();
+        assertEquals(1, division12.size());
+        assertEquals(ChangeType.DELETED, division12.get(0).changeType());
+    }
+
+    private void publish(EntityType entityType, ChangeType changeType, Long id) {
+        eventPublisher.publishEvent(new OrganizationChangedEvent(this, entityType, changeType, id));
+    }
+
+    private void inTransaction(Runnable action) {
+        new TransactionTemplate(transactionManager).executeWithoutResult(status -> action.run());
+    }
+}
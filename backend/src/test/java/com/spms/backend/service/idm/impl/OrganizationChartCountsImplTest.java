@@ -0,0 +1,202 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.controller.dto.idm.ChartMode;
+import com.spms.backend.repository.entities.idm.CompanyType;
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.repository.entities.idm.DivisionType;
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.service.idm.DepartmentService;
+import com.spms.backend.service.idm.OrganizationChartCounts;
+import com.spms.backend.service.idm.OrganizationSyncService;
+import com.spms.backend.service.model.idm.ChartLevel;
+import com.spms.backend.service.model.idm.ChartNode;
+import com.spms.backend.service.model.idm.ChartNodeType;
+import com.spms.backend.service.model.idm.OrganizationSnapshot;
+import com.spms.backend.service.model.idm.OrganizationSnapshot.CompanyEntry;
+import com.spms.backend.service.model.idm.OrganizationSnapshot.DepartmentEntry;
+import com.spms.backend.service.model.idm.OrganizationSnapshot.DivisionEntry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrganizationChartCountsImplTest {
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private OrganizationChartCounts chartCounts;
+
+    @Autowired
+    private OrganizationSyncService syncService;
+
+    @Autowired
+    private DepartmentService departmentService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        createUser("alice");
+        createUser("bob");
+        createUser("carol");
+        syncService.sync(snapshot(), "hr-sync");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM \"spms_org_chart_count\"");
+        jdbcTemplate.update("DELETE FROM \"spms_org_chart_count_state\"");
+        jdbcTemplate.update("DELETE FROM \"spms_department_user\"");
+        jdbcTemplate.update("DELETE FROM \"spms_department\"");
+        jdbcTemplate.update("DELETE FROM \"spms_division\"");
+        jdbcTemplate.update("UPDATE \"spms_company\" SET \"parent_id\" = NULL");
+        jdbcTemplate.update("DELETE FROM \"spms_company\"");
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void getLevel_shouldReturnOneLevelWithCounts() {
+        ChartLevel group = chartCounts.getLevel(ChartMode.REALISTIC, ChartNodeType.COMPANY, id("spms_company", "Group"));
+
+        assertEquals("GROUP", group.node().type());
+        assertEquals(1, group.node().directChildren());
+        assertEquals(5, group.node().totalMembers());
+        ChartNode entity = group.children().get(0);
+        assertEquals("Entity", entity.name());
+        assertEquals("BUSINESS_ENTITY", entity.type());
+        assertEquals(1, entity.directChildren());
+
+        ChartLevel local1 = chartCounts.getLevel(ChartMode.REALISTIC, ChartNodeType.DEPARTMENT, id("spms_department", "Local 1"));
+        assertEquals(2, local1.node().directMembers());
+        assertEquals(List.of("Local 2", "Team"), local1.children().stream().map(ChartNode::name).toList());
+        assertEquals(List.of(2L, 1L), local1.children().stream().map(ChartNode::totalMembers).toList());
+
+        ChartLevel functional = chartCounts.getLevel(ChartMode.FUNCTIONAL, ChartNodeType.COMPANY, id("spms_company", "Entity"));
+        assertEquals(List.of("Tech"), functional.children().stream().map(ChartNode::name).toList());
+        assertEquals(1, functional.node().totalMembers());
+    }
+
+    @Test
+    void membershipChange_shouldUpdateAncestorsIncrementally() {
+        Long local2 = id("spms_department", "Local 2");
+
+        Long group = id("spms_company", "Group");
+
+        departmentService.addMembers(local2, List.of(userId("alice"), userId("carol")));
+
+        ChartNode local2Node = chartCounts.getLevel(ChartMode.REALISTIC, ChartNodeType.DEPARTMENT, local2).node();
+        assertEquals(3, local2Node.directMembers());
+        assertEquals(3, local2Node.totalMembers());
+        assertEquals(6, chartCounts.getLevel(ChartMode.REALISTIC, ChartNodeType.COMPANY, group).node().totalMembers());
+
+        departmentService.removeMembers(id("spms_department", "Team"), List.of(userId("carol")));
+
+        assertEquals(5, chartCounts.getLevel(ChartMode.REALISTIC, ChartNodeType.COMPANY, group).node().totalMembers());
+        assertEquals(1, chartCounts.getLevel(ChartMode.FUNCTIONAL, ChartNodeType.COMPANY, id("spms_company", "Entity"))
+                .node().totalMembers());
+        // The incremental result matches a full recount
+        chartCounts.rebuild();
+        assertEquals(5, chartCounts.getLevel(ChartMode.REALISTIC, ChartNodeType.COMPANY, group).node().totalMembers());
+    }
+
+    @Test
+    void structureChange_shouldRebuildCounts() {
+        OrganizationSnapshot snapshot = snapshot();
+        snapshot.setDeactivateMissing(true);
+        List<DepartmentEntry> departments = new ArrayList<>(snapshot.getDepartments());
+        departments.removeIf(x -> x.name().equals("Team"));
+        snapshot.setDepartments(departments);
+
+        syncService.sync(snapshot, "hr-sync");
+
+        ChartLevel local1 = chartCounts.getLevel(ChartMode.REALISTIC, ChartNodeType.DEPARTMENT, id("spms_department", "Local 1"));
+        assertEquals(1, local1.node().directChildren());
+        assertEquals(4, local1.node().totalMembers());
+    }
+
+    @Test
+    void attributeChange_shouldKeepCountsWithoutRebuild() {
+        Long local2 = id("spms_department", "Local 2");
+        chartCounts.getLevel(ChartMode.REALISTIC, ChartNodeType.DEPARTMENT, local2);
+        Timestamp builtAt = builtAt();
+
+        // Only the department head changes, which is not part of the counts
+        OrganizationSnapshot snapshot = snapshot();
+        List<DepartmentEntry> departments = new ArrayList<>(snapshot.getDepartments());
+        departments.replaceAll(x -> x.name().equals("Local 2")
+                ? new DepartmentEntry(x.name(), x.type(), x.level(), x.parentName(), "bob", null, x.members())
+                : x);
+        snapshot.setDepartments(departments);
+        syncService.sync(snapshot, "hr-sync");
+
+        assertEquals(builtAt, builtAt());
+        assertEquals(2, chartCounts.getLevel(ChartMode.REALISTIC, ChartNodeType.DEPARTMENT, local2).node().totalMembers());
+
+        // Moving it below the team is structural
+        departments.replaceAll(x -> x.name().equals("Local 2")
+                ? new DepartmentEntry(x.name(), DepartmentType.TEAM, 2, "Team", "bob", null, x.members())
+                : x);
+        syncService.sync(snapshot, "hr-sync");
+
+        assertNotEquals(builtAt, builtAt());
+        ChartLevel team = chartCounts.getLevel(ChartMode.REALISTIC, ChartNodeType.DEPARTMENT, id("spms_department", "Team"));
+        assertEquals(List.of("Local 2"), team.children().stream().map(ChartNode::name).toList());
+        assertEquals(3, team.node().totalMembers());
+    }
+
+    private Timestamp builtAt() {
+        return jdbcTemplate.queryForObject("SELECT \"built_at\" FROM \"spms_org_chart_count_state\"", Timestamp.class);
+    }
+
+    private static OrganizationSnapshot snapshot() {
+        OrganizationSnapshot snapshot = new OrganizationSnapshot();
+        snapshot.setCompanies(List.of(
+                new CompanyEntry("Group", "Group", CompanyType.GROUP, null, null),
+                new CompanyEntry("Entity", "Business entity", CompanyType.BUSINESS_ENTITY, "Group", null)));
+        snapshot.setDivisions(List.of(
+                new DivisionEntry("Tech", null, DivisionType.TECHNOLOGY, "Entity", null, null)));
+        snapshot.setDepartments(List.of(
+                new DepartmentEntry("Local 1", DepartmentType.LOCAL, 1, "Entity", null, null, List.of("alice", "bob")),
+                new DepartmentEntry("Local 2", DepartmentType.LOCAL, 2, "Local 1", null, null, List.of("bob", "carol")),
+                new DepartmentEntry("Team", DepartmentType.TEAM, 1, "Local 1", null, null, List.of("carol")),
+                new DepartmentEntry("Functional", DepartmentType.FUNCTIONAL, 1, "Tech", null, null, List.of("alice"))));
+        return snapshot;
+    }
+
+    private Long id(String table, String name) {
+        return jdbcTemplate.queryForObject("SELECT \"id\" FROM \"" + table + "\" WHERE \"name\" = ?", Long.class, name);
+    }
+
+    private Long userId(String username) {
+        return userRepository.findByUsername(username).getId();
+    }
+
+    private void createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setType(User.UserType.STAFF);
+        user.setProvider("keycloak");
+        userRepository.save(user);
+    }
+}
@@ -0,0 +1,155 @@
+package com.spms.backend.service.idm.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.backend.config.ChartSnapshotProperties;
+import com.spms.backend.controller.dto.idm.ChartMode;
+import com.spms.backend.controller.dto.idm.OrganizationChartDTO;
+import com.spms.backend.repository.entities.idm.Company;
+import com.spms.backend.repository.entities.idm.CompanyType;
+import com.spms.backend.repository.idm.CompanyRepository;
+import com.spms.backend.service.exception.NotFoundException;
+import com.spms.backend.service.idm.OrganizationChartSnapshots;
+import com.spms.backend.service.idm.OrganizationService;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.EntityType;
+import com.spms.backend.service.model.idm.ChartSnapshot;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrganizationChartSnapshotsImplTest {
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private OrganizationChartSnapshots chartSnapshots;
+
+    @Autowired
+    private ChartSnapshotProperties properties;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    private int gzipMinSize;
+
+    @BeforeEach
+    void setUp() {
+        gzipMinSize = properties.getGzipMinSize();
+    }
+
+    @AfterEach
+    void tearDown() {
+        properties.setGzipMinSize(gzipMinSize);
+        jdbcTemplate.update("UPDATE \"spms_company\" SET \"parent_id\" = NULL");
+        companyRepository.deleteAll();
+    }
+
+    @Test
+    void getSnapshot_shouldServeStoredBytesUntilTheOrganizationChanges() {
+        Company group = createCompany("Snapshot group", CompanyType.GROUP, null);
+        Company entity = createCompany("Snapshot entity", CompanyType.BUSINESS_ENTITY, group);
+
+        ChartSnapshot first = chartSnapshots.getSnapshot(group.getId(), ChartMode.REALISTIC);
+        assertSame(first, chartSnapshots.getSnapshot(group.getId(), ChartMode.REALISTIC));
+        assertTrue(json(first).contains("Snapshot entity"));
+
+        jdbcTemplate.update("UPDATE \"spms_company\" SET \"name\" = ? WHERE \"id\" = ?", "Renamed entity", entity.getId());
+        eventPublisher.publishEvent(new OrganizationChangedEvent(this, EntityType.COMPANY, ChangeType.UPDATED, entity.getId()));
+
+        ChartSnapshot second = chartSnapshots.getSnapshot(group.getId(), ChartMode.REALISTIC);
+        assertNotEquals(first.hash(), second.hash());
+        assertTrue(json(second).contains("Renamed entity"));
+        assertTrue(second.matches(second.etag(false)));
+        assertFalse(second.matches(first.etag(false)));
+    }
+
+    @Test
+    void getSnapshot_largeChart_shouldBeStoredCompressed() {
+        properties.setGzipMinSize(1);
+        Company group = createCompany("Compressed group", CompanyType.GROUP, null);
+
+        ChartSnapshot snapshot = chartSnapshots.getSnapshot(group.getId(), ChartMode.FUNCTIONAL);
+
+        assertTrue(snapshot.gzipped());
+        assertEquals((byte) 0x1f, snapshot.body()[0]);
+        assertTrue(json(snapshot).contains("Compressed group"));
+        assertNotEquals(snapshot.etag(true), snapshot.etag(false));
+    }
+
+    @Test
+    void getSnapshot_unknownCompany_shouldThrowAndNotBeStored() {
+        assertThrows(NotFoundException.class, () -> chartSnapshots.getSnapshot(-1L, ChartMode.REALISTIC));
+        assertThrows(NotFoundException.class, () -> chartSnapshots.getSnapshot(-1L, ChartMode.REALISTIC));
+    }
+
+    @Test
+    void onOrganizationChanged_burstOfChanges_shouldQueueOneRebuild() throws InterruptedException {
+        OrganizationService organizationService = mock(OrganizationService.class);
+        OrganizationChartSnapshotsImpl store =
+                new OrganizationChartSnapshotsImpl(organizationService, new ObjectMapper(), new ChartSnapshotProperties());
+        CountDownLatch rebuilding = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger builds = new AtomicInteger();
+        when(organizationService.getOrganizationChart(1L, ChartMode.REALISTIC)).thenAnswer(invocation -> {
+            if (builds.incrementAndGet() == 2) {
+                rebuilding.countDown();
+                release.await(5, TimeUnit.SECONDS);
+            }
+            return new OrganizationChartDTO("1", "Group " + builds.get(), "GROUP");
+        });
+        try {
+            store.getSnapshot(1L, ChartMode.REALISTIC);
+
+            // The first change starts a rebuild, the next ones are all left to a single queued one
+            store.onOrganizationChanged(new OrganizationChangedEvent(this, EntityType.DEPARTMENT, ChangeType.UPDATED, 1L));
+            assertTrue(rebuilding.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 5; i++) {
+                store.onOrganizationChanged(new OrganizationChangedEvent(this, EntityType.DIVISION, ChangeType.UPDATED, 1L));
+            }
+            release.countDown();
+
+            assertTrue(json(store.getSnapshot(1L, ChartMode.REALISTIC)).contains("Group 3"));
+            verify(organizationService, times(3)).getOrganizationChart(1L, ChartMode.REALISTIC);
+        } finally {
+            release.countDown();
+            store.shutdown();
+        }
+    }
+
+    private static String json(ChartSnapshot snapshot) {
+        return new String(snapshot.plainBody(), StandardCharsets.UTF_8);
+    }
+
+    private Company createCompany(String name, CompanyType type, Company parent) {
+        Company company = new Company();
+        company.setName(name);
+        company.setCompanyType(type);
+        company.setParent(parent);
+        return companyRepository.save(company);
+    }
+}
@@ -0,0 +1,152 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.entities.idm.Company;
+import com.spms.backend.repository.entities.idm.CompanyType;
+import com.spms.backend.repository.entities.idm.Department;
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.repository.idm.CompanyRepository;
+import com.spms.backend.repository.idm.DepartmentRepository;
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.idm.OrganizationRestructureService;
+import com.spms.backend.service.model.idm.RestructurePlan;
+import com.spms.backend.service.model.idm.RestructurePlan.CompanyMove;
+import com.spms.backend.service.model.idm.RestructurePlan.DepartmentMove;
+import com.spms.backend.service.model.idm.RestructureResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrganizationRestructureServiceImplTest {
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private OrganizationRestructureService restructureService;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Company groupA;
+    private Company groupB;
+    private Company entity;
+    private Department level1;
+    private Department level2;
+    private Department level3;
+
+    @BeforeEach
+    void setUp() {
+        groupA = createCompany("Group A", CompanyType.GROUP, null);
+        groupB = createCompany("Group B", CompanyType.GROUP, null);
+        entity = createCompany("Entity", CompanyType.BUSINESS_ENTITY, groupA);
+
+        level1 = createDepartment("Local 1", 1, entity.getId());
+        level2 = createDepartment("Local 2", 2, level1.getId());
+        level3 = createDepartment("Local 3", 3, level2.getId());
+    }
+
+    @AfterEach
+    void tearDown() {
+        departmentRepository.deleteAll();
+        jdbcTemplate.update("UPDATE \"spms_company\" SET \"parent_id\" = NULL");
+        companyRepository.deleteAll();
+    }
+
+    @Test
+    void restructure_shouldApplyDependentMovesTogether() {
+        RestructurePlan plan = new RestructurePlan();
+        plan.setCompanies(List.of(new CompanyMove(entity.getId(), groupB.getId())));
+        // Level 2 becomes a top level department and level 3 moves up below it
+        plan.setDepartments(List.of(
+                new DepartmentMove(level2.getId(), entity.getId(), 1),
+                new DepartmentMove(level3.getId(), level2.getId(), 2)));
+
+        RestructureResult result = restructureService.restructure(plan, "admin");
+
+        assertTrue(result.isApplied(), () -> result.errors().toString());
+        assertEquals(1, result.companiesMoved());
+        assertEquals(2, result.departmentsMoved());
+        assertEquals(groupB.getId(), companyParent(entity.getId()));
+        assertEquals(List.of(entity.getId(), 1L), departmentPosition(level2.getId()));
+        assertEquals(List.of(level2.getId(), 2L), departmentPosition(level3.getId()));
+    }
+
+    @Test
+    void restructure_shouldRejectCyclesWithoutWriting() {
+        RestructurePlan plan = new RestructurePlan();
+        plan.setCompanies(List.of(new CompanyMove(entity.getId(), groupB.getId())));
+        plan.setDepartments(List.of(new DepartmentMove(level2.getId(), level3.getId(), 4)));
+
+        RestructureResult result = restructureService.restructure(plan, "admin");
+
+        assertFalse(result.isApplied());
+        assertTrue(result.errors().stream().anyMatch(x -> x.contains("cycle")), () -> result.errors().toString());
+        assertEquals(groupA.getId(), companyParent(entity.getId()));
+        assertEquals(List.of(level1.getId(), 2L), departmentPosition(level2.getId()));
+    }
+
+    @Test
+    void restructure_shouldReportAllRuleViolations() {
+        RestructurePlan plan = new RestructurePlan();
+        plan.setCompanies(List.of(
+                new CompanyMove(groupA.getId(), groupB.getId()),
+                new CompanyMove(-1L, groupB.getId())));
+        // Groups cannot have parents, and top level local departments belong to a business entity
+        plan.setDepartments(List.of(new DepartmentMove(level1.getId(), groupB.getId(), null)));
+
+        RestructureResult result = restructureService.restructure(plan, "admin");
+
+        assertFalse(result.isApplied());
+        assertEquals(3, result.errors().size(), () -> result.errors().toString());
+    }
+
+    @Test
+    void restructure_emptyPlan_shouldThrow() {
+        assertThrows(ValidationException.class, () -> restructureService.restructure(new RestructurePlan(), "admin"));
+    }
+
+    private Long companyParent(Long companyId) {
+        return jdbcTemplate.queryForObject("SELECT \"parent_id\" FROM \"spms_company\" WHERE \"id\" = ?",
+                Long.class, companyId);
+    }
+
+    private List<Long> departmentPosition(Long departmentId) {
+        return jdbcTemplate.queryForObject("SELECT \"parent\", \"level\" FROM \"spms_department\" WHERE \"id\" = ?",
+                (rs, rowNum) -> List.of(rs.getLong(1), rs.getLong(2)), departmentId);
+    }
+
+    private Company createCompany(String name, CompanyType type, Company parent) {
+        Company company = new Company();
+        company.setName(name);
+        company.setCompanyType(type);
+        company.setParent(parent);
+        return companyRepository.save(company);
+    }
+
+    private Department createDepartment(String name, int level, Long parent) {
+        Department department = new Department();
+        department.setName(name);
+        department.setType(DepartmentType.LOCAL);
+        department.setLevel(level);
+        department.setParent(parent);
+        return departmentRepository.save(department);
+    }
+}
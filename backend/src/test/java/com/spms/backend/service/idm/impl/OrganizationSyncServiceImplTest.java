@@ -0,0 +1,186 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.entities.idm.CompanyType;
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.repository.entities.idm.DivisionType;
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.service.idm.OrganizationSyncService;
+import com.spms.backend.service.model.idm.OrganizationSnapshot;
+import com.spms.backend.service.model.idm.OrganizationSnapshot.CompanyEntry;
+import com.spms.backend.service.model.idm.OrganizationSnapshot.DepartmentEntry;
+import com.spms.backend.service.model.idm.OrganizationSnapshot.DivisionEntry;
+import com.spms.backend.service.model.idm.OrganizationSyncResult;
+import com.spms.backend.service.model.idm.OrganizationSyncResult.NodeChanges;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class OrganizationSyncServiceImplTest {
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private OrganizationSyncService syncService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        createUser("alice");
+        createUser("bob");
+        createUser("carol");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM \"spms_department_user\"");
+        jdbcTemplate.update("DELETE FROM \"spms_department\"");
+        jdbcTemplate.update("DELETE FROM \"spms_division\"");
+        jdbcTemplate.update("UPDATE \"spms_company\" SET \"parent_id\" = NULL");
+        jdbcTemplate.update("DELETE FROM \"spms_company\"");
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void sync_shouldCreateOrganizationTopDown() {
+        OrganizationSyncResult result = syncService.sync(snapshot(), "hr-sync");
+
+        assertTrue(result.isApplied(), () -> result.errors().toString());
+        assertEquals(new NodeChanges(2, 0, 0, 0), result.companies());
+        assertEquals(1, result.divisions().created());
+        assertEquals(4, result.departments().created());
+        assertEquals(4, result.membershipsAdded());
+        assertEquals(List.of("Unknown user: ghost"), result.warnings());
+
+        assertEquals(id("spms_company", "Group"), parentOf("spms_company", "parent_id", "Entity"));
+        assertEquals(id("spms_department", "Local 1"), parentOf("spms_department", "parent", "Local 2"));
+        assertEquals(id("spms_department", "Local 2"), parentOf("spms_department", "parent", "Team"));
+        assertEquals(id("spms_division", "Tech"), parentOf("spms_department", "parent", "Functional"));
+        assertEquals(Set.of("alice", "bob"), members("Local 1"));
+    }
+
+    @Test
+    void sync_sameSnapshotTwice_shouldWriteNothing() {
+        syncService.sync(snapshot(), "hr-sync");
+
+        OrganizationSyncResult result = syncService.sync(snapshot(), "hr-sync");
+
+        assertTrue(result.isApplied(), () -> result.errors().toString());
+        assertEquals(0, result.companies().created() + result.companies().updated());
+        assertEquals(0, result.divisions().created() + result.divisions().updated());
+        assertEquals(0, result.departments().created() + result.departments().updated());
+        assertEquals(0, result.membershipsAdded() + result.membershipsRemoved());
+    }
+
+    @Test
+    void sync_shouldApplyOnlyDifferences() {
+        syncService.sync(snapshot(), "hr-sync");
+
+        OrganizationSnapshot snapshot = snapshot();
+        snapshot.setDeactivateMissing(true);
+        List<DepartmentEntry> departments = new ArrayList<>(snapshot.getDepartments());
+        // New head for Local 2, bob replaced by carol in Local 1, Team dropped by HR
+        departments.set(0, new DepartmentEntry("Local 1", DepartmentType.LOCAL, 1, "Entity", "alice", null,
+                List.of("alice", "carol")));
+        departments.set(1, new DepartmentEntry("Local 2", DepartmentType.LOCAL, 2, "Local 1", "carol", null,
+                List.of("bob")));
+        departments.remove(2);
+        snapshot.setDepartments(departments);
+
+        OrganizationSyncResult result = syncService.sync(snapshot, "hr-sync");
+
+        assertTrue(result.isApplied(), () -> result.errors().toString());
+        assertEquals(0, result.departments().created());
+        assertEquals(1, result.departments().updated());
+        assertTrue(result.departments().deactivated() >= 1);
+        assertEquals(1, result.membershipsAdded());
+        assertEquals(1, result.membershipsRemoved());
+        assertEquals(Set.of("alice", "carol"), members("Local 1"));
+        assertFalse(jdbcTemplate.queryForObject(
+                "SELECT \"active\" FROM \"spms_department\" WHERE \"name\" = 'Team'", Boolean.class));
+    }
+
+    @Test
+    void sync_invalidSnapshot_shouldRejectWithoutWriting() {
+        OrganizationSnapshot snapshot = new OrganizationSnapshot();
+        snapshot.setCompanies(List.of(
+                new CompanyEntry("Vendor A", null, CompanyType.VENDOR, "Vendor B", null),
+                new CompanyEntry("Vendor B", null, CompanyType.VENDOR, "Vendor A", null)));
+        // Top level local departments belong to a business entity
+        snapshot.setDepartments(List.of(
+                new DepartmentEntry("Local", DepartmentType.LOCAL, 1, "Vendor A", null, null, null)));
+
+        OrganizationSyncResult result = syncService.sync(snapshot, "hr-sync");
+
+        assertFalse(result.isApplied());
+        assertTrue(result.errors().stream().anyMatch(x -> x.contains("cycle")), () -> result.errors().toString());
+        assertTrue(result.errors().stream().anyMatch(x -> x.contains("department Local")), () -> result.errors().toString());
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"spms_company\"", Integer.class));
+    }
+
+    private static OrganizationSnapshot snapshot() {
+        OrganizationSnapshot snapshot = new OrganizationSnapshot();
+        snapshot.setDeactivateMissing(false);
+        // Children are listed before their parents on purpose
+        snapshot.setCompanies(List.of(
+                new CompanyEntry("Entity", "Business entity", CompanyType.BUSINESS_ENTITY, "Group", null),
+                new CompanyEntry("Group", "Group", CompanyType.GROUP, null, null)));
+        snapshot.setDivisions(List.of(
+                new DivisionEntry("Tech", null, DivisionType.TECHNOLOGY, "Entity", "alice", null)));
+        snapshot.setDepartments(List.of(
+                new DepartmentEntry("Local 1", DepartmentType.LOCAL, 1, "Entity", "alice", null,
+                        List.of("alice", "bob")),
+                new DepartmentEntry("Local 2", DepartmentType.LOCAL, 2, "Local 1", "bob", null,
+                        List.of("bob", "ghost")),
+                new DepartmentEntry("Team", DepartmentType.TEAM, 1, "Local 2", null, null, null),
+                new DepartmentEntry("Functional", DepartmentType.FUNCTIONAL, 1, "Tech", "carol", null,
+                        List.of("carol"))));
+        return snapshot;
+    }
+
+    private Long id(String table, String name) {
+        return jdbcTemplate.queryForObject("SELECT \"id\" FROM \"" + table + "\" WHERE \"name\" = ?", Long.class, name);
+    }
+
+    private Long parentOf(String table, String column, String name) {
+        return jdbcTemplate.queryForObject(
+                "SELECT \"" + column + "\" FROM \"" + table + "\" WHERE \"name\" = ?", Long.class, name);
+    }
+
+    private Set<String> members(String department) {
+        return Set.copyOf(jdbcTemplate.queryForList(
+                "SELECT u.\"username\" FROM \"spms_department_user\" m " +
+                "JOIN \"spms_user\" u ON u.\"id\" = m.\"user_id\" " +
+                "JOIN \"spms_department\" d ON d.\"id\" = m.\"department_id\" WHERE d.\"name\" = ?",
+                String.class, department));
+    }
+
+    private void createUser(String username) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setType(User.UserType.STAFF);
+        user.setProvider("keycloak");
+        userRepository.save(user);
+    }
+}
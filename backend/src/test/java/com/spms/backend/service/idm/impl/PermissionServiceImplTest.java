@@ -0,0 +1,119 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.idm.RoleRepository;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.BitSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class PermissionServiceImplTest {
+
+    @Mock
+    private RoleRepository roleRepository;
+
+    @InjectMocks
+    private PermissionServiceImpl permissionService;
+
+    @BeforeEach
+    void setUp() {
+        // 1 (read) <- 2 (write) <- 4 (admin)
+        // 1 (read) <- 3 (audit) <- 4
+        lenient().when(roleRepository.findPermissionGrants()).thenReturn(List.of(
+                grant(1L, "read"),
+                grant(2L, "write"),
+                grant(3L, "audit"),
+                grant(4L, "admin")
+        ));
+        lenient().when(roleRepository.findParentLinks()).thenReturn(List.of(
+                link(2L, 1L),
+                link(3L, 1L),
+                link(4L, 2L),
+                link(4L, 3L)
+        ));
+    }
+
+    @Test
+    void getRolePermissions_includesAllAncestors() {
+        assertEquals(Set.of("read", "write", "audit", "admin"),
+                permissionService.toPermissions(permissionService.getRolePermissions(4L)));
+        assertEquals(Set.of("read", "write"),
+                permissionService.toPermissions(permissionService.getRolePermissions(2L)));
+        assertTrue(permissionService.getRolePermissions(99L).isEmpty());
+    }
+
+    @Test
+    void getUserPermissions_checksAreBitsetOperations() {
+        when(roleRepository.findRoleIdsByUserId(7L)).thenReturn(List.of(2L, 3L));
+
+        BitSet granted = permissionService.getUserPermissions(7L);
+
+        assertTrue(permissionService.hasPermission(granted, "audit"));
+        assertFalse(permissionService.hasPermission(granted, "admin"));
+        assertFalse(permissionService.hasPermission(granted, "unknown"));
+        assertTrue(permissionService.hasAllPermissions(granted, permissionService.toBitSet(List.of("read", "write"))));
+        assertFalse(permissionService.hasAllPermissions(granted, permissionService.toBitSet(List.of("read", "delete"))));
+    }
+
+    @Test
+    void createsCycle_detectsSelfAndTransitiveLinks() {
+        assertTrue(permissionService.createsCycle(1L, 1L));
+        assertTrue(permissionService.createsCycle(1L, 4L));
+        assertTrue(permissionService.createsCycle(2L, 4L));
+        assertFalse(permissionService.createsCycle(3L, 2L));
+        assertFalse(permissionService.createsCycle(5L, 4L));
+    }
+
+    @Test
+    void roleChanges_recomputeSnapshot() {
+        permissionService.getRolePermissions(4L);
+        permissionService.getRolePermissions(2L);
+        verify(roleRepository, times(1)).findPermissionGrants();
+        long version = permissionService.getVersion();
+
+        permissionService.onOrganizationChanged(new OrganizationChangedEvent(this,
+                OrganizationChangedEvent.EntityType.DEPARTMENT, OrganizationChangedEvent.ChangeType.UPDATED, 1L));
+        assertEquals(version, permissionService.getVersion());
+
+        permissionService.onOrganizationChanged(new OrganizationChangedEvent(this,
+                OrganizationChangedEvent.EntityType.ROLE, OrganizationChangedEvent.ChangeType.UPDATED, 1L));
+        verify(roleRepository, times(2)).findPermissionGrants();
+        assertTrue(permissionService.getVersion() > version);
+    }
+
+    @Test
+    void indexesStayStableAcrossRecompute() {
+        int read = permissionService.indexOf("read");
+        permissionService.getRolePermissions(1L);
+        int readAfterLoad = permissionService.indexOf("read");
+        permissionService.recompute();
+
+        assertEquals(-1, read);
+        assertTrue(readAfterLoad >= 0);
+        assertEquals(readAfterLoad, permissionService.indexOf("read"));
+    }
+
+    private static RoleRepository.PermissionGrant grant(Long roleId, String permission) {
+        return new RoleRepository.PermissionGrant() {
+            public Long getRoleId() { return roleId; }
+            public String getPermission() { return permission; }
+        };
+    }
+
+    private static RoleRepository.ParentLink link(Long childId, Long parentId) {
+        return new RoleRepository.ParentLink() {
+            public Long getChildId() { return childId; }
+            public Long getParentId() { return parentId; }
+        };
+    }
+}
@@ -0,0 +1,111 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.entities.idm.Department;
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.repository.idm.DepartmentRepository;
+import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.service.idm.TypeaheadIndex;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.EntityType;
+import com.spms.backend.service.model.idm.TypeaheadHit;
+import com.spms.backend.service.model.idm.TypeaheadKind;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class TypeaheadIndexImplTest {
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private TypeaheadIndex typeaheadIndex;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @AfterEach
+    void tearDown() {
+        departmentRepository.deleteAll();
+        userRepository.deleteAll();
+        typeaheadIndex.rebuild();
+    }
+
+    @Test
+    void rebuild_shouldIndexUsersAndActiveDepartments() {
+        createUser("typeahead.kim", "kim@example.com");
+        createDepartment("Typeahead Tooling", true);
+        createDepartment("Typeahead Legacy", false);
+
+        typeaheadIndex.rebuild();
+
+        List<TypeaheadHit> hits = typeaheadIndex.search("typeahead", Set.of(), 10);
+        assertEquals(List.of("typeahead.kim", "Typeahead Tooling"), hits.stream().map(TypeaheadHit::label).toList());
+        assertEquals(List.of(TypeaheadKind.DEPARTMENT), typeaheadIndex.search("tool", Set.of(TypeaheadKind.DEPARTMENT), 10)
+                .stream().map(TypeaheadHit::kind).toList());
+        assertTrue(typeaheadIndex.search("tool", Set.of(TypeaheadKind.USER), 10).isEmpty());
+    }
+
+    @Test
+    void changeEvents_shouldUpdateEntriesIncrementally() {
+        typeaheadIndex.rebuild();
+        User user = createUser("typeahead.lee", "lee@example.com");
+        publish(ChangeType.CREATED, user.getId());
+
+        assertEquals("lee@example.com", typeaheadIndex.search("typeahead.l", Set.of(), 10).get(0).detail());
+
+        user.setEmail("lee.park@example.com");
+        userRepository.save(user);
+        publish(ChangeType.UPDATED, user.getId());
+
+        assertEquals(1, typeaheadIndex.search("park", Set.of(TypeaheadKind.USER), 10).size());
+
+        userRepository.delete(user);
+        publish(ChangeType.DELETED, user.getId());
+
+        assertTrue(typeaheadIndex.search("typeahead.lee", Set.of(), 10).isEmpty());
+    }
+
+    private void publish(ChangeType changeType, Long userId) {
+        eventPublisher.publishEvent(new OrganizationChangedEvent(this, EntityType.USER, changeType, userId));
+    }
+
+    private User createUser(String username, String email) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(email);
+        user.setType(User.UserType.STAFF);
+        user.setProvider("keycloak");
+        return userRepository.save(user);
+    }
+
+    private void createDepartment(String name, boolean active) {
+        Department department = new Department();
+        department.setName(name);
+        department.setType(DepartmentType.LOCAL);
+        department.setLevel(1);
+        department.setParent(1L);
+        department.setActive(active);
+        departmentRepository.save(department);
+    }
+}
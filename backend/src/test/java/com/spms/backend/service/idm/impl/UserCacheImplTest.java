@@ -0,0 +1,86 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.config.UserCacheProperties;
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class UserCacheImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private UserCacheImpl userCache;
+
+    @BeforeEach
+    void setUp() {
+        UserCacheProperties properties = new UserCacheProperties();
+        properties.setMaxSize(2);
+        userCache = new UserCacheImpl(userRepository, properties, transactionManager);
+    }
+
+    @Test
+    void getUser_loadsOnceUntilUserChanges() {
+        when(userRepository.findById(1L)).thenReturn(Optional.of(user(1L, "alice")));
+
+        assertEquals("alice", userCache.getUser(1L).orElseThrow().getUsername());
+        assertEquals("alice", userCache.getUser(1L).orElseThrow().getUsername());
+        verify(userRepository, times(1)).findById(1L);
+
+        userCache.onOrganizationChanged(new OrganizationChangedEvent(this,
+                OrganizationChangedEvent.EntityType.USER, OrganizationChangedEvent.ChangeType.UPDATED, 1L));
+        userCache.getUser(1L);
+        verify(userRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void getUser_evictsLeastRecentlyUsedBeyondMaxSize() {
+        when(userRepository.findById(anyLong()))
+                .thenAnswer(x -> Optional.of(user(x.getArgument(0), "user" + x.getArgument(0))));
+
+        userCache.getUser(1L);
+        userCache.getUser(2L);
+        userCache.getUser(1L);
+        userCache.getUser(3L);
+        userCache.getUser(1L);
+        userCache.getUser(2L);
+
+        verify(userRepository, times(1)).findById(1L);
+        verify(userRepository, times(2)).findById(2L);
+    }
+
+    @Test
+    void findUserId_doesNotCacheMisses() {
+        when(userRepository.findIdByProviderAndProviderId("keycloak", "sub-1"))
+                .thenReturn(Optional.empty())
+                .thenReturn(Optional.of(7L));
+
+        assertTrue(userCache.findUserId("keycloak", "sub-1").isEmpty());
+        assertEquals(Optional.of(7L), userCache.findUserId("keycloak", "sub-1"));
+        assertEquals(Optional.of(7L), userCache.findUserId("keycloak", "sub-1"));
+        verify(userRepository, times(2)).findIdByProviderAndProviderId("keycloak", "sub-1");
+    }
+
+    private static User user(Long id, String username) {
+        User user = new User();
+        user.setId(id);
+        user.setUsername(username);
+        user.setType(User.UserType.STAFF);
+        return user;
+    }
+}
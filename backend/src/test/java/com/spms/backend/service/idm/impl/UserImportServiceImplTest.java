@@ -0,0 +1,134 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.entities.idm.Department;
+import com.spms.backend.repository.entities.idm.DepartmentType;
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.repository.idm.DepartmentRepository;
+import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.service.idm.UserImportService;
+import com.spms.backend.service.model.idm.UserImportFormat;
+import com.spms.backend.service.model.idm.UserImportResult;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserImportServiceImplTest {
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private UserImportService userImportService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private DepartmentRepository departmentRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private Department department;
+
+    @BeforeEach
+    void setUp() {
+        department = new Department();
+        department.setName("Import Department");
+        department.setType(DepartmentType.LOCAL);
+        department.setLevel(1);
+        department.setParent(1L);
+        department = departmentRepository.save(department);
+
+        User existing = new User();
+        existing.setUsername("existing");
+        existing.setEmail("existing@example.com");
+        existing.setType(User.UserType.STAFF);
+        existing.setProvider("keycloak");
+        userRepository.save(existing);
+    }
+
+    @AfterEach
+    void tearDown() {
+        departmentRepository.deleteAll();
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void importCsv_createsUsersProfilesAndMemberships() {
+        String csv = "username,email,type,departments,firstName\n"
+                + "alice,alice@example.com,VENDOR," + department.getId() + ",\"Alice, A.\"\n"
+                + "\n"
+                + "bob,bob@example.com,,,Bob\n";
+
+        UserImportResult result = userImportService.importUsers(stream(csv), UserImportFormat.CSV, "admin");
+
+        assertEquals(2, result.getProcessed());
+        assertEquals(2, result.getImported());
+        assertEquals(0, result.getFailed());
+        assertNull(result.getAbortReason());
+
+        User alice = userRepository.findByUsername("alice");
+        assertEquals(User.UserType.VENDOR, alice.getType());
+        assertEquals("admin", alice.getCreatedBy());
+        assertEquals("keycloak", alice.getProvider());
+        assertEquals("Alice, A.", alice.getUserProfiles().get("firstName"));
+        assertEquals(1, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"spms_department_user\" WHERE \"department_id\" = ?",
+                Integer.class, department.getId()));
+        assertEquals(User.UserType.STAFF, userRepository.findByUsername("bob").getType());
+    }
+
+    @Test
+    void importNdjson_reportsRowErrorsAndKeepsValidRows() {
+        String ndjson = """
+                {"username":"carol","email":"carol@example.com","userProfiles":{"lastName":"C"}}
+                {"username":"existing","email":"other@example.com"}
+                {"username":"carol","email":"carol2@example.com"}
+                {"username":"dave"}
+                not json
+                {"username":"erin","email":"erin@example.com","departments":[-1]}
+                """;
+
+        UserImportResult result = userImportService.importUsers(stream(ndjson), UserImportFormat.NDJSON, "admin");
+
+        assertEquals(6, result.getProcessed());
+        assertEquals(1, result.getImported());
+        assertEquals(5, result.getFailed());
+        assertEquals(2, result.getErrors().get(0).row());
+        assertEquals("Username already exists", result.getErrors().get(0).message());
+        assertEquals("Duplicate username in file", result.getErrors().get(1).message());
+        assertEquals("Username and email are required", result.getErrors().get(2).message());
+        assertTrue(result.getErrors().get(3).message().startsWith("Invalid JSON"));
+        assertEquals("Departments not found: [-1]", result.getErrors().get(4).message());
+        assertNotNull(userRepository.findByUsername("carol"));
+        assertNull(userRepository.findByUsername("erin"));
+    }
+
+    @Test
+    void importCsv_abortsOnMissingHeaderColumns() {
+        UserImportResult result = userImportService.importUsers(
+                stream("name,mail\nx,y\n"), UserImportFormat.CSV, "admin");
+
+        assertEquals(0, result.getProcessed());
+        assertNotNull(result.getAbortReason());
+    }
+
+    private static InputStream stream(String content) {
+        return new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
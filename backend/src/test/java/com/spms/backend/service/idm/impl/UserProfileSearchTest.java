@@ -0,0 +1,148 @@
+package com.spms.backend.service.idm.impl;
+
+import com.spms.backend.repository.entities.idm.User;
+import com.spms.backend.repository.idm.UserProfileMigration;
+import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.idm.UserService;
+import com.spms.backend.service.model.idm.ProfileFilter;
+import com.spms.backend.service.model.idm.UserModel;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class UserProfileSearchTest {
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private UserService userService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private UserProfileMigration userProfileMigration;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        createUser("profile.ana", Map.of("location", "Berlin", "costCenter", "4100", "grade", "7"));
+        createUser("profile.ben", Map.of("location", "Berlin-Spandau", "costCenter", "4200", "grade", "n/a"));
+        createUser("profile.cleo", Map.of("location", "Lisbon", "grade", "12"));
+        createUser("profile.dan", null);
+    }
+
+    @AfterEach
+    void tearDown() {
+        userRepository.deleteAll();
+    }
+
+    @Test
+    void profiles_shouldBeStoredAsJsonAndTrackInPlaceChanges() {
+        Long id = userRepository.findByUsername("profile.ana").getId();
+
+        new TransactionTemplate(transactionManager).executeWithoutResult(status ->
+                userRepository.findById(id).orElseThrow().getUserProfiles().put("location", "Hamburg"));
+
+        assertEquals(Map.of("location", "Hamburg", "costCenter", "4100", "grade", "7"),
+                userRepository.findByUsername("profile.ana").getUserProfiles());
+    }
+
+    @Test
+    void searchUsers_shouldApplyTypedProfileFilters() {
+        assertEquals(List.of("profile.ana"), search(null, "location:eq:Berlin"));
+        assertEquals(List.of("profile.ana", "profile.ben"), search(null, "location:prefix:Berlin"));
+        assertEquals(List.of("profile.ben", "profile.cleo", "profile.dan"), search(null, "location:ne:Berlin"));
+        // Numeric comparison: "12" is greater than "7", and "n/a" never matches
+        assertEquals(List.of("profile.cleo"), search(null, "grade:gt:7"));
+        assertEquals(List.of("profile.ana", "profile.cleo"), search(null, "grade:gte:7"));
+        assertEquals(List.of("profile.ana", "profile.ben"), search(null, "costCenter:exists", "location:prefix:Ber"));
+        assertEquals(List.of("profile.ben"), search("spandau", "costCenter:exists"));
+        assertEquals(List.of("profile.cleo"), search("lisbon"));
+    }
+
+    @Test
+    void searchUsers_shouldPageAndSortProfileMatches() {
+        Page<UserModel> page = userService.searchUsers(null, List.of(ProfileFilter.parse("grade:exists")),
+                PageRequest.of(1, 2, Sort.by(Sort.Direction.DESC, "username")));
+
+        assertEquals(3, page.getTotalElements());
+        assertEquals(List.of("profile.ana"), page.getContent().stream().map(UserModel::getUsername).toList());
+        assertThrows(ValidationException.class, () -> ProfileFilter.parse("grade:gt:high"));
+        assertThrows(ValidationException.class, () -> ProfileFilter.parse("grade:between:1"));
+    }
+
+    @Test
+    void searchUsers_shouldMatchProfileValuesNotAttributeNames() {
+        assertEquals(List.of(), search("costcenter"));
+        assertEquals(List.of(), userService.searchUsers("costcenter", PageRequest.of(0, 10)).getContent());
+        assertEquals(List.of("profile.ana"), search("4100"));
+        assertEquals(List.of("profile.ana"), userService.searchUsers("4100", PageRequest.of(0, 10))
+                .stream().map(UserModel::getUsername).toList());
+    }
+
+    @Test
+    void migrate_shouldMoveLegacyProfileRowsIntoColumn() {
+        Long ana = userRepository.findByUsername("profile.ana").getId();
+        Long dan = userRepository.findByUsername("profile.dan").getId();
+        jdbcTemplate.execute("CREATE TABLE \"spms_user_profiles\" (\"user_id\" BIGINT NOT NULL, " +
+                "\"key\" VARCHAR(255) NOT NULL, \"value\" VARCHAR(255))");
+        jdbcTemplate.batchUpdate("INSERT INTO \"spms_user_profiles\" VALUES (?, ?, ?)", List.of(
+                new Object[]{dan, "location", "Oslo"},
+                new Object[]{dan, "grade", "3"},
+                new Object[]{ana, "location", "Madrid"}));
+
+        assertEquals(1, userProfileMigration.migrate());
+
+        assertEquals(Map.of("location", "Oslo", "grade", "3"),
+                userRepository.findByUsername("profile.dan").getUserProfiles());
+        // A profile already in the column is kept
+        assertEquals("Berlin", userRepository.findByUsername("profile.ana").getUserProfiles().get("location"));
+        assertEquals(0, userProfileMigration.migrate());
+    }
+
+    private List<String> search(String query, String... filters) {
+        List<ProfileFilter> profileFilters = Arrays.stream(filters).map(ProfileFilter::parse).toList();
+        return userService.searchUsers(query, profileFilters, PageRequest.of(0, 10, Sort.by("username")))
+                .stream()
+                .map(UserModel::getUsername)
+                .toList();
+    }
+
+    private void createUser(String username, Map<String, String> profiles) {
+        User user = new User();
+        user.setUsername(username);
+        user.setEmail(username + "@example.com");
+        user.setType(User.UserType.STAFF);
+        user.setProvider("keycloak");
+        user.setUserProfiles(profiles == null ? null : new HashMap<>(profiles));
+        userRepository.save(user);
+    }
+}
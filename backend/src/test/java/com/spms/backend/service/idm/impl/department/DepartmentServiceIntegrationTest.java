@@ -5,6 +5,8 @@ import com.spms.backend.repository.idm.CompanyRepository;
 import com.spms.backend.repository.idm.DepartmentRepository;
 import com.spms.backend.repository.idm.DivisionRepository;
 import com.spms.backend.repository.idm.UserRepository;
+import com.spms.backend.service.exception.NotFoundException;
+import com.spms.backend.service.exception.ValidationException;
 import com.spms.backend.service.idm.impl.DepartmentServiceImpl;
 import com.spms.backend.service.model.idm.DepartmentModel;
 import com.spms.backend.service.model.idm.UserModel;
@@ -16,6 +18,7 @@ import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
@@ -47,6 +50,9 @@ public class DepartmentServiceIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
     private User testUser;
 
     private Department functionalDepartment;
@@ -286,4 +292,47 @@ public class DepartmentServiceIntegrationTest {
         boolean level2Result = departmentService.isValidParent(2, functionalDepartment.getId(), DepartmentType.FUNCTIONAL);
         assertTrue(level2Result);
     }
+
+    @Test
+    void testAddMembers_isIdempotent() {
+        User otherUser = new User();
+        otherUser.setUsername("otherUser");
+        otherUser.setEmail("other@email.com");
+        otherUser.setType(User.UserType.STAFF);
+        otherUser.setProvider("keycloak");
+        otherUser = userRepository.save(otherUser);
+
+        int first = departmentService.addMembers(localDepartment.getId(), List.of(testUser.getId(), testUser.getId()));
+        int second = departmentService.addMembers(localDepartment.getId(), List.of(testUser.getId(), otherUser.getId()));
+
+        assertEquals(1, first);
+        assertEquals(1, second);
+        assertEquals(2, countMembers(localDepartment.getId()));
+
+        // The rows bypass the loaded Department.users collection, so clear them before tearDown deletes the department
+        assertEquals(2, departmentService.removeMembers(localDepartment.getId(), List.of(testUser.getId(), otherUser.getId())));
+    }
+
+    @Test
+    void testRemoveMembers_onlyCountsExistingMembers() {
+        departmentService.addMembers(localDepartment.getId(), List.of(testUser.getId()));
+
+        assertEquals(1, departmentService.removeMembers(localDepartment.getId(), List.of(testUser.getId())));
+        assertEquals(0, departmentService.removeMembers(localDepartment.getId(), List.of(testUser.getId())));
+        assertEquals(0, countMembers(localDepartment.getId()));
+    }
+
+    @Test
+    void testAddMembers_failure() {
+        Long departmentId = localDepartment.getId();
+        assertThrows(ValidationException.class, () -> departmentService.addMembers(departmentId, List.of()));
+        assertThrows(ValidationException.class, () -> departmentService.addMembers(departmentId, List.of(-1L)));
+        assertThrows(NotFoundException.class, () -> departmentService.addMembers(-1L, List.of(testUser.getId())));
+        assertEquals(0, countMembers(departmentId));
+    }
+
+    private int countMembers(Long departmentId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"spms_department_user\" WHERE \"department_id\" = ?", Integer.class, departmentId);
+    }
 }
@@ -0,0 +1,78 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.config.DefinitionCacheProperties;
+import com.spms.backend.service.process.DefinitionCache.Kind;
+import com.spms.backend.service.process.DefinitionCache.Statistics;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.unit.DataSize;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DefinitionCacheImplTest {
+
+    private static final String DEFINITION = "{\"fields\":[" + "{\"type\":\"text\",\"label\":\"姓名\"},".repeat(200) + "{}]}";
+
+    @Test
+    void get_shouldLoadOnceAndKeepPayloadCompressed() {
+        DefinitionCacheImpl cache = new DefinitionCacheImpl(new DefinitionCacheProperties());
+        AtomicInteger loads = new AtomicInteger();
+
+        for (int i = 0; i < 3; i++) {
+            assertEquals(DEFINITION, cache.get(Kind.FORM, "leave", "100000000", () -> {
+                loads.incrementAndGet();
+                return DEFINITION;
+            }));
+        }
+
+        assertEquals(1, loads.get());
+        Statistics statistics = cache.getStatistics();
+        assertEquals(1, statistics.entries());
+        assertEquals(2, statistics.hits());
+        assertTrue(statistics.compressedBytes() < statistics.uncompressedBytes() / 4, statistics::toString);
+    }
+
+    @Test
+    void get_shouldDropLeastRecentlyUsedPayloadsBeyondMaxSize() {
+        DefinitionCacheProperties properties = new DefinitionCacheProperties();
+        DefinitionCacheImpl probe = new DefinitionCacheImpl(properties);
+        probe.get(Kind.PROCESS, "p", "1", () -> DEFINITION);
+        long entrySize = probe.getStatistics().compressedBytes();
+        properties.setMaxSize(DataSize.ofBytes(entrySize * 2));
+        DefinitionCacheImpl cache = new DefinitionCacheImpl(properties);
+
+        cache.get(Kind.PROCESS, "p", "1", () -> DEFINITION);
+        cache.get(Kind.PROCESS, "p", "2", () -> DEFINITION);
+        cache.get(Kind.PROCESS, "p", "1", () -> DEFINITION);
+        cache.get(Kind.PROCESS, "p", "3", () -> DEFINITION);
+
+        Statistics statistics = cache.getStatistics();
+        assertEquals(2, statistics.entries());
+        assertEquals(1, statistics.evictions());
+        // Version 2 was the least recently used one
+        assertNull(cache.get(Kind.PROCESS, "p", "2", () -> null));
+        assertEquals(DEFINITION, cache.get(Kind.PROCESS, "p", "1", () -> fail("should be cached")));
+    }
+
+    @Test
+    void invalidateLatestFormVersion_shouldRepeatAfterTransactionCompletes() {
+        DefinitionCacheImpl cache = new DefinitionCacheImpl(new DefinitionCacheProperties());
+        assertEquals(1L, cache.getLatestFormVersion("leave", () -> 1L));
+
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidateLatestFormVersion("leave");
+            // A reader still sees the uncommitted state and caches it again
+            assertEquals(1L, cache.getLatestFormVersion("leave", () -> 1L));
+            TransactionSynchronizationManager.getSynchronizations()
+                    .forEach(x -> x.afterCompletion(TransactionSynchronization.STATUS_COMMITTED));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+
+        assertEquals(2L, cache.getLatestFormVersion("leave", () -> 2L));
+    }
+}
@@ -0,0 +1,121 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.model.process.FormDataAggregation;
+import com.spms.backend.service.model.process.FormDataMetric;
+import com.spms.backend.service.model.process.NewFormInstance;
+import com.spms.backend.service.process.FormDataAggregationService;
+import com.spms.backend.service.process.FormInstanceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest(properties = "spms.form-instance.max-aggregation-groups=5")
+@ActiveProfiles("test")
+class FormDataAggregationTest {
+
+    private static final String FORM_KEY = "expense-report";
+
+    private static final List<FormDataMetric> METRICS = List.of(FormDataMetric.parse("count"),
+            FormDataMetric.parse("sum:amount"), FormDataMetric.parse("avg:amount"), FormDataMetric.parse("max:amount"));
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private FormInstanceService formInstanceService;
+
+    @Autowired
+    private FormDataAggregationService aggregationService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        List<NewFormInstance> instances = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            Map<String, Object> data = new HashMap<>();
+            data.put("department", i % 2 == 0 ? "Finance" : "Sales");
+            data.put("amount", i % 3 == 0 ? String.valueOf(i) : i);
+            instances.add(new NewFormInstance(FORM_KEY, "1.0", data));
+        }
+        instances.add(new NewFormInstance(FORM_KEY, "1.0", Map.of("amount", "n/a")));
+        List<String> ids = formInstanceService.createAll(instances);
+        // The first ten instances were filed in September, the rest in October
+        jdbcTemplate.update("UPDATE \"spms_form_instance\" SET \"created_at\" = ? WHERE \"id\" IN ("
+                        + String.join(",", ids.subList(0, 10)) + ")",
+                Instant.parse("2026-09-15T10:00:00Z").toEpochMilli());
+        jdbcTemplate.update("UPDATE \"spms_form_instance\" SET \"created_at\" = ? WHERE \"form_key\" = ? AND \"created_at\" <> ?",
+                Instant.parse("2026-10-02T10:00:00Z").toEpochMilli(), FORM_KEY,
+                Instant.parse("2026-09-15T10:00:00Z").toEpochMilli());
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM \"spms_form_instance_revision\" WHERE \"instance_id\" IN "
+                + "(SELECT \"id\" FROM \"spms_form_instance\" WHERE \"form_key\" = ?)", FORM_KEY);
+        jdbcTemplate.update("DELETE FROM \"spms_form_instance\" WHERE \"form_key\" = ?", FORM_KEY);
+    }
+
+    @Test
+    void aggregate_shouldGroupByFieldAndMonth() {
+        FormDataAggregation result = aggregationService.aggregate(FORM_KEY, null, null, null,
+                List.of("department", "createdAt:month"), METRICS, 1);
+
+        assertEquals(31, result.rows());
+        assertEquals(List.of(
+                List.of(Arrays.asList(null, "2026-10"), List.of("1", "null", "null", "null")),
+                List.of(List.of("Finance", "2026-09"), List.of("5", "20", "4", "8")),
+                List.of(List.of("Finance", "2026-10"), List.of("10", "190", "19", "28")),
+                List.of(List.of("Sales", "2026-09"), List.of("5", "25", "5", "9")),
+                List.of(List.of("Sales", "2026-10"), List.of("10", "200", "20", "29"))), describe(result));
+    }
+
+    @Test
+    void aggregate_shouldGiveSameResultWithParallelPartitionsAndFilters() {
+        FormDataAggregation single = aggregationService.aggregate(FORM_KEY, "1.0",
+                Instant.parse("2026-10-01T00:00:00Z"), null, List.of("department"), METRICS, 1);
+        FormDataAggregation parallel = aggregationService.aggregate(FORM_KEY, "1.0",
+                Instant.parse("2026-10-01T00:00:00Z"), null, List.of("department"), METRICS, 4);
+
+        assertEquals(21, parallel.rows());
+        assertEquals(describe(single), describe(parallel));
+        assertEquals(0, aggregationService.aggregate(FORM_KEY, "2.0", null, null, List.of(), METRICS, 4).rows());
+    }
+
+    @Test
+    void aggregate_shouldRejectTooManyGroupsAndInvalidRequests() {
+        assertThrows(ValidationException.class, () -> aggregationService.aggregate(FORM_KEY, null, null, null,
+                List.of("amount"), METRICS, 2));
+        assertThrows(ValidationException.class, () -> aggregationService.aggregate(FORM_KEY, null, null, null,
+                List.of("createdAt:week"), METRICS, 1));
+        assertThrows(ValidationException.class, () -> aggregationService.aggregate(FORM_KEY, null, null, null,
+                List.of("department"), METRICS, 5));
+        assertThrows(ValidationException.class, () -> FormDataMetric.parse("median:amount"));
+        assertThrows(ValidationException.class, () -> FormDataMetric.parse("sum"));
+    }
+
+    private static List<List<List<String>>> describe(FormDataAggregation result) {
+        return result.groups().stream()
+                .map(x -> List.of(x.key(), x.values().stream()
+                        .map(v -> v == null ? "null" : v.stripTrailingZeros().toPlainString()).toList()))
+                .toList();
+    }
+}
@@ -0,0 +1,44 @@
+package com.spms.backend.service.process.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormDataExtractorTest {
+
+    @Test
+    void extract_shouldReadOnlyRequestedPaths() {
+        FormDataExtractor extractor = new FormDataExtractor(List.of("amount", "applicant.department", "approved", "note"));
+        Object[] values = new Object[extractor.size()];
+
+        assertTrue(extractor.extract("""
+                {"items":[{"amount":1}],"amount":1250.50,"applicant":{"name":"Ann","department":"Finance",
+                 "history":{"amount":9}},"approved":true,"note":null,"extra":{"amount":7}}""", values));
+
+        assertArrayEquals(new Object[]{new BigDecimal("1250.50"), "Finance", "true", null}, values);
+    }
+
+    @Test
+    void extract_shouldGiveNoValueForContainersAndMissingFields() {
+        FormDataExtractor extractor = new FormDataExtractor(List.of("applicant", "items", "missing.field"));
+        Object[] values = new Object[extractor.size()];
+
+        assertTrue(extractor.extract("{\"applicant\":{\"name\":\"Ann\"},\"items\":[1,2],\"missing\":3}", values));
+
+        assertArrayEquals(new Object[]{null, null, null}, values);
+    }
+
+    @Test
+    void extract_shouldClearValuesOfUnreadableDocuments() {
+        FormDataExtractor extractor = new FormDataExtractor(List.of("amount"));
+        Object[] values = {"stale"};
+
+        assertFalse(extractor.extract("{\"amount\": 12, ", values));
+        assertArrayEquals(new Object[]{null}, values);
+        assertTrue(extractor.extract(null, values));
+        assertArrayEquals(new Object[]{null}, values);
+    }
+}
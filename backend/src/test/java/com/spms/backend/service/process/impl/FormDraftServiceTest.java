@@ -0,0 +1,207 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.repository.entities.process.FormRevisionKind;
+import com.spms.backend.service.exception.NotFoundException;
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.exception.VersionConflictException;
+import com.spms.backend.service.model.process.FormInstanceModel;
+import com.spms.backend.service.model.process.FormInstanceRevisionModel;
+import com.spms.backend.service.process.FormDraftService;
+import com.spms.backend.service.process.FormInstanceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = "spms.form-instance.snapshot-interval=3")
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FormDraftServiceTest {
+
+    private static final String FORM_KEY = "travel-request";
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private FormInstanceService formInstanceService;
+
+    @Autowired
+    private FormDraftService draftService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @AfterEach
+    void tearDown() {
+        draftService.flush();
+        jdbcTemplate.update("DELETE FROM \"spms_form_instance_revision\" WHERE \"instance_id\" IN "
+                + "(SELECT \"id\" FROM \"spms_form_instance\" WHERE \"form_key\" = ?)", FORM_KEY);
+        jdbcTemplate.update("DELETE FROM \"spms_form_instance\" WHERE \"form_key\" = ?", FORM_KEY);
+    }
+
+    @Test
+    void buffer_shouldWriteOnlyLatestDraftOnFlush() {
+        String id = formInstanceService.create(FORM_KEY, "1.0", Map.of("destination", "Oslo")).getId();
+
+        draftService.buffer(id, Map.of("destination", "Osl"));
+        draftService.buffer(id, Map.of("destination", "Bergen"));
+        draftService.buffer(id, Map.of("destination", "Bergen", "nights", 2));
+
+        assertEquals(Map.of("destination", "Oslo"), formInstanceService.getById(id).getData());
+        assertEquals(1, draftService.flush());
+        assertEquals(0, draftService.flush());
+        assertEquals(Map.of("destination", "Bergen", "nights", 2), formInstanceService.getById(id).getData());
+        assertEquals(List.of(2, 1), revisionNumbers(id));
+    }
+
+    @Test
+    @WithMockUser(username = "test")
+    void update_shouldNotBeOverwrittenByEarlierDraft() throws Exception {
+        String id = formInstanceService.create(FORM_KEY, "1.0", Map.of("destination", "Oslo")).getId();
+
+        mockMvc.perform(put("/api/v1/forms-instance/{id}/draft", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"data\":{\"destination\":\"Osl\"}}"))
+                .andExpect(status().isAccepted());
+        mockMvc.perform(put("/api/v1/forms-instance/{id}", id)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"data\":{\"destination\":\"Bergen\"}}"))
+                .andExpect(status().isOk());
+
+        assertEquals(0, draftService.flush());
+        assertEquals(Map.of("destination", "Bergen"), formInstanceService.getById(id).getData());
+    }
+
+    @Test
+    void flush_shouldDropDraftOfInstanceWrittenSince() {
+        String id = formInstanceService.create(FORM_KEY, "1.0", Map.of("destination", "Oslo")).getId();
+        draftService.buffer(id, Map.of("destination", "Osl"));
+        draftService.buffer(id, Map.of("destination", "Os"));
+
+        // Written by another node, which does not know of this node's pending draft
+        formInstanceService.update(id, Map.of("destination", "Bergen"));
+
+        assertEquals(0, draftService.flush());
+        assertEquals(Map.of("destination", "Bergen"), formInstanceService.getById(id).getData());
+        assertThrows(VersionConflictException.class, () -> formInstanceService.saveDraft(id,
+                Map.of("destination", "Os"), Instant.EPOCH));
+    }
+
+    @Test
+    void buffer_shouldRejectUnknownInstance() {
+        assertThrows(NotFoundException.class, () -> draftService.buffer("999999999", Map.of("destination", "Oslo")));
+        assertThrows(ValidationException.class, () -> draftService.buffer("999999999", Map.of()));
+    }
+
+    @Test
+    void submit_shouldReplacePendingDraftAndSkipUnchangedData() {
+        String id = formInstanceService.create(FORM_KEY, "1.0", Map.of("destination", "Oslo")).getId();
+        draftService.buffer(id, Map.of("destination", "Bergen"));
+
+        FormInstanceModel submitted = draftService.submit(id, null);
+
+        assertEquals(Map.of("destination", "Bergen"), submitted.getData());
+        assertNotNull(submitted.getCreatedDate());
+        assertEquals(0, draftService.flush());
+
+        formInstanceService.update(id, Map.of("destination", "Bergen"));
+        assertEquals(List.of(2, 1), revisionNumbers(id));
+    }
+
+    @Test
+    void getRevisionData_shouldRebuildEveryRevisionFromSnapshotsAndPatches() {
+        String id = formInstanceService.create(FORM_KEY, "1.0", Map.of("destination", "Oslo", "nights", 1)).getId();
+        for (int nights = 2; nights <= 5; nights++) {
+            formInstanceService.saveDraft(id, Map.of("destination", "Oslo", "nights", nights));
+        }
+
+        List<FormInstanceRevisionModel> revisions = formInstanceService.listRevisions(id);
+
+        assertEquals(List.of(5, 4, 3, 2, 1), revisions.stream().map(FormInstanceRevisionModel::revision).toList());
+        assertEquals(List.of(FormRevisionKind.PATCH, FormRevisionKind.SNAPSHOT, FormRevisionKind.PATCH,
+                        FormRevisionKind.PATCH, FormRevisionKind.SNAPSHOT),
+                revisions.stream().map(FormInstanceRevisionModel::kind).toList());
+        for (int revision = 1; revision <= 5; revision++) {
+            assertEquals(Map.of("destination", "Oslo", "nights", revision),
+                    formInstanceService.getRevisionData(id, revision));
+        }
+        assertThrows(NotFoundException.class, () -> formInstanceService.getRevisionData(id, 6));
+
+        formInstanceService.delete(id);
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"spms_form_instance_revision\" WHERE \"instance_id\" = ?",
+                Integer.class, Long.valueOf(id)));
+    }
+
+    @Test
+    void listRevisions_shouldStoreHistoryOnlyOnceDataChanges() {
+        String id = formInstanceService.create(FORM_KEY, "1.0", Map.of("destination", "Oslo")).getId();
+
+        assertEquals(List.of(1), revisionNumbers(id));
+        assertEquals(Map.of("destination", "Oslo"), formInstanceService.getRevisionData(id, 1));
+        assertEquals(0, storedRevisions(id));
+
+        formInstanceService.update(id, Map.of("destination", "Bergen"));
+
+        assertEquals(List.of(2, 1), revisionNumbers(id));
+        assertEquals(2, storedRevisions(id));
+        assertEquals(Map.of("destination", "Oslo"), formInstanceService.getRevisionData(id, 1));
+        assertEquals(Map.of("destination", "Bergen"), formInstanceService.getRevisionData(id, 2));
+    }
+
+    @Test
+    void saveDraft_concurrentWrites_shouldNumberRevisionsInTurn() throws Exception {
+        String id = formInstanceService.create(FORM_KEY, "1.0", Map.of("destination", "Oslo")).getId();
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<?>> writes = new ArrayList<>();
+            for (int i = 0; i < 20; i++) {
+                int nights = i;
+                writes.add(executor.submit(() -> formInstanceService.saveDraft(id, Map.of("destination", "Oslo", "nights", nights))));
+            }
+            for (Future<?> write : writes) {
+                write.get(30, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertEquals(IntStream.rangeClosed(1, 21).boxed().sorted(Comparator.reverseOrder()).toList(), revisionNumbers(id));
+    }
+
+    private int storedRevisions(String id) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM \"spms_form_instance_revision\" WHERE \"instance_id\" = ?",
+                Integer.class, Long.valueOf(id));
+    }
+
+    private List<Integer> revisionNumbers(String id) {
+        return formInstanceService.listRevisions(id).stream().map(FormInstanceRevisionModel::revision).toList();
+    }
+}
@@ -0,0 +1,92 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.model.process.FormInstanceModel;
+import com.spms.backend.service.model.process.NewFormInstance;
+import com.spms.backend.service.process.FormInstanceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FormInstanceBatchTest {
+
+    private static final String FORM_KEY = "site-inspection";
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private FormInstanceService formInstanceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM \"spms_form_instance_revision\" WHERE \"instance_id\" IN "
+                + "(SELECT \"id\" FROM \"spms_form_instance\" WHERE \"form_key\" = ?)", FORM_KEY);
+        jdbcTemplate.update("DELETE FROM \"spms_form_instance\" WHERE \"form_key\" = ?", FORM_KEY);
+    }
+
+    @Test
+    void createAll_shouldReturnIdsInInputOrderAcrossBatches() {
+        // More than one JDBC batch of 500 rows
+        List<NewFormInstance> instances = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            instances.add(new NewFormInstance(FORM_KEY, "1.0", Map.of("site", i)));
+        }
+
+        List<String> ids = formInstanceService.createAll(instances);
+
+        assertEquals(instances.size(), ids.size());
+        assertEquals(instances.size(), new HashSet<>(ids).size());
+        for (int i : new int[]{0, 1, 500, 599}) {
+            FormInstanceModel model = formInstanceService.getById(ids.get(i));
+            assertEquals(Map.of("site", i), model.getData());
+            assertEquals(Map.of("site", i), formInstanceService.getRevisionData(ids.get(i), 1));
+        }
+        // Instances created in a batch can be updated like any other
+        formInstanceService.update(ids.get(0), Map.of("site", -1));
+        assertEquals(2, formInstanceService.listRevisions(ids.get(0)).size());
+    }
+
+    @Test
+    void createAll_shouldCreateNothingIfAnyInstanceIsInvalid() {
+        List<NewFormInstance> instances = List.of(
+                new NewFormInstance(FORM_KEY, "1.0", Map.of("site", 1)),
+                new NewFormInstance("x!", "1.0", Map.of("site", 2)),
+                new NewFormInstance(FORM_KEY, "1.0", Map.of()));
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> formInstanceService.createAll(instances));
+
+        assertEquals("Invalid form instances: [1] Form key must be 3-50 characters and contain only letters, "
+                + "numbers, underscores, and hyphens; [2] Form data is required", exception.getMessage());
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM \"spms_form_instance\" WHERE \"form_key\" = ?", Integer.class, FORM_KEY));
+    }
+
+    @Test
+    void createAll_shouldRejectEmptyAndOversizedBatches() {
+        assertThrows(ValidationException.class, () -> formInstanceService.createAll(List.of()));
+        List<NewFormInstance> instances = new ArrayList<>();
+        for (int i = 0; i <= 1000; i++) {
+            instances.add(new NewFormInstance(FORM_KEY, "1.0", Map.of("site", i)));
+        }
+        assertThrows(ValidationException.class, () -> formInstanceService.createAll(instances));
+    }
+}
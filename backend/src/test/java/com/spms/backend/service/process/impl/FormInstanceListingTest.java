@@ -0,0 +1,110 @@
+package com.spms.backend.service.process.impl;
+
+import com.spms.backend.repository.JsonColumnSupport;
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.model.process.FormInstanceCursor;
+import com.spms.backend.service.model.process.RawFormInstance;
+import com.spms.backend.service.process.FormInstanceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FormInstanceListingTest {
+
+    private static final String FORM_KEY = "listing-form";
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private FormInstanceService formInstanceService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private JsonColumnSupport jsonColumnSupport;
+
+    @BeforeEach
+    void setUp() {
+        // Three instances share a creation time, so only the ID orders them
+        insert("1.0", "{\"n\":1}", 1000);
+        insert("1.0", "{\"n\":2}", 2000);
+        insert("1.0", "{\"n\":3}", 2000);
+        insert("2.0", "{\"n\":4}", 2000);
+        insert("1.0", "{\"n\":5}", 3000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM \"spms_form_instance\" WHERE \"form_key\" = ?", FORM_KEY);
+    }
+
+    @Test
+    void listRaw_shouldPageThroughTiesWithoutGapsOrRepeats() {
+        List<String> data = new ArrayList<>();
+        FormInstanceCursor cursor = null;
+        int pages = 0;
+        do {
+            String token = cursor == null ? null : cursor.encode();
+            cursor = formInstanceService.listRaw(FORM_KEY, null, FormInstanceCursor.decode(token), 2, false,
+                    x -> data.add(x.data()));
+            pages++;
+        } while (cursor != null);
+
+        assertEquals(List.of("{\"n\":1}", "{\"n\":2}", "{\"n\":3}", "{\"n\":4}", "{\"n\":5}"), data);
+        assertEquals(3, pages);
+    }
+
+    @Test
+    void listRaw_shouldFilterByVersionNewestFirst() {
+        List<RawFormInstance> instances = new ArrayList<>();
+
+        FormInstanceCursor next = formInstanceService.listRaw(FORM_KEY, "1.0", null, 10, true, instances::add);
+
+        assertNull(next);
+        assertEquals(List.of("{\"n\":5}", "{\"n\":3}", "{\"n\":2}", "{\"n\":1}"),
+                instances.stream().map(RawFormInstance::data).toList());
+        assertEquals(3000, instances.get(0).createdDate().toEpochMilli());
+        assertNull(instances.get(0).modifiedDate());
+    }
+
+    @Test
+    void streamRaw_shouldContinueAfterCursor() {
+        List<String> first = new ArrayList<>();
+        FormInstanceCursor cursor = formInstanceService.listRaw(FORM_KEY, null, null, 2, false, x -> first.add(x.data()));
+        List<String> rest = new ArrayList<>();
+
+        formInstanceService.streamRaw(FORM_KEY, null, cursor, false, x -> rest.add(x.data()));
+
+        assertEquals(List.of("{\"n\":3}", "{\"n\":4}", "{\"n\":5}"), rest);
+    }
+
+    @Test
+    void listRaw_shouldRejectInvalidPageSizeAndCursor() {
+        assertThrows(ValidationException.class,
+                () -> formInstanceService.listRaw(FORM_KEY, null, null, 0, false, x -> { }));
+        assertThrows(ValidationException.class,
+                () -> formInstanceService.listRaw(FORM_KEY, null, null, 201, false, x -> { }));
+        assertThrows(ValidationException.class, () -> FormInstanceCursor.decode("not-a-cursor"));
+    }
+
+    private void insert(String version, String data, long createdAt) {
+        jdbcTemplate.update("INSERT INTO \"spms_form_instance\" (\"form_key\", \"version\", \"form_data\", " +
+                "\"created_at\") VALUES (?, ?, " + jsonColumnSupport.jsonParameter() + ", ?)",
+                FORM_KEY, version, data, createdAt);
+    }
+}
@@ -0,0 +1,186 @@
+package com.spms.backend.service.process.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.spms.backend.repository.entities.process.FormFieldType;
+import com.spms.backend.repository.entities.process.FormVersionEntity;
+import com.spms.backend.repository.process.FormVersionRepository;
+import com.spms.backend.service.exception.NotFoundException;
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.model.process.FormDataFilter;
+import com.spms.backend.service.model.process.RawFormInstance;
+import com.spms.backend.service.process.FormIndexedFieldService;
+import com.spms.backend.service.process.FormInstanceService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+class FormInstanceQueryTest {
+
+    private static final String FORM_KEY = "expense-claim";
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private FormInstanceService formInstanceService;
+
+    @Autowired
+    private FormIndexedFieldService indexedFieldService;
+
+    @Autowired
+    private FormVersionRepository formVersionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @BeforeEach
+    void setUp() {
+        FormVersionEntity form = new FormVersionEntity();
+        form.setKey(FORM_KEY);
+        form.setVersion(1L);
+        form.setName("Expense claim");
+        form.setPublishedDate(System.currentTimeMillis());
+        formVersionRepository.save(form);
+
+        indexedFieldService.declare(FORM_KEY, "amount", FormFieldType.NUMBER);
+        indexedFieldService.declare(FORM_KEY, "costCenter", FormFieldType.STRING);
+        indexedFieldService.declare(FORM_KEY, "applicant.level", FormFieldType.NUMBER);
+
+        create(Map.of("amount", 12000, "costCenter", "CC-100", "applicant", Map.of("level", 3)));
+        create(Map.of("amount", 9000, "costCenter", "CC-100", "applicant", Map.of("level", 5)));
+        create(Map.of("amount", 25000.5, "costCenter", "CC-100"));
+        create(Map.of("amount", 30000, "costCenter", "CC-200", "applicant", Map.of("level", 4)));
+        create(Map.of("amount", "not a number", "costCenter", "CC-100"));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM \"spms_form_instance\" WHERE \"form_key\" = ?", FORM_KEY);
+        jdbcTemplate.update("DELETE FROM \"spms_form_indexed_field\" WHERE \"form_key\" = ?", FORM_KEY);
+        jdbcTemplate.update("DELETE FROM \"spms_form_version\" WHERE \"key\" = ?", FORM_KEY);
+    }
+
+    @Test
+    void query_shouldFilterNumericAndTextFieldsAndSortByField() {
+        List<Object> amounts = new ArrayList<>();
+
+        long total = formInstanceService.query(FORM_KEY,
+                List.of(FormDataFilter.parse("amount:gt:10000"), FormDataFilter.parse("costCenter:eq:CC-100")),
+                PageRequest.of(0, 10, Sort.by(Sort.Direction.DESC, "amount")),
+                x -> amounts.add(read(x).get("amount")));
+
+        assertEquals(2, total);
+        assertEquals(List.of(25000.5, 12000), amounts);
+    }
+
+    @Test
+    void query_shouldFilterNestedFieldsAndPage() {
+        List<RawFormInstance> page = new ArrayList<>();
+
+        long total = formInstanceService.query(FORM_KEY, List.of(FormDataFilter.parse("applicant.level:gte:4")),
+                PageRequest.of(1, 1, Sort.by("applicant.level")), page::add);
+
+        assertEquals(2, total);
+        assertEquals(1, page.size());
+        assertEquals(5, ((Map<?, ?>) read(page.get(0)).get("applicant")).get("level"));
+    }
+
+    @Test
+    void query_shouldRejectFieldsThatAreNotIndexed() {
+        assertThrows(ValidationException.class, () -> formInstanceService.query(FORM_KEY,
+                List.of(FormDataFilter.parse("approver:eq:alice")), PageRequest.of(0, 10), x -> { }));
+        assertThrows(ValidationException.class, () -> formInstanceService.query(FORM_KEY,
+                List.of(), PageRequest.of(0, 10, Sort.by("approver")), x -> { }));
+        assertThrows(ValidationException.class, () -> formInstanceService.query(FORM_KEY,
+                List.of(FormDataFilter.parse("amount:gt:much")), PageRequest.of(0, 10), x -> { }));
+    }
+
+    @Test
+    void declare_shouldRejectTypeChangeAndInvalidPath() {
+        assertEquals(FormFieldType.NUMBER, indexedFieldService.declare(FORM_KEY, "amount", FormFieldType.NUMBER).type());
+        assertThrows(ValidationException.class,
+                () -> indexedFieldService.declare(FORM_KEY, "amount", FormFieldType.STRING));
+        assertThrows(ValidationException.class,
+                () -> indexedFieldService.declare(FORM_KEY, "amount'); DROP TABLE x; --", FormFieldType.STRING));
+
+        indexedFieldService.remove(FORM_KEY, "costCenter");
+
+        assertEquals(List.of("amount", "applicant.level"),
+                indexedFieldService.list(FORM_KEY).stream().map(x -> x.field()).toList());
+    }
+
+    @Test
+    void declare_shouldRejectUnknownForm() {
+        assertThrows(NotFoundException.class,
+                () -> indexedFieldService.declare("no-such-form", "amount", FormFieldType.NUMBER));
+        assertEquals(List.of(), indexedFieldService.list("no-such-form"));
+    }
+
+    @Test
+    @WithMockUser(roles = "USER")
+    void indexedFieldChanges_shouldBeDeniedToNonAdmins() throws Exception {
+        mockMvc.perform(put("/api/v1/forms-instance/form/{formKey}/indexed-fields/{field}", FORM_KEY, "approver")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"STRING\"}"))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(delete("/api/v1/forms-instance/form/{formKey}/indexed-fields/{field}", FORM_KEY, "amount"))
+                .andExpect(status().isForbidden());
+
+        assertEquals(3, indexedFieldService.list(FORM_KEY).size());
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void indexedFieldChanges_shouldBeAllowedToAdmins() throws Exception {
+        mockMvc.perform(put("/api/v1/forms-instance/form/{formKey}/indexed-fields/{field}", FORM_KEY, "approver")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"type\":\"STRING\"}"))
+                .andExpect(status().isOk());
+        mockMvc.perform(delete("/api/v1/forms-instance/form/{formKey}/indexed-fields/{field}", FORM_KEY, "amount"))
+                .andExpect(status().isNoContent());
+
+        assertEquals(List.of("applicant.level", "approver", "costCenter"),
+                indexedFieldService.list(FORM_KEY).stream().map(x -> x.field()).toList());
+    }
+
+    private void create(Map<String, Object> data) {
+        formInstanceService.create(FORM_KEY, "1.0", data);
+    }
+
+    private Map<?, ?> read(RawFormInstance instance) {
+        try {
+            return objectMapper.readValue(instance.data(), Map.class);
+        } catch (Exception e) {
+            throw new AssertionError(e);
+        }
+    }
+}
@@ -1,7 +1,9 @@
 package com.spms.backend.service.process.impl;
 
 import com.spms.backend.repository.entities.process.FormVersionEntity;
+import com.spms.backend.config.DefinitionCacheProperties;
 import com.spms.backend.repository.process.FormVersionRepository;
+import com.spms.backend.repository.process.FormVersionSummary;
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.model.process.FormDefinitionModel;
 import com.spms.backend.service.model.process.FormVersionModel;
@@ -9,7 +11,9 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -29,6 +33,12 @@ class FormServiceImplTests {
     @Mock
     private FormVersionRepository formVersionRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private DefinitionCacheImpl definitionCache = new DefinitionCacheImpl(new DefinitionCacheProperties());
+
     @InjectMocks
     private FormServiceImpl formService;
 
@@ -80,6 +90,11 @@ class FormServiceImplTests {
         return entity;
     }
 
+    private static FormVersionSummary summaryOf(FormVersionEntity entity) {
+        return new FormVersionSummary(entity.getId(), entity.getKey(), entity.getVersion(), entity.getName(),
+            entity.getDescription(), entity.getPublishedDate(), entity.isDeprecated(), entity.getDeploymentId());
+    }
+
     @Test
     void createFormVersion_ValidRequest_SavesEntity() {
         // Setup
@@ -138,8 +153,9 @@ class FormServiceImplTests {
         // Setup
         Long versionLong = 100000000L; // 1.0.0
         FormVersionEntity entity = createVersionEntity(versionLong);
-        when(formVersionRepository.findByKeyAndVersion(any(), eq(versionLong)))
-            .thenReturn(Optional.of(entity));
+        when(formVersionRepository.findSummaryByKeyAndVersion(any(), eq(versionLong)))
+            .thenReturn(Optional.of(summaryOf(entity)));
+        when(formVersionRepository.findFormDefinitionById(1L)).thenReturn("{}");
 
         // Execute
         FormVersionModel result = formService.getVersion("leave-request", "1.0.0");
@@ -147,12 +163,31 @@ class FormServiceImplTests {
         // Verify
         assertNotNull(result);
         assertEquals(100000000L, result.getVersion());
+        assertEquals("{}", result.getFormDefinition());
+    }
+
+    @Test
+    void getVersion_RepeatedLookup_ReadsDefinitionOnce() {
+        // Setup
+        Long versionLong = 100000000L; // 1.0.0
+        FormVersionEntity entity = createVersionEntity(versionLong);
+        when(formVersionRepository.findSummaryByKeyAndVersion(any(), eq(versionLong)))
+            .thenReturn(Optional.of(summaryOf(entity)));
+        when(formVersionRepository.findFormDefinitionById(1L)).thenReturn("{\"fields\":[]}");
+
+        // Execute
+        formService.getVersion("leave-request", "1.0.0");
+        FormVersionModel result = formService.getVersion("leave-request", "1.0.0");
+
+        // Verify
+        assertEquals("{\"fields\":[]}", result.getFormDefinition());
+        verify(formVersionRepository, times(1)).findFormDefinitionById(1L);
     }
 
     @Test
     void getVersion_NonExistentVersion_ThrowsNotFoundException() {
         // Setup
-        when(formVersionRepository.findByKeyAndVersion(any(), any()))
+        when(formVersionRepository.findSummaryByKeyAndVersion(any(), any()))
             .thenReturn(Optional.empty());
 
         // Execute & Verify
@@ -248,8 +283,9 @@ class FormServiceImplTests {
         FormVersionEntity version2 = createVersionEntity(200000000L); // 2.0.0
         version2.setVersion(200000000L);
 
-        when(formVersionRepository.findFirstByKeyOrderByVersionDesc(key))
-            .thenReturn(Optional.of(version2));
+        when(formVersionRepository.findLatestVersionNumber(key)).thenReturn(200000000L);
+        when(formVersionRepository.findSummaryByKeyAndVersion(key, 200000000L))
+            .thenReturn(Optional.of(summaryOf(version2)));
 
         // Execute
         FormVersionModel result = formService.getLatestVersion(key);
@@ -262,8 +298,7 @@ class FormServiceImplTests {
     void getLatestVersion_NoVersions_ThrowsNotFoundException() {
         // Setup
         String key = "leave-request";
-        when(formVersionRepository.findFirstByKeyOrderByVersionDesc(key))
-            .thenReturn(Optional.empty());
+        when(formVersionRepository.findLatestVersionNumber(key)).thenReturn(null);
 
         // Execute & Verify
         assertThrows(NotFoundException.class, () -> formService.getLatestVersion(key));
@@ -278,8 +313,9 @@ class FormServiceImplTests {
         FormVersionEntity version2 = createVersionEntity(200000000L); // 2.0.0
         version2.setDeprecated(true);
 
-        when(formVersionRepository.findFirstByKeyOrderByVersionDesc(key))
-            .thenReturn(Optional.of(version2));
+        when(formVersionRepository.findLatestVersionNumber(key)).thenReturn(200000000L);
+        when(formVersionRepository.findSummaryByKeyAndVersion(key, 200000000L))
+            .thenReturn(Optional.of(summaryOf(version2)));
 
         // Execute
         FormVersionModel result = formService.getLatestVersion(key);
@@ -297,23 +333,23 @@ class FormServiceImplTests {
         FormVersionEntity version2 = createVersionEntity(20000L); // 2.0.0
         version2.setPublishedDate(2000L);
         
-        when(formVersionRepository.findByKeyOrderByPublishedDateDesc(eq(key), any()))
-            .thenReturn(org.springframework.data.domain.Page.empty());
+        when(formVersionRepository.findSummariesByKeyOrderByPublishedDateDesc(key))
+            .thenReturn(Collections.emptyList());
 
         // Execute
         List<FormVersionModel> result = formService.listVersions(key);
 
         // Verify
         // Since we're testing the order, we need to check that the repository is called with descending order
-        verify(formVersionRepository).findByKeyOrderByPublishedDateDesc(eq(key), any());
+        verify(formVersionRepository).findSummariesByKeyOrderByPublishedDateDesc(key);
     }
 
     @Test
     void listVersions_EmptyResult_ReturnsEmptyList() {
         // Setup
         String key = "leave-request";
-        when(formVersionRepository.findByKeyOrderByPublishedDateDesc(eq(key), any()))
-            .thenReturn(org.springframework.data.domain.Page.empty());
+        when(formVersionRepository.findSummariesByKeyOrderByPublishedDateDesc(key))
+            .thenReturn(Collections.emptyList());
 
         // Execute
         List<FormVersionModel> result = formService.listVersions(key);
@@ -0,0 +1,65 @@
+package com.spms.backend.service.process.impl;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JsonPatchTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void diff_shouldProduceMinimalPatchThatApplies() throws Exception {
+        JsonNode source = objectMapper.readTree("""
+                {"title":"Trip","amount":100,"a/b":1,"items":[{"cost":1},{"cost":2},{"cost":3}],"notes":"x"}""");
+        JsonNode target = objectMapper.readTree("""
+                {"title":"Trip","amount":120,"a/b":2,"items":[{"cost":1},{"cost":5}],"approver":{"name":"alice"}}""");
+
+        ArrayNode patch = JsonPatch.diff(source, target);
+
+        assertEquals(objectMapper.readTree("""
+                [{"op":"remove","path":"/notes"},
+                 {"op":"replace","path":"/amount","value":120},
+                 {"op":"replace","path":"/a~1b","value":2},
+                 {"op":"replace","path":"/items/1/cost","value":5},
+                 {"op":"remove","path":"/items/2"},
+                 {"op":"add","path":"/approver","value":{"name":"alice"}}]"""), patch);
+        assertEquals(target, JsonPatch.apply(source, patch));
+        assertEquals(objectMapper.readTree("{\"title\":\"Trip\",\"amount\":100,\"a/b\":1,"
+                + "\"items\":[{\"cost\":1},{\"cost\":2},{\"cost\":3}],\"notes\":\"x\"}"), source);
+    }
+
+    @Test
+    void diff_shouldBeEmptyForEqualDocuments() throws Exception {
+        JsonNode document = objectMapper.readTree("{\"a\":[1,2,{\"b\":null}]}");
+
+        assertTrue(JsonPatch.diff(document, document.deepCopy()).isEmpty());
+    }
+
+    @Test
+    void apply_shouldSupportMoveCopyAndTest() throws Exception {
+        JsonNode document = objectMapper.readTree("{\"a\":{\"b\":1},\"list\":[1,2]}");
+        JsonNode patch = objectMapper.readTree("""
+                [{"op":"test","path":"/a/b","value":1},
+                 {"op":"move","from":"/a/b","path":"/c"},
+                 {"op":"copy","from":"/c","path":"/list/-"},
+                 {"op":"add","path":"/list/0","value":0}]""");
+
+        assertEquals(objectMapper.readTree("{\"a\":{},\"list\":[0,1,2,1],\"c\":1}"), JsonPatch.apply(document, patch));
+    }
+
+    @Test
+    void apply_shouldRejectMissingPathsAndFailedTests() throws Exception {
+        JsonNode document = objectMapper.readTree("{\"a\":1}");
+
+        assertThrows(IllegalArgumentException.class, () -> JsonPatch.apply(document,
+                objectMapper.readTree("[{\"op\":\"remove\",\"path\":\"/b\"}]")));
+        assertThrows(IllegalArgumentException.class, () -> JsonPatch.apply(document,
+                objectMapper.readTree("[{\"op\":\"test\",\"path\":\"/a\",\"value\":2}]")));
+        assertThrows(IllegalArgumentException.class, () -> JsonPatch.apply(document,
+                objectMapper.readTree("[{\"op\":\"add\",\"path\":\"/x/y\",\"value\":2}]")));
+    }
+}
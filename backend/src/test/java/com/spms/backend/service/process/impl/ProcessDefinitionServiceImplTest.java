@@ -1,5 +1,6 @@
 package com.spms.backend.service.process.impl;
 
+import com.spms.backend.config.DefinitionCacheProperties;
 import com.spms.backend.repository.entities.idm.User;
 import com.spms.backend.repository.entities.process.ProcessDefinitionEntity;
 import com.spms.backend.repository.entities.process.ProcessVersionStatus;
@@ -27,6 +28,7 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mock;
 import org.mockito.MockitoAnnotations;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
@@ -66,6 +68,9 @@ public class ProcessDefinitionServiceImplTest {
     @Mock
     FormVersionRepository formVersionRepository;
 
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
     private final String TEST_DEFINITION_ID = "testDef123";
     private final Long TEST_VERSION_ID = 1L;
     private final String TEST_VERSION = "1.0.0";
@@ -81,7 +86,9 @@ public class ProcessDefinitionServiceImplTest {
             userService,
             processVersionRepository,
             processDefinitionRepository,
-                formVersionRepository
+                formVersionRepository,
+                eventPublisher,
+                new DefinitionCacheImpl(new DefinitionCacheProperties())
         );
         
         userModelFulfilledSupporter = new UserModelFulfilledSupporterImpl(userService);
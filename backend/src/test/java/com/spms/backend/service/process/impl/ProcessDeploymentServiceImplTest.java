@@ -8,6 +8,7 @@ import com.spms.backend.repository.process.ProcessVersionRepository;
 import com.spms.backend.service.exception.NotFoundException;
 import com.spms.backend.service.exception.SpmsRuntimeException;
 import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.process.DefinitionCache;
 import org.flowable.engine.ProcessEngine;
 import org.flowable.engine.RepositoryService;
 import org.flowable.engine.repository.Deployment;
@@ -15,6 +16,7 @@ import org.flowable.engine.repository.DeploymentBuilder;
 import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
@@ -43,6 +45,12 @@ public class ProcessDeploymentServiceImplTest {
     @Mock
     private ProcessEngine flowableEngine;
 
+    @Mock
+    private DefinitionCache definitionCache;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
     @InjectMocks
     private ProcessDeploymentServiceImpl processDeploymentService;
 
@@ -0,0 +1,87 @@
+package com.spms.backend.service.process.validation;
+
+import com.spms.backend.repository.process.FormVersionRepository;
+import com.spms.backend.service.exception.ValidationException;
+import com.spms.backend.service.model.process.FormDefinitionModel;
+import com.spms.backend.service.process.FormInstanceService;
+import com.spms.backend.service.process.FormService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class FormValidationPlanCacheTest {
+
+    private static final String FORM_KEY = "leave-request";
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private FormService formService;
+
+    @Autowired
+    private FormInstanceService formInstanceService;
+
+    @Autowired
+    private FormValidationPlanCache planCache;
+
+    @Autowired
+    private FormVersionRepository formVersionRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM \"spms_form_instance\" WHERE \"form_key\" = ?", FORM_KEY);
+        formVersionRepository.deleteAll(formVersionRepository.findAll().stream()
+                .filter(x -> FORM_KEY.equals(x.getKey())).toList());
+    }
+
+    @Test
+    void create_shouldValidateAgainstTheStoredDefinition() {
+        createVersion("1.0.0", """
+                {"components": [{"type": "number", "key": "days", "validate": {"required": true, "min": 1, "max": 30}}]}
+                """);
+
+        ValidationException exception = assertThrows(ValidationException.class,
+                () -> formInstanceService.create(FORM_KEY, "1.0.0", Map.of("days", 45)));
+        assertEquals("Invalid form data: days must be at most 30", exception.getMessage());
+        assertNotNull(formInstanceService.create(FORM_KEY, "1.0.0", Map.of("days", 5)).getId());
+        // Versions without a definition keep accepting any non-empty data
+        assertNotNull(formInstanceService.create(FORM_KEY, "9.0.0", Map.of("days", 45)).getId());
+    }
+
+    @Test
+    void get_shouldCompileEachVersionOnceUntilFormVersionsChange() {
+        createVersion("1.0.0", "{\"components\": []}");
+
+        FormValidationPlan plan = planCache.get(FORM_KEY, "1.0.0");
+        assertSame(plan, planCache.get(FORM_KEY, "1.0"));
+        assertNull(planCache.get(FORM_KEY, "2.0.0"));
+
+        createVersion("2.0.0", "{\"components\": [{\"type\": \"textfield\", \"key\": \"reason\"}]}");
+
+        assertNotSame(plan, planCache.get(FORM_KEY, "1.0.0"));
+        assertEquals(1, planCache.get(FORM_KEY, "2.0.0").getFieldCount());
+    }
+
+    private void createVersion(String version, String definition) {
+        FormDefinitionModel model = new FormDefinitionModel();
+        model.setVersion(version);
+        model.setDefinition(definition);
+        model.setName("Leave request");
+        formService.createFormVersion(FORM_KEY, model);
+    }
+}
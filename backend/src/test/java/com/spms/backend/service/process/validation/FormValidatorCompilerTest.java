@@ -0,0 +1,110 @@
+package com.spms.backend.service.process.validation;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FormValidatorCompilerTest {
+
+    private static final String DEFINITION = """
+            {
+              "type": "default",
+              "components": [
+                {"type": "text", "text": "# Expense claim"},
+                {"type": "textfield", "key": "title", "validate": {"required": true, "minLength": 3, "maxLength": 20}},
+                {"type": "textfield", "key": "email", "validate": {"validationType": "email"}},
+                {"type": "textfield", "key": "code", "validate": {"pattern": "^[A-Z]{2}-\\\\d+$"}},
+                {"type": "number", "key": "amount", "decimalDigits": 2, "validate": {"required": true, "min": 1, "max": 50000}},
+                {"type": "select", "key": "costCenter", "values": [{"label": "A", "value": "CC-100"}, {"label": "B", "value": "CC-200"}]},
+                {"type": "checklist", "key": "tags", "values": [{"label": "Travel", "value": "travel"}, {"label": "Meal", "value": "meal"}]},
+                {"type": "checkbox", "key": "urgent"},
+                {"type": "datetime", "key": "spentOn", "subtype": "date", "validate": {"required": true}},
+                {"type": "textfield", "key": "reason", "validate": {"required": true}, "conditional": {"hide": "=urgent = false"}},
+                {"type": "textfield", "key": "approver.name", "validate": {"required": true}},
+                {"type": "group", "path": "bank", "components": [
+                  {"type": "textfield", "key": "iban", "validate": {"required": true}}
+                ]},
+                {"type": "dynamiclist", "path": "items", "components": [
+                  {"type": "textfield", "key": "description", "validate": {"required": true}},
+                  {"type": "number", "key": "cost", "validate": {"min": 0}}
+                ]}
+              ]
+            }
+            """;
+
+    private final FormValidationPlan plan = FormValidatorCompiler.compile(DEFINITION);
+
+    @Test
+    void validate_shouldAcceptValidDataAndIgnoreUndeclaredKeys() {
+        Map<String, Object> data = Map.ofEntries(
+                Map.entry("title", "Trip to Berlin"),
+                Map.entry("email", "alice@example.com"),
+                Map.entry("code", "DE-42"),
+                Map.entry("amount", "1234.50"),
+                Map.entry("costCenter", "CC-100"),
+                Map.entry("tags", List.of("travel")),
+                Map.entry("urgent", true),
+                Map.entry("spentOn", "2026-10-01"),
+                Map.entry("approver", Map.of("name", "Bob")),
+                Map.entry("bank", Map.of("iban", "DE89370400440532013000")),
+                Map.entry("items", List.of(Map.of("description", "Train", "cost", 120))),
+                Map.entry("processVariable", "anything"));
+
+        assertEquals(List.of(), plan.validate(data));
+        assertEquals(13, plan.getFieldCount());
+    }
+
+    @Test
+    void validate_shouldReportEveryViolationWithItsPath() {
+        Map<String, Object> data = Map.of(
+                "title", "ab",
+                "email", "not-an-email",
+                "code", "de-42",
+                "amount", 60000.123,
+                "costCenter", "CC-999",
+                "tags", List.of("travel", "golf"),
+                "urgent", "yes",
+                "spentOn", "01/10/2026",
+                "items", List.of(Map.of("cost", -1), "oops"));
+
+        List<String> violations = plan.validate(data);
+
+        assertTrue(violations.containsAll(List.of(
+                "title must have at least 3 characters",
+                "email must be a valid email address",
+                "code does not match the required pattern",
+                "amount must be at most 50000",
+                "urgent must be true or false",
+                "spentOn must be a date (yyyy-MM-dd)",
+                "items[0].description is required",
+                "items[0].cost must be at least 0",
+                "items[1] must be an object",
+                "approver.name is required",
+                "bank.iban is required")), violations::toString);
+        // Allowed values are listed in no particular order
+        assertTrue(violations.stream().anyMatch(x -> x.startsWith("costCenter must be one of")), violations::toString);
+        assertTrue(violations.stream().anyMatch(x -> x.startsWith("tags must only contain values of")),
+                violations::toString);
+        assertFalse(violations.stream().anyMatch(x -> x.startsWith("reason")), violations::toString);
+    }
+
+    @Test
+    void validate_shouldTreatEmptyValuesAsMissing() {
+        List<String> violations = plan.validate(Map.of("title", "", "amount", "abc", "bank", Map.of()));
+
+        assertTrue(violations.contains("title is required"), violations::toString);
+        assertTrue(violations.contains("amount must be a number"), violations::toString);
+        assertTrue(violations.contains("bank.iban is required"), violations::toString);
+        assertTrue(violations.contains("spentOn is required"), violations::toString);
+    }
+
+    @Test
+    void compile_shouldRejectMalformedDefinition() {
+        assertThrows(IllegalArgumentException.class, () -> FormValidatorCompiler.compile("{not json"));
+        assertThrows(IllegalArgumentException.class, () -> FormValidatorCompiler.compile("[]"));
+        assertEquals(0, FormValidatorCompiler.compile("{}").getFieldCount());
+    }
+}
@@ -0,0 +1,92 @@
+package com.spms.backend.service.search.impl;
+
+import com.spms.backend.service.model.search.SearchDocumentType;
+import com.spms.backend.service.search.impl.FullTextIndex.Document;
+import com.spms.backend.service.search.impl.FullTextIndex.Match;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FullTextIndexTest {
+
+    @Test
+    void search_shouldRequireEveryWordAndRankTitlesFirst() {
+        FullTextIndex index = new FullTextIndex();
+        index.put(document(SearchDocumentType.ROLE, 1, "Payroll approver", "Approves payroll runs"));
+        index.put(document(SearchDocumentType.DEPARTMENT, 2, "Finance", "Owns payroll and approver rotation"));
+        index.put(document(SearchDocumentType.COMPANY, 3, "Payroll services", null));
+
+        assertEquals(List.of(1L, 2L), ids(index.search("payroll approver")));
+        assertEquals(2L, ids(index.search("payroll")).get(2));
+    }
+
+    @Test
+    void search_shouldMatchLastWordAsPrefix() {
+        FullTextIndex index = new FullTextIndex();
+        index.put(document(SearchDocumentType.FORM_VERSION, 1, "Leave request", null));
+        index.put(document(SearchDocumentType.FORM_VERSION, 2, "Leaver checklist", null));
+        index.put(document(SearchDocumentType.FORM_VERSION, 3, "Leave", null));
+
+        assertEquals(List.of(3L, 1L, 2L), ids(index.search("leave")));
+        assertEquals(List.of(1L), ids(index.search("leave req")));
+        assertTrue(index.search("req leave").isEmpty());
+    }
+
+    @Test
+    void search_shouldMatchSingleHanCharacters() {
+        FullTextIndex index = new FullTextIndex();
+        index.put(document(SearchDocumentType.DEPARTMENT, 1, "财务部", null));
+        index.put(document(SearchDocumentType.DEPARTMENT, 2, "人事部", null));
+
+        assertEquals(List.of(1L), ids(index.search("财务")));
+        assertEquals(2, index.search("部").size());
+    }
+
+    @Test
+    void writeTo_shouldRoundTripDocuments() throws IOException {
+        FullTextIndex index = new FullTextIndex();
+        index.put(new Document(SearchDocumentType.USER, 7, "jane.doe", "jane@example.com", null, "STAFF", null));
+        index.put(document(SearchDocumentType.ROLE, 8, "Auditor", "Reads everything"));
+        index.remove(SearchDocumentType.ROLE, 8);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.writeTo(out);
+        FullTextIndex copy = FullTextIndex.readFrom(new ByteArrayInputStream(out.toByteArray()));
+
+        assertEquals(1, copy.size());
+        Document user = copy.search("example").get(0).document();
+        assertEquals(new Document(SearchDocumentType.USER, 7, "jane.doe", "jane@example.com", null, "STAFF", null), user);
+        assertTrue(copy.search("auditor").isEmpty());
+    }
+
+    @Test
+    void readFrom_shouldRejectCorruptLengths() throws IOException {
+        FullTextIndex index = new FullTextIndex();
+        index.put(document(SearchDocumentType.ROLE, 1, "Auditor", null));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        index.writeTo(out);
+        byte[] bytes = out.toByteArray();
+        // version, count, type name (2 + 4 bytes), id; the title length follows
+        ByteBuffer.wrap(bytes).putInt(4 + 4 + 2 + 4 + 8, Integer.MAX_VALUE);
+
+        assertThrows(IOException.class, () -> FullTextIndex.readFrom(new ByteArrayInputStream(bytes)));
+    }
+
+    private static Document document(SearchDocumentType type, long id, String title, String text) {
+        return new Document(type, id, title, null, text, null, null);
+    }
+
+    private static List<Long> ids(List<Match> matches) {
+        return matches.stream()
+                .sorted(Comparator.comparingDouble(Match::score).reversed())
+                .map(x -> x.document().id())
+                .toList();
+    }
+}
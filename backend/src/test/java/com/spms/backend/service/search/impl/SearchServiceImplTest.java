@@ -0,0 +1,128 @@
+package com.spms.backend.service.search.impl;
+
+import com.spms.backend.repository.entities.idm.Company;
+import com.spms.backend.repository.entities.idm.CompanyType;
+import com.spms.backend.repository.idm.CompanyRepository;
+import com.spms.backend.repository.process.FormVersionRepository;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.ChangeType;
+import com.spms.backend.service.idm.event.OrganizationChangedEvent.EntityType;
+import com.spms.backend.service.model.process.FormDefinitionModel;
+import com.spms.backend.service.model.search.SearchDocumentType;
+import com.spms.backend.service.model.search.SearchFacet;
+import com.spms.backend.service.model.search.SearchHit;
+import com.spms.backend.service.model.search.SearchResult;
+import com.spms.backend.service.process.FormService;
+import com.spms.backend.service.process.event.ProcessCatalogChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.security.oauth2.client.registration.ClientRegistrationRepository;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class SearchServiceImplTest {
+
+    @MockitoBean
+    private ClientRegistrationRepository clientRegistrationRepository;
+
+    @Autowired
+    private SearchServiceImpl searchService;
+
+    @Autowired
+    private FormService formService;
+
+    @Autowired
+    private FormVersionRepository formVersionRepository;
+
+    @Autowired
+    private CompanyRepository companyRepository;
+
+    @Autowired
+    private ApplicationEventPublisher eventPublisher;
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        formVersionRepository.deleteAll();
+        companyRepository.deleteAll();
+        searchService.reindex();
+        awaitIndexed();
+    }
+
+    @Test
+    void formChanges_shouldBeIndexedAsynchronously() throws InterruptedException {
+        formService.createFormVersion("quarterly-review", form("Quarterly review", "1.0.0"));
+        formService.createFormVersion("quarterly-review", form("Quarterly review", "2.0.0"));
+        awaitIndexed();
+
+        SearchResult result = search("quarterly rev", Set.of(SearchDocumentType.FORM_VERSION), Map.of());
+        assertEquals(2, result.total());
+        assertEquals("quarterly-review", result.hits().get(0).subtitle());
+
+        assertEquals(Map.of("ACTIVE", 2L), result.facets().get(SearchFacet.STATUS));
+
+        Long removed = result.hits().get(0).id();
+        formVersionRepository.deleteById(removed);
+        eventPublisher.publishEvent(new ProcessCatalogChangedEvent(this,
+                ProcessCatalogChangedEvent.EntityType.FORM_VERSION, ProcessCatalogChangedEvent.ChangeType.DELETED, removed));
+        awaitIndexed();
+
+        assertEquals(1, search("quarterly", Set.of(), Map.of()).total());
+    }
+
+    @Test
+    void search_shouldFilterAndCountFacets() throws InterruptedException {
+        publish(createCompany("Facet holdings", CompanyType.GROUP, true));
+        publish(createCompany("Facet trading", CompanyType.BUSINESS_ENTITY, true));
+        publish(createCompany("Facet dormant", CompanyType.BUSINESS_ENTITY, false));
+        awaitIndexed();
+
+        SearchResult result = search("facet", Set.of(SearchDocumentType.COMPANY),
+                Map.of(SearchFacet.CATEGORY, "BUSINESS_ENTITY", SearchFacet.STATUS, "ACTIVE"));
+
+        assertEquals(List.of("Facet trading"), result.hits().stream().map(SearchHit::title).toList());
+        // Each facet counts the matches of the other filters, so alternatives stay visible
+        assertEquals(Map.of("BUSINESS_ENTITY", 1L, "GROUP", 1L), result.facets().get(SearchFacet.CATEGORY));
+        assertEquals(Map.of("ACTIVE", 1L, "INACTIVE", 1L), result.facets().get(SearchFacet.STATUS));
+        assertEquals(Map.of("COMPANY", 1L), result.facets().get(SearchFacet.TYPE));
+    }
+
+    private SearchResult search(String query, Set<SearchDocumentType> types, Map<SearchFacet, String> filters) {
+        return searchService.search(query, types, filters, 0, 20);
+    }
+
+    private void awaitIndexed() throws InterruptedException {
+        assertTrue(searchService.awaitIndexed(Duration.ofSeconds(10)));
+    }
+
+    private void publish(Company company) {
+        eventPublisher.publishEvent(new OrganizationChangedEvent(this, EntityType.COMPANY, ChangeType.CREATED, company.getId()));
+    }
+
+    private Company createCompany(String name, CompanyType type, boolean active) {
+        Company company = new Company();
+        company.setName(name);
+        company.setCompanyType(type);
+        company.setActive(active);
+        return companyRepository.save(company);
+    }
+
+    private static FormDefinitionModel form(String name, String version) {
+        FormDefinitionModel model = new FormDefinitionModel();
+        model.setName(name);
+        model.setVersion(version);
+        model.setDefinition("{}");
+        return model;
+    }
+}